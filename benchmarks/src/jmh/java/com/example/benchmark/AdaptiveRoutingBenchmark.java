@@ -0,0 +1,140 @@
+package com.example.benchmark;
+
+import com.example.client.AdaptiveClientImpl;
+import com.example.client.Client;
+import com.example.client.GrpcClientImpl;
+import com.example.client.adaptive.AdaptiveRoutingSettings;
+import com.example.grpc.GrpcServiceApplication;
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST 만, gRPC 만, 적응형(AdaptiveClientImpl) 으로 같은 /api/message 호출을 보냈을 때의 처리량.
+ * 호출 하나(op)는 inFlight 개의 비동기 호출을 보내고 모두 기다린다. 성공/실패 수는 calls 카운터로 따로 나온다.
+ *
+ * gRPC 는 unary 지연(grpc.service.unary.delay-ms, 기본 2초)을 grpcDelayMs 로 바꾼 서버를 따로 띄운다.
+ * grpcDown=true 이면 gRPC 클라이언트를 서버가 없는 포트에 붙여, 한쪽이 망가졌을 때 적응형 클라이언트가 REST 로 넘어가는지 본다.
+ * 끝나면 크기 구간별 마지막 결정과 이유별 선택 횟수를 출력한다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=AdaptiveRoutingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdaptiveRoutingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean grpcDown;
+
+    @Param({"0"})
+    public long grpcDelayMs;
+
+    @Param({"32"})
+    public int inFlight;
+
+    private ConfigurableApplicationContext grpcContext;
+    private GrpcClientImpl grpc;
+    private SimpleMeterRegistry registry;
+    private Client restClient;
+    private Client grpcClient;
+    private AdaptiveClientImpl adaptiveClient;
+
+    @Setup(Level.Trial)
+    public void start(TransportServers servers) {
+        int grpcPort = TransportServers.freePort();
+        if (!grpcDown) {
+            grpcContext = ServiceConfig.builder("grpc-service", GrpcServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--grpc.server.port=" + grpcPort,
+                            "--grpc.service.unary.delay-ms=" + grpcDelayMs);
+        }
+        grpc = new GrpcClientImpl(TransportServers.LOCALHOST, grpcPort);
+        registry = new SimpleMeterRegistry();
+        adaptiveClient = new AdaptiveClientImpl(servers.restClient, grpc, AdaptiveRoutingSettings.DEFAULT,
+                new MessageLogSettings(MessageLogMode.SUMMARY, 0, 10), registry);
+        restClient = servers.restClient;
+        grpcClient = grpc;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        StringBuilder routes = new StringBuilder();
+        for (Counter counter : registry.find("msa.adaptive.routes").counters()) {
+            if (counter.count() > 0) {
+                routes.append(String.format("%n  size=%s, transport=%s, reason=%s: %.0f",
+                        counter.getId().getTag("size"), counter.getId().getTag("transport"),
+                        counter.getId().getTag("reason"), counter.count()));
+            }
+        }
+        System.out.printf("%n[Adaptive] grpcDown=%s, last decisions=%s%s%n", grpcDown, adaptiveClient.lastDecisions(), routes);
+        if (grpc != null) {
+            grpc.shutdown();
+        }
+        if (grpcContext != null) {
+            grpcContext.close();
+        }
+    }
+
+    @Benchmark
+    public void rest(Payload payload, Calls calls) {
+        send(restClient, payload, calls);
+    }
+
+    @Benchmark
+    public void grpc(Payload payload, Calls calls) {
+        send(grpcClient, payload, calls);
+    }
+
+    @Benchmark
+    public void adaptive(Payload payload, Calls calls) {
+        send(adaptiveClient, payload, calls);
+    }
+
+    private void send(Client client, Payload payload, Calls calls) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        CompletableFuture<Boolean>[] futures = new CompletableFuture[inFlight];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = client.sendMessageAsync(payload.content).handle((reply, error) -> error == null);
+        }
+        CompletableFuture.allOf(futures).join();
+        // 콜백은 I/O 스레드에서 돌므로 카운터는 모두 끝난 뒤 벤치마크 스레드에서 센다.
+        for (CompletableFuture<Boolean> future : futures) {
+            if (future.join()) {
+                calls.succeeded++;
+            } else {
+                calls.failed++;
+            }
+        }
+    }
+
+    // 스레드별 성공/실패 호출 수. JMH 가 초당(ms당) 값으로 함께 출력한다.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Calls {
+        public long succeeded;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.benchmark;
+
+import com.example.client.ChatSession;
+import com.example.client.GrpcClientImpl;
+import com.example.client.WebSocketClientImpl;
+import com.example.grpc.ChatMessage;
+import com.example.grpc.GrpcServiceApplication;
+import com.example.websocket.WebSocketServiceApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 채팅(양방향 스트리밍)을 gRPC Chat RPC 와 WebSocket /ws/chat 으로 비교한다.
+ *
+ * connections 개의 채팅 세션을 열고 세션마다 다른 방에 넣는다. op 하나는 모든 세션이 burst 개씩 보내고
+ * 서버 확인 응답(echo-to-sender)을 모두 받을 때까지다. 초당 메시지 수 = ops/s × connections × burst.
+ * 연결당 메모리는 세션을 열기 전후의 힙 사용량과 direct 버퍼 사용량 차이를 connections 로 나눠 출력한다.
+ * 서버와 클라이언트가 같은 JVM 에 있으므로 양쪽 몫을 합한 값이다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=ChatTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChatTransportBenchmark {
+
+    public enum Transport { GRPC, WEBSOCKET }
+
+    @Param({"GRPC", "WEBSOCKET"})
+    public Transport transport;
+
+    @Param({"1", "100", "1000"})
+    public int connections;
+
+    @Param({"100"})
+    public int burst;
+
+    private ConfigurableApplicationContext serverContext;
+    private GrpcClientImpl grpcClient;
+    private WebSocketClientImpl webSocketClient;
+    private final List<ChatSession> sessions = new ArrayList<>();
+    private final Semaphore received = new Semaphore(0);
+
+    @Setup(Level.Trial)
+    public void start() {
+        // 벤치마크 classpath 에는 gRPC 스타터와 web 스타터가 모두 있으므로 필요 없는 서버는 꺼둔다.
+        if (transport == Transport.GRPC) {
+            int grpcPort = TransportServers.freePort();
+            serverContext = ServiceConfig.builder("grpc-service", GrpcServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--grpc.server.port=" + grpcPort);
+            grpcClient = new GrpcClientImpl(TransportServers.LOCALHOST, grpcPort);
+        } else {
+            serverContext = ServiceConfig.builder("websocket-service", WebSocketServiceApplication.class)
+                    .run("--server.port=0", "--grpc.server.port=-1");
+            int port = ((WebServerApplicationContext) serverContext).getWebServer().getPort();
+            webSocketClient = new WebSocketClientImpl(TransportServers.LOCALHOST, port);
+        }
+
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        Consumer<ChatMessage> listener = message -> received.release();
+        for (int i = 0; i < connections; i++) {
+            String user = "bench-user-" + i;
+            String room = "bench-" + i;
+            sessions.add(transport == Transport.GRPC
+                    ? grpcClient.openChat(user, room, listener)
+                    : webSocketClient.openChat(user, room, listener));
+        }
+        // 연결이 실제로 열리도록 한 번씩 주고받은 뒤에 잰다.
+        exchange(1);
+        long heapPerConnection = (usedHeap() - heapBefore) / connections;
+        long directPerConnection = (usedDirect() - directBefore) / connections;
+        System.out.printf("%n[Chat] %s connections=%d: heap/connection=%d B, direct/connection=%d B%n",
+                transport, connections, heapPerConnection, directPerConnection);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        sessions.forEach(ChatSession::close);
+        sessions.clear();
+        if (grpcClient != null) {
+            grpcClient.shutdown();
+        }
+        if (webSocketClient != null) {
+            webSocketClient.shutdown();
+        }
+        if (serverContext != null) {
+            serverContext.close();
+        }
+    }
+
+    // 모든 세션이 burst 개씩 보내고 확인 응답을 모두 받는다. (op 하나 = connections × burst 메시지)
+    @Benchmark
+    public int chat() {
+        return exchange(burst);
+    }
+
+    private int exchange(int messagesPerSession) {
+        for (int n = 0; n < messagesPerSession; n++) {
+            for (ChatSession session : sessions) {
+                session.send("hello");
+            }
+        }
+        int expected = messagesPerSession * sessions.size();
+        try {
+            if (!received.tryAcquire(expected, 30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("chat replies timed out: expected " + expected + ", got " + received.availablePermits());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return expected;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
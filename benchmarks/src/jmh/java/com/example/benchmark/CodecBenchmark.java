@@ -0,0 +1,91 @@
+package com.example.benchmark;
+
+import com.example.codec.BufferPool;
+import com.example.codec.CodecException;
+import com.example.codec.MessageCodec;
+import com.example.codec.MessageCodecs;
+import com.example.dto.MessageRequest;
+import com.example.grpc.MessageRequestGrpc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * common 코덱(MessageCodecs)의 요청 메시지 인코딩/디코딩 비용.
+ *
+ * - encodePooled: BufferPool 버퍼에 인코딩하고 돌려준다. 전송 계층이 ByteBuffer 를 받는 경로(WebSocket, REST 서버)
+ * - encodeToArray: 메시지마다 크기에 맞는 byte[] 를 만든다. byte[] 만 받는 API(Kafka 프로듀서, AMQP, HTTP 클라이언트) 경로
+ * - decode: 인코딩된 버퍼에서 복사 없이 읽는다.
+ * -prof gc 로 실행하면 gc.alloc.rate.norm 에서 두 인코딩 경로의 메시지당 할당량 차이를 볼 수 있다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=CodecBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBenchmark {
+
+    public enum Format {
+        JSON, PROTOBUF, BINARY
+    }
+
+    @Param({"JSON", "PROTOBUF", "BINARY"})
+    public Format codec;
+
+    @Param({"16", "1024", "16384"})
+    public int payloadSize;
+
+    private MessageCodec<Object> messageCodec;
+    private Object message;
+    private BufferPool pool;
+    private ByteBuffer encoded;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void build() {
+        String content = "a".repeat(payloadSize);
+        switch (codec) {
+            case PROTOBUF -> {
+                messageCodec = (MessageCodec<Object>) (MessageCodec<?>) MessageCodecs.REQUEST_PROTOBUF;
+                message = MessageRequestGrpc.newBuilder().setContent(content).build();
+            }
+            case BINARY -> {
+                messageCodec = (MessageCodec<Object>) (MessageCodec<?>) MessageCodecs.REQUEST_BINARY;
+                message = new MessageRequest(content);
+            }
+            default -> {
+                messageCodec = (MessageCodec<Object>) (MessageCodec<?>) MessageCodecs.REQUEST_JSON;
+                message = new MessageRequest(content);
+            }
+        }
+        // 스레드마다 풀을 따로 두어 풀 경합이 아니라 코덱 비용만 본다.
+        pool = new BufferPool(256, 1024 * 1024, 4);
+        encoded = ByteBuffer.wrap(messageCodec.encodeToArray(message));
+    }
+
+    @Benchmark
+    public int encodePooled() {
+        ByteBuffer buffer = messageCodec.encode(message, pool);
+        int size = buffer.remaining();
+        pool.release(buffer);
+        return size;
+    }
+
+    @Benchmark
+    public byte[] encodeToArray() {
+        return messageCodec.encodeToArray(message);
+    }
+
+    @Benchmark
+    public Object decode() throws CodecException {
+        return messageCodec.decode(encoded.duplicate());
+    }
+}
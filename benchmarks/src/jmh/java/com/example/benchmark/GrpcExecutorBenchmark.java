@@ -0,0 +1,95 @@
+package com.example.benchmark;
+
+import com.example.grpc.GrpcServiceApplication;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.grpc.MessageServiceGrpc;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * grpc.service.executor.type 별 동시 Unary 처리량.
+ * 한 번의 호출(invocation)마다 inFlight 개의 Unary 요청을 동시에 보내고 모두 끝날 때까지 기다린다.
+ * calls 카운터가 초당 완료된 RPC 수이다. VIRTUAL 은 Java 21 이상 JVM에서만 실행된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GrpcExecutorBenchmark {
+
+    @Param({"CACHED", "BOUNDED", "VIRTUAL", "DIRECT"})
+    public String executor;
+
+    @Param({"64", "1024"})
+    public int inFlight;
+
+    @Param({"10"})
+    public long delayMs;
+
+    private ConfigurableApplicationContext grpcContext;
+    private ManagedChannel channel;
+    private MessageServiceGrpc.MessageServiceFutureStub futureStub;
+    private MessageRequestGrpc request;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Calls {
+        public long calls;
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        int port = TransportServers.freePort();
+        grpcContext = ServiceConfig.builder("grpc-service", GrpcServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--grpc.server.port=" + port,
+                        "--grpc.service.executor.type=" + executor,
+                        "--grpc.service.unary.delay-ms=" + delayMs);
+        channel = ManagedChannelBuilder.forAddress(TransportServers.LOCALHOST, port)
+                .usePlaintext()
+                .build();
+        futureStub = MessageServiceGrpc.newFutureStub(channel);
+        request = MessageRequestGrpc.newBuilder().setContent("executor-benchmark").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        if (channel != null) {
+            channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (grpcContext != null) {
+            grpcContext.close();
+        }
+    }
+
+    @Benchmark
+    public List<MessageResponseGrpc> concurrentUnary(Calls calls) throws ExecutionException, InterruptedException {
+        List<ListenableFuture<MessageResponseGrpc>> futures = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            futures.add(futureStub.sendUnaryMessage(request));
+        }
+        List<MessageResponseGrpc> responses = Futures.allAsList(futures).get();
+        calls.calls += inFlight;
+        return responses;
+    }
+}
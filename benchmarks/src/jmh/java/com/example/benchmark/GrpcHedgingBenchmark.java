@@ -0,0 +1,112 @@
+package com.example.benchmark;
+
+import com.example.client.GrpcClientImpl;
+import com.example.client.grpc.GrpcChannelPool;
+import com.example.client.grpc.HedgingClientInterceptor;
+import com.example.grpc.GrpcServiceApplication;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unary 헤징(HedgingClientInterceptor) 유무에 따른 꼬리 지연.
+ * 백엔드 3개 중 하나를 일부러 느리게(slowDelayMs) 띄우므로, 헤징이 없으면 느린 백엔드에 걸린 호출 때문에 p99 가 slowDelayMs 에 붙는다.
+ * SampleTime 결과의 p0.99 를 hedging=false / true 로 비교한다.
+ * round_robin 은 헤징 시도도 다른 호출과 섞여 돌아가며 고르므로 일부는 다시 느린 백엔드로 가고,
+ * least_loaded 는 같은 호출이 이미 시도한 백엔드를 피하므로 헤징 효과가 p99 까지 나타난다.
+ *
+ * 느린 호출 비율(1/3)보다 낮은 백분위여야 헤징 지연이 빠른 응답 수준으로 잡히므로 percentile 기본값은 50 이다.
+ * (실제 서비스처럼 느린 호출이 드물면 95 같은 높은 백분위로도 충분하다.)
+ * Trial 이 끝나면 시도별 지표(msa.grpc.attempts)를 출력해 헤징으로 늘어난 요청 수를 함께 확인할 수 있다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhThreads=4 -PjmhIncludes=GrpcHedgingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GrpcHedgingBenchmark {
+
+    private static final int BACKENDS = 3;
+
+    @Param({"false", "true"})
+    public boolean hedging;
+
+    @Param({"round_robin", "least_loaded"})
+    public String policy;
+
+    @Param({"50"})
+    public double percentile;
+
+    @Param({"5"})
+    public long delayMs;
+
+    @Param({"200"})
+    public long slowDelayMs;
+
+    @Param({"1000"})
+    public long deadlineMs;
+
+    private final List<ConfigurableApplicationContext> backends = new ArrayList<>();
+    private SimpleMeterRegistry registry;
+    private HedgingClientInterceptor hedgingInterceptor;
+    private GrpcChannelPool channelPool;
+    private GrpcClientImpl grpcClient;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < BACKENDS; i++) {
+            int port = TransportServers.freePort();
+            long delay = i == 0 ? slowDelayMs : delayMs;
+            backends.add(ServiceConfig.builder("grpc-service", GrpcServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--grpc.server.port=" + port,
+                            "--grpc.service.unary.delay-ms=" + delay));
+            addresses.add(TransportServers.LOCALHOST + ":" + port);
+        }
+        registry = new SimpleMeterRegistry();
+        hedgingInterceptor = new HedgingClientInterceptor(hedging, List.of("MessageService/SendUnaryMessage"),
+                2, percentile, 100, 1, registry);
+        channelPool = new GrpcChannelPool(addresses, 1, policy, 60, 10, 300, deadlineMs, List.of(hedgingInterceptor));
+        grpcClient = new GrpcClientImpl(channelPool);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (grpcClient != null) {
+            grpcClient.shutdown();
+        }
+        if (channelPool != null) {
+            channelPool.shutdown();
+        }
+        hedgingInterceptor.shutdown();
+        StringBuilder attempts = new StringBuilder();
+        for (Timer timer : registry.find("msa.grpc.attempts").timers()) {
+            attempts.append(String.format("%n  attempt=%s, outcome=%s: %d calls, mean %.1fms",
+                    timer.getId().getTag("attempt"), timer.getId().getTag("outcome"),
+                    timer.count(), timer.mean(TimeUnit.MILLISECONDS)));
+        }
+        System.out.printf("%n[Hedging] hedging=%s, policy=%s, percentile=%s%s%n", hedging, policy, percentile, attempts);
+        backends.forEach(ConfigurableApplicationContext::close);
+        backends.clear();
+    }
+
+    @Benchmark
+    public String unary() {
+        return grpcClient.sendMessage("hedging-benchmark");
+    }
+}
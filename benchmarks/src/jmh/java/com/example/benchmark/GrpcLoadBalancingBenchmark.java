@@ -0,0 +1,117 @@
+package com.example.benchmark;
+
+import com.example.client.GrpcClientImpl;
+import com.example.client.grpc.GrpcChannelPool;
+import com.example.grpc.GrpcServiceApplication;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 grpc-service 인스턴스에 대한 클라이언트 로드밸런싱.
+ * 백엔드 3개 중 하나는 일부러 느리게(slowDelayMs) 띄워서 round_robin 과 least_loaded 의 차이를 본다.
+ * Trial 이 끝나면 백엔드별 처리 건수를 출력하므로 요청이 어떻게 분산되었는지 확인할 수 있다.
+ * 여러 스레드(-PjmhThreads=16 등)로 실행해야 동시 호출이 생겨 정책 차이가 드러난다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GrpcLoadBalancingBenchmark {
+
+    private static final int BACKENDS = 3;
+
+    @Param({"round_robin", "least_loaded"})
+    public String policy;
+
+    @Param({"1", "4"})
+    public int channels;
+
+    @Param({"2"})
+    public long delayMs;
+
+    @Param({"20"})
+    public long slowDelayMs;
+
+    private final List<ConfigurableApplicationContext> backends = new ArrayList<>();
+    private GrpcChannelPool channelPool;
+    private GrpcClientImpl grpcClient;
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < BACKENDS; i++) {
+            int port = TransportServers.freePort();
+            long delay = i == 0 ? slowDelayMs : delayMs;
+            backends.add(ServiceConfig.builder("grpc-service", GrpcServiceApplication.class, CallCounterConfig.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--grpc.server.port=" + port,
+                            "--grpc.service.unary.delay-ms=" + delay));
+            addresses.add(TransportServers.LOCALHOST + ":" + port);
+        }
+        channelPool = new GrpcChannelPool(addresses, channels, policy, 60, 10, 300);
+        grpcClient = new GrpcClientImpl(channelPool);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (grpcClient != null) {
+            grpcClient.shutdown();
+        }
+        if (channelPool != null) {
+            channelPool.shutdown();
+        }
+        StringBuilder distribution = new StringBuilder();
+        for (int i = 0; i < backends.size(); i++) {
+            long calls = backends.get(i).getBean(CallCounterConfig.class).calls.get();
+            distribution.append(String.format("%n  backend-%d (delay %dms): %d calls", i, i == 0 ? slowDelayMs : delayMs, calls));
+        }
+        System.out.printf("%n[LoadBalancing] policy=%s, channels=%d%s%n", policy, channels, distribution);
+        backends.forEach(ConfigurableApplicationContext::close);
+        backends.clear();
+    }
+
+    @Benchmark
+    public String unary() {
+        return grpcClient.sendMessage("lb-benchmark");
+    }
+
+    // 각 백엔드 컨텍스트에 추가로 등록되어 들어온 호출 수를 센다.
+    @Configuration
+    public static class CallCounterConfig {
+        final AtomicLong calls = new AtomicLong();
+
+        @Bean
+        @GrpcGlobalServerInterceptor
+        ServerInterceptor callCounter() {
+            return new ServerInterceptor() {
+                @Override
+                public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                        ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                    calls.incrementAndGet();
+                    return next.startCall(call, headers);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.benchmark;
+
+import com.example.client.GrpcClientImpl;
+import com.example.client.grpc.GrpcChannelPool;
+import com.example.grpc.GrpcServiceApplication;
+import com.example.netty.NettyAllocator;
+import com.example.netty.NettyTransport;
+import com.example.netty.NettyTransportSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC 기본 Netty 설정과 조정한 설정(grpc.service.netty.*, grpc.client.netty.*)의 처리량 비교.
+ *
+ * DEFAULT: 모든 값을 0 / 기본값으로 둔다. (gRPC 가 공유하는 event loop 와 할당기)
+ * TUNED:   서버는 epoll, worker event loop 를 CPU 코어 수만큼, 전용 pooled direct 할당기, 흐름 제어 창 4MB.
+ *          클라이언트는 채널마다 event loop 1개, 전용 pooled direct 할당기, 흐름 제어 창 4MB.
+ *
+ * unary 는 op 하나에 inFlight 개의 비동기 호출을 보내고 모두 기다린다. (unary 지연 0ms)
+ * flowControlledStream 은 messageCount 개를 payloadSize 크기로 받는 서버 스트림이다. (흐름 제어 창의 영향)
+ * 코어가 많은 서버에서 차이가 드러나므로 channels 와 -PjmhThreads 를 코어 수에 맞게 늘려서 실행한다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=GrpcNettyTuningBenchmark -PjmhThreads=8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GrpcNettyTuningBenchmark {
+
+    private static final int FLOW_CONTROL_WINDOW = 4 * 1024 * 1024;
+
+    public enum NettyProfile {
+        DEFAULT,
+        TUNED
+    }
+
+    @Param({"DEFAULT", "TUNED"})
+    public NettyProfile netty;
+
+    @Param({"1", "4"})
+    public int channels;
+
+    @Param({"64"})
+    public int inFlight;
+
+    @Param({"1000"})
+    public int messageCount;
+
+    private ConfigurableApplicationContext grpcContext;
+    private GrpcChannelPool channelPool;
+    private GrpcClientImpl grpcClient;
+
+    @Setup(Level.Trial)
+    public void start() {
+        int port = TransportServers.freePort();
+        SpringApplicationBuilder server = ServiceConfig.builder("grpc-service", GrpcServiceApplication.class)
+                .web(WebApplicationType.NONE);
+        NettyTransportSettings clientNetty = NettyTransportSettings.DEFAULT;
+        if (netty == NettyProfile.TUNED) {
+            grpcContext = server.run("--grpc.server.port=" + port,
+                    "--grpc.service.unary.delay-ms=0",
+                    "--grpc.service.netty.transport=EPOLL",
+                    "--grpc.service.netty.worker-threads=" + Runtime.getRuntime().availableProcessors(),
+                    "--grpc.service.netty.allocator=POOLED_DIRECT",
+                    "--grpc.service.netty.flow-control-window=" + FLOW_CONTROL_WINDOW);
+            clientNetty = new NettyTransportSettings(NettyTransport.EPOLL, 0, 1, false, NettyAllocator.POOLED_DIRECT,
+                    FLOW_CONTROL_WINDOW, 0, 0);
+        } else {
+            grpcContext = server.run("--grpc.server.port=" + port, "--grpc.service.unary.delay-ms=0");
+        }
+        channelPool = new GrpcChannelPool(List.of(TransportServers.LOCALHOST + ":" + port), channels,
+                "pick_first", 60, 10, 300, 0, List.of(), clientNetty);
+        grpcClient = new GrpcClientImpl(channelPool);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (grpcClient != null) {
+            grpcClient.shutdown();
+        }
+        if (channelPool != null) {
+            channelPool.shutdown();
+        }
+        if (grpcContext != null) {
+            grpcContext.close();
+        }
+    }
+
+    @Benchmark
+    public void unary(Payload payload) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = grpcClient.sendMessageAsync(payload.content);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public String flowControlledStream(Payload payload) {
+        return grpcClient.consumeServerStream("benchmark", messageCount, payload.payloadSize);
+    }
+}
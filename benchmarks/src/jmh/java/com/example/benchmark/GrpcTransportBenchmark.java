@@ -0,0 +1,61 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * message.proto에 정의된 RPC들을 GrpcClientImpl 경유로 호출한다.
+ * 서버 쪽 의도적인 지연(sleep)도 그대로 포함되므로, 핫패스 변경 전후 비교 기준선으로 사용한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GrpcTransportBenchmark {
+
+    @Benchmark
+    public String unary(TransportServers servers, Payload payload) {
+        return servers.grpcClient.sendMessage(payload.content);
+    }
+
+    // SendMessageStream 스트림 하나로 batchSize 개를 보내고 응답을 모두 받는다. (op 하나 = 배치 하나)
+    @Benchmark
+    public List<String> batch(TransportServers servers, MessageBatch batch) {
+        return servers.grpcClient.sendMessages(batch.contents).join();
+    }
+
+    @Benchmark
+    public String serverStream(TransportServers servers, Payload payload) {
+        return servers.grpcClient.getServerStreamMessages(payload.content);
+    }
+
+    // 흐름 제어(onReady / request(n)) 기반 대용량 스트림. messageCount 개를 payloadSize 크기로 받는다.
+    @Benchmark
+    public String flowControlledServerStream(TransportServers servers, Payload payload, StreamLength stream) {
+        return servers.grpcClient.consumeServerStream("benchmark", stream.messageCount, payload.payloadSize);
+    }
+
+    @State(Scope.Benchmark)
+    public static class StreamLength {
+        @Param({"100000"})
+        public int messageCount;
+    }
+
+    @Benchmark
+    public String clientStream(TransportServers servers) {
+        return servers.grpcClient.sendClientStreamLogs();
+    }
+
+    @Benchmark
+    public boolean chat(TransportServers servers, Payload payload) throws InterruptedException {
+        CountDownLatch latch = servers.grpcClient.chatWithServer(payload.content);
+        return latch.await(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.benchmark;
+
+import com.example.client.KafkaClientImpl;
+import com.example.kafka.KafkaServiceApplication;
+import com.example.logging.MessageLogSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka 요청-응답(KafkaClientImpl -> kafka-service)을 내장 브로커(spring-kafka-test, KRaft) 위에서 측정한다.
+ * unary / batch 는 GrpcTransportBenchmark, RestTransportBenchmark 의 같은 이름 벤치마크와 비교하는 용도이다.
+ * (batch: op 하나 = batchSize 개 요청을 모두 보내고 응답을 모두 받기)
+ *
+ * 요청 하나의 왕복은 프로듀서 linger + 컨슈머 poll + 응답 linger + 응답 poll 을 거치므로 unary 지연은 gRPC/REST 보다 길다.
+ * 대신 batch 처럼 동시에 나가는 요청이 많으면 프로듀서 배치와 배치 리스너로 묶여서 처리량이 올라간다.
+ * lingerMs / compression 으로 배치 설정에 따른 차이를, concurrency 로 리스너 스레드 수에 따른 차이를 본다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=KafkaTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KafkaTransportBenchmark {
+
+    private static final String REQUEST_TOPIC = "msa.message.requests";
+    private static final String REPLY_TOPIC = "msa.message.replies";
+
+    @Param({"0", "5"})
+    public int lingerMs;
+
+    @Param({"none", "lz4"})
+    public String compression;
+
+    @Param({"3"})
+    public int concurrency;
+
+    @Param({"6"})
+    public int partitions;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private ConfigurableApplicationContext kafkaContext;
+    private KafkaClientImpl kafkaClient;
+
+    @Setup(Level.Trial)
+    public void start() {
+        broker = new EmbeddedKafkaKraftBroker(1, partitions, REQUEST_TOPIC, REPLY_TOPIC);
+        broker.afterPropertiesSet();
+        String bootstrapServers = broker.getBrokersAsString();
+
+        // 벤치마크 classpath 에는 gRPC 스타터와 web 스타터도 있으므로 필요 없는 서버는 꺼둔다.
+        kafkaContext = ServiceConfig.builder("kafka-service", KafkaServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--grpc.server.port=-1",
+                        "--kafka.service.bootstrap-servers=" + bootstrapServers,
+                        "--kafka.service.partitions=" + partitions,
+                        "--kafka.service.consumer.concurrency=" + concurrency,
+                        "--kafka.service.producer.linger-ms=" + lingerMs,
+                        "--kafka.service.producer.compression=" + compression);
+        // 리스너는 latest 위치부터 읽으므로, 파티션을 모두 할당받은 뒤에 요청을 보내야 첫 요청을 놓치지 않는다.
+        KafkaListenerEndpointRegistry registry = kafkaContext.getBean(KafkaListenerEndpointRegistry.class);
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer("message-requests"), partitions);
+
+        kafkaClient = new KafkaClientImpl(bootstrapServers, REQUEST_TOPIC, REPLY_TOPIC, 65536, lingerMs, compression, "all",
+                5000, 1024, MessageLogSettings.DEFAULT);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (kafkaClient != null) {
+            kafkaClient.shutdown();
+        }
+        if (kafkaContext != null) {
+            kafkaContext.close();
+        }
+        if (broker != null) {
+            broker.destroy();
+        }
+    }
+
+    @Benchmark
+    public String unary(Payload payload) {
+        return kafkaClient.sendMessage(payload.content);
+    }
+
+    // batchSize 개를 한꺼번에 보내고 응답을 모두 받는다. (op 하나 = 배치 하나)
+    @Benchmark
+    public List<String> batch(MessageBatch batch) {
+        return kafkaClient.sendMessages(batch.contents).join();
+    }
+}
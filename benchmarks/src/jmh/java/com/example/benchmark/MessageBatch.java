@@ -0,0 +1,27 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Client.sendMessages 로 한 번에 보낼 메시지 목록. 본문은 Payload 크기를 따른다.
+ */
+@State(Scope.Benchmark)
+public class MessageBatch {
+
+    @Param({"1000"})
+    public int batchSize;
+
+    List<String> contents;
+
+    @Setup(Level.Trial)
+    public void build(Payload payload) {
+        contents = Collections.nCopies(batchSize, payload.content);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * message-log.mode 와 appender 방식(동기 / AsyncAppender)에 따른 핸들러 처리량.
+ * GrpcMessageServiceImpl.sendUnaryMessage 의 로그 부분과 같은 모양의 코드를 실제 파일 appender 로 실행한다.
+ * (전송 지연 없이 로그 비용만 보기 위해 서버는 띄우지 않는다.)
+ *
+ * ASYNC 는 서비스의 logback-spring.xml 과 같이 neverBlock=true 이므로, 큐가 차면 로그 줄을 버린다.
+ * 종료 시 출력하는 파일 크기로 실제 기록된 양을 함께 확인한다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhThreads=4 -PjmhIncludes=MessageLoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageLoggingBenchmark {
+
+    @Param({"FULL", "SAMPLED", "SUMMARY"})
+    public MessageLogMode mode;
+
+    @Param({"SYNC", "ASYNC"})
+    public String appender;
+
+    private Path file;
+    private Logger logger;
+    private Appender<ILoggingEvent> attached;
+    private MessageLogger messageLog;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        file = Files.createTempFile("message-log-benchmark", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level --- [%15.15thread] %-40.40logger{39} : %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("BENCHMARK_FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        if ("ASYNC".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("BENCHMARK_ASYNC");
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(fileAppender);
+            async.start();
+            attached = async;
+        } else {
+            attached = fileAppender;
+        }
+
+        // 벤치마크 logback.xml 의 root(WARN)와 분리된 INFO 로거
+        logger = context.getLogger("com.example.benchmark.MessageLog");
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(attached);
+
+        messageLog = new MessageLogger(logger, "[Unary RPC - Server]", new MessageLogSettings(mode, 10, 10));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        logger.detachAppender(attached);
+        attached.stop();
+        System.out.printf("%n[MessageLoggingBenchmark] mode=%s, appender=%s, logged=%d bytes%n", mode, appender, Files.size(file));
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String unary(Payload payload) {
+        boolean logged = messageLog.sample();
+        if (logged) {
+            logger.info("[Unary RPC - Server] 메시지 수신: {} ({}ms 지연 후 응답 예약)", payload.content, 0);
+        }
+        String replyContent = "Unary Response: " + payload.content.toUpperCase();
+        if (logged) {
+            logger.info("[Unary RPC - Server] 응답 전송: {}", replyContent);
+        }
+        return replyContent;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 요청 본문 크기 파라미터. -p payloadSize=... 로 덮어쓸 수 있다.
+ */
+@State(Scope.Benchmark)
+public class Payload {
+
+    @Param({"16", "1024", "16384"})
+    public int payloadSize;
+
+    String content;
+
+    @Setup(Level.Trial)
+    public void build() {
+        content = "a".repeat(payloadSize);
+    }
+}
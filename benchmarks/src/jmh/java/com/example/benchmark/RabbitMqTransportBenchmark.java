@@ -0,0 +1,114 @@
+package com.example.benchmark;
+
+import com.example.client.RabbitMqClientImpl;
+import com.example.rabbitmq.RabbitMqServiceApplication;
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.SystemConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RabbitMQ 작업 큐(RabbitMqClientImpl -> rabbitmq-service)를 같은 JVM 안의 AMQP 0-9-1 브로커(Qpid Broker-J, 메모리 저장소)로 측정한다.
+ *
+ * - publish: batchSize 개를 발행하고 publisher confirm 을 모두 받는다. confirmWindow 에 따라 처리량이 달라진다.
+ *   (confirmWindow=1 은 메시지마다 확인을 기다리는 것과 같다)
+ * - batch: batchSize 개를 요청-응답으로 보내고 응답을 모두 받는다. prefetch 에 따라 컨슈머 처리량이 달라진다.
+ *   Qpid 에는 RabbitMQ 의 direct reply-to 가 없으므로 클라이언트 임시 응답 큐를 쓴다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=RabbitMqTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RabbitMqTransportBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int confirmWindow;
+
+    @Param({"1", "250"})
+    public int prefetch;
+
+    @Param({"4"})
+    public int concurrency;
+
+    private Path brokerWorkDir;
+    private SystemLauncher broker;
+    private ConfigurableApplicationContext rabbitContext;
+    private RabbitMqClientImpl rabbitClient;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        int amqpPort = TransportServers.freePort();
+        brokerWorkDir = Files.createTempDirectory("qpid-benchmark");
+        broker = new SystemLauncher();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ConfiguredObject.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION,
+                getClass().getClassLoader().getResource("qpid-embedded.json").toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(ConfiguredObject.CONTEXT, Map.of(
+                "qpid.amqp_port", String.valueOf(amqpPort),
+                SystemConfig.QPID_WORK_DIR, brokerWorkDir.toString()));
+        broker.startup(attributes);
+
+        // 벤치마크 classpath 에는 gRPC 스타터와 web 스타터도 있으므로 필요 없는 서버는 꺼둔다.
+        rabbitContext = ServiceConfig.builder("rabbitmq-service", RabbitMqServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--grpc.server.port=-1",
+                        "--rabbit.service.host=" + TransportServers.LOCALHOST,
+                        "--rabbit.service.port=" + amqpPort,
+                        "--rabbit.service.consumer.prefetch=" + prefetch,
+                        "--rabbit.service.consumer.concurrency=" + concurrency);
+        rabbitClient = new RabbitMqClientImpl(TransportServers.LOCALHOST, amqpPort, false, confirmWindow);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (rabbitClient != null) {
+            rabbitClient.shutdown();
+        }
+        if (rabbitContext != null) {
+            rabbitContext.close();
+        }
+        if (broker != null) {
+            broker.shutdown();
+        }
+        try {
+            FileSystemUtils.deleteRecursively(brokerWorkDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // batchSize 개를 발행하고 모두 확인받는다. (op 하나 = 배치 하나)
+    @Benchmark
+    public long publish(MessageBatch batch) {
+        return rabbitClient.publishMessages(batch.contents).join();
+    }
+
+    // batchSize 개를 요청-응답으로 보내고 응답을 모두 받는다. (op 하나 = 배치 하나)
+    @Benchmark
+    public List<String> batch(MessageBatch batch) {
+        return rabbitClient.sendMessages(batch.contents).join();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.benchmark;
+
+import com.example.client.RestClientImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST /api/message 호출 비용. Throughput은 초당 호출 수, SampleTime은 p50/p99/p999 지연을 보여준다.
+ * messageAsync 는 한 번에 inFlight 개를 비동기로 보내고 모두 기다리며, httpVersion 으로 HTTP/1.1 풀과 HTTP/2 다중화를,
+ * format 으로 JSON, protobuf, 길이-접두 바이너리(BinaryCodec) 본문을 비교한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RestTransportBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class AsyncClient {
+
+        @Param({"HTTP_1_1", "HTTP_2"})
+        public RestClientImpl.HttpProtocol httpVersion;
+
+        @Param({"JSON", "PROTOBUF", "BINARY"})
+        public RestClientImpl.WireFormat format;
+
+        @Param({"32"})
+        public int inFlight;
+
+        RestClientImpl client;
+
+        @Setup(Level.Trial)
+        public void connect(TransportServers servers) {
+            client = new RestClientImpl(TransportServers.LOCALHOST, servers.restPort, httpVersion, format, 64, 64, 1000, 5000);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            client.shutdown();
+        }
+    }
+
+    @Benchmark
+    public String message(TransportServers servers, Payload payload) {
+        return servers.restClient.sendMessage(payload.content);
+    }
+
+    // batchSize 개를 /api/messages 배치 요청으로 보낸다. (op 하나 = 배치 하나)
+    @Benchmark
+    public List<String> batch(TransportServers servers, MessageBatch batch) {
+        return servers.restClient.sendMessages(batch.contents).join();
+    }
+
+    // 같은 batchSize 개를 /api/messages/stream NDJSON 요청 하나로 보낸다.
+    @Benchmark
+    public long stream(TransportServers servers, MessageBatch batch) {
+        return servers.restClient.streamMessages(batch.contents, reply -> { }).join();
+    }
+
+    @Benchmark
+    public Object messageAsync(AsyncClient async, Payload payload) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[async.inFlight];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = async.client.sendMessageAsync(payload.content);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * 같은 JVM 에 띄우는 서비스 컨텍스트가 각자 자기 모듈의 application.yml 을 읽게 한다.
+ *
+ * 모듈마다 classpath 루트에 application.yml 이 있어서 한 classpath 에서는 가장 앞의 것(client)만 읽힌다.
+ * build.gradle 이 모듈별 설정을 service-config/모듈/application.yml 로 복사해두므로, 컨텍스트마다 spring.config.location 으로 지정한다.
+ * 벤치마크가 넘기는 --인자는 그대로 설정 파일보다 우선한다.
+ */
+final class ServiceConfig {
+
+    private ServiceConfig() {
+    }
+
+    // module: rest-service, grpc-service, kafka-service, rabbitmq-service, websocket-service
+    static SpringApplicationBuilder builder(String module, Class<?>... sources) {
+        return new SpringApplicationBuilder(sources)
+                .properties("spring.config.location=" + location(module));
+    }
+
+    static String location(String module) {
+        String location = "service-config/" + module + "/application.yml";
+        if (ServiceConfig.class.getClassLoader().getResource(location) == null) {
+            throw new IllegalStateException(location + " is not on the classpath (copied by benchmarks/build.gradle processJmhResources)");
+        }
+        return "classpath:" + location;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.benchmark;
+
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.StatusRuntimeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서비스 프로세스를 새로 띄워 첫 요청이 성공할 때까지 걸리는 시간. (JVM 기동 포함, op 하나 = 기동 한 번)
+ * REST 는 POST /api/message, gRPC 는 SendUnaryMessage (unary 지연 0ms) 를 첫 요청으로 보낸다.
+ *
+ * DEFAULT: build/libs 의 bootJar 를 그대로 java -jar 로 실행
+ * FAST:    build/fast-startup 의 AOT 처리 jar 를 AppCDS 아카이브, fast-startup 프로필(지연 초기화)과 함께 실행
+ *
+ * 두 변형 모두 미리 빌드되어 있어야 한다. -PfastStartup 을 주면 jmh 태스크가 먼저 빌드한다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=StartupBenchmark -PfastStartup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    public enum Service {
+        REST("rest-service"),
+        GRPC("grpc-service");
+
+        final String module;
+
+        Service(String module) {
+            this.module = module;
+        }
+    }
+
+    public enum StartupMode {
+        DEFAULT,
+        FAST
+    }
+
+    @Param({"REST", "GRPC"})
+    public Service service;
+
+    @Param({"DEFAULT", "FAST"})
+    public StartupMode mode;
+
+    private Path workingDirectory;
+    private List<String> launchOptions;
+    private Path logFile;
+    private HttpClient httpClient;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void locate() throws IOException {
+        // benchmarks/build.gradle 이 루트 프로젝트 경로를 넘긴다.
+        Path projectDir = Path.of(System.getProperty("startup.project-dir", ".."));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String jar = service.module + ".jar";
+        if (mode == StartupMode.DEFAULT) {
+            workingDirectory = projectDir.resolve(service.module).resolve("build/libs");
+            launchOptions = List.of(java, "-jar", jar);
+        } else {
+            workingDirectory = projectDir.resolve(service.module).resolve("build/fast-startup");
+            launchOptions = List.of(java, "-XX:SharedArchiveFile=" + service.module + ".jsa",
+                    "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup", "-jar", jar);
+            requireFile(workingDirectory.resolve(service.module + ".jsa"));
+        }
+        requireFile(workingDirectory.resolve(jar));
+        logFile = Files.createTempFile("startup-" + service.module + "-" + mode, ".log");
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+    }
+
+    @Benchmark
+    public String firstCall() throws IOException, InterruptedException {
+        int port = TransportServers.freePort();
+        process = launch(port);
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        return service == Service.REST ? firstRestCall(port, deadline) : firstGrpcCall(port, deadline);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    private Process launch(int port) throws IOException {
+        List<String> command = new ArrayList<>(launchOptions);
+        if (service == Service.REST) {
+            command.add("--server.port=" + port);
+        } else {
+            // actuator 포트는 아무 빈 포트나 쓰고, 기동 시간만 보도록 unary 지연은 끈다.
+            command.add("--grpc.server.port=" + port);
+            command.add("--server.port=0");
+            command.add("--grpc.service.unary.delay-ms=0");
+            command.add("--grpc.service.ingest.directory=" + logFile.resolveSibling("startup-ingest-logs"));
+        }
+        return new ProcessBuilder(command)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+    }
+
+    private String firstRestCall(int port, long deadline) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + TransportServers.LOCALHOST + ":" + port + "/api/message"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"startup\"}"))
+                .build();
+        while (true) {
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    return response.body();
+                }
+            } catch (ConnectException e) {
+                // 아직 포트가 열리지 않음
+            }
+            awaitNextPoll(deadline);
+        }
+    }
+
+    private String firstGrpcCall(int port, long deadline) throws InterruptedException {
+        // 💡 채널은 포트가 열린 뒤에 만든다. 먼저 만들면 연결 실패 후 재연결 backoff(1초~) 만큼 측정값이 늘어난다.
+        while (!portOpen(port)) {
+            awaitNextPoll(deadline);
+        }
+        MessageRequestGrpc request = MessageRequestGrpc.newBuilder().setContent("startup").build();
+        while (true) {
+            ManagedChannel channel = ManagedChannelBuilder.forAddress(TransportServers.LOCALHOST, port).usePlaintext().build();
+            try {
+                return MessageServiceGrpc.newBlockingStub(channel)
+                        .withDeadlineAfter(5, TimeUnit.SECONDS)
+                        .sendUnaryMessage(request)
+                        .getReply();
+            } catch (StatusRuntimeException e) {
+                awaitNextPoll(deadline);
+            } finally {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+    private static boolean portOpen(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(TransportServers.LOCALHOST, port), 1000);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void awaitNextPoll(long deadline) throws InterruptedException {
+        if (!process.isAlive()) {
+            throw new IllegalStateException(service.module + " 프로세스가 첫 요청 전에 종료되었습니다. 로그: " + logFile);
+        }
+        if (System.nanoTime() > deadline) {
+            throw new IllegalStateException(service.module + " 가 " + STARTUP_TIMEOUT.getSeconds() + "초 안에 응답하지 않았습니다. 로그: " + logFile);
+        }
+        Thread.sleep(POLL_INTERVAL_MILLIS);
+    }
+
+    private static void requireFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException(file.toAbsolutePath() + " 가 없습니다. "
+                    + "./gradlew :rest-service:bootJar :grpc-service:bootJar :rest-service:fastStartupArchive :grpc-service:fastStartupArchive -PfastStartup 로 먼저 빌드하세요.");
+        }
+    }
+}
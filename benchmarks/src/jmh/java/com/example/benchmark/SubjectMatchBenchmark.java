@@ -0,0 +1,86 @@
+package com.example.benchmark;
+
+import com.example.nats.engine.NatsMessage;
+import com.example.nats.engine.SubjectBus;
+import com.example.nats.engine.SubjectMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 프로세스 내 NATS 엔진(SubjectBus)의 subject match 비용을 구독 수에 따라 측정한다.
+ *
+ * 구독: 리터럴 subject(svc.<i % 256>.<i>.evt) subscriptions 개 + 고정된 와일드카드 구독
+ * (svc.<k>.*.evt, svc.<k>.> 각 8개, 큐 그룹 workers 의 svc.*.*.evt 4개).
+ * 발행 subject 는 리터럴 구독 중 hotSubjects 개를 골라 돌아가며 쓴다. 한 번 match 하면 리터럴 1개 + 와일드카드 구독이 일치한다.
+ *
+ * matchCacheSize=0 이면 매번 trie 를 따라가고(토큰 분리 + 토큰마다 해시 조회), 4096 이면 hotSubjects 가 모두 캐시에 들어간다.
+ * 여러 스레드로 실행하면(-PjmhThreads=N) 잠금 없는 읽기 경로가 스레드 수에 따라 늘어나는지 볼 수 있다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=SubjectMatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SubjectMatchBenchmark {
+
+    private static final Consumer<NatsMessage> NO_OP = message -> {
+    };
+
+    @Param({"1000", "100000", "1000000"})
+    public int subscriptions;
+
+    @Param({"0", "4096"})
+    public int matchCacheSize;
+
+    @Param({"1024"})
+    public int hotSubjects;
+
+    private SubjectBus bus;
+    private String[] subjects;
+
+    @Setup(Level.Trial)
+    public void start() {
+        bus = new SubjectBus(1, 1024, matchCacheSize);
+        for (int i = 0; i < subscriptions; i++) {
+            bus.subscribe(literal(i), NO_OP);
+        }
+        for (int k = 0; k < 8; k++) {
+            bus.subscribe("svc." + k + ".*.evt", NO_OP);
+            bus.subscribe("svc." + k + ".>", NO_OP);
+        }
+        for (int k = 0; k < 4; k++) {
+            bus.subscribe("svc.*.*.evt", "workers", NO_OP);
+        }
+        Random random = new Random(42);
+        subjects = new String[hotSubjects];
+        for (int i = 0; i < hotSubjects; i++) {
+            subjects[i] = literal(random.nextInt(subscriptions));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        bus.close();
+    }
+
+    @Benchmark
+    public SubjectMatch match() {
+        return bus.match(subjects[ThreadLocalRandom.current().nextInt(subjects.length)]);
+    }
+
+    private static String literal(int i) {
+        return "svc." + (i % 256) + "." + i + ".evt";
+    }
+}
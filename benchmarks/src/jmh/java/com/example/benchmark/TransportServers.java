@@ -0,0 +1,77 @@
+package com.example.benchmark;
+
+import com.example.client.GrpcClientImpl;
+import com.example.client.RestClientImpl;
+import com.example.grpc.GrpcServiceApplication;
+import com.example.rest.RestServiceApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * 벤치마크 대상 서버들을 같은 JVM 안에서 띄우고, client 모듈의 구현체로 연결해두는 공용 State.
+ * 서버는 각 모듈의 Spring Boot 애플리케이션을 그대로 실행하므로 실제 서비스와 같은 경로를 측정한다.
+ * 각 컨텍스트는 자기 모듈의 application.yml 로 뜬다. (ServiceConfig)
+ */
+@State(Scope.Benchmark)
+public class TransportServers {
+
+    static final String LOCALHOST = "localhost";
+
+    private ConfigurableApplicationContext restContext;
+    private ConfigurableApplicationContext grpcContext;
+
+    int restPort;
+    RestClientImpl restClient;
+    GrpcClientImpl grpcClient;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // 벤치마크 classpath에는 gRPC 스타터와 web 스타터가 모두 있으므로, 각 컨텍스트에서 필요 없는 서버는 꺼둔다.
+        // h2c 는 RestTransportBenchmark 의 HTTP_2 클라이언트 비교용.
+        restContext = ServiceConfig.builder("rest-service", RestServiceApplication.class)
+                .run("--server.port=0", "--grpc.server.port=-1", "--server.http2.enabled=true");
+        restPort = ((WebServerApplicationContext) restContext).getWebServer().getPort();
+
+        int grpcPort = freePort();
+        grpcContext = ServiceConfig.builder("grpc-service", GrpcServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--grpc.server.port=" + grpcPort);
+
+        restClient = new RestClientImpl(LOCALHOST, restPort);
+        grpcClient = new GrpcClientImpl(LOCALHOST, grpcPort);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (restClient != null) {
+            restClient.shutdown();
+        }
+        if (grpcClient != null) {
+            grpcClient.shutdown();
+        }
+        if (grpcContext != null) {
+            grpcContext.close();
+        }
+        if (restContext != null) {
+            restContext.close();
+        }
+    }
+
+    static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("빈 포트를 찾지 못했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.benchmark;
+
+import com.example.client.GrpcClientImpl;
+import com.example.client.RestClientImpl;
+import com.example.client.grpc.GrpcChannelPool;
+import com.example.grpc.GrpcServiceApplication;
+import com.example.rest.RestServiceApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 호스트에서 루프백 TCP 와 unix 도메인 소켓(UDS)으로 보낸 호출 하나의 지연. (p50/p99/p999)
+ *
+ * TCP: rest-service 는 빈 포트, grpc-service 는 grpc.server.port 로 받고 클라이언트는 localhost 로 연결한다.
+ * UDS: rest.service.address / grpc.server.address 를 임시 디렉터리의 unix:///.../*.sock 으로 두고 클라이언트도 같은 주소로 연결한다.
+ *
+ * gRPC 는 양쪽 모두 같은 Netty 전송(epoll)이라 소켓 차이만 보인다. (unary 지연 0ms)
+ * REST 는 TCP 가 비동기 HttpClient, UDS 가 클래식 HttpClient 위의 UnixSocketHttpClient 이므로 클라이언트 구현 차이도 함께 들어간다.
+ * 실행 예) ./gradlew :benchmarks:jmh -PjmhIncludes=UnixSocketTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UnixSocketTransportBenchmark {
+
+    public enum SocketType {
+        TCP,
+        UDS
+    }
+
+    @Param({"TCP", "UDS"})
+    public SocketType socket;
+
+    private Path socketDirectory;
+    private ConfigurableApplicationContext restContext;
+    private ConfigurableApplicationContext grpcContext;
+    private RestClientImpl restClient;
+    private GrpcChannelPool channelPool;
+    private GrpcClientImpl grpcClient;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        SpringApplicationBuilder rest = ServiceConfig.builder("rest-service", RestServiceApplication.class);
+        SpringApplicationBuilder grpc = ServiceConfig.builder("grpc-service", GrpcServiceApplication.class).web(WebApplicationType.NONE);
+        if (socket == SocketType.UDS) {
+            socketDirectory = Files.createTempDirectory("uds-benchmark");
+            String restAddress = "unix://" + socketDirectory.resolve("rest-service.sock").toAbsolutePath();
+            String grpcAddress = "unix://" + socketDirectory.resolve("grpc-service.sock").toAbsolutePath();
+            restContext = rest.run("--grpc.server.port=-1", "--rest.service.address=" + restAddress);
+            grpcContext = grpc.run("--grpc.server.address=" + grpcAddress, "--grpc.service.unary.delay-ms=0");
+            restClient = RestClientImpl.forUnixSocket(restAddress, RestClientImpl.WireFormat.JSON);
+            channelPool = new GrpcChannelPool(List.of(grpcAddress), 1, "pick_first", 60, 10, 300);
+            grpcClient = new GrpcClientImpl(channelPool);
+        } else {
+            restContext = rest.run("--server.port=0", "--grpc.server.port=-1");
+            int restPort = ((WebServerApplicationContext) restContext).getWebServer().getPort();
+            int grpcPort = TransportServers.freePort();
+            grpcContext = grpc.run("--grpc.server.port=" + grpcPort, "--grpc.service.unary.delay-ms=0");
+            restClient = new RestClientImpl(TransportServers.LOCALHOST, restPort);
+            grpcClient = new GrpcClientImpl(TransportServers.LOCALHOST, grpcPort);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (restClient != null) {
+            restClient.shutdown();
+        }
+        if (grpcClient != null) {
+            grpcClient.shutdown();
+        }
+        if (channelPool != null) {
+            channelPool.shutdown();
+        }
+        if (grpcContext != null) {
+            grpcContext.close();
+        }
+        if (restContext != null) {
+            restContext.close();
+        }
+        if (socketDirectory != null) {
+            // 소켓 파일은 서버가 닫힐 때 지워지므로 빈 디렉터리만 남는다.
+            Files.deleteIfExists(socketDirectory);
+        }
+    }
+
+    @Benchmark
+    public String rest(Payload payload) {
+        return restClient.sendMessageAsync(payload.content).join();
+    }
+
+    @Benchmark
+    public String grpc(Payload payload) {
+        return grpcClient.sendMessageAsync(payload.content).join();
+    }
+}
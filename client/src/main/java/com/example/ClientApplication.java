@@ -3,6 +3,7 @@ package com.example;
 import com.example.client.Client;
 import com.example.client.ClientFactory;
 import com.example.client.GrpcClientImpl;
+import com.example.client.load.LoadDriver;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -19,8 +20,14 @@ public class ClientApplication {
     }
 
     @Bean
-    public CommandLineRunner run(ClientFactory clientFactory) {
+    public CommandLineRunner run(ClientFactory clientFactory, LoadDriver loadDriver) {
         return args -> {
+            // load.enabled=true 이면 단건 통신 테스트 대신 부하 테스트만 수행
+            if (loadDriver.isEnabled()) {
+                loadDriver.run();
+                return;
+            }
+
             System.out.println("== 클라이언트 시작 ==");
 
             // REST 클라이언트 테스트 (기존과 동일)
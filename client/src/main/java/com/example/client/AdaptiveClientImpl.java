@@ -0,0 +1,199 @@
+package com.example.client;
+
+import com.example.client.adaptive.AdaptiveRoutingSettings;
+import com.example.client.adaptive.RoutingDecision;
+import com.example.client.adaptive.TransportRouter;
+import com.example.client.adaptive.WindowSnapshot;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 호출마다 REST 와 gRPC 중 하나를 골라 보내는 Client. (ClientType.ADAPTIVE)
+ *
+ * 메시지 크기 구간마다 두 방식의 최근 응답 시간 / 오류율을 이동 창으로 모으고, 그 통계로 더 빠른 쪽을 고른다.
+ * 한쪽의 오류율이 높아지면 다른 쪽으로 보낸다. 고르는 규칙은 TransportRouter 에 있다.
+ * 결정 이유는 msa_adaptive_routes_total{transport, reason, size} 지표, 메시지 로그, lastDecisions() 로 볼 수 있다.
+ *
+ * 실패한 호출을 다른 방식으로 다시 보내지는 않는다. 서버의 멱등성 캐시는 전송 방식마다 따로 있어서,
+ * 다른 방식으로 재전송하면 같은 요청이 두 번 처리될 수 있기 때문이다.
+ */
+@Service
+@Lazy
+public class AdaptiveClientImpl implements Client {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveClientImpl.class);
+
+    private static final ClientFactory.ClientType[] TRANSPORTS = {ClientFactory.ClientType.REST, ClientFactory.ClientType.GRPC};
+
+    private final RestClientImpl restClient;
+    private final GrpcClientImpl grpcClient;
+    private final TransportRouter router;
+    private final MessageLogger messageLog;
+    // [size class][transport][reason]
+    private final Counter[][][] routes;
+
+    @Autowired
+    public AdaptiveClientImpl(
+            RestClientImpl restClient,
+            GrpcClientImpl grpcClient,
+            @Value("${adaptive.window-seconds:10}") long windowSeconds,
+            @Value("${adaptive.min-samples:20}") int minSamples,
+            @Value("${adaptive.max-error-rate:0.2}") double maxErrorRate,
+            @Value("${adaptive.switch-margin:0.1}") double switchMargin,
+            @Value("${adaptive.probe-every:50}") int probeEvery,
+            @Value("${adaptive.size-class-bytes:1024,16384}") List<Integer> sizeClassBytes,
+            MessageLogSettings messageLogSettings,
+            MeterRegistry meterRegistry
+    ) {
+        this(restClient, grpcClient, new AdaptiveRoutingSettings(Duration.ofSeconds(windowSeconds), minSamples, maxErrorRate,
+                switchMargin, probeEvery, sizeClassBytes), messageLogSettings, meterRegistry);
+    }
+
+    public AdaptiveClientImpl(RestClientImpl restClient, GrpcClientImpl grpcClient, AdaptiveRoutingSettings settings,
+                              MessageLogSettings messageLogSettings, MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.grpcClient = grpcClient;
+        this.router = new TransportRouter(settings);
+        this.messageLog = new MessageLogger(log, "[Adaptive Client]", messageLogSettings);
+
+        RoutingDecision.Reason[] reasons = RoutingDecision.Reason.values();
+        this.routes = new Counter[router.sizeClasses()][TRANSPORTS.length][reasons.length];
+        for (int sizeClass = 0; sizeClass < router.sizeClasses(); sizeClass++) {
+            String size = router.sizeClassName(sizeClass);
+            for (int t = 0; t < TRANSPORTS.length; t++) {
+                ClientFactory.ClientType transport = TRANSPORTS[t];
+                String transportTag = transport.name().toLowerCase(Locale.ROOT);
+                for (RoutingDecision.Reason reason : reasons) {
+                    routes[sizeClass][t][reason.ordinal()] = Counter.builder("msa.adaptive.routes")
+                            .description("적응형 클라이언트가 전송 방식을 고른 횟수와 이유")
+                            .tag("transport", transportTag)
+                            .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                            .tag("size", size)
+                            .register(meterRegistry);
+                }
+                int windowClass = sizeClass;
+                TimeGauge.builder("msa.adaptive.window.latency", router, TimeUnit.NANOSECONDS,
+                                r -> r.snapshot(transport, windowClass).meanLatencyNanos())
+                        .description("이동 창 안에서 성공한 호출의 평균 응답 시간")
+                        .tag("transport", transportTag)
+                        .tag("size", size)
+                        .register(meterRegistry);
+                Gauge.builder("msa.adaptive.window.error.rate", router, r -> r.snapshot(transport, windowClass).errorRate())
+                        .description("이동 창 안의 오류율")
+                        .tag("transport", transportTag)
+                        .tag("size", size)
+                        .register(meterRegistry);
+            }
+        }
+        log.info("[Adaptive Client] REST / gRPC 적응형 라우팅 설정: {}", settings);
+    }
+
+    @Override
+    public String sendMessage(String content) {
+        try {
+            return sendMessageAsync(content).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("[Adaptive Client] 대기 중 인터럽트 발생.", e);
+            return "[Adaptive] 예기치 않은 오류: " + e.getMessage();
+        } catch (ExecutionException e) {
+            log.error("[Adaptive Client] 통신 실패: {}", e.getCause().getMessage());
+            return "[Adaptive] 통신 실패: " + e.getCause().getMessage();
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content) {
+        return sendMessageAsync(content, null);
+    }
+
+    // 결과는 고른 전송 방식의 응답 형식 그대로이다. ("[REST] 응답: ..." / "[Unary RPC] 응답: ...")
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey) {
+        // 💡 UTF-16 문자 수를 크기로 쓴다. ASCII 본문이면 바이트 수와 같고, 구간을 고르는 데는 이 정도 근사로 충분하다.
+        int payloadBytes = content.length();
+        ClientFactory.ClientType transport = route(payloadBytes).transport();
+        long startTime = System.nanoTime();
+        CompletableFuture<String> call = client(transport).sendMessageAsync(content, idempotencyKey);
+        call.whenComplete((reply, error) -> {
+            if (error == null) {
+                router.recordSuccess(transport, payloadBytes, System.nanoTime() - startTime);
+            } else if (!call.isCancelled()) {
+                router.recordFailure(transport, payloadBytes);
+            }
+        });
+        return call;
+    }
+
+    // 묶음 전체를 평균 메시지 크기 구간의 선택으로 보낸다. 묶음 응답 시간은 단건과 비교할 수 없으므로 실패만 통계에 넣는다.
+    @Override
+    public CompletableFuture<List<String>> sendMessages(List<String> contents) {
+        long totalLength = 0;
+        for (String content : contents) {
+            totalLength += content.length();
+        }
+        int payloadBytes = contents.isEmpty() ? 0 : (int) (totalLength / contents.size());
+        ClientFactory.ClientType transport = route(payloadBytes).transport();
+        CompletableFuture<List<String>> call = client(transport).sendMessages(contents);
+        recordFailures(call, transport, payloadBytes);
+        return call;
+    }
+
+    // 스트림은 메시지 크기를 미리 알 수 없으므로 가장 작은 크기 구간의 선택으로 보낸다. 실패만 통계에 넣는다.
+    @Override
+    public CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer) {
+        ClientFactory.ClientType transport = route(0).transport();
+        CompletableFuture<Long> call = client(transport).streamMessages(contents, replyConsumer);
+        recordFailures(call, transport, 0);
+        return call;
+    }
+
+    // 크기 구간마다 마지막으로 고른 전송 방식과 그 이유, 그때의 창 통계
+    public List<RoutingDecision> lastDecisions() {
+        return router.lastDecisions();
+    }
+
+    public WindowSnapshot window(ClientFactory.ClientType transport, int payloadBytes) {
+        return router.snapshot(transport, router.sizeClass(payloadBytes));
+    }
+
+    private RoutingDecision route(int payloadBytes) {
+        RoutingDecision decision = router.route(payloadBytes);
+        int transport = decision.transport() == ClientFactory.ClientType.REST ? 0 : 1;
+        routes[router.sizeClass(payloadBytes)][transport][decision.reason().ordinal()].increment();
+        if (messageLog.sample()) {
+            log.info("[Adaptive Client] 전송 경로: {}", decision);
+        }
+        return decision;
+    }
+
+    private void recordFailures(CompletableFuture<?> call, ClientFactory.ClientType transport, int payloadBytes) {
+        call.whenComplete((result, error) -> {
+            if (error != null && !call.isCancelled()) {
+                router.recordFailure(transport, payloadBytes);
+            }
+        });
+    }
+
+    private Client client(ClientFactory.ClientType transport) {
+        return transport == ClientFactory.ClientType.REST ? restClient : grpcClient;
+    }
+}
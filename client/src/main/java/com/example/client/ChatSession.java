@@ -0,0 +1,15 @@
+package com.example.client;
+
+/**
+ * 열려 있는 채팅 연결 하나 (gRPC Chat 스트림, WebSocket /ws/chat).
+ * 받은 메시지는 연결을 열 때 넘긴 listener 로 전달된다.
+ */
+public interface ChatSession extends AutoCloseable {
+
+    // 연결을 열 때 정한 sender / room 으로 메시지를 보낸다. 여러 스레드에서 호출해도 된다.
+    void send(String message);
+
+    // 보내기를 끝낸다. 서버는 남은 메시지를 보낸 뒤 연결을 닫는다.
+    @Override
+    void close();
+}
@@ -1,5 +1,22 @@
 package com.example.client;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 public interface Client {
     String sendMessage(String content);
-}
\ No newline at end of file
+
+    // 비동기 단건 전송. 호출 스레드를 막지 않으며, 성공 시 sendMessage 와 같은 형식의 문자열로 완료된다.
+    CompletableFuture<String> sendMessageAsync(String content);
+
+    // idempotencyKey 를 함께 보낸다. 같은 키로 재시도하면 서버는 다시 처리하지 않고 처음 응답을 돌려준다. (null 이면 키 없음)
+    CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey);
+
+    // 여러 메시지를 전송 방식에 맞게 묶어서 보낸다. 결과는 서버 응답(reply) 목록이며 입력 순서와 같다.
+    CompletableFuture<List<String>> sendMessages(List<String> contents);
+
+    // 메시지를 보낼 수 있는 만큼만 꺼내 보내고, 응답은 도착하는 대로 replyConsumer 에 넘긴다.
+    // replyConsumer 는 한 번에 하나씩 호출된다. 모두 끝나면 받은 응답 수로 완료된다.
+    CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer);
+}
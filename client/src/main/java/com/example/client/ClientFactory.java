@@ -1,5 +1,6 @@
 package com.example.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 @Component // Spring 빈으로 등록
@@ -7,11 +8,26 @@ public class ClientFactory {
 
     private final RestClientImpl restClient;
     private final GrpcClientImpl grpcClient;
+    private final NatsClientImpl natsClient;
+    private final WebSocketClientImpl webSocketClient;
+    // 브로커 클라이언트는 브로커에 붙어야 만들 수 있으므로 처음 요청할 때 생성한다.
+    private final ObjectProvider<KafkaClientImpl> kafkaClient;
+    private final ObjectProvider<RabbitMqClientImpl> rabbitMqClient;
+    // 적응형 클라이언트는 지표를 등록하므로 쓸 때만 만든다.
+    private final ObjectProvider<AdaptiveClientImpl> adaptiveClient;
 
     // 생성자 주입 (Spring이 자동으로 빈을 찾아 주입해줍니다.)
-    public ClientFactory(RestClientImpl restClient, GrpcClientImpl grpcClient) {
+    public ClientFactory(RestClientImpl restClient, GrpcClientImpl grpcClient, NatsClientImpl natsClient,
+                         WebSocketClientImpl webSocketClient,
+                         ObjectProvider<KafkaClientImpl> kafkaClient, ObjectProvider<RabbitMqClientImpl> rabbitMqClient,
+                         ObjectProvider<AdaptiveClientImpl> adaptiveClient) {
         this.restClient = restClient;
         this.grpcClient = grpcClient;
+        this.natsClient = natsClient;
+        this.webSocketClient = webSocketClient;
+        this.kafkaClient = kafkaClient;
+        this.rabbitMqClient = rabbitMqClient;
+        this.adaptiveClient = adaptiveClient;
     }
 
     public Client getClient(ClientType type) {
@@ -20,6 +36,16 @@ public class ClientFactory {
                 return restClient;
             case GRPC:
                 return grpcClient;
+            case KAFKA:
+                return kafkaClient.getObject();
+            case RABBITMQ:
+                return rabbitMqClient.getObject();
+            case NATS:
+                return natsClient;
+            case WEBSOCKET:
+                return webSocketClient;
+            case ADAPTIVE:
+                return adaptiveClient.getObject();
             default:
                 throw new IllegalArgumentException("Unknown client type: " + type);
         }
@@ -27,7 +53,11 @@ public class ClientFactory {
 
     public enum ClientType {
         REST,
-        GRPC
-        // RABBITMQ 등은 추후 추가
+        GRPC,
+        KAFKA,
+        RABBITMQ,
+        NATS, // 프로세스 내 엔진 (nats-service)
+        WEBSOCKET,
+        ADAPTIVE // 호출마다 최근 응답 시간 / 오류율과 메시지 크기로 REST 또는 GRPC 를 고름 (AdaptiveClientImpl)
     }
-}
\ No newline at end of file
+}
@@ -7,56 +7,104 @@ import com.example.grpc.UserRequest;
 import com.example.grpc.LogEntry;
 import com.example.grpc.UploadStatusResponse;
 import com.example.grpc.ChatMessage;
+import com.example.client.grpc.GrpcChannelPool;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
 
-import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.AbstractStub;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.MetadataUtils;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class GrpcClientImpl implements Client {
 
     private static final Logger log = LoggerFactory.getLogger(GrpcClientImpl.class);
 
-    private final ManagedChannel channel;
-    private final MessageServiceGrpc.MessageServiceBlockingStub blockingStub;
-    private final MessageServiceGrpc.MessageServiceStub asyncStub;
+    // Server Streaming 수신 시 한 번에 받아둘 최대 메시지 수 (수동 흐름 제어 창 크기)
+    private static final int STREAM_WINDOW = 64;
+
+    // getServerStreamMessages / sendClientStreamLogs 가 응답을 기다리는 최대 시간
+    private static final long STREAM_WAIT_SECONDS = 5;
+
+    private final GrpcChannelPool channelPool;
+    // 💡 (host, port) 생성자로 직접 만든 풀만 이 클라이언트가 닫는다. Spring 빈이나 호출자가 넘긴 풀은 만든 쪽이 닫는다.
+    private final boolean ownsChannelPool;
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
 
+    // 메시지 단위 로그 지점별 샘플링 (message-log.mode)
+    private final MessageLogger unaryLog;
+    private final MessageLogger serverStreamLog;
+    private final MessageLogger clientStreamLog;
+    private final MessageLogger chatMessageLog;
 
-    public GrpcClientImpl(
-            @Value("${grpc.server.host}") String grpcHost,
-            @Value("${grpc.server.port}") int grpcPort
-    ) {
-        log.info("gRPC 서버에 연결을 시도합니다. -> host: {}, port: {}", grpcHost, grpcPort);
 
-        // 주입받은 값으로 채널을 생성합니다.
-        this.channel = ManagedChannelBuilder.forAddress(grpcHost, grpcPort)
-                .usePlaintext()
-                .build();
+    @Autowired
+    public GrpcClientImpl(GrpcChannelPool channelPool, MessageLogSettings messageLogSettings) {
+        this(channelPool, messageLogSettings, false);
+    }
 
-        this.blockingStub = MessageServiceGrpc.newBlockingStub(channel);
-        this.asyncStub = MessageServiceGrpc.newStub(channel);
+    // channelPool 은 호출자가 닫는다.
+    public GrpcClientImpl(GrpcChannelPool channelPool) {
+        this(channelPool, MessageLogSettings.DEFAULT, false);
+    }
+
+    // Spring 없이 단일 서버에 바로 연결할 때 사용 (벤치마크 등). 풀은 shutdown() 에서 함께 닫는다.
+    public GrpcClientImpl(String grpcHost, int grpcPort) {
+        this(GrpcChannelPool.forAddress(grpcHost, grpcPort), MessageLogSettings.DEFAULT, true);
+    }
+
+    private GrpcClientImpl(GrpcChannelPool channelPool, MessageLogSettings messageLogSettings, boolean ownsChannelPool) {
+        this.channelPool = channelPool;
+        this.ownsChannelPool = ownsChannelPool;
+        this.unaryLog = new MessageLogger(log, "[Unary RPC - Client]", messageLogSettings);
+        this.serverStreamLog = new MessageLogger(log, "[Server Streaming - Client]", messageLogSettings);
+        this.clientStreamLog = new MessageLogger(log, "[Client Streaming - Client]", messageLogSettings);
+        this.chatMessageLog = new MessageLogger(log, "[Bidirectional Streaming - Client]", messageLogSettings);
     }
-/*
-    @PreDestroy
-    public void shutdown() {
-        log.info("[gRPC Client] 채널 종료 시도.");
-        channel.shutdown();
-    }*/
 
     @PreDestroy
     public void shutdown() {
         log.info("[gRPC Client] 스케줄러 종료 시도.");
         scheduler.shutdown();
+        if (ownsChannelPool) {
+            channelPool.shutdown();
+        }
+    }
+
+    // 💡 stub 은 가벼운 객체라 호출마다 풀에서 고른 채널로 새로 만든다.
+    private MessageServiceGrpc.MessageServiceBlockingStub blockingStub() {
+        return MessageServiceGrpc.newBlockingStub(channelPool.next());
+    }
+
+    private MessageServiceGrpc.MessageServiceStub asyncStub() {
+        return MessageServiceGrpc.newStub(channelPool.next());
+    }
+
+    // 💡 unary deadline 은 호출을 시작할 때 절대 시각으로 CallOptions 에 넣는다. 채널 서비스 설정의 timeout 은 인터셉터 아래에서
+    // 시도마다 새로 적용되므로, 이렇게 해야 HedgingClientInterceptor 가 남은 시간을 보고 모든 시도가 같은 deadline 을 공유한다.
+    private <S extends AbstractStub<S>> S withUnaryDeadline(S stub) {
+        long deadlineMillis = channelPool.unaryDeadlineMillis();
+        return deadlineMillis > 0 ? stub.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS) : stub;
     }
 
     // 1. Unary 통신
@@ -67,12 +115,19 @@ public class GrpcClientImpl implements Client {
                 .build();
 
         try {
-            log.info("[Unary RPC - Client] 메시지 전송 시도: {}", content);
-            long startTime = System.currentTimeMillis();
-            MessageResponseGrpc response = blockingStub.sendUnaryMessage(request);
+            // 전송 로그를 남긴 호출만 처리 시간을 재고 응답 로그를 남긴다. 호출별 지연 분포는 msa_call_duration 지표로 본다.
+            boolean logged = unaryLog.sample();
+            long startTime = 0;
+            if (logged) {
+                log.info("[Unary RPC - Client] 메시지 전송 시도: {}", content);
+                startTime = System.currentTimeMillis();
+            }
+            MessageResponseGrpc response = withUnaryDeadline(blockingStub()).sendUnaryMessage(request);
 
-            long endTime = System.currentTimeMillis();
-            log.info("[Unary RPC - Client] 응답 수신 (처리 시간: {}ms): {}", (endTime - startTime), response.getReply());
+            if (logged) {
+                long endTime = System.currentTimeMillis();
+                log.info("[Unary RPC - Client] 응답 수신 (처리 시간: {}ms): {}", (endTime - startTime), response.getReply());
+            }
             return "[Unary RPC] 응답: " + response.getReply();
         } catch (StatusRuntimeException e) {
             log.error("[Unary RPC - Client] RPC failed: {} - {}", e.getStatus(), e.getMessage());
@@ -83,6 +138,132 @@ public class GrpcClientImpl implements Client {
         }
     }
 
+    // 1-1. 비동기 Unary. 호출 스레드를 막지 않으며, 반환된 future 를 취소하면 RPC 도 취소된다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content) {
+        return sendMessageAsync(content, null);
+    }
+
+    // idempotencyKey 는 idempotency-key metadata 로 전달된다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey) {
+        MessageRequestGrpc request = MessageRequestGrpc.newBuilder()
+                .setContent(content)
+                .build();
+        CompletableFuture<String> result = new CompletableFuture<>();
+
+        MessageServiceGrpc.MessageServiceStub stub = withUnaryDeadline(asyncStub());
+        if (idempotencyKey != null) {
+            Metadata headers = new Metadata();
+            headers.put(IdempotencyKeys.GRPC_METADATA, idempotencyKey);
+            stub = stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        }
+        stub.sendUnaryMessage(request, new ClientResponseObserver<MessageRequestGrpc, MessageResponseGrpc>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<MessageRequestGrpc> requestStream) {
+                result.whenComplete((reply, error) -> {
+                    if (result.isCancelled()) {
+                        requestStream.cancel("Cancelled by caller", null);
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(MessageResponseGrpc response) {
+                result.complete("[Unary RPC] 응답: " + response.getReply());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        return result;
+    }
+
+
+    // 1-2. 여러 메시지를 SendMessageStream 스트림 하나로 보낸다. 서버가 요청 순서대로 응답하므로 결과도 입력 순서와 같다.
+    @Override
+    public CompletableFuture<List<String>> sendMessages(List<String> contents) {
+        List<String> replies = new ArrayList<>(contents.size());
+        return streamMessages(contents, replies::add).thenApply(count -> replies);
+    }
+
+
+    // 1-3. SendMessageStream 양방향 스트림. 전송은 onReady 로, 수신은 request(n) 으로 흐름 제어한다.
+    @Override
+    public CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer) {
+        Iterator<String> iterator = contents.iterator();
+        CompletableFuture<Long> result = new CompletableFuture<>();
+
+        // 💡 onReady 핸들러와 응답 콜백은 같은 호출 안에서 직렬로 실행되므로 필드에 동기화가 필요 없다.
+        ClientResponseObserver<MessageRequestGrpc, MessageResponseGrpc> responseObserver = new ClientResponseObserver<>() {
+            private ClientCallStreamObserver<MessageRequestGrpc> requestStream;
+            private boolean halfClosed;
+            private long received;
+            private int consumedSinceRequest;
+
+            @Override
+            public void beforeStart(ClientCallStreamObserver<MessageRequestGrpc> requestStream) {
+                this.requestStream = requestStream;
+                requestStream.disableAutoRequestWithInitial(STREAM_WINDOW);
+                requestStream.setOnReadyHandler(this::sendWhileReady);
+                result.whenComplete((count, error) -> {
+                    if (result.isCancelled()) {
+                        requestStream.cancel("Cancelled by caller", null);
+                    }
+                });
+            }
+
+            private void sendWhileReady() {
+                try {
+                    while (!halfClosed && requestStream.isReady() && iterator.hasNext()) {
+                        requestStream.onNext(MessageRequestGrpc.newBuilder()
+                                .setContent(iterator.next())
+                                .build());
+                    }
+                    if (!halfClosed && !iterator.hasNext()) {
+                        halfClosed = true;
+                        requestStream.onCompleted();
+                    }
+                } catch (RuntimeException e) {
+                    halfClosed = true;
+                    requestStream.onError(e);
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onNext(MessageResponseGrpc response) {
+                received++;
+                replyConsumer.accept(response.getReply());
+                if (++consumedSinceRequest >= STREAM_WINDOW / 2) {
+                    requestStream.request(consumedSinceRequest);
+                    consumedSinceRequest = 0;
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.error("[Message Stream - Client] 스트림 에러 발생: {}", t.getMessage());
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                result.complete(received);
+            }
+        };
+
+        asyncStub().sendMessageStream(responseObserver);
+        return result;
+    }
+
+
     // 2. Server Streaming RPC 호출 메서드
     public String getServerStreamMessages(String userId) {
         UserRequest request = UserRequest.newBuilder()
@@ -91,11 +272,19 @@ public class GrpcClientImpl implements Client {
 
         StringBuilder receivedMessages = new StringBuilder();
         CountDownLatch latch = new CountDownLatch(1); // 💡 비동기 작업 완료 대기용 Latch
+        AtomicReference<ClientCallStreamObserver<UserRequest>> call = new AtomicReference<>();
+
+        ClientResponseObserver<UserRequest, MessageResponseGrpc> responseObserver = new ClientResponseObserver<>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<UserRequest> requestStream) {
+                call.set(requestStream);
+            }
 
-        StreamObserver<MessageResponseGrpc> responseObserver = new StreamObserver<MessageResponseGrpc>() {
             @Override
             public void onNext(MessageResponseGrpc response) {
-                log.info("[Server Streaming - Client] 메시지 수신: {}", response.getReply());
+                if (serverStreamLog.sample()) {
+                    log.info("[Server Streaming - Client] 메시지 수신: {}", response.getReply());
+                }
                 receivedMessages.append(response.getReply()).append("\n");
             }
 
@@ -114,20 +303,84 @@ public class GrpcClientImpl implements Client {
         };
 
         log.info("[Server Streaming - Client] 요청 전송: userId={}", userId);
-        asyncStub.getServerStreamMessages(request, responseObserver);
+        asyncStub().getServerStreamMessages(request, responseObserver);
 
-        // 💡 비동기 작업 완료를 기다림
-        try {
-            latch.await(5, TimeUnit.SECONDS); // 최대 5초 대기
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("[Server Streaming - Client] 대기 중 인터럽트 발생.", e);
-        }
+        // 💡 비동기 작업 완료를 기다림 (최대 5초). 기다리지 않기로 하면 호출을 취소해서 서버도 전송을 멈추게 한다.
+        awaitOrCancel(latch, STREAM_WAIT_SECONDS, call.get(), "[Server Streaming - Client]");
 
         return "[Server Streaming] 호출 완료. 수신 메시지:\n" + receivedMessages.toString();
     }
 
 
+    // 2-1. 대용량 Server Streaming 수신. request(n)으로 직접 흐름 제어하며, 메시지를 쌓아두지 않고 개수/바이트만 집계
+    public String consumeServerStream(String userId, int messageCount, int payloadSize) {
+        UserRequest request = UserRequest.newBuilder()
+                .setUserId(userId)
+                .setMessageCount(messageCount)
+                .setPayloadSize(payloadSize)
+                .build();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicLong receivedCount = new AtomicLong();
+        AtomicLong receivedBytes = new AtomicLong();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicReference<ClientCallStreamObserver<UserRequest>> call = new AtomicReference<>();
+        long startTime = System.nanoTime();
+
+        ClientResponseObserver<UserRequest, MessageResponseGrpc> responseObserver = new ClientResponseObserver<>() {
+            private ClientCallStreamObserver<UserRequest> requestStream;
+            private int consumedSinceRequest;
+
+            @Override
+            public void beforeStart(ClientCallStreamObserver<UserRequest> requestStream) {
+                this.requestStream = requestStream;
+                call.set(requestStream);
+                // 💡 자동 요청을 끄고 STREAM_WINDOW 개만큼만 미리 받는다. 처리한 만큼만 다시 요청하므로 수신 버퍼가 일정하게 유지됨
+                requestStream.disableAutoRequestWithInitial(STREAM_WINDOW);
+            }
+
+            @Override
+            public void onNext(MessageResponseGrpc response) {
+                receivedCount.incrementAndGet();
+                receivedBytes.addAndGet(response.getReply().length());
+                if (++consumedSinceRequest >= STREAM_WINDOW / 2) {
+                    requestStream.request(consumedSinceRequest);
+                    consumedSinceRequest = 0;
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.error("[Server Streaming - Client] 스트림 에러 발생: {}", t.getMessage());
+                error.set(t);
+                latch.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                latch.countDown();
+            }
+        };
+
+        log.info("[Server Streaming - Client] 대용량 스트림 요청: userId={}, count={}, payloadSize={}", userId, messageCount, payloadSize);
+        asyncStub().getServerStreamMessages(request, responseObserver);
+
+        if (!awaitOrCancel(latch, 0, call.get(), "[Server Streaming - Client]")) {
+            error.compareAndSet(null, Status.CANCELLED.withDescription("Interrupted while waiting").asRuntimeException());
+        }
+
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        String status = error.get() == null ? "완료" : "실패(" + error.get().getMessage() + ")";
+        log.info("[Server Streaming - Client] 스트림 {}: count={}, bytes={}, elapsed={}ms",
+                status, receivedCount.get(), receivedBytes.get(), elapsedMillis);
+        if (error.get() != null) {
+            throw Status.fromThrowable(error.get()).asRuntimeException();
+        }
+        return String.format("[Server Streaming] 수신 완료: count=%d, bytes=%d, elapsed=%dms",
+                receivedCount.get(), receivedBytes.get(), elapsedMillis);
+    }
+
+
     // 💡 3. Client Streaming RPC (클라이언트 스트리밍) 호출 메서드
     public String sendClientStreamLogs() {
         CountDownLatch latch = new CountDownLatch(1); // 비동기 작업 완료 대기용 Latch
@@ -137,8 +390,9 @@ public class GrpcClientImpl implements Client {
         StreamObserver<UploadStatusResponse> responseObserver = new StreamObserver<UploadStatusResponse>() {
             @Override
             public void onNext(UploadStatusResponse response) {
-                log.info("[Client Streaming - Client] 최종 응답 수신: Status={}, Count={}", response.getStatus(), response.getReceivedCount());
-                statusMessage.append("Status: ").append(response.getStatus()).append(", Received: ").append(response.getReceivedCount());
+                log.info("[Client Streaming - Client] 최종 응답 수신: Status={}, Count={}, Bytes={}", response.getStatus(), response.getReceivedCount(), response.getBytesPersisted());
+                statusMessage.append("Status: ").append(response.getStatus()).append(", Received: ").append(response.getReceivedCount())
+                        .append(", Persisted: ").append(response.getBytesPersisted()).append(" bytes");
             }
 
             @Override
@@ -155,8 +409,9 @@ public class GrpcClientImpl implements Client {
             }
         };
 
-        // 서버로 요청 스트림을 보낼 StreamObserver
-        StreamObserver<LogEntry> requestObserver = asyncStub.sendClientStreamLogs(responseObserver);
+        // 서버로 요청 스트림을 보낼 StreamObserver. 기다리다 포기할 때 취소할 수 있도록 ClientCallStreamObserver 로 받는다.
+        ClientCallStreamObserver<LogEntry> requestObserver =
+                (ClientCallStreamObserver<LogEntry>) asyncStub().sendClientStreamLogs(responseObserver);
 
         try {
 
@@ -168,7 +423,9 @@ public class GrpcClientImpl implements Client {
                         .setTimestamp(System.currentTimeMillis())
                         .build();
                 requestObserver.onNext(logEntry); // 로그 메시지 전송
-                log.info("[Client Streaming - Client] 로그 전송: {}", logEntry.getMessage());
+                if (clientStreamLog.sample()) {
+                    log.info("[Client Streaming - Client] 로그 전송: {}", logEntry.getMessage());
+                }
                 Thread.sleep(200); // 짧은 간격
             }
             log.info("[Client Streaming - Client] 로그 스트림 전송 완료. 클라이언트 스트림 종료.");
@@ -178,28 +435,128 @@ public class GrpcClientImpl implements Client {
             requestObserver.onError(e); // 오류 발생 시 스트림에 에러 알림
         }
 
-        // 비동기 작업 완료 대기
+        // 비동기 작업 완료 대기 (최대 5초). 시간이 지나면 호출을 취소해서 서버가 업로드 세션을 정리하게 한다.
+        awaitOrCancel(latch, STREAM_WAIT_SECONDS, requestObserver, "[Client Streaming - Client]");
+
+        return "[Client Streaming] 호출 완료. 최종 상태: " + statusMessage.toString();
+    }
+
+
+    // 3-1. 대용량 로그 업로드. 전송 버퍼가 찰 때마다 멈추고(onReady) 서버가 받아들이는 속도에 맞춰 보낸다.
+    public String uploadLogStream(int entryCount, int messageSize) {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<UploadStatusResponse> result = new AtomicReference<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicReference<ClientCallStreamObserver<LogEntry>> call = new AtomicReference<>();
+        String message = "x".repeat(messageSize);
+        long startTime = System.nanoTime();
+
+        ClientResponseObserver<LogEntry, UploadStatusResponse> responseObserver = new ClientResponseObserver<>() {
+            private int sent;
+
+            @Override
+            public void beforeStart(ClientCallStreamObserver<LogEntry> requestStream) {
+                call.set(requestStream);
+                requestStream.setOnReadyHandler(() -> {
+                    while (sent < entryCount && requestStream.isReady()) {
+                        requestStream.onNext(LogEntry.newBuilder()
+                                .setLevel("INFO")
+                                .setMessage(message)
+                                .setTimestamp(System.currentTimeMillis())
+                                .build());
+                        sent++;
+                    }
+                    if (sent == entryCount) {
+                        sent++; // 완료 신호는 한 번만 보낸다.
+                        requestStream.onCompleted();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(UploadStatusResponse response) {
+                result.set(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.error("[Client Streaming - Client] 스트림 에러 발생: {}", t.getMessage());
+                error.set(t);
+                latch.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                latch.countDown();
+            }
+        };
+
+        log.info("[Client Streaming - Client] 대용량 로그 업로드 시작: count={}, messageSize={}", entryCount, messageSize);
+        asyncStub().sendClientStreamLogs(responseObserver);
+
+        if (!awaitOrCancel(latch, 0, call.get(), "[Client Streaming - Client]")) {
+            error.compareAndSet(null, Status.CANCELLED.withDescription("Interrupted while waiting").asRuntimeException());
+        }
+
+        if (error.get() != null) {
+            throw Status.fromThrowable(error.get()).asRuntimeException();
+        }
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        UploadStatusResponse response = result.get();
+        log.info("[Client Streaming - Client] 업로드 완료: accepted={}, bytesPersisted={}, elapsed={}ms",
+                response.getReceivedCount(), response.getBytesPersisted(), elapsedMillis);
+        return String.format("[Client Streaming] 업로드 완료: accepted=%d, bytesPersisted=%d, elapsed=%dms",
+                response.getReceivedCount(), response.getBytesPersisted(), elapsedMillis);
+    }
+
+
+    // 💡 응답을 기다리다 포기하면(시간 초과, 인터럽트) 호출을 취소한다. 그냥 두면 서버는 아무도 받지 않을 응답을 계속 만든다.
+    // timeoutSeconds 가 0 이면 끝날 때까지 기다린다. 제때 끝났으면 true.
+    private static boolean awaitOrCancel(CountDownLatch latch, long timeoutSeconds, ClientCallStreamObserver<?> call, String tag) {
         try {
-            latch.await(5, TimeUnit.SECONDS); // 최대 5초 대기
+            if (timeoutSeconds <= 0) {
+                latch.await();
+                return true;
+            }
+            if (latch.await(timeoutSeconds, TimeUnit.SECONDS)) {
+                return true;
+            }
+            log.warn("{} {}초 안에 끝나지 않아 호출을 취소합니다.", tag, timeoutSeconds);
+            call.cancel("Client gave up after " + timeoutSeconds + "s", null);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("[Client Streaming - Client] 대기 중 인터럽트 발생.", e);
+            log.error("{} 대기 중 인터럽트 발생. 호출을 취소합니다.", tag, e);
+            call.cancel("Client interrupted", e);
         }
-
-        return "[Client Streaming] 호출 완료. 최종 상태: " + statusMessage.toString();
+        return false;
     }
 
 
     // 💡 4. Bidirectional Streaming RPC (양방향 스트리밍) 호출 메서드
 
     public CountDownLatch chatWithServer(String user) {
+        return chatWithServer(user, "");
+    }
+
+    // room 을 지정하면 같은 방의 다른 클라이언트 메시지도 함께 수신한다. (빈 값이면 서버 기본 방)
+    // 반환된 latch 는 스트림이 정상 완료되든 에러로 끝나든 풀린다. 성공 여부가 필요하면 chatWithServerAsync 를 쓴다.
+    public CountDownLatch chatWithServer(String user, String room) {
         CountDownLatch latch = new CountDownLatch(1);
+        chatWithServerAsync(user, room).whenComplete((chatLog, error) -> latch.countDown());
+        return latch;
+    }
+
+    // 서버 스트림이 끝나면 채팅 로그로 완료되고, 스트림 에러로 끝나면 그 에러로 실패한다.
+    public CompletableFuture<String> chatWithServerAsync(String user, String room) {
+        CompletableFuture<String> result = new CompletableFuture<>();
         StringBuilder chatLog = new StringBuilder();
 
         StreamObserver<ChatMessage> responseObserver = new StreamObserver<ChatMessage>() {
             @Override
             public void onNext(ChatMessage message) {
-                log.info("[Bidirectional Streaming - Client] 메시지 수신 (From: {}, Msg: {})", message.getSender(), message.getMessage());
+                if (chatMessageLog.sample()) {
+                    log.info("[Bidirectional Streaming - Client] 메시지 수신 (From: {}, Msg: {})", message.getSender(), message.getMessage());
+                }
                 chatLog.append(String.format("[%s] %s\n", message.getSender(), message.getMessage()));
             }
 
@@ -208,17 +565,17 @@ public class GrpcClientImpl implements Client {
                 // 이 블록은 이제 실제 네트워크 오류 등이 발생했을 때만 호출됩니다.
                 log.error("[Bidirectional Streaming - Client] 스트림 에러 발생", t);
                 chatLog.append("Error: ").append(t.getMessage()).append("\n");
-                latch.countDown();
+                result.completeExceptionally(t);
             }
 
             @Override
             public void onCompleted() {
                 log.info("[Bidirectional Streaming - Client] 서버 스트림 완료. 최종 채팅 로그:\n{}", chatLog.toString());
-                latch.countDown();
+                result.complete(chatLog.toString());
             }
         };
 
-        StreamObserver<ChatMessage> requestObserver = asyncStub.chat(responseObserver);
+        StreamObserver<ChatMessage> requestObserver = asyncStub().chat(responseObserver);
         AtomicInteger messageCount = new AtomicInteger(0);
 
         // ⭐️ ScheduledFuture<?> 변수를 선언하여 스케줄링 작업을 제어할 수 있도록 합니다.
@@ -244,9 +601,12 @@ public class GrpcClientImpl implements Client {
                 ChatMessage message = ChatMessage.newBuilder()
                         .setSender(user)
                         .setMessage(clientMsg)
+                        .setRoom(room)
                         .build();
                 requestObserver.onNext(message);
-                log.info("[Bidirectional Streaming - Client] 클라이언트 메시지 전송: {}", clientMsg);
+                if (chatMessageLog.sample()) {
+                    log.info("[Bidirectional Streaming - Client] 클라이언트 메시지 전송: {}", clientMsg);
+                }
 
             } catch (Exception e) {
                 // 예상치 못한 실제 오류 발생 시 처리
@@ -256,6 +616,49 @@ public class GrpcClientImpl implements Client {
             }
         }, 0, 500, TimeUnit.MILLISECONDS);
 
-        return latch;
+        return result;
+    }
+
+    /**
+     * Chat 스트림을 열고 room 에 들어간다. (빈 값이면 서버 기본 방)
+     * listener 는 같은 방의 다른 멤버 메시지와 서버 확인 응답을 받으며, gRPC 콜백 스레드에서 한 번에 하나씩 호출된다.
+     * WebSocketClientImpl.openChat 과 같은 모양이라 두 전송 방식을 같은 코드로 비교할 수 있다.
+     */
+    public ChatSession openChat(String user, String room, Consumer<ChatMessage> listener) {
+        StreamObserver<ChatMessage> requestObserver = asyncStub().chat(new StreamObserver<ChatMessage>() {
+            @Override
+            public void onNext(ChatMessage message) {
+                if (chatMessageLog.sample()) {
+                    log.info("[Bidirectional Streaming - Client] 메시지 수신 (From: {}, Msg: {})", message.getSender(), message.getMessage());
+                }
+                listener.accept(message);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("[Bidirectional Streaming - Client] 스트림 종료: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                log.info("[Bidirectional Streaming - Client] 서버 스트림 완료.");
+            }
+        });
+        return new ChatSession() {
+            // StreamObserver 는 동시 호출에 안전하지 않으므로 보내기를 직렬화한다.
+            @Override
+            public synchronized void send(String message) {
+                requestObserver.onNext(ChatMessage.newBuilder()
+                        .setSender(user)
+                        .setMessage(message)
+                        .setRoom(room)
+                        .build());
+            }
+
+            @Override
+            public synchronized void close() {
+                requestObserver.onCompleted();
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,240 @@
+package com.example.client;
+
+import com.example.codec.CodecException;
+import com.example.codec.MessageCodecs;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.ByteBufferDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.requestreply.KafkaReplyTimeoutException;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Kafka 요청-응답 클라이언트. 요청 토픽에 MessageRequestGrpc 를 보내고, 응답 토픽에서 상관 ID(kafka_correlationId)가
+ * 같은 MessageResponseGrpc 를 받아 future 를 완료한다. (ReplyingKafkaTemplate)
+ *
+ * 응답 토픽은 여러 클라이언트가 함께 쓰므로 클라이언트마다 고유한 컨슈머 그룹으로 모든 응답을 읽고 자기 것만 고른다.
+ * 브로커에 붙어야 만들어지므로 ClientFactory 에서 KAFKA 를 처음 요청할 때 생성된다. (@Lazy)
+ */
+@Service
+@Lazy
+public class KafkaClientImpl implements Client {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaClientImpl.class);
+
+    private final ReplyingKafkaTemplate<String, byte[], ByteBuffer> template;
+    private final DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    private final String requestTopic;
+    private final int maxInFlight;
+    private final ExecutorService streamExecutor;
+    private final MessageLogger messageLog;
+
+    // Spring 없이 기본 설정으로 바로 연결할 때 사용 (벤치마크 등)
+    public KafkaClientImpl(String bootstrapServers) {
+        this(bootstrapServers, "msa.message.requests", "msa.message.replies", 65536, 5, "lz4", "all",
+                5000, 1024, MessageLogSettings.DEFAULT);
+    }
+
+    @Autowired
+    public KafkaClientImpl(
+            @Value("${kafka.client.bootstrap-servers:localhost:9092}") String bootstrapServers,
+            @Value("${kafka.client.request-topic:msa.message.requests}") String requestTopic,
+            @Value("${kafka.client.reply-topic:msa.message.replies}") String replyTopic,
+            @Value("${kafka.client.producer.batch-size:65536}") int batchSize,
+            @Value("${kafka.client.producer.linger-ms:5}") int lingerMillis,
+            @Value("${kafka.client.producer.compression:lz4}") String compression,
+            @Value("${kafka.client.producer.acks:all}") String acks,
+            @Value("${kafka.client.reply-timeout-ms:5000}") long replyTimeoutMillis,
+            @Value("${kafka.client.max-in-flight:1024}") int maxInFlight,
+            MessageLogSettings messageLogSettings
+    ) {
+        // 💡 요청을 하나씩 바로 보내지 않고 linger-ms 동안 파티션별로 모아 batch-size 단위로 압축해서 보낸다.
+        // 동시에 나가는 요청이 많을수록 배치가 커져서 요청당 네트워크/브로커 비용이 줄어든다.
+        Map<String, Object> producerConfig = new HashMap<>();
+        producerConfig.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        producerConfig.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerConfig.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        producerConfig.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        producerConfig.put(ProducerConfig.LINGER_MS_CONFIG, lingerMillis);
+        producerConfig.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        producerConfig.put(ProducerConfig.ACKS_CONFIG, acks);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(producerConfig);
+
+        // 지나간 응답은 필요 없으므로 새 그룹은 최신 위치부터 읽는다.
+        Map<String, Object> consumerConfig = new HashMap<>();
+        consumerConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, "msa-client-" + UUID.randomUUID());
+        consumerConfig.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // 응답 값은 복사하지 않고 레코드 버퍼를 그대로 받아 코덱이 바로 읽는다.
+        consumerConfig.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteBufferDeserializer.class);
+        consumerConfig.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        consumerConfig.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        ContainerProperties containerProperties = new ContainerProperties(replyTopic);
+        KafkaMessageListenerContainer<String, ByteBuffer> replyContainer = new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(consumerConfig), containerProperties);
+
+        this.template = new ReplyingKafkaTemplate<>(producerFactory, replyContainer);
+        this.template.setDefaultReplyTimeout(Duration.ofMillis(replyTimeoutMillis));
+        // 다른 클라이언트의 응답도 받게 되므로, 모르는 상관 ID 는 에러가 아니라 디버그 로그로만 남긴다.
+        this.template.setSharedReplyTopic(true);
+        this.template.afterPropertiesSet();
+        this.template.start();
+        // 응답 토픽 파티션을 할당받기 전에 보낸 요청의 응답은 latest 위치 때문에 놓칠 수 있으므로 할당까지 기다린다.
+        try {
+            if (!this.template.waitForAssignment(Duration.ofMillis(replyTimeoutMillis))) {
+                log.warn("[Kafka Client] {}ms 안에 응답 토픽({}) 파티션을 할당받지 못했습니다.", replyTimeoutMillis, replyTopic);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.requestTopic = requestTopic;
+        this.maxInFlight = maxInFlight;
+        this.streamExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "kafka-client-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.messageLog = new MessageLogger(log, "[Kafka Client]", messageLogSettings);
+        log.info("[Kafka Client] 연결 설정 완료: {} (request={}, reply={}, batchSize={}, linger={}ms, compression={}, replyTimeout={}ms)",
+                bootstrapServers, requestTopic, replyTopic, batchSize, lingerMillis, compression, replyTimeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("[Kafka Client] 프로듀서 / 응답 컨테이너 종료 시도.");
+        streamExecutor.shutdownNow();
+        template.stop();
+        // stop 은 응답 컨테이너만 멈추므로, 응답 시간 초과용 스케줄러는 destroy 로 따로 정리한다.
+        template.destroy();
+        producerFactory.destroy();
+    }
+
+    @Override
+    public String sendMessage(String content) {
+        CompletableFuture<String> reply = sendMessageAsync(content);
+        try {
+            return reply.get();
+        } catch (InterruptedException e) {
+            reply.cancel(false);
+            Thread.currentThread().interrupt();
+            log.error("[Kafka Client] 대기 중 인터럽트 발생.", e);
+            return "[Kafka] 예기치 않은 오류: " + e.getMessage();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof KafkaReplyTimeoutException) {
+                log.error("[Kafka Client] 응답 대기 시간 초과: {}", cause.getMessage());
+                return "[Kafka] 응답 시간 초과: " + cause.getMessage();
+            }
+            log.error("[Kafka Client] 예기치 않은 오류 발생: {}", cause.getMessage(), cause);
+            return "[Kafka] 예기치 않은 오류: " + cause.getMessage();
+        }
+    }
+
+    // 비동기 전송. 응답은 응답 컨테이너 스레드에서 future 로 전달된다.
+    // reply-timeout-ms 안에 응답이 없으면 KafkaReplyTimeoutException 으로 실패한다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content) {
+        return sendMessageAsync(content, null);
+    }
+
+    // idempotencyKey 는 Idempotency-Key 레코드 헤더로 전달된다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey) {
+        // 전송 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[Kafka Client] 메시지 전송 시도: {} -> {}", content, requestTopic);
+        }
+        return exchange(content, idempotencyKey).thenApply(reply -> {
+            if (logged) {
+                log.info("[Kafka Client] 응답 수신: {}", reply);
+            }
+            return "[Kafka] 응답: " + reply;
+        });
+    }
+
+    // 요청을 모두 보낸 뒤 응답을 기다린다. 프로듀서가 linger-ms 동안 모아서 보내므로 요청마다 따로 왕복하지 않는다.
+    // 결과는 입력 순서와 같다.
+    @Override
+    public CompletableFuture<List<String>> sendMessages(List<String> contents) {
+        List<CompletableFuture<String>> replies = new ArrayList<>(contents.size());
+        for (String content : contents) {
+            replies.add(exchange(content, null));
+        }
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    List<String> result = new ArrayList<>(replies.size());
+                    replies.forEach(reply -> result.add(reply.join()));
+                    return result;
+                });
+    }
+
+    // 💡 응답을 기다리는 요청이 max-in-flight 개를 넘지 않도록 보내면서, 응답은 도착하는 대로 replyConsumer 에 넘긴다.
+    @Override
+    public CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        streamExecutor.execute(() -> WindowedStream.run(contents.iterator(), content -> exchange(content, null),
+                maxInFlight, replyConsumer, result));
+        return result;
+    }
+
+    // 요청 하나를 보내고 응답의 reply 값으로 완료된다.
+    private CompletableFuture<String> exchange(String content, String idempotencyKey) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(requestTopic,
+                MessageCodecs.REQUEST_PROTOBUF.encodeToArray(MessageRequestGrpc.newBuilder().setContent(content).build()));
+        if (idempotencyKey != null) {
+            record.headers().add(IdempotencyKeys.HTTP_HEADER, idempotencyKey.getBytes(StandardCharsets.UTF_8));
+        }
+        CompletableFuture<ConsumerRecord<String, ByteBuffer>> reply;
+        try {
+            reply = template.sendAndReceive(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return reply.thenApply(KafkaClientImpl::replyOf);
+    }
+
+    private static String replyOf(ConsumerRecord<String, ByteBuffer> record) {
+        try {
+            return MessageCodecs.RESPONSE_PROTOBUF.decode(record.value()).getReply();
+        } catch (CodecException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.client;
+
+import com.example.codec.MessageCodecs;
+import com.example.codec.CodecException;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.nats.engine.NatsMessage;
+import com.example.nats.engine.SubjectBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 프로세스 내 NATS 엔진(nats-service 의 SubjectBus)으로 요청 subject 에 MessageRequestGrpc 를 보내고 응답을 받는다.
+ * 브로커 연결이 없으므로 다른 브로커 클라이언트와 달리 바로 만들어진다.
+ */
+@Service
+public class NatsClientImpl implements Client {
+
+    private static final Logger log = LoggerFactory.getLogger(NatsClientImpl.class);
+
+    private final SubjectBus bus;
+    private final String requestSubject;
+    private final Duration requestTimeout;
+    private final int maxInFlight;
+    private final ExecutorService streamExecutor;
+    private final MessageLogger messageLog;
+
+    public NatsClientImpl(
+            SubjectBus bus,
+            @Value("${nats.client.request-subject:msa.message.requests}") String requestSubject,
+            @Value("${nats.client.request-timeout-ms:5000}") long requestTimeoutMillis,
+            @Value("${nats.client.max-in-flight:1024}") int maxInFlight,
+            MessageLogSettings messageLogSettings
+    ) {
+        this.bus = bus;
+        this.requestSubject = requestSubject;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.maxInFlight = maxInFlight;
+        this.streamExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "nats-client-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.messageLog = new MessageLogger(log, "[NATS Client]", messageLogSettings);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    @Override
+    public String sendMessage(String content) {
+        CompletableFuture<String> reply = sendMessageAsync(content);
+        try {
+            return reply.get();
+        } catch (InterruptedException e) {
+            reply.cancel(false);
+            Thread.currentThread().interrupt();
+            log.error("[NATS Client] 대기 중 인터럽트 발생.", e);
+            return "[NATS] 예기치 않은 오류: " + e.getMessage();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            log.error("[NATS Client] 요청 실패: {}", cause.toString());
+            return "[NATS] 요청 실패: " + cause;
+        }
+    }
+
+    // 비동기 전송. 응답은 응답을 발행한 구독의 디스패치 스레드에서 future 로 전달된다.
+    // request-timeout-ms 안에 응답이 없으면 TimeoutException, 받는 구독이 없으면 NoRespondersException 으로 실패한다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content) {
+        return sendMessageAsync(content, null);
+    }
+
+    // idempotencyKey 는 Idempotency-Key 메시지 헤더로 전달된다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey) {
+        // 전송 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[NATS Client] 메시지 전송 시도: {} -> {}", content, requestSubject);
+        }
+        return exchange(content, idempotencyKey).thenApply(reply -> {
+            if (logged) {
+                log.info("[NATS Client] 응답 수신: {}", reply);
+            }
+            return "[NATS] 응답: " + reply;
+        });
+    }
+
+    // 요청을 모두 보낸 뒤 응답을 기다린다. 결과는 입력 순서와 같다.
+    @Override
+    public CompletableFuture<List<String>> sendMessages(List<String> contents) {
+        List<CompletableFuture<String>> replies = new ArrayList<>(contents.size());
+        for (String content : contents) {
+            replies.add(exchange(content, null));
+        }
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    List<String> result = new ArrayList<>(replies.size());
+                    replies.forEach(reply -> result.add(reply.join()));
+                    return result;
+                });
+    }
+
+    // 💡 응답을 기다리는 요청이 max-in-flight 개를 넘지 않도록 보내면서, 응답은 도착하는 대로 replyConsumer 에 넘긴다.
+    @Override
+    public CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        streamExecutor.execute(() -> WindowedStream.run(contents.iterator(), content -> exchange(content, null),
+                maxInFlight, replyConsumer, result));
+        return result;
+    }
+
+    // 요청 하나를 보내고 응답의 reply 값으로 완료된다.
+    private CompletableFuture<String> exchange(String content, String idempotencyKey) {
+        byte[] body = MessageCodecs.REQUEST_PROTOBUF.encodeToArray(MessageRequestGrpc.newBuilder().setContent(content).build());
+        Map<String, String> headers = idempotencyKey == null ? Map.of() : Map.of(IdempotencyKeys.HTTP_HEADER, idempotencyKey);
+        return bus.request(requestSubject, headers, body, requestTimeout).thenApply(NatsClientImpl::replyOf);
+    }
+
+    private static String replyOf(NatsMessage message) {
+        try {
+            return MessageCodecs.RESPONSE_PROTOBUF.decode(ByteBuffer.wrap(message.data())).getReply();
+        } catch (CodecException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.client;
+
+import com.example.codec.MessageCodecs;
+import com.example.codec.CodecException;
+import com.example.client.amqp.ConfirmingPublisher;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.rabbitmq.client.AMQP;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Address;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * RabbitMQ(AMQP 0-9-1) 클라이언트. 두 가지 방식으로 요청 큐에 MessageRequestGrpc 를 보낸다.
+ *
+ * - 요청-응답(Client 인터페이스): replyTo / correlationId 를 붙여 보내고 응답 메시지로 future 를 완료한다. (AsyncRabbitTemplate)
+ *   기본은 RabbitMQ 의 direct reply-to(amq.rabbitmq.reply-to) 로 응답 큐 없이 받고,
+ *   direct-reply-to=false 이면 클라이언트 전용 임시 큐(exclusive, auto-delete)로 받는다. (direct reply-to 가 없는 브로커용)
+ * - 작업 큐(publishMessages): 응답 없이 보내고, publisher confirm 을 비동기로 모아 받는다. (ConfirmingPublisher)
+ *
+ * 브로커에 붙어야 만들어지므로 ClientFactory 에서 RABBITMQ 를 처음 요청할 때 생성된다. (@Lazy)
+ */
+@Service
+@Lazy
+public class RabbitMqClientImpl implements Client {
+
+    private static final Logger log = LoggerFactory.getLogger(RabbitMqClientImpl.class);
+
+    // 요청 큐로는 기본 exchange("")를 거쳐 큐 이름을 routing key 로 보낸다.
+    private static final String DEFAULT_EXCHANGE = "";
+
+    private final CachingConnectionFactory connectionFactory;
+    private final AsyncRabbitTemplate asyncTemplate;
+    private final ConfirmingPublisher publisher;
+    private final String requestQueue;
+    private final int maxInFlight;
+    private final ExecutorService streamExecutor;
+    private final MessageLogger messageLog;
+
+    // Spring 없이 기본 설정으로 바로 연결할 때 사용 (벤치마크 등)
+    public RabbitMqClientImpl(String host, int port, boolean directReplyTo, int confirmWindow) {
+        this(host, port, "guest", "guest", "msa.message.requests", directReplyTo, 5000, confirmWindow, 1024,
+                MessageLogSettings.DEFAULT);
+    }
+
+    @Autowired
+    public RabbitMqClientImpl(
+            @Value("${rabbit.client.host:localhost}") String host,
+            @Value("${rabbit.client.port:5672}") int port,
+            @Value("${rabbit.client.username:guest}") String username,
+            @Value("${rabbit.client.password:guest}") String password,
+            @Value("${rabbit.client.request-queue:msa.message.requests}") String requestQueue,
+            @Value("${rabbit.client.direct-reply-to:true}") boolean directReplyTo,
+            @Value("${rabbit.client.reply-timeout-ms:5000}") long replyTimeoutMillis,
+            @Value("${rabbit.client.confirm-window:256}") int confirmWindow,
+            @Value("${rabbit.client.max-in-flight:1024}") int maxInFlight,
+            MessageLogSettings messageLogSettings
+    ) {
+        this.connectionFactory = new CachingConnectionFactory(host, port);
+        this.connectionFactory.setUsername(username);
+        this.connectionFactory.setPassword(password);
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+
+        if (directReplyTo) {
+            // 💡 direct reply-to 가 없는 브로커(예: Qpid)에서는 응답 컨테이너가 소비자를 끝없이 다시 만들고 첫 요청이 멈추므로 미리 확인한다.
+            try {
+                rabbitTemplate.execute(channel -> channel.queueDeclarePassive(Address.AMQ_RABBITMQ_REPLY_TO));
+            } catch (AmqpException e) {
+                this.connectionFactory.destroy();
+                throw new IllegalStateException("RabbitMQ 브로커가 direct reply-to(" + Address.AMQ_RABBITMQ_REPLY_TO
+                        + ")를 지원하지 않습니다. rabbit.client.direct-reply-to=false 로 설정하세요: " + host + ":" + port, e);
+            }
+            this.asyncTemplate = new AsyncRabbitTemplate(rabbitTemplate);
+        } else {
+            // 💡 클라이언트 전용 임시 응답 큐(non-durable, exclusive, auto-delete). 연결이 끊기면 브로커가 지운다.
+            Queue replyQueue = new Queue("msa.client.replies." + UUID.randomUUID(), false, true, true);
+            new RabbitAdmin(connectionFactory).declareQueue(replyQueue);
+            SimpleMessageListenerContainer replyContainer = new SimpleMessageListenerContainer(connectionFactory);
+            replyContainer.setQueueNames(replyQueue.getName());
+            this.asyncTemplate = new AsyncRabbitTemplate(rabbitTemplate, replyContainer, replyQueue.getName());
+        }
+        this.asyncTemplate.setReceiveTimeout(replyTimeoutMillis);
+        this.asyncTemplate.start();
+
+        // publisher confirm 은 요청-응답과 섞이지 않도록 별도 연결의 전용 채널에서 받는다.
+        try {
+            this.publisher = new ConfirmingPublisher(
+                    connectionFactory.getRabbitConnectionFactory().newConnection("msa-client-publisher"), confirmWindow);
+        } catch (IOException | TimeoutException e) {
+            this.asyncTemplate.stop();
+            this.connectionFactory.destroy();
+            throw new IllegalStateException("RabbitMQ 발행 연결 실패: " + host + ":" + port, e);
+        }
+
+        this.requestQueue = requestQueue;
+        this.maxInFlight = maxInFlight;
+        this.streamExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "rabbitmq-client-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.messageLog = new MessageLogger(log, "[RabbitMQ Client]", messageLogSettings);
+        log.info("[RabbitMQ Client] 연결 설정 완료: {}:{} (queue={}, directReplyTo={}, confirmWindow={}, replyTimeout={}ms)",
+                host, port, requestQueue, directReplyTo, confirmWindow, replyTimeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("[RabbitMQ Client] 연결 종료 시도.");
+        streamExecutor.shutdownNow();
+        asyncTemplate.stop();
+        try {
+            publisher.close();
+        } catch (IOException e) {
+            log.warn("[RabbitMQ Client] 발행 연결 종료 실패: {}", e.getMessage());
+        }
+        connectionFactory.destroy();
+    }
+
+    @Override
+    public String sendMessage(String content) {
+        CompletableFuture<String> reply = sendMessageAsync(content);
+        try {
+            return reply.get();
+        } catch (InterruptedException e) {
+            reply.cancel(false);
+            Thread.currentThread().interrupt();
+            log.error("[RabbitMQ Client] 대기 중 인터럽트 발생.", e);
+            return "[RabbitMQ] 예기치 않은 오류: " + e.getMessage();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            log.error("[RabbitMQ Client] 요청 실패: {}", cause.getMessage());
+            return "[RabbitMQ] 요청 실패: " + cause.getMessage();
+        }
+    }
+
+    // 비동기 전송. 응답은 응답 컨테이너 스레드에서 future 로 전달된다.
+    // reply-timeout-ms 안에 응답이 없으면 AmqpReplyTimeoutException 으로 실패한다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content) {
+        return sendMessageAsync(content, null);
+    }
+
+    // idempotencyKey 는 Idempotency-Key 메시지 헤더로 전달된다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey) {
+        // 전송 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[RabbitMQ Client] 메시지 전송 시도: {} -> {}", content, requestQueue);
+        }
+        return exchange(content, idempotencyKey).thenApply(reply -> {
+            if (logged) {
+                log.info("[RabbitMQ Client] 응답 수신: {}", reply);
+            }
+            return "[RabbitMQ] 응답: " + reply;
+        });
+    }
+
+    // 요청을 모두 보낸 뒤 응답을 기다린다. 결과는 입력 순서와 같다.
+    @Override
+    public CompletableFuture<List<String>> sendMessages(List<String> contents) {
+        List<CompletableFuture<String>> replies = new ArrayList<>(contents.size());
+        for (String content : contents) {
+            replies.add(exchange(content, null));
+        }
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    List<String> result = new ArrayList<>(replies.size());
+                    replies.forEach(reply -> result.add(reply.join()));
+                    return result;
+                });
+    }
+
+    // 💡 응답을 기다리는 요청이 max-in-flight 개를 넘지 않도록 보내면서, 응답은 도착하는 대로 replyConsumer 에 넘긴다.
+    @Override
+    public CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        streamExecutor.execute(() -> WindowedStream.run(contents.iterator(), content -> exchange(content, null),
+                maxInFlight, replyConsumer, result));
+        return result;
+    }
+
+    /**
+     * 💡 작업 큐 모드: 응답을 기다리지 않고 요청 큐에 발행만 한다. 서비스의 컨슈머들이 나눠서 처리한다.
+     * 메시지는 persistent 로 보내고, 브로커가 모두 확인(publisher confirm)하면 발행한 개수로 완료된다.
+     * 확인되지 않은 메시지가 confirm-window 개이면 호출 스레드가 확인을 기다린다.
+     */
+    public CompletableFuture<Long> publishMessages(Iterable<String> contents) {
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType(MessageCodecs.REQUEST_PROTOBUF.contentType())
+                .deliveryMode(MessageDeliveryMode.toInt(MessageDeliveryMode.PERSISTENT))
+                .build();
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        try {
+            for (String content : contents) {
+                confirms.add(publisher.publish(DEFAULT_EXCHANGE, requestQueue, properties, requestBody(content)));
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.allOf(confirms.toArray(new CompletableFuture<?>[0])).thenApply(done -> (long) confirms.size());
+    }
+
+    // 요청 하나를 보내고 응답의 reply 값으로 완료된다.
+    // 응답이 늦으면 의미가 없는 요청이므로 non-persistent 로 보낸다.
+    private CompletableFuture<String> exchange(String content, String idempotencyKey) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageCodecs.REQUEST_PROTOBUF.contentType());
+        properties.setDeliveryMode(MessageDeliveryMode.NON_PERSISTENT);
+        if (idempotencyKey != null) {
+            properties.setHeader(IdempotencyKeys.HTTP_HEADER, idempotencyKey);
+        }
+        Message request = MessageBuilder.withBody(requestBody(content)).andProperties(properties).build();
+        CompletableFuture<Message> reply;
+        try {
+            reply = asyncTemplate.sendAndReceive(DEFAULT_EXCHANGE, requestQueue, request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return reply.thenApply(RabbitMqClientImpl::replyOf);
+    }
+
+    private static byte[] requestBody(String content) {
+        return MessageCodecs.REQUEST_PROTOBUF.encodeToArray(MessageRequestGrpc.newBuilder().setContent(content).build());
+    }
+
+    private static String replyOf(Message message) {
+        try {
+            return MessageCodecs.RESPONSE_PROTOBUF.decode(ByteBuffer.wrap(message.getBody())).getReply();
+        } catch (CodecException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
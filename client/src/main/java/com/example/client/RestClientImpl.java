@@ -1,75 +1,548 @@
 package com.example.client;
 
+import com.example.codec.BinaryCodec;
+import com.example.codec.JsonCodec;
+import com.example.codec.MessageCodec;
+import com.example.codec.MessageCodecs;
+import com.example.codec.ProtobufCodec;
 import com.example.dto.MessageRequest;
 import com.example.dto.MessageResponse;
+import com.example.client.rest.NdjsonEntityProducer;
+import com.example.client.rest.NdjsonResponseConsumer;
+import com.example.client.rest.UnixSocketHttpClient;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.net.UnixSocketAddresses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value; // ⭐️ @Value 임포트
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 @Service
 public class RestClientImpl implements Client {
 
     private static final Logger log = LoggerFactory.getLogger(RestClientImpl.class);
 
+    // /api/messages 배치 본문 (JSON 배열). 단건 본문은 MessageCodecs 의 코덱을 쓴다.
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final MessageCodec<MessageRequest[]> BATCH_REQUEST_JSON = new JsonCodec<>(objectMapper, MessageRequest[].class);
+    private static final MessageCodec<MessageResponse[]> BATCH_RESPONSE_JSON = new JsonCodec<>(objectMapper, MessageResponse[].class);
+
+    // sendMessages 에서 /api/messages 요청 하나에 담을 최대 메시지 수
+    private static final int BATCH_SIZE = 1000;
 
-    private final RestTemplate restTemplate;
+    private static final ContentType APPLICATION_PROTOBUF = ContentType.create(ProtobufCodec.CONTENT_TYPE);
+    private static final ContentType APPLICATION_BINARY = ContentType.create(BinaryCodec.CONTENT_TYPE);
+
+    // TCP 이면 httpClient, unix 도메인 소켓(Rest.server.address: unix:///경로)이면 unixSocketClient 하나만 있다.
+    private final CloseableHttpAsyncClient httpClient;
+    private final UnixSocketHttpClient unixSocketClient;
+    private final WireFormat wireFormat;
     private final String restApiUrl;
+    private final String batchApiUrl;
+    private final String streamApiUrl;
+    private final int maxInFlightBatches;
+    private final MessageLogger messageLog;
+
 
+    // Spring 없이 기본 설정으로 바로 연결할 때 사용 (벤치마크 등)
+    public RestClientImpl(String restHost, int restPort) {
+        this(restHost, restPort, HttpProtocol.HTTP_1_1, WireFormat.JSON, 64, 64, 1000, 5000);
+    }
+
+    public RestClientImpl(String restHost, int restPort, HttpProtocol httpProtocol, WireFormat wireFormat,
+                          int maxConnections, int maxConnectionsPerRoute, long connectTimeoutMillis, long responseTimeoutMillis) {
+        this(restHost, restPort, "", httpProtocol, wireFormat, maxConnections, maxConnectionsPerRoute,
+                connectTimeoutMillis, responseTimeoutMillis, 8, MessageLogSettings.DEFAULT);
+    }
 
+    // 같은 호스트의 rest-service 에 unix 도메인 소켓(unix:///경로)으로 연결할 때 사용 (벤치마크 등)
+    public static RestClientImpl forUnixSocket(String restAddress, WireFormat wireFormat) {
+        return new RestClientImpl("localhost", 0, restAddress, HttpProtocol.HTTP_1_1, wireFormat, 64, 64, 1000, 5000, 8,
+                MessageLogSettings.DEFAULT);
+    }
+
+    // restAddress 가 unix:///경로 이면 restHost / restPort 대신 그 unix 도메인 소켓으로 연결한다. (HTTP/1.1 만)
+    @Autowired
     public RestClientImpl(
             @Value("${Rest.server.host}") String restHost,
-            @Value("${Rest.server.port}") int restPort
+            @Value("${Rest.server.port}") int restPort,
+            @Value("${Rest.server.address:}") String restAddress,
+            @Value("${Rest.client.http-version:HTTP_1_1}") HttpProtocol httpProtocol,
+            @Value("${Rest.client.format:JSON}") WireFormat wireFormat,
+            @Value("${Rest.client.max-connections:64}") int maxConnections,
+            @Value("${Rest.client.max-connections-per-route:64}") int maxConnectionsPerRoute,
+            @Value("${Rest.client.connect-timeout-ms:1000}") long connectTimeoutMillis,
+            @Value("${Rest.client.response-timeout-ms:5000}") long responseTimeoutMillis,
+            @Value("${Rest.client.max-in-flight-batches:8}") int maxInFlightBatches,
+            MessageLogSettings messageLogSettings
     ) {
+        if (maxInFlightBatches <= 0) {
+            throw new IllegalArgumentException("Rest.client.max-in-flight-batches must be positive: " + maxInFlightBatches);
+        }
+        this.wireFormat = wireFormat;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.messageLog = new MessageLogger(log, "[REST Client]", messageLogSettings);
 
-        this.restTemplate = new RestTemplate();
+        if (UnixSocketAddresses.isUnix(restAddress)) {
+            if (httpProtocol != HttpProtocol.HTTP_1_1) {
+                throw new IllegalArgumentException("Rest.client.http-version=" + httpProtocol
+                        + " cannot be used with a unix: Rest.server.address (HTTP_1_1 only)");
+            }
+            Path socketPath = UnixSocketAddresses.path(restAddress);
+            this.httpClient = null;
+            this.unixSocketClient = new UnixSocketHttpClient(socketPath, maxConnections, connectTimeoutMillis, responseTimeoutMillis);
+            // URL 의 호스트는 Host 헤더로만 쓰인다.
+            this.restApiUrl = "http://localhost/api/message";
+            this.batchApiUrl = "http://localhost/api/messages";
+            this.streamApiUrl = batchApiUrl + "/stream";
+            log.info("REST API 서버 최종 URL 설정 완료: {} (unix 소켓 {}, {}, maxConnections={}, responseTimeout={}ms)",
+                    this.restApiUrl, socketPath, wireFormat, maxConnections, responseTimeoutMillis);
+            return;
+        }
+        this.unixSocketClient = null;
 
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMillis))
+                .build();
+
+        if (httpProtocol == HttpProtocol.HTTP_2) {
+            // HTTP/2 (h2c): 서버마다 연결 하나를 열고 그 위에 요청을 다중화한다. gRPC 채널과 같은 방식.
+            this.httpClient = HttpAsyncClients.customHttp2()
+                    .setH2Config(H2Config.custom().setPushEnabled(false).build())
+                    .setDefaultConnectionConfig(connectionConfig)
+                    .setDefaultRequestConfig(requestConfig)
+                    .build();
+        } else {
+            // HTTP/1.1: keep-alive 연결 풀. 동시 요청 수만큼 연결이 필요하므로 풀 크기가 곧 동시성 상한이다.
+            this.httpClient = HttpAsyncClients.custom()
+                    .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(maxConnections)
+                            .setMaxConnPerRoute(maxConnectionsPerRoute)
+                            .setDefaultConnectionConfig(connectionConfig)
+                            .build())
+                    .setDefaultRequestConfig(requestConfig)
+                    .evictIdleConnections(TimeValue.ofSeconds(30))
+                    .build();
+        }
+        this.httpClient.start();
 
         this.restApiUrl = String.format("http://%s:%d/api/message", restHost, restPort);
-        log.info("REST API 서버 최종 URL 설정 완료: {}", this.restApiUrl);
+        this.batchApiUrl = String.format("http://%s:%d/api/messages", restHost, restPort);
+        this.streamApiUrl = batchApiUrl + "/stream";
+        log.info("REST API 서버 최종 URL 설정 완료: {} ({}, {}, maxConnections={}, connectTimeout={}ms, responseTimeout={}ms)",
+                this.restApiUrl, httpProtocol, wireFormat, maxConnections, connectTimeoutMillis, responseTimeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("[REST Client] HTTP 클라이언트 종료 시도.");
+        if (unixSocketClient != null) {
+            unixSocketClient.close();
+        } else {
+            httpClient.close(CloseMode.GRACEFUL);
+        }
     }
 
     @Override
     public String sendMessage(String content) {
+        CompletableFuture<String> reply = sendMessageAsync(content);
+        try {
+            return reply.get();
+        } catch (InterruptedException e) {
+            // 기다리지 않을 요청은 취소해서 연결을 닫는다. (서버는 연결 끊김으로 알 수 있다)
+            reply.cancel(false);
+            Thread.currentThread().interrupt();
+            log.error("[REST Client] 대기 중 인터럽트 발생. 요청을 취소합니다.", e);
+            return "[REST] 예기치 않은 오류: " + e.getMessage();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpResponseException responseException) {
+                int statusCode = responseException.getStatusCode();
+                log.error("[REST Client] 응답 실패 - 상태 코드: {}", statusCode);
+                return statusCode >= 400 && statusCode < 500
+                        ? "[REST] 클라이언트 에러: " + statusCode
+                        : "[REST] 통신 실패: 상태 코드 " + statusCode;
+            }
+            if (cause instanceof IOException) {
+                log.error("[REST Client] 서버 연결 실패: {}", cause.getMessage());
+                return "[REST] 서버 연결 실패: " + cause.getMessage();
+            }
+            log.error("[REST Client] 예기치 않은 오류 발생: {}", cause.getMessage(), cause);
+            return "[REST] 예기치 않은 오류: " + cause.getMessage();
+        }
+    }
+
+    // 비동기 전송. 호출 스레드를 막지 않고, 응답은 HTTP 클라이언트의 I/O 스레드에서 future 로 전달된다.
+    // 2xx 가 아니면 HttpResponseException, 연결/타임아웃 문제는 IOException 으로 실패한다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content) {
+        return sendMessageAsync(content, null);
+    }
 
+    // idempotencyKey 는 Idempotency-Key 헤더로 전달된다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey) {
+        // 전송 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[REST Client] 메시지 전송 시도: {} -> {}", content, restApiUrl);
+        }
+        CompletableFuture<String> exchange = exchange(content, idempotencyKey);
+        CompletableFuture<String> result = exchange.thenApply(reply -> {
+            if (logged) {
+                log.info("[REST Client] 응답 수신: {}", reply);
+            }
+            return "[REST] 응답: " + reply;
+        });
+        result.whenComplete((reply, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    // /api/messages 배치 엔드포인트로 BATCH_SIZE 개씩 묶어 보낸다. 결과는 입력 순서와 같다.
+    // 💡 동시에 보내는 묶음은 max-in-flight-batches 개까지다. 한꺼번에 보내면 수십만 건이 수백 개의 요청이 되어
+    // 연결 풀 앞에 줄을 서다가 응답 타임아웃에 걸린다. 묶음 하나가 끝날 때마다 다음 묶음을 보낸다. (호출 스레드를 막지 않음)
+    @Override
+    public CompletableFuture<List<String>> sendMessages(List<String> contents) {
+        return new WindowedBatches(contents).start();
+    }
 
-        MessageRequest request = new MessageRequest(content);
+    // 💡 /api/messages/stream 으로 요청 하나에 NDJSON 을 흘려보내고, 응답 줄도 도착하는 대로 읽는다.
+    // 본문은 보낼 수 있을 때만 만들어지고 응답도 줄 단위로 처리되므로, 메시지 수와 상관없이 메모리 사용량이 일정하다.
+    @Override
+    public CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer) {
+        if (unixSocketClient != null) {
+            return streamBatches(contents.iterator(), replyConsumer);
+        }
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        AsyncRequestProducer request = AsyncRequestBuilder.post(streamApiUrl)
+                .addHeader("Accept", NdjsonEntityProducer.APPLICATION_NDJSON.getMimeType())
+                .setEntity(new NdjsonEntityProducer(contents.iterator(), MessageCodecs.REQUEST_JSON))
+                .build();
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<MessageRequest> entity = new HttpEntity<>(request, headers);
+        Future<Long> call = httpClient.execute(request, new NdjsonResponseConsumer(replyConsumer, MessageCodecs.RESPONSE_JSON),
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(Long count) {
+                        result.complete(count);
+                    }
 
+                    @Override
+                    public void failed(Exception e) {
+                        result.completeExceptionally(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel(false);
+                    }
+                });
+        result.whenComplete((count, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // 💡 unix 소켓(클래식 클라이언트)은 요청 본문을 다 보낸 뒤에야 응답을 읽는다. 읽으면서 바로 응답을 쓰는 /stream 엔드포인트와는
+    // 양쪽 소켓 버퍼가 차면 서로 기다리게 되므로, 대신 /api/messages 배치로 BATCH_SIZE 개씩 차례로 보낸다.
+    // 한 번에 묶음 하나만 보내고 받으므로 메모리 사용량은 /stream 처럼 메시지 수와 상관없이 일정하다.
+    private CompletableFuture<Long> streamBatches(Iterator<String> contents, Consumer<String> replyConsumer) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<List<String>>> inFlight = new AtomicReference<>();
+        sendNextBatch(contents, replyConsumer, 0, inFlight, result);
+        result.whenComplete((count, error) -> {
+            CompletableFuture<List<String>> batch = inFlight.get();
+            if (result.isCancelled() && batch != null) {
+                batch.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private void sendNextBatch(Iterator<String> contents, Consumer<String> replyConsumer, long received,
+                               AtomicReference<CompletableFuture<List<String>>> inFlight, CompletableFuture<Long> result) {
+        if (result.isDone()) {
+            return; // 취소됨
+        }
+        if (!contents.hasNext()) {
+            result.complete(received);
+            return;
+        }
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        while (batch.size() < BATCH_SIZE && contents.hasNext()) {
+            batch.add(contents.next());
+        }
+        CompletableFuture<List<String>> call = exchangeBatch(batch);
+        inFlight.set(call);
+        call.whenComplete((replies, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            try {
+                replies.forEach(replyConsumer);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            sendNextBatch(contents, replyConsumer, received + replies.size(), inFlight, result);
+        });
+    }
+
+    // sendMessages 한 번의 진행 상태. 묶음 응답은 묶음 번호 자리에 모았다가 모두 끝나면 순서대로 합친다.
+    private final class WindowedBatches {
+
+        private final List<String> contents;
+        private final AtomicReferenceArray<List<String>> replies;
+        private final AtomicInteger nextBatch = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final Set<CompletableFuture<List<String>>> inFlight = ConcurrentHashMap.newKeySet();
+        private final CompletableFuture<List<String>> result = new CompletableFuture<>();
+
+        private WindowedBatches(List<String> contents) {
+            int batchCount = (contents.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+            this.contents = contents;
+            this.replies = new AtomicReferenceArray<>(batchCount);
+            this.remaining = new AtomicInteger(batchCount);
+        }
+
+        private CompletableFuture<List<String>> start() {
+            if (replies.length() == 0) {
+                result.complete(new ArrayList<>());
+                return result;
+            }
+            // 취소되거나 한 묶음이라도 실패하면 나머지 진행 중인 묶음도 중단한다.
+            result.whenComplete((all, error) -> {
+                if (error != null) {
+                    inFlight.forEach(batch -> batch.cancel(false));
+                }
+            });
+            for (int i = 0; i < Math.min(maxInFlightBatches, replies.length()); i++) {
+                sendNext();
+            }
+            return result;
+        }
+
+        private void sendNext() {
+            int index = nextBatch.getAndIncrement();
+            if (result.isDone() || index >= replies.length()) {
+                return;
+            }
+            int from = index * BATCH_SIZE;
+            CompletableFuture<List<String>> call = exchangeBatch(contents.subList(from, Math.min(from + BATCH_SIZE, contents.size())));
+            inFlight.add(call);
+            if (result.isDone()) {
+                call.cancel(false);
+            }
+            call.whenComplete((batchReplies, error) -> {
+                inFlight.remove(call);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                replies.set(index, batchReplies);
+                if (remaining.decrementAndGet() == 0) {
+                    List<String> all = new ArrayList<>(contents.size());
+                    for (int i = 0; i < replies.length(); i++) {
+                        all.addAll(replies.get(i));
+                    }
+                    result.complete(all);
+                    return;
+                }
+                sendNext();
+            });
+        }
+    }
+
+    // /api/message 호출 한 번. 성공하면 서버의 reply 값으로 완료된다.
+    private CompletableFuture<String> exchange(String content, String idempotencyKey) {
+        switch (wireFormat) {
+            case PROTOBUF:
+                return post(restApiUrl, idempotencyKey, APPLICATION_PROTOBUF, MessageCodecs.REQUEST_PROTOBUF,
+                        MessageRequestGrpc.newBuilder().setContent(content).build(), MessageCodecs.RESPONSE_PROTOBUF)
+                        .thenApply(MessageResponseGrpc::getReply);
+            case BINARY:
+                return post(restApiUrl, idempotencyKey, APPLICATION_BINARY, MessageCodecs.REQUEST_BINARY,
+                        new MessageRequest(content), MessageCodecs.RESPONSE_BINARY)
+                        .thenApply(MessageResponse::getReply);
+            default:
+                return post(restApiUrl, idempotencyKey, ContentType.APPLICATION_JSON, MessageCodecs.REQUEST_JSON,
+                        new MessageRequest(content), MessageCodecs.RESPONSE_JSON)
+                        .thenApply(MessageResponse::getReply);
+        }
+    }
+
+    // /api/messages 호출 한 번. 응답 배열의 reply 목록으로 완료된다.
+    private CompletableFuture<List<String>> exchangeBatch(List<String> contents) {
+        MessageRequest[] requests = new MessageRequest[contents.size()];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new MessageRequest(contents.get(i));
+        }
+        return post(batchApiUrl, null, ContentType.APPLICATION_JSON, BATCH_REQUEST_JSON, requests, BATCH_RESPONSE_JSON)
+                .thenApply(responses -> {
+                    List<String> replies = new ArrayList<>(responses.length);
+                    for (MessageResponse response : responses) {
+                        replies.add(response.getReply());
+                    }
+                    return replies;
+                });
+    }
+
+    // 💡 SimpleHttpRequest 는 본문으로 byte[] 만 받으므로 encodeToArray 로 크기에 맞는 배열 하나만 만들고,
+    // 응답 본문은 복사하지 않고 ByteBuffer.wrap 으로 감싸 디코딩한다.
+    private <Q, R> CompletableFuture<R> post(String url, String idempotencyKey, ContentType contentType,
+                                             MessageCodec<Q> requestCodec, Q request, MessageCodec<R> responseCodec) {
+        return post(url, idempotencyKey, contentType, () -> requestCodec.encodeToArray(request),
+                body -> responseCodec.decode(ByteBuffer.wrap(body)));
+    }
+
+    // idempotencyKey 가 null 이 아니면 Idempotency-Key 헤더로 보낸다.
+    private <T> CompletableFuture<T> post(String url, String idempotencyKey, ContentType contentType,
+                                          BodyWriter bodyWriter, BodyReader<T> bodyReader) {
+        if (unixSocketClient != null) {
+            return postUnixSocket(url, idempotencyKey, contentType, bodyWriter, bodyReader);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        SimpleHttpRequest request;
         try {
-            log.info("[REST Client] 메시지 전송 시도: {} -> {}", content, restApiUrl);
-            ResponseEntity<MessageResponse> response = restTemplate.exchange(
-                    restApiUrl, // ⭐️ 하드코딩된 url 대신 필드 사용
-                    HttpMethod.POST,
-                    entity,
-                    MessageResponse.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                String reply = response.getBody().getReply();
-                log.info("[REST Client] 응답 수신: {}", reply);
-                return "[REST] 응답: " + reply;
-            } else {
-                log.warn("[REST Client] 응답 실패 - 상태 코드: {}", response.getStatusCode());
-                return "[REST] 통신 실패: 상태 코드 " + response.getStatusCode();
-            }
-            // ... (catch 블록은 기존과 동일) ...
-        } catch (HttpClientErrorException e) {
-            log.error("[REST Client] 클라이언트 에러 발생: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            return "[REST] 클라이언트 에러: " + e.getStatusCode();
-        } catch (ResourceAccessException e) {
-            log.error("[REST Client] 서버 연결 실패: {}", e.getMessage());
-            return "[REST] 서버 연결 실패: " + e.getMessage();
-        } catch (Exception e) {
-            log.error("[REST Client] 예기치 않은 오류 발생: {}", e.getMessage(), e);
-            return "[REST] 예기치 않은 오류: " + e.getMessage();
+            SimpleRequestBuilder builder = SimpleRequestBuilder.post(url)
+                    .addHeader("Accept", contentType.getMimeType())
+                    .setBody(bodyWriter.write(), contentType);
+            if (idempotencyKey != null) {
+                builder.addHeader(IdempotencyKeys.HTTP_HEADER, idempotencyKey);
+            }
+            request = builder.build();
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        Future<SimpleHttpResponse> call = httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    if (response.getCode() < 200 || response.getCode() >= 300) {
+                        result.completeExceptionally(new HttpResponseException(response.getCode(), response.getReasonPhrase()));
+                        return;
+                    }
+                    result.complete(bodyReader.read(response.getBodyBytes()));
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        // 호출자가 future 를 취소하면 진행 중인 HTTP 요청도 중단한다.
+        result.whenComplete((reply, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // post 와 같은 요청 / 응답을 unix 소켓 클라이언트로 주고받는다. 응답 본문은 요청 스레드에서 읽고 디코딩한다.
+    private <T> CompletableFuture<T> postUnixSocket(String url, String idempotencyKey, ContentType contentType,
+                                                    BodyWriter bodyWriter, BodyReader<T> bodyReader) {
+        HttpPost request = new HttpPost(url);
+        try {
+            request.addHeader("Accept", contentType.getMimeType());
+            request.setEntity(new ByteArrayEntity(bodyWriter.write(), contentType));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyKeys.HTTP_HEADER, idempotencyKey);
         }
+        return unixSocketClient.execute(request, response -> {
+            if (response.getCode() < 200 || response.getCode() >= 300) {
+                EntityUtils.consume(response.getEntity());
+                throw new HttpResponseException(response.getCode(), response.getReasonPhrase());
+            }
+            return bodyReader.read(EntityUtils.toByteArray(response.getEntity()));
+        });
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        byte[] write() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(byte[] body) throws IOException;
+    }
+
+    // /api/message 단건 요청의 본문 형식. 배치/스트림 엔드포인트는 항상 JSON(NDJSON) 이다.
+    public enum WireFormat {
+        JSON,
+        PROTOBUF,   // application/x-protobuf, gRPC 와 같은 MessageRequestGrpc / MessageResponseGrpc 사용
+        BINARY      // application/x-msa-binary, 필드 태그 없는 길이-접두 형식 (MessageCodecs.REQUEST_BINARY)
+    }
+
+    public enum HttpProtocol {
+        HTTP_1_1,
+        HTTP_2      // 평문 h2c (prior knowledge). 서버에 server.http2.enabled=true 필요
     }
-}
\ No newline at end of file
+}
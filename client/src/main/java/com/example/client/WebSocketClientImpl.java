@@ -0,0 +1,278 @@
+package com.example.client;
+
+import com.example.client.websocket.WebSocketConnection;
+import com.example.codec.MessageCodecs;
+import com.example.grpc.ChatMessage;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * websocket-service 클라이언트. 바이너리 프레임에 protobuf 메시지를 담아 주고받는다. (DelimitedFrames 형식)
+ *
+ * - 요청-응답(Client 인터페이스): /ws/message 연결 connections 개를 돌아가며 쓴다. 연결 하나에 요청을 응답 없이 이어 보내고
+ *   (pipelining) 서버가 요청 순서대로 응답하므로, 응답은 보낸 순서대로 기다리는 future 와 짝짓는다.
+ *   보낼 요청이 몰리면 CoalescingFrameWriter 가 프레임 하나에 여러 요청을 묶는다.
+ * - 채팅(openChat): /ws/chat 연결을 세션마다 하나씩 연다. grpc-service 의 Chat RPC 와 같은 동작이다.
+ *
+ * 연결은 처음 보낼 때 열고, 끊어지면 기다리던 요청을 모두 실패시킨 뒤 다음 요청에서 다시 연다.
+ */
+@Service
+public class WebSocketClientImpl implements Client {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketClientImpl.class);
+
+    private final HttpClient httpClient;
+    private final URI messageUri;
+    private final URI chatUri;
+    private final Duration connectTimeout;
+    private final long replyTimeoutMillis;
+    private final int sendBufferMessages;
+    private final int maxFrameBytes;
+    private final int maxInFlight;
+    private final MessageChannel[] channels;
+    private final AtomicInteger nextChannel = new AtomicInteger();
+    private final ExecutorService streamExecutor;
+    private final MessageLogger messageLog;
+    private final MessageLogger chatMessageLog;
+
+    // Spring 없이 기본 설정으로 바로 연결할 때 사용 (벤치마크 등)
+    public WebSocketClientImpl(String host, int port) {
+        this(host, port, 1, 1000, 5000, 65536, 32768, 1024, MessageLogSettings.DEFAULT);
+    }
+
+    @Autowired
+    public WebSocketClientImpl(
+            @Value("${websocket.client.host:localhost}") String host,
+            @Value("${websocket.client.port:8084}") int port,
+            @Value("${websocket.client.connections:1}") int connections,
+            @Value("${websocket.client.connect-timeout-ms:1000}") long connectTimeoutMillis,
+            @Value("${websocket.client.reply-timeout-ms:5000}") long replyTimeoutMillis,
+            @Value("${websocket.client.send-buffer-messages:65536}") int sendBufferMessages,
+            @Value("${websocket.client.max-frame-bytes:32768}") int maxFrameBytes,
+            @Value("${websocket.client.max-in-flight:1024}") int maxInFlight,
+            MessageLogSettings messageLogSettings
+    ) {
+        if (connections < 1) {
+            throw new IllegalArgumentException("websocket.client.connections must be >= 1: " + connections);
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.messageUri = URI.create("ws://" + host + ":" + port + "/ws/message");
+        this.chatUri = URI.create("ws://" + host + ":" + port + "/ws/chat");
+        this.connectTimeout = Duration.ofMillis(connectTimeoutMillis);
+        this.replyTimeoutMillis = replyTimeoutMillis;
+        this.sendBufferMessages = sendBufferMessages;
+        this.maxFrameBytes = maxFrameBytes;
+        this.maxInFlight = maxInFlight;
+        this.channels = new MessageChannel[connections];
+        for (int i = 0; i < connections; i++) {
+            channels[i] = new MessageChannel();
+        }
+        this.streamExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-client-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.messageLog = new MessageLogger(log, "[WebSocket Client]", messageLogSettings);
+        this.chatMessageLog = new MessageLogger(log, "[WebSocket Chat - Client]", messageLogSettings);
+        log.info("[WebSocket Client] 설정 완료: {} (connections={}, maxFrameBytes={})", messageUri, connections, maxFrameBytes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("[WebSocket Client] 연결 종료 시도.");
+        streamExecutor.shutdownNow();
+        for (MessageChannel channel : channels) {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String sendMessage(String content) {
+        CompletableFuture<String> reply = sendMessageAsync(content);
+        try {
+            return reply.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("[WebSocket Client] 대기 중 인터럽트 발생.", e);
+            return "[WebSocket] 예기치 않은 오류: " + e.getMessage();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            log.error("[WebSocket Client] 요청 실패: {}", cause.toString());
+            return "[WebSocket] 요청 실패: " + cause;
+        }
+    }
+
+    // 비동기 전송. 응답은 WebSocket 수신 스레드에서 future 로 전달된다.
+    // reply-timeout-ms 안에 응답이 없으면 TimeoutException 으로 실패한다. (늦게 온 응답은 버린다)
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content) {
+        // 전송 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[WebSocket Client] 메시지 전송 시도: {} -> {}", content, messageUri);
+        }
+        return exchange(content).thenApply(reply -> {
+            if (logged) {
+                log.info("[WebSocket Client] 응답 수신: {}", reply);
+            }
+            return "[WebSocket] 응답: " + reply;
+        });
+    }
+
+    // WebSocket 프레임에는 메시지별 헤더가 없어서 Idempotency-Key 를 보낼 수 없다. 키가 있으면 보내지 않고 실패시킨다.
+    @Override
+    public CompletableFuture<String> sendMessageAsync(String content, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return CompletableFuture.failedFuture(
+                    new UnsupportedOperationException("WebSocket transport does not carry Idempotency-Key"));
+        }
+        return sendMessageAsync(content);
+    }
+
+    // 요청을 모두 보낸 뒤 응답을 기다린다. 결과는 입력 순서와 같다.
+    // 한 연결에 이어 보내므로 요청들이 프레임 몇 개로 묶여 나간다.
+    @Override
+    public CompletableFuture<List<String>> sendMessages(List<String> contents) {
+        MessageChannel channel = nextChannel();
+        List<CompletableFuture<String>> replies = new ArrayList<>(contents.size());
+        for (String content : contents) {
+            replies.add(channel.exchange(content));
+        }
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    List<String> result = new ArrayList<>(replies.size());
+                    replies.forEach(reply -> result.add(reply.join()));
+                    return result;
+                });
+    }
+
+    // 💡 응답을 기다리는 요청이 max-in-flight 개를 넘지 않도록 보내면서, 응답은 도착하는 대로 replyConsumer 에 넘긴다.
+    @Override
+    public CompletableFuture<Long> streamMessages(Iterable<String> contents, Consumer<String> replyConsumer) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        streamExecutor.execute(() -> WindowedStream.run(contents.iterator(), this::exchange, maxInFlight, replyConsumer, result));
+        return result;
+    }
+
+    /**
+     * /ws/chat 연결을 새로 열고 room 에 들어간다. (빈 값이면 서버 기본 방)
+     * listener 는 같은 방의 다른 멤버 메시지와 서버 확인 응답을 받으며, WebSocket 수신 스레드에서 한 번에 하나씩 호출된다.
+     */
+    public ChatSession openChat(String user, String room, Consumer<ChatMessage> listener) {
+        WebSocketConnection<ChatMessage, ChatMessage> connection = WebSocketConnection.open(httpClient, chatUri, connectTimeout,
+                MessageCodecs.CHAT_PROTOBUF, MessageCodecs.CHAT_PROTOBUF, message -> {
+                    if (chatMessageLog.sample()) {
+                        log.info("[WebSocket Chat - Client] 메시지 수신 (From: {}, Msg: {})", message.getSender(), message.getMessage());
+                    }
+                    listener.accept(message);
+                },
+                error -> log.info("[WebSocket Chat - Client] 연결 종료: {}", error.getMessage()),
+                sendBufferMessages, maxFrameBytes);
+        return new ChatSession() {
+            @Override
+            public void send(String message) {
+                boolean sent = connection.send(ChatMessage.newBuilder()
+                        .setSender(user)
+                        .setMessage(message)
+                        .setRoom(room)
+                        .build());
+                if (!sent) {
+                    throw new IllegalStateException("WebSocket chat connection is closed");
+                }
+            }
+
+            @Override
+            public void close() {
+                connection.close();
+            }
+        };
+    }
+
+    // 요청 하나를 보내고 응답의 reply 값으로 완료된다.
+    private CompletableFuture<String> exchange(String content) {
+        return nextChannel().exchange(content);
+    }
+
+    private MessageChannel nextChannel() {
+        return channels[Math.floorMod(nextChannel.getAndIncrement(), channels.length)];
+    }
+
+    /**
+     * /ws/message 연결 하나와 그 연결에서 응답을 기다리는 요청들(보낸 순서).
+     */
+    private final class MessageChannel {
+
+        private WebSocketConnection<MessageRequestGrpc, MessageResponseGrpc> connection;
+        private Queue<CompletableFuture<String>> pending;
+
+        // 기다리는 future 를 넣는 순서와 프레임에 쓰는 순서가 같아야 하므로 둘을 함께 잠근다.
+        synchronized CompletableFuture<String> exchange(String content) {
+            CompletableFuture<String> reply = new CompletableFuture<>();
+            try {
+                if (connection == null || !connection.isOpen()) {
+                    connect();
+                }
+            } catch (RuntimeException e) {
+                reply.completeExceptionally(e);
+                return reply;
+            }
+            pending.add(reply);
+            // 송신 버퍼가 가득 차면 연결이 끊기고, 기다리던 요청(이 요청 포함)은 onClosed 에서 실패한다.
+            connection.send(MessageRequestGrpc.newBuilder().setContent(content).build());
+            return reply.orTimeout(replyTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void connect() {
+            Queue<CompletableFuture<String>> replies = new ConcurrentLinkedQueue<>();
+            connection = WebSocketConnection.open(httpClient, messageUri, connectTimeout,
+                    MessageCodecs.REQUEST_PROTOBUF, MessageCodecs.RESPONSE_PROTOBUF,
+                    response -> {
+                        CompletableFuture<String> reply = replies.poll();
+                        if (reply != null) {
+                            reply.complete(response.getReply());
+                        }
+                    },
+                    error -> {
+                        log.warn("[WebSocket Client] 연결 종료: {} (기다리던 요청 {}개 실패 처리)", error.getMessage(), replies.size());
+                        CompletableFuture<String> reply;
+                        while ((reply = replies.poll()) != null) {
+                            reply.completeExceptionally(error);
+                        }
+                    },
+                    sendBufferMessages, maxFrameBytes);
+            pending = replies;
+            log.info("[WebSocket Client] 연결 완료: {}", messageUri);
+        }
+
+        synchronized void close() {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+}
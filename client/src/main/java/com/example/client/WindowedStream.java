@@ -0,0 +1,55 @@
+package com.example.client;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 요청을 하나씩 보내는 브로커 클라이언트(Kafka, RabbitMQ)의 streamMessages 구현.
+ * 응답을 기다리는 요청이 maxInFlight 개를 넘지 않도록 보내면서, 응답은 도착하는 대로 replyConsumer 에 넘긴다.
+ * 창이 빌 때까지 기다려야 하므로 호출 스레드가 아닌 별도 스레드에서 run 을 실행한다.
+ */
+final class WindowedStream {
+
+    private WindowedStream() {
+    }
+
+    static void run(Iterator<String> contents, Function<String, CompletableFuture<String>> exchange, int maxInFlight,
+                    Consumer<String> replyConsumer, CompletableFuture<Long> result) {
+        Semaphore window = new Semaphore(maxInFlight);
+        // 응답을 기다리는 요청 수 + 1(보내는 쪽). 0 이 되면 모든 응답을 받은 것이다.
+        AtomicLong pending = new AtomicLong(1);
+        AtomicLong received = new AtomicLong();
+        try {
+            while (!result.isDone() && contents.hasNext()) {
+                window.acquire();
+                pending.incrementAndGet();
+                exchange.apply(contents.next()).whenComplete((reply, error) -> {
+                    window.release();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else if (!result.isDone()) {
+                        synchronized (replyConsumer) {
+                            replyConsumer.accept(reply);
+                        }
+                        received.incrementAndGet();
+                    }
+                    if (pending.decrementAndGet() == 0) {
+                        result.complete(received.get());
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(false);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        if (pending.decrementAndGet() == 0) {
+            result.complete(received.get());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.client.adaptive;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * AdaptiveClientImpl 의 라우팅 설정. client 모듈이 adaptive.* 설정으로 만든다.
+ *
+ * @param window          전송 방식별 응답 시간 / 오류율을 모으는 이동 창 길이 (1초 단위 칸으로 나눈다)
+ * @param minSamples      창 안의 호출이 이보다 적은 전송 방식이 있으면 비교하지 않고 호출이 적은 쪽으로 보낸다.
+ * @param maxErrorRate    창 안의 오류율이 이보다 높으면 성능이 떨어진 것으로 보고 다른 쪽으로 보낸다.
+ * @param switchMargin    다른 쪽의 평균 응답 시간이 이 비율 이상 빨라야 바꾼다. 비슷한 두 방식 사이를 오가지 않게 한다.
+ * @param probeEvery      이 횟수마다 한 번은 선택되지 않은 쪽으로 보내 통계를 갱신한다. 0 이면 보내지 않는다.
+ * @param sizeClassBytes  메시지 크기 구간의 경계(바이트, 오름차순). 구간마다 통계와 선택을 따로 둔다.
+ */
+public record AdaptiveRoutingSettings(Duration window, int minSamples, double maxErrorRate, double switchMargin,
+                                      int probeEvery, List<Integer> sizeClassBytes) {
+
+    // Spring 없이 만드는 클라이언트(벤치마크 등)가 사용하는 기본값. yml 기본값과 같다.
+    public static final AdaptiveRoutingSettings DEFAULT =
+            new AdaptiveRoutingSettings(Duration.ofSeconds(10), 20, 0.2, 0.1, 50, List.of(1024, 16384));
+
+    public AdaptiveRoutingSettings {
+        if (window.getSeconds() < 1) {
+            throw new IllegalArgumentException("adaptive.window-seconds must be >= 1: " + window);
+        }
+        if (minSamples < 1 || probeEvery < 0) {
+            throw new IllegalArgumentException("adaptive.min-samples must be >= 1 and probe-every >= 0");
+        }
+        if (maxErrorRate < 0 || maxErrorRate > 1 || switchMargin < 0 || switchMargin >= 1) {
+            throw new IllegalArgumentException("adaptive.max-error-rate must be in [0, 1] and switch-margin in [0, 1)");
+        }
+        for (int i = 1; i < sizeClassBytes.size(); i++) {
+            if (sizeClassBytes.get(i) <= sizeClassBytes.get(i - 1)) {
+                throw new IllegalArgumentException("adaptive.size-class-bytes must be ascending: " + sizeClassBytes);
+            }
+        }
+        sizeClassBytes = List.copyOf(sizeClassBytes);
+    }
+
+    // payloadBytes 가 속하는 구간 번호 (0 .. sizeClassBytes.size())
+    public int sizeClass(int payloadBytes) {
+        int index = 0;
+        while (index < sizeClassBytes.size() && payloadBytes >= sizeClassBytes.get(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    // 로그 / 지표용 구간 이름. 예) "<1024", "1024-16383", ">=16384"
+    public String sizeClassName(int sizeClass) {
+        if (sizeClassBytes.isEmpty()) {
+            return "all";
+        }
+        if (sizeClass == 0) {
+            return "<" + sizeClassBytes.get(0);
+        }
+        if (sizeClass == sizeClassBytes.size()) {
+            return ">=" + sizeClassBytes.get(sizeClass - 1);
+        }
+        return sizeClassBytes.get(sizeClass - 1) + "-" + (sizeClassBytes.get(sizeClass) - 1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.client.adaptive;
+
+import java.time.Duration;
+
+/**
+ * 최근 window 동안의 호출 수, 실패 수, 성공한 호출의 응답 시간 합. 시간 칸(bucket) bucketCount 개를 돌려 쓰는 이동 창이다.
+ *
+ * 칸 하나는 window / bucketCount 동안의 기록이고, 창보다 오래된 칸은 그 칸에 다시 기록할 때 비워지거나 snapshot 에서 빠진다.
+ * 그래서 트래픽이 끊긴 전송 방식의 통계는 창 길이가 지나면 저절로 사라진다.
+ */
+final class LatencyWindow {
+
+    private final long bucketNanos;
+    private final Bucket[] buckets;
+
+    LatencyWindow(Duration window, int bucketCount) {
+        this.bucketNanos = Math.max(1, window.toNanos() / bucketCount);
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    void recordSuccess(long latencyNanos) {
+        long epoch = Math.floorDiv(System.nanoTime(), bucketNanos);
+        Bucket bucket = buckets[Math.floorMod(epoch, buckets.length)];
+        synchronized (bucket) {
+            bucket.rollTo(epoch);
+            bucket.calls++;
+            bucket.latencyNanos += latencyNanos;
+        }
+    }
+
+    void recordFailure() {
+        long epoch = Math.floorDiv(System.nanoTime(), bucketNanos);
+        Bucket bucket = buckets[Math.floorMod(epoch, buckets.length)];
+        synchronized (bucket) {
+            bucket.rollTo(epoch);
+            bucket.calls++;
+            bucket.failures++;
+        }
+    }
+
+    WindowSnapshot snapshot() {
+        long current = Math.floorDiv(System.nanoTime(), bucketNanos);
+        long calls = 0;
+        long failures = 0;
+        long latencyNanos = 0;
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                if (current - bucket.epoch < buckets.length) {
+                    calls += bucket.calls;
+                    failures += bucket.failures;
+                    latencyNanos += bucket.latencyNanos;
+                }
+            }
+        }
+        long successes = calls - failures;
+        return new WindowSnapshot(calls, failures, successes > 0 ? latencyNanos / successes : 0);
+    }
+
+    private static final class Bucket {
+        long epoch = Long.MIN_VALUE;
+        long calls;
+        long failures;
+        long latencyNanos;
+
+        // 다른 시간 칸의 기록이 남아 있으면 비운다.
+        void rollTo(long newEpoch) {
+            if (epoch != newEpoch) {
+                epoch = newEpoch;
+                calls = 0;
+                failures = 0;
+                latencyNanos = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.client.adaptive;
+
+import com.example.client.ClientFactory;
+
+/**
+ * AdaptiveClientImpl 이 호출 하나를 어느 전송 방식으로 보냈는지와 그 이유. 판단에 쓴 두 방식의 창 통계를 함께 담는다.
+ *
+ * @param sizeClass 메시지 크기 구간 이름 (AdaptiveRoutingSettings.sizeClassName)
+ */
+public record RoutingDecision(ClientFactory.ClientType transport, Reason reason, String sizeClass,
+                              WindowSnapshot rest, WindowSnapshot grpc) {
+
+    public enum Reason {
+        WARMUP,         // 표본이 min-samples 보다 적은 쪽이 있어 호출이 적은 쪽으로 보냄
+        FASTER,         // 다른 쪽보다 평균 응답 시간이 switch-margin 이상 빨라 선택을 바꿈
+        KEEP,           // 차이가 switch-margin 보다 작아 지금 선택을 유지
+        FALLBACK,       // 다른 쪽의 오류율이 max-error-rate 를 넘어 이쪽으로 보냄
+        ALL_DEGRADED,   // 두 쪽 모두 오류율이 높아 오류율이 낮은 쪽으로 보냄
+        PROBE           // probe-every 마다 선택되지 않은 쪽의 통계를 갱신하려고 보냄
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, size %s) REST[%s] GRPC[%s]", transport, reason, sizeClass, rest, grpc);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.client.adaptive;
+
+import com.example.client.ClientFactory.ClientType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 호출마다 REST 와 gRPC 중 하나를 고른다. 메시지 크기 구간마다 두 방식의 이동 창 통계(LatencyWindow)와 현재 선택을 따로 둔다.
+ *
+ * 고르는 순서:
+ * 1. 오류율이 maxErrorRate 를 넘는 쪽이 있으면 다른 쪽으로 보낸다. 둘 다 넘으면 오류율이 낮은 쪽.
+ *    창 안의 호출이 minSamples 보다 적어도 먼저 본다. 호출이 드물면 죽은 쪽의 창이 minSamples 를 채우지 못해
+ *    2번(워밍업)이 계속 모든 호출을 그쪽으로 보내기 때문이다.
+ * 2. 창 안의 호출이 minSamples 보다 적은 쪽이 있으면 그쪽으로 보낸다. (둘 다 적으면 번갈아)
+ * 3. 둘 다 정상이면 지금 선택을 유지하다가, 다른 쪽 평균 응답 시간이 switchMargin 이상 빠르면 바꾼다.
+ * 4. probeEvery 번째 호출마다 선택되지 않은 쪽으로 보내 그쪽 통계도 창 안에 남게 한다. (성능이 떨어졌던 쪽의 회복도 이렇게 알게 된다)
+ *
+ * 💡 같은 크기 구간 안에서는 요청 크기에 따른 차이가 작으므로 평균 응답 시간을 그대로 비교한다.
+ * 구간 경계는 두 방식의 순위가 바뀔 만한 크기(예: 1KB, 16KB)에 둔다.
+ */
+public final class TransportRouter {
+
+    private static final int BUCKETS_PER_SECOND = 1;
+
+    private final AdaptiveRoutingSettings settings;
+    private final SizeClassRoute[] routes;
+
+    public TransportRouter(AdaptiveRoutingSettings settings) {
+        this.settings = settings;
+        int bucketCount = (int) settings.window().getSeconds() * BUCKETS_PER_SECOND;
+        this.routes = new SizeClassRoute[settings.sizeClassBytes().size() + 1];
+        for (int i = 0; i < routes.length; i++) {
+            routes[i] = new SizeClassRoute(settings.sizeClassName(i), new LatencyWindow(settings.window(), bucketCount),
+                    new LatencyWindow(settings.window(), bucketCount));
+        }
+    }
+
+    public RoutingDecision route(int payloadBytes) {
+        SizeClassRoute route = routes[settings.sizeClass(payloadBytes)];
+        long call = route.calls.incrementAndGet();
+        WindowSnapshot rest = route.rest.snapshot();
+        WindowSnapshot grpc = route.grpc.snapshot();
+        RoutingDecision decision = decide(route, call, rest, grpc);
+        route.last = decision;
+        return decision;
+    }
+
+    public void recordSuccess(ClientType transport, int payloadBytes, long latencyNanos) {
+        window(transport, settings.sizeClass(payloadBytes)).recordSuccess(latencyNanos);
+    }
+
+    public void recordFailure(ClientType transport, int payloadBytes) {
+        window(transport, settings.sizeClass(payloadBytes)).recordFailure();
+    }
+
+    public int sizeClass(int payloadBytes) {
+        return settings.sizeClass(payloadBytes);
+    }
+
+    public int sizeClasses() {
+        return routes.length;
+    }
+
+    public String sizeClassName(int sizeClass) {
+        return routes[sizeClass].name;
+    }
+
+    public WindowSnapshot snapshot(ClientType transport, int sizeClass) {
+        return window(transport, sizeClass).snapshot();
+    }
+
+    // 크기 구간마다 마지막으로 내린 결정. 아직 호출이 없던 구간은 빠진다.
+    public List<RoutingDecision> lastDecisions() {
+        List<RoutingDecision> decisions = new ArrayList<>(routes.length);
+        for (SizeClassRoute route : routes) {
+            RoutingDecision last = route.last;
+            if (last != null) {
+                decisions.add(last);
+            }
+        }
+        return decisions;
+    }
+
+    private RoutingDecision decide(SizeClassRoute route, long call, WindowSnapshot rest, WindowSnapshot grpc) {
+        int minSamples = settings.minSamples();
+        boolean restDegraded = rest.errorRate() > settings.maxErrorRate();
+        boolean grpcDegraded = grpc.errorRate() > settings.maxErrorRate();
+        if (!restDegraded && !grpcDegraded && (rest.calls() < minSamples || grpc.calls() < minSamples)) {
+            ClientType transport;
+            if (rest.calls() < minSamples && grpc.calls() < minSamples) {
+                transport = call % 2 == 0 ? ClientType.REST : ClientType.GRPC;
+            } else {
+                transport = rest.calls() < minSamples ? ClientType.REST : ClientType.GRPC;
+            }
+            return new RoutingDecision(transport, RoutingDecision.Reason.WARMUP, route.name, rest, grpc);
+        }
+
+        ClientType transport;
+        RoutingDecision.Reason reason;
+        if (restDegraded && grpcDegraded) {
+            transport = rest.errorRate() <= grpc.errorRate() ? ClientType.REST : ClientType.GRPC;
+            reason = RoutingDecision.Reason.ALL_DEGRADED;
+        } else if (restDegraded || grpcDegraded) {
+            transport = restDegraded ? ClientType.GRPC : ClientType.REST;
+            reason = RoutingDecision.Reason.FALLBACK;
+        } else {
+            ClientType current = route.preferred;
+            WindowSnapshot currentStats = current == ClientType.REST ? rest : grpc;
+            WindowSnapshot otherStats = current == ClientType.REST ? grpc : rest;
+            if (otherStats.meanLatencyNanos() < currentStats.meanLatencyNanos() * (1 - settings.switchMargin())) {
+                transport = other(current);
+                route.preferred = transport;
+                reason = RoutingDecision.Reason.FASTER;
+            } else {
+                transport = current;
+                reason = RoutingDecision.Reason.KEEP;
+            }
+        }
+
+        if (settings.probeEvery() > 0 && call % settings.probeEvery() == 0) {
+            transport = other(transport);
+            reason = RoutingDecision.Reason.PROBE;
+        }
+        return new RoutingDecision(transport, reason, route.name, rest, grpc);
+    }
+
+    private LatencyWindow window(ClientType transport, int sizeClass) {
+        return switch (transport) {
+            case REST -> routes[sizeClass].rest;
+            case GRPC -> routes[sizeClass].grpc;
+            default -> throw new IllegalArgumentException("Adaptive routing supports REST and GRPC only: " + transport);
+        };
+    }
+
+    private static ClientType other(ClientType transport) {
+        return transport == ClientType.REST ? ClientType.GRPC : ClientType.REST;
+    }
+
+    private static final class SizeClassRoute {
+        final String name;
+        final LatencyWindow rest;
+        final LatencyWindow grpc;
+        final AtomicLong calls = new AtomicLong();
+        // 두 방식이 모두 정상일 때의 선택. 처음에는 gRPC 로 두고 통계가 모이면 비교한다.
+        volatile ClientType preferred = ClientType.GRPC;
+        volatile RoutingDecision last;
+
+        SizeClassRoute(String name, LatencyWindow rest, LatencyWindow grpc) {
+            this.name = name;
+            this.rest = rest;
+            this.grpc = grpc;
+        }
+    }
+}
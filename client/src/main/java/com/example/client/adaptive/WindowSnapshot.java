@@ -0,0 +1,20 @@
+package com.example.client.adaptive;
+
+/**
+ * 전송 방식 하나, 메시지 크기 구간 하나의 최근 창 통계.
+ *
+ * @param calls            창 안의 호출 수 (실패 포함)
+ * @param failures         실패한 호출 수. 응답 오류, 연결 실패, 타임아웃을 모두 센다.
+ * @param meanLatencyNanos 성공한 호출의 평균 응답 시간. 성공이 없으면 0
+ */
+public record WindowSnapshot(long calls, long failures, long meanLatencyNanos) {
+
+    public double errorRate() {
+        return calls == 0 ? 0.0 : (double) failures / calls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("calls=%d, errors=%.1f%%, mean=%.2fms", calls, errorRate() * 100, meanLatencyNanos / 1_000_000.0);
+    }
+}
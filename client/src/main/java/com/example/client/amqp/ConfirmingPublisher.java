@@ -0,0 +1,129 @@
+package com.example.client.amqp;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ShutdownSignalException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * publisher confirm 을 비동기로 받는 발행기.
+ *
+ * 메시지마다 basicPublish 후 waitForConfirms 로 확인하면 발행 한 번마다 브로커 왕복을 기다려야 한다.
+ * 여기서는 확인을 기다리지 않고 계속 발행하다가, 확인되지 않은 메시지가 confirmWindow 개가 되면 그때만 기다린다.
+ * 브로커는 여러 메시지를 한 번에 확인(multiple=true)하므로 확인 프레임도 묶여서 온다.
+ * confirmWindow=1 이면 메시지마다 확인을 기다리는 것과 같다.
+ *
+ * 채널 하나를 쓰므로 publish 는 채널 단위로 직렬화된다. (Channel 은 동시 발행에 안전하지 않다)
+ */
+public final class ConfirmingPublisher implements AutoCloseable {
+
+    private final Connection connection;
+    private final Channel channel;
+    private final Semaphore window;
+    // 발행 순번(delivery tag) -> 확인되면 완료할 future
+    private final ConcurrentNavigableMap<Long, CompletableFuture<Void>> unconfirmed = new ConcurrentSkipListMap<>();
+
+    public ConfirmingPublisher(Connection connection, int confirmWindow) throws IOException {
+        if (confirmWindow < 1) {
+            throw new IllegalArgumentException("rabbit.client.confirm-window must be >= 1: " + confirmWindow);
+        }
+        this.connection = connection;
+        this.channel = connection.createChannel();
+        this.channel.confirmSelect();
+        this.window = new Semaphore(confirmWindow);
+        this.channel.addConfirmListener(new ConfirmListener() {
+            @Override
+            public void handleAck(long deliveryTag, boolean multiple) {
+                confirm(deliveryTag, multiple, null);
+            }
+
+            @Override
+            public void handleNack(long deliveryTag, boolean multiple) {
+                confirm(deliveryTag, multiple, new IOException("broker nack: deliveryTag=" + deliveryTag));
+            }
+        });
+        // 채널이 닫히면 확인을 받을 수 없으므로 남은 발행을 모두 실패시킨다.
+        this.channel.addShutdownListener(cause -> failAll(cause));
+    }
+
+    /**
+     * 메시지를 발행하고, 브로커가 확인하면 완료되는 future 를 돌려준다.
+     * 확인되지 않은 메시지가 confirmWindow 개이면 하나가 확인될 때까지 호출 스레드가 기다린다. (back-pressure)
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, AMQP.BasicProperties properties, byte[] body)
+            throws IOException, InterruptedException {
+        window.acquire();
+        CompletableFuture<Void> confirmed = new CompletableFuture<>();
+        synchronized (channel) {
+            long deliveryTag = channel.getNextPublishSeqNo();
+            unconfirmed.put(deliveryTag, confirmed);
+            try {
+                channel.basicPublish(exchange, routingKey, properties, body);
+            } catch (IOException | RuntimeException e) {
+                if (unconfirmed.remove(deliveryTag, confirmed)) {
+                    complete(confirmed, e);
+                }
+                throw e;
+            }
+        }
+        return confirmed;
+    }
+
+    private void confirm(long deliveryTag, boolean multiple, Exception error) {
+        if (multiple) {
+            ConcurrentNavigableMap<Long, CompletableFuture<Void>> confirmedUpTo = unconfirmed.headMap(deliveryTag, true);
+            for (Map.Entry<Long, CompletableFuture<Void>> entry : confirmedUpTo.entrySet()) {
+                if (confirmedUpTo.remove(entry.getKey(), entry.getValue())) {
+                    complete(entry.getValue(), error);
+                }
+            }
+        } else {
+            CompletableFuture<Void> confirmed = unconfirmed.remove(deliveryTag);
+            if (confirmed != null) {
+                complete(confirmed, error);
+            }
+        }
+    }
+
+    private void complete(CompletableFuture<Void> confirmed, Exception error) {
+        window.release();
+        if (error != null) {
+            confirmed.completeExceptionally(error);
+        } else {
+            confirmed.complete(null);
+        }
+    }
+
+    private void failAll(ShutdownSignalException cause) {
+        for (Long deliveryTag : unconfirmed.keySet()) {
+            CompletableFuture<Void> confirmed = unconfirmed.remove(deliveryTag);
+            if (confirmed != null) {
+                complete(confirmed, cause);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                channel.close();
+            }
+        } catch (TimeoutException e) {
+            throw new IOException(e);
+        } finally {
+            if (connection.isOpen()) {
+                connection.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.client.config;
+
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MessageLogConfig {
+
+    // 메시지 단위 로그 설정 (FULL | SAMPLED | SUMMARY). RestClientImpl, GrpcClientImpl 이 사용한다.
+    @Bean
+    public MessageLogSettings messageLogSettings(
+            @Value("${message-log.mode:SAMPLED}") MessageLogMode mode,
+            @Value("${message-log.samples-per-second:10}") int samplesPerSecond,
+            @Value("${message-log.summary-interval-seconds:10}") long summaryIntervalSeconds
+    ) {
+        return new MessageLogSettings(mode, samplesPerSecond, summaryIntervalSeconds);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.client.grpc;
+
+import com.example.grpc.MessageServiceGrpc;
+import com.example.net.UnixSocketAddresses;
+import com.example.netty.NettyAllocator;
+import com.example.netty.NettyEventLoops;
+import com.example.netty.NettyTransport;
+import com.example.netty.NettyTransportSettings;
+import io.grpc.ClientInterceptor;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.NameResolverRegistry;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+import io.grpc.netty.shaded.io.netty.channel.ChannelOption;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * gRPC 채널 풀.
+ * 하나의 HTTP/2 연결은 동시 스트림 수에 상한이 있으므로, 채널(=연결)을 여러 개 두고 호출마다 돌아가며 사용한다.
+ * 각 채널은 grpc.client.addresses 의 모든 백엔드에 연결되고, 백엔드 선택은 load-balancing-policy 가 담당한다.
+ * Netty 전송(event loop, 할당기, 흐름 제어 창 등)은 grpc.client.netty.* 로 조정한다. (NettyTransportSettings)
+ * 주소가 unix:///경로 하나이면 TCP 대신 그 unix 도메인 소켓으로 연결한다. (같은 호스트의 grpc-service, epoll 필요)
+ */
+@Component
+public class GrpcChannelPool {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcChannelPool.class);
+
+    static {
+        NameResolverRegistry.getDefaultRegistry().register(new StaticAddressNameResolverProvider());
+        LoadBalancerRegistry.getDefaultRegistry().register(new LeastLoadedLoadBalancerProvider());
+    }
+
+    private final ManagedChannel[] channels;
+    // 직접 만든 event loop group. gRPC 기본 event loop 를 쓰면 비어 있다.
+    private final EventLoopGroup[] eventLoopGroups;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long unaryDeadlineMillis;
+
+    @Autowired
+    public GrpcChannelPool(
+            @Value("${grpc.server.host}") String grpcHost,
+            @Value("${grpc.server.port}") int grpcPort,
+            @Value("${grpc.client.address:}") String grpcAddress,
+            @Value("${grpc.client.addresses:}") List<String> addresses,
+            @Value("${grpc.client.channel-pool-size:1}") int poolSize,
+            @Value("${grpc.client.load-balancing-policy:round_robin}") String loadBalancingPolicy,
+            @Value("${grpc.client.keepalive-time-seconds:60}") long keepAliveTimeSeconds,
+            @Value("${grpc.client.keepalive-timeout-seconds:10}") long keepAliveTimeoutSeconds,
+            @Value("${grpc.client.idle-timeout-seconds:300}") long idleTimeoutSeconds,
+            @Value("${grpc.client.unary-deadline-ms:0}") long unaryDeadlineMillis,
+            @Value("${grpc.client.netty.transport:AUTO}") NettyTransport transport,
+            @Value("${grpc.client.netty.worker-threads:0}") int workerThreads,
+            @Value("${grpc.client.netty.shared-event-loop:true}") boolean sharedEventLoop,
+            @Value("${grpc.client.netty.allocator:GRPC_DEFAULT}") NettyAllocator allocator,
+            @Value("${grpc.client.netty.flow-control-window:0}") int flowControlWindow,
+            @Value("${grpc.client.netty.max-inbound-message-size:0}") int maxInboundMessageSize,
+            ObjectProvider<ClientInterceptor> interceptors
+    ) {
+        // addresses 를 지정하지 않으면 기존처럼 grpc.client.address 나 grpc.server.host/port 하나에만 연결한다.
+        // (grpc.server.address 는 grpc-service 가 bind 하는 키이므로 같은 JVM 에 서비스가 함께 뜰 때 섞이지 않도록 쓰지 않는다)
+        this(!addresses.isEmpty() ? addresses : List.of(grpcAddress.isEmpty() ? grpcHost + ":" + grpcPort : grpcAddress),
+                poolSize, loadBalancingPolicy,
+                keepAliveTimeSeconds, keepAliveTimeoutSeconds, idleTimeoutSeconds, unaryDeadlineMillis,
+                interceptors.orderedStream().toList(),
+                new NettyTransportSettings(transport, 0, workerThreads, sharedEventLoop, allocator,
+                        flowControlWindow, maxInboundMessageSize, 0));
+    }
+
+    public GrpcChannelPool(List<String> addresses, int poolSize, String loadBalancingPolicy,
+                           long keepAliveTimeSeconds, long keepAliveTimeoutSeconds, long idleTimeoutSeconds) {
+        this(addresses, poolSize, loadBalancingPolicy, keepAliveTimeSeconds, keepAliveTimeoutSeconds, idleTimeoutSeconds, 0, List.of());
+    }
+
+    // interceptors 는 모든 채널에 붙는다. (예: MetricsClientInterceptor, HedgingClientInterceptor)
+    // unaryDeadlineMillis > 0 이면 SendUnaryMessage 호출에 서비스 설정의 timeout 으로 deadline 을 건다.
+    public GrpcChannelPool(List<String> addresses, int poolSize, String loadBalancingPolicy,
+                           long keepAliveTimeSeconds, long keepAliveTimeoutSeconds, long idleTimeoutSeconds,
+                           long unaryDeadlineMillis, List<ClientInterceptor> interceptors) {
+        this(addresses, poolSize, loadBalancingPolicy, keepAliveTimeSeconds, keepAliveTimeoutSeconds, idleTimeoutSeconds,
+                unaryDeadlineMillis, interceptors, NettyTransportSettings.DEFAULT);
+    }
+
+    public GrpcChannelPool(List<String> addresses, int poolSize, String loadBalancingPolicy,
+                           long keepAliveTimeSeconds, long keepAliveTimeoutSeconds, long idleTimeoutSeconds,
+                           long unaryDeadlineMillis, List<ClientInterceptor> interceptors, NettyTransportSettings netty) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("grpc.client.channel-pool-size must be >= 1: " + poolSize);
+        }
+        boolean unixSocket = addresses.stream().anyMatch(UnixSocketAddresses::isUnix);
+        if (unixSocket && addresses.size() != 1) {
+            throw new IllegalArgumentException("grpc.client.addresses: a unix: address must be the only address: " + addresses);
+        }
+        this.unaryDeadlineMillis = unaryDeadlineMillis;
+        String target = unixSocket ? null : StaticAddressNameResolverProvider.target(addresses);
+        log.info("gRPC 서버에 연결을 시도합니다. -> addresses: {}, channels: {}, policy: {}, unaryDeadlineMs: {}, netty: {}",
+                addresses, poolSize, loadBalancingPolicy, unaryDeadlineMillis, netty);
+
+        NettyTransport transport = unixSocket
+                ? NettyEventLoops.resolveForDomainSocket(netty.transport())
+                : NettyEventLoops.resolve(netty.transport());
+        // 💡 공유하면 풀 전체가 group 하나(workerThreads 개)를 쓰고, 아니면 채널마다 group 을 따로 둬서 채널끼리 I/O 스레드를 나눠 쓰지 않는다.
+        // gRPC 기본 event loop 는 TCP 채널용이므로 unix 소켓이면 항상 epoll group 을 직접 만든다.
+        this.eventLoopGroups = !unixSocket && !netty.customEventLoops() ? new EventLoopGroup[0]
+                : netty.sharedEventLoop() ? new EventLoopGroup[1] : new EventLoopGroup[poolSize];
+        for (int i = 0; i < eventLoopGroups.length; i++) {
+            int threads = netty.sharedEventLoop() ? netty.workerThreads() : Math.max(netty.workerThreads(), 1);
+            eventLoopGroups[i] = NettyEventLoops.newGroup(transport, threads, "grpc-client-worker-" + i);
+        }
+        ByteBufAllocator allocator = NettyEventLoops.allocator(netty.allocator(),
+                netty.workerThreads() > 0 ? netty.workerThreads() * Math.max(eventLoopGroups.length, 1) : 0);
+
+        this.channels = new ManagedChannel[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            NettyChannelBuilder builder = unixSocket
+                    ? NettyChannelBuilder.forAddress(NettyEventLoops.domainSocketAddress(UnixSocketAddresses.path(addresses.get(0))))
+                    : NettyChannelBuilder.forTarget(target);
+            if (unaryDeadlineMillis > 0) {
+                builder.defaultServiceConfig(unaryDeadlineServiceConfig(unaryDeadlineMillis));
+            }
+            if (eventLoopGroups.length > 0) {
+                builder.eventLoopGroup(eventLoopGroups[i % eventLoopGroups.length])
+                        .channelType(unixSocket ? NettyEventLoops.domainChannelType() : NettyEventLoops.channelType(transport));
+            }
+            if (allocator != null) {
+                builder.withOption(ChannelOption.ALLOCATOR, allocator);
+            }
+            if (netty.flowControlWindow() > 0) {
+                builder.flowControlWindow(netty.flowControlWindow());
+            }
+            if (netty.maxInboundMessageSize() > 0) {
+                builder.maxInboundMessageSize(netty.maxInboundMessageSize());
+            }
+            if (!unixSocket) {
+                // 주소를 직접 지정한 채널(unix 소켓)은 백엔드가 하나뿐이라 정책을 지정할 수 없다.
+                builder.defaultLoadBalancingPolicy(loadBalancingPolicy);
+            }
+            channels[i] = builder
+                    .keepAliveTime(keepAliveTimeSeconds, TimeUnit.SECONDS)
+                    .keepAliveTimeout(keepAliveTimeoutSeconds, TimeUnit.SECONDS)
+                    .idleTimeout(idleTimeoutSeconds, TimeUnit.SECONDS)
+                    .intercept(interceptors)
+                    .usePlaintext()
+                    .build();
+        }
+    }
+
+    // 서비스 설정(JSON 과 같은 구조의 Map)의 methodConfig.timeout. 호출자가 CallOptions 에 더 짧은 deadline 을 주면 그쪽이 우선한다.
+    // 인터셉터 아래(채널)에서 시도마다 새로 적용되므로, GrpcClientImpl 은 호출마다 같은 값을 stub deadline 으로도 건다. (unaryDeadlineMillis)
+    private static Map<String, ?> unaryDeadlineServiceConfig(long deadlineMillis) {
+        Map<String, String> name = Map.of(
+                "service", MessageServiceGrpc.SERVICE_NAME,
+                "method", MessageServiceGrpc.getSendUnaryMessageMethod().getBareMethodName());
+        String timeout = String.format("%d.%09ds", deadlineMillis / 1000, TimeUnit.MILLISECONDS.toNanos(deadlineMillis % 1000));
+        return Map.of("methodConfig", List.of(Map.of("name", List.of(name), "timeout", timeout)));
+    }
+
+    public static GrpcChannelPool forAddress(String host, int port) {
+        return new GrpcChannelPool(List.of(host + ":" + port), 1, "pick_first", 60, 10, 300);
+    }
+
+    // 호출마다 다음 채널을 돌아가며 반환한다.
+    public ManagedChannel next() {
+        if (channels.length == 1) {
+            return channels[0];
+        }
+        return channels[Math.floorMod(next.getAndIncrement(), channels.length)];
+    }
+
+    public int size() {
+        return channels.length;
+    }
+
+    // grpc.client.unary-deadline-ms. 0 이면 deadline 없음
+    public long unaryDeadlineMillis() {
+        return unaryDeadlineMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("[gRPC Client] 채널 풀 종료 시도. channels={}", channels.length);
+        Arrays.stream(channels).forEach(ManagedChannel::shutdown);
+        try {
+            for (ManagedChannel channel : channels) {
+                if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                    channel.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Arrays.stream(channels).forEach(ManagedChannel::shutdownNow);
+        }
+        NettyEventLoops.shutdown(eventLoopGroups);
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.client.grpc;
+
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unary 호출 헤징.
+ * 첫 시도가 HedgingDelay(최근 응답 시간의 백분위)보다 오래 걸리면 같은 요청을 한 번 더 보내고,
+ * 먼저 성공한 응답을 돌려준 뒤 나머지 시도는 취소한다. 채널의 로드밸런서가 시도마다 백엔드를 고르는데,
+ * least_loaded 는 같은 호출이 이미 시도한 백엔드를 피하고 round_robin 은 다른 호출과 섞여 같은 백엔드로 갈 수도 있다.
+ *
+ * gRPC 서비스 설정(service config)의 hedgingPolicy 는 hedgingDelay 가 고정값이라, 응답 시간 분포를 따라가도록
+ * 인터셉터로 직접 구현했다. 호출 deadline 은 GrpcClientImpl 이 호출을 시작할 때 stub 에 절대 시각으로 건다. (withDeadlineAfter)
+ * 모든 시도가 같은 CallOptions(= 같은 deadline)를 쓰므로 헤징이나 재시도를 해도 전체 대기 시간은 deadline 을 넘지 않는다.
+ * 채널 서비스 설정의 timeout 은 이 인터셉터 아래에서 시도마다 새로 적용되어 여기서는 보이지 않으므로 그것만으로는 부족하다.
+ *
+ * - UNAVAILABLE 로 실패한 시도는 다음 시도를 바로 보낸다. 그 밖의 실패는 즉시 호출자에게 돌려준다.
+ * - deadline 까지 남은 시간이 헤징 지연보다 짧으면 두 번째 시도를 보내지 않는다.
+ * - 같은 요청이 서버에서 두 번 처리될 수 있으므로 멱등한 메서드에만 켠다. (Idempotency-Key 를 붙이면 서버 캐시가 한 번만 처리)
+ *
+ * 지표: msa_grpc_attempts_seconds{method, attempt=primary|hedge, outcome=won|lost|failed}, msa_grpc_hedging_delay_seconds{method}
+ * MetricsClientInterceptor 보다 채널 쪽에 붙어서, msa_call_* 는 헤징과 무관하게 호출자 기준 한 건으로 기록된다.
+ */
+@Component
+@Order(0)
+public class HedgingClientInterceptor implements ClientInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingClientInterceptor.class);
+
+    private static final int WON = 0;
+    private static final int LOST = 1;
+    private static final int FAILED = 2;
+    private static final String[] OUTCOMES = {"won", "lost", "failed"};
+
+    // 한 헤징 호출의 시도들이 공유하는 "이미 고른 백엔드" 집합. least_loaded 로드밸런서가 읽고 채운다.
+    static final CallOptions.Key<Set<Object>> TRIED_BACKENDS = CallOptions.Key.create("msa-hedging-tried-backends");
+
+    private final int maxAttempts;
+    private final Map<String, HedgedMethod> methods = new HashMap<>();
+    private final ScheduledExecutorService timer;
+
+    @Autowired
+    public HedgingClientInterceptor(
+            @Value("${grpc.client.hedging.enabled:false}") boolean enabled,
+            @Value("${grpc.client.hedging.methods:MessageService/SendUnaryMessage}") List<String> methodNames,
+            @Value("${grpc.client.hedging.max-attempts:2}") int maxAttempts,
+            @Value("${grpc.client.hedging.percentile:95}") double percentile,
+            @Value("${grpc.client.hedging.initial-delay-ms:100}") long initialDelayMillis,
+            @Value("${grpc.client.hedging.min-delay-ms:5}") long minDelayMillis,
+            MeterRegistry registry
+    ) {
+        if (maxAttempts < 2) {
+            throw new IllegalArgumentException("grpc.client.hedging.max-attempts must be >= 2: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        if (enabled) {
+            for (String name : methodNames) {
+                HedgingDelay delay = new HedgingDelay(percentile,
+                        TimeUnit.MILLISECONDS.toNanos(initialDelayMillis), TimeUnit.MILLISECONDS.toNanos(minDelayMillis));
+                methods.put(name, new HedgedMethod(name, delay, registry));
+            }
+            log.info("[gRPC Client] 헤징 사용: methods={}, maxAttempts={}, percentile={}", methodNames, maxAttempts, percentile);
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "grpc-hedging-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        HedgedMethod hedged = methods.get(method.getFullMethodName());
+        if (hedged == null || method.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.newCall(method, callOptions);
+        }
+        return new HedgedCall<>(method, callOptions, next, hedged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private static final class HedgedMethod {
+        final HedgingDelay delay;
+        // [0=primary, 1=hedge][outcome]
+        final Timer[][] attempts = new Timer[2][OUTCOMES.length];
+
+        HedgedMethod(String name, HedgingDelay delay, MeterRegistry registry) {
+            this.delay = delay;
+            for (int attempt = 0; attempt < 2; attempt++) {
+                for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                    attempts[attempt][outcome] = Timer.builder("msa.grpc.attempts")
+                            .description("헤징 호출의 시도별 소요 시간 (lost = 다른 시도가 먼저 성공해 취소됨)")
+                            .tag("method", name)
+                            .tag("attempt", attempt == 0 ? "primary" : "hedge")
+                            .tag("outcome", OUTCOMES[outcome])
+                            .register(registry);
+                }
+            }
+            TimeGauge.builder("msa.grpc.hedging.delay", delay, TimeUnit.NANOSECONDS, HedgingDelay::delayNanos)
+                    .description("현재 헤징 지연 (최근 응답 시간의 백분위)")
+                    .tag("method", name)
+                    .register(registry);
+        }
+
+        void record(int attempt, int outcome, long nanos) {
+            attempts[Math.min(attempt, 1)][outcome].record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 호출자에게는 보통의 ClientCall 하나로 보이고, 안에서 시도(Attempt)를 최대 maxAttempts 개까지 만든다.
+     * 응답/실패를 호출자에게 전달하는 것은 committed 를 먼저 바꾼 시도 하나뿐이다.
+     */
+    private final class HedgedCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final MethodDescriptor<ReqT, RespT> method;
+        private final CallOptions callOptions;
+        private final Channel next;
+        private final HedgedMethod hedged;
+        // 타이머 스레드에서 시작하는 시도도 호출자의 Context(취소 전파 등)를 따르게 한다.
+        private final Context context = Context.current();
+
+        private final AtomicBoolean committed = new AtomicBoolean();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final List<Attempt> attempts = new ArrayList<>(maxAttempts);
+
+        private Listener<RespT> listener;
+        private Metadata headers;
+        private ReqT request;
+        private ScheduledFuture<?> hedgeTimer;
+
+        HedgedCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next, HedgedMethod hedged) {
+            this.method = method;
+            this.callOptions = callOptions.withOption(TRIED_BACKENDS, ConcurrentHashMap.newKeySet());
+            this.next = next;
+            this.hedged = hedged;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            this.listener = responseListener;
+            this.headers = headers;
+        }
+
+        // unary 응답은 하나뿐이고 각 시도가 직접 request 하므로 호출자의 흐름 제어는 따로 전달하지 않는다.
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            this.request = message;
+        }
+
+        @Override
+        public void halfClose() {
+            startAttempt();
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            if (committed.compareAndSet(false, true)) {
+                cancelOthers(null, message, cause);
+                if (listener != null) {
+                    listener.onClose(Status.CANCELLED.withDescription(message).withCause(cause), new Metadata());
+                }
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return Attributes.EMPTY;
+        }
+
+        // 다음 시도를 만들고 시작한다. 이미 끝났거나 시도 수를 다 썼으면 false.
+        // 목록에 넣고 start 하는 것까지 잠금 안에서 해서, cancelOthers 가 시작 전의 ClientCall 을 취소하지 않게 한다.
+        private boolean startAttempt() {
+            synchronized (this) {
+                if (committed.get() || attempts.size() >= maxAttempts) {
+                    return false;
+                }
+                Attempt attempt = new Attempt(attempts.size(), next.newCall(method, callOptions));
+                attempts.add(attempt);
+                outstanding.incrementAndGet();
+                Metadata attemptHeaders = new Metadata();
+                attemptHeaders.merge(headers);
+                attempt.call.start(attempt, attemptHeaders);
+                attempt.call.request(2);
+                attempt.call.sendMessage(request);
+                attempt.call.halfClose();
+            }
+            scheduleHedge();
+            return true;
+        }
+
+        private void scheduleHedge() {
+            long delayNanos = hedged.delay.delayNanos();
+            Deadline deadline = callOptions.getDeadline();
+            synchronized (this) {
+                if (committed.get() || attempts.size() >= maxAttempts) {
+                    return;
+                }
+                if (deadline != null && deadline.timeRemaining(TimeUnit.NANOSECONDS) <= delayNanos) {
+                    return;
+                }
+                hedgeTimer = timer.schedule(context.wrap(this::startAttempt), delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private synchronized void cancelHedgeTimer() {
+            if (hedgeTimer != null) {
+                hedgeTimer.cancel(false);
+                hedgeTimer = null;
+            }
+        }
+
+        private void cancelOthers(Attempt winner, String message, Throwable cause) {
+            cancelHedgeTimer();
+            List<Attempt> started;
+            synchronized (this) {
+                started = List.copyOf(attempts);
+            }
+            for (Attempt attempt : started) {
+                if (attempt != winner) {
+                    // 취소된 시도의 onClose 는 호출자가 이미 돌아간 뒤(blocking stub 의 실행기가 멈춘 뒤)라 오지 않을 수 있어서 여기서 기록한다.
+                    attempt.finish(LOST);
+                    attempt.call.cancel(message, cause);
+                }
+            }
+        }
+
+        private void onAttemptSucceeded(Attempt attempt, Status status, Metadata trailers, long elapsedNanos) {
+            if (!committed.compareAndSet(false, true)) {
+                attempt.finish(LOST);
+                return;
+            }
+            hedged.delay.record(elapsedNanos);
+            attempt.finish(WON);
+            cancelOthers(attempt, "hedged attempt lost", null);
+            listener.onHeaders(attempt.responseHeaders != null ? attempt.responseHeaders : new Metadata());
+            listener.onMessage(attempt.response);
+            listener.onClose(status, trailers);
+        }
+
+        private void onAttemptFailed(Attempt attempt, Status status, Metadata trailers, int remaining) {
+            if (committed.get()) {
+                // 다른 시도가 먼저 끝나서 취소된 경우
+                attempt.finish(LOST);
+                return;
+            }
+            attempt.finish(FAILED);
+            if (status.getCode() == Status.Code.UNAVAILABLE) {
+                cancelHedgeTimer();
+                if (startAttempt() || remaining > 0) {
+                    return;
+                }
+            }
+            if (committed.compareAndSet(false, true)) {
+                cancelOthers(attempt, "hedged call failed", status.asRuntimeException());
+                listener.onClose(status, trailers);
+            }
+        }
+
+        private final class Attempt extends ClientCall.Listener<RespT> {
+            final int index;
+            final ClientCall<ReqT, RespT> call;
+            final long startNanos = System.nanoTime();
+            final AtomicBoolean finished = new AtomicBoolean();
+            // 한 시도의 콜백은 순서대로 한 번에 하나씩 오므로 아래 필드는 동기화가 필요 없다.
+            Metadata responseHeaders;
+            RespT response;
+
+            Attempt(int index, ClientCall<ReqT, RespT> call) {
+                this.index = index;
+                this.call = call;
+            }
+
+            // 시도마다 결과를 한 번만 기록한다.
+            void finish(int outcome) {
+                if (finished.compareAndSet(false, true)) {
+                    hedged.record(index, outcome, System.nanoTime() - startNanos);
+                }
+            }
+
+            @Override
+            public void onHeaders(Metadata headers) {
+                responseHeaders = headers;
+            }
+
+            @Override
+            public void onMessage(RespT message) {
+                response = message;
+            }
+
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                long elapsed = System.nanoTime() - startNanos;
+                int remaining = outstanding.decrementAndGet();
+                if (status.isOk() && response != null) {
+                    onAttemptSucceeded(this, status, trailers, elapsed);
+                } else {
+                    onAttemptFailed(this, status, trailers, remaining);
+                }
+            }
+        }
+    }
+}
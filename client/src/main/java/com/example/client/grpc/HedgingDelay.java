@@ -0,0 +1,64 @@
+package com.example.client.grpc;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 헤징(두 번째 시도)을 보내기 전까지 기다릴 시간.
+ * 최근 성공한 시도의 응답 시간을 HdrHistogram Recorder 로 모으고, 1초마다 지정한 백분위 값으로 갱신한다.
+ * 예) percentile=95 이면 평소 응답의 95% 는 헤징 없이 끝나고, 그보다 느린 꼬리 요청에만 두 번째 시도가 나간다.
+ *
+ * 한 구간에 표본이 MIN_SAMPLES 보다 적으면 다음 구간과 합쳐서 계산하고, 그동안은 이전 값(처음에는 initialDelay)을 쓴다.
+ */
+final class HedgingDelay {
+
+    private static final long UPDATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MIN_SAMPLES = 100;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final Recorder recorder = new Recorder(3);
+    private final AtomicLong nextUpdateAt;
+
+    // 갱신은 CAS 에 성공한 스레드 하나만 하므로 아래 두 필드는 그 스레드만 만진다.
+    private Histogram interval;
+    private final Histogram pending = new Histogram(3);
+
+    private volatile long delayNanos;
+
+    HedgingDelay(double percentile, long initialDelayNanos, long minDelayNanos) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("grpc.client.hedging.percentile must be in (0, 100): " + percentile);
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.delayNanos = Math.max(initialDelayNanos, minDelayNanos);
+        this.nextUpdateAt = new AtomicLong(System.nanoTime() + UPDATE_INTERVAL_NANOS);
+    }
+
+    void record(long latencyNanos) {
+        recorder.recordValue(latencyNanos);
+    }
+
+    long delayNanos() {
+        long now = System.nanoTime();
+        long due = nextUpdateAt.get();
+        if (now - due >= 0 && nextUpdateAt.compareAndSet(due, now + UPDATE_INTERVAL_NANOS)) {
+            update();
+        }
+        return delayNanos;
+    }
+
+    private void update() {
+        interval = recorder.getIntervalHistogram(interval);
+        pending.add(interval);
+        if (pending.getTotalCount() < MIN_SAMPLES) {
+            return;
+        }
+        delayNanos = Math.max(minDelayNanos, pending.getValueAtPercentile(percentile));
+        pending.reset();
+    }
+}
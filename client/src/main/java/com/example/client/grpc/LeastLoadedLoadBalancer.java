@@ -0,0 +1,208 @@
+package com.example.client.grpc;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 진행 중인 호출(in-flight)이 가장 적은 백엔드를 고르는 로드밸런서.
+ * 매 호출마다 READY 백엔드 중 임의의 두 개를 뽑아 덜 바쁜 쪽을 선택한다 (power of two choices).
+ * 호출 수는 ClientStreamTracer 로 스트림 생성/종료 시점에 증감한다.
+ * LoadBalancer 콜백은 채널의 SynchronizationContext 에서 직렬로 실행되므로 backends 는 별도 동기화가 필요 없다.
+ * HedgingClientInterceptor 가 보낸 헤징 시도는 같은 호출이 이미 시도한 백엔드를 제외하고 고른다.
+ */
+class LeastLoadedLoadBalancer extends LoadBalancer {
+
+    private final Helper helper;
+    private final LeastLoadedLoadBalancerProvider provider;
+    private final Map<List<SocketAddress>, Backend> backends = new LinkedHashMap<>();
+
+    private Status lastError = Status.UNAVAILABLE.withDescription("No backend connected yet");
+
+    LeastLoadedLoadBalancer(Helper helper, LeastLoadedLoadBalancerProvider provider) {
+        this.helper = helper;
+        this.provider = provider;
+    }
+
+    @Override
+    public Status acceptResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+        List<EquivalentAddressGroup> groups = resolvedAddresses.getAddresses();
+        if (groups.isEmpty()) {
+            Status status = Status.UNAVAILABLE.withDescription("Name resolver returned no addresses");
+            handleNameResolutionError(status);
+            return status;
+        }
+
+        Set<List<SocketAddress>> wanted = new HashSet<>();
+        for (EquivalentAddressGroup group : groups) {
+            List<SocketAddress> key = group.getAddresses();
+            wanted.add(key);
+            if (!backends.containsKey(key)) {
+                Subchannel subchannel = helper.createSubchannel(CreateSubchannelArgs.newBuilder()
+                        .setAddresses(new EquivalentAddressGroup(key))
+                        .build());
+                Backend backend = new Backend(subchannel, provider.inFlightCounter(key));
+                backends.put(key, backend);
+                subchannel.start(stateInfo -> onSubchannelState(backend, stateInfo));
+                subchannel.requestConnection();
+            }
+        }
+
+        Iterator<Map.Entry<List<SocketAddress>, Backend>> iterator = backends.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<List<SocketAddress>, Backend> entry = iterator.next();
+            if (!wanted.contains(entry.getKey())) {
+                entry.getValue().subchannel.shutdown();
+                iterator.remove();
+            }
+        }
+        updatePicker();
+        return Status.OK;
+    }
+
+    @Override
+    public void handleNameResolutionError(Status error) {
+        lastError = error;
+        if (readyBackends().isEmpty()) {
+            helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE, new FixedPicker(PickResult.withError(error)));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (Backend backend : backends.values()) {
+            backend.subchannel.shutdown();
+        }
+        backends.clear();
+    }
+
+    private void onSubchannelState(Backend backend, ConnectivityStateInfo stateInfo) {
+        if (backends.get(backend.subchannel.getAddresses().getAddresses()) != backend
+                || stateInfo.getState() == ConnectivityState.SHUTDOWN) {
+            return;
+        }
+        if (stateInfo.getState() == ConnectivityState.IDLE) {
+            // round_robin 과 마찬가지로 끊긴 백엔드는 바로 다시 연결을 시도한다.
+            backend.subchannel.requestConnection();
+        }
+        if (stateInfo.getState() == ConnectivityState.TRANSIENT_FAILURE) {
+            lastError = stateInfo.getStatus();
+            helper.refreshNameResolution();
+        }
+        backend.state = stateInfo.getState();
+        updatePicker();
+    }
+
+    private void updatePicker() {
+        List<Backend> ready = readyBackends();
+        if (!ready.isEmpty()) {
+            helper.updateBalancingState(ConnectivityState.READY, new LeastLoadedPicker(ready.toArray(new Backend[0])));
+            return;
+        }
+        boolean connecting = backends.values().stream()
+                .anyMatch(b -> b.state == ConnectivityState.CONNECTING || b.state == ConnectivityState.IDLE);
+        if (connecting) {
+            helper.updateBalancingState(ConnectivityState.CONNECTING, new FixedPicker(PickResult.withNoResult()));
+        } else {
+            helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE, new FixedPicker(PickResult.withError(lastError)));
+        }
+    }
+
+    private List<Backend> readyBackends() {
+        List<Backend> ready = new ArrayList<>(backends.size());
+        for (Backend backend : backends.values()) {
+            if (backend.state == ConnectivityState.READY) {
+                ready.add(backend);
+            }
+        }
+        return ready;
+    }
+
+    private static final class Backend {
+        private final Subchannel subchannel;
+        private final AtomicInteger inFlight;
+        private final ClientStreamTracer.Factory tracerFactory;
+        private ConnectivityState state = ConnectivityState.IDLE;
+
+        private Backend(Subchannel subchannel, AtomicInteger inFlight) {
+            this.subchannel = subchannel;
+            this.inFlight = inFlight;
+            this.tracerFactory = new ClientStreamTracer.Factory() {
+                @Override
+                public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                    inFlight.incrementAndGet();
+                    return new ClientStreamTracer() {
+                        @Override
+                        public void streamClosed(Status status) {
+                            inFlight.decrementAndGet();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static final class LeastLoadedPicker extends SubchannelPicker {
+        private final Backend[] ready;
+
+        private LeastLoadedPicker(Backend[] ready) {
+            this.ready = ready;
+        }
+
+        @Override
+        public PickResult pickSubchannel(PickSubchannelArgs args) {
+            // 헤징 시도는 같은 호출의 이전 시도가 간 백엔드를 피한다. (남은 백엔드가 없으면 전체에서 고름)
+            Set<Object> tried = args.getCallOptions().getOption(HedgingClientInterceptor.TRIED_BACKENDS);
+            Backend[] candidates = tried == null || tried.isEmpty() ? ready : untried(tried);
+            Backend chosen = candidates[0];
+            if (candidates.length > 1) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Backend a = candidates[random.nextInt(candidates.length)];
+                Backend b = candidates[random.nextInt(candidates.length)];
+                chosen = a.inFlight.get() <= b.inFlight.get() ? a : b;
+            }
+            if (tried != null) {
+                tried.add(chosen);
+            }
+            return PickResult.withSubchannel(chosen.subchannel, chosen.tracerFactory);
+        }
+
+        private Backend[] untried(Set<Object> tried) {
+            List<Backend> untried = new ArrayList<>(ready.length);
+            for (Backend backend : ready) {
+                if (!tried.contains(backend)) {
+                    untried.add(backend);
+                }
+            }
+            return untried.isEmpty() ? ready : untried.toArray(new Backend[0]);
+        }
+    }
+
+    private static final class FixedPicker extends SubchannelPicker {
+        private final PickResult result;
+
+        private FixedPicker(PickResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public PickResult pickSubchannel(PickSubchannelArgs args) {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.client.grpc;
+
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * "least_loaded" 정책 등록용 provider.
+ * 진행 중인 호출 수는 백엔드 주소별로 이 provider 가 들고 있으므로, 풀 안의 여러 채널이 같은 부하 정보를 공유한다.
+ */
+public class LeastLoadedLoadBalancerProvider extends LoadBalancerProvider {
+
+    public static final String POLICY_NAME = "least_loaded";
+
+    private final ConcurrentHashMap<List<SocketAddress>, AtomicInteger> inFlightByBackend = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public int getPriority() {
+        return 5;
+    }
+
+    @Override
+    public String getPolicyName() {
+        return POLICY_NAME;
+    }
+
+    @Override
+    public LoadBalancer newLoadBalancer(LoadBalancer.Helper helper) {
+        return new LeastLoadedLoadBalancer(helper, this);
+    }
+
+    AtomicInteger inFlightCounter(List<SocketAddress> backend) {
+        return inFlightByBackend.computeIfAbsent(backend, key -> new AtomicInteger());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.client.grpc;
+
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import com.example.metrics.GrpcMetricsSupport;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 클라이언트 쪽 gRPC 호출 지표. 서버의 MetricsServerInterceptor 와 같은 이름(msa_*)에 side=client 로 기록하므로
+ * 두 값을 비교하면 네트워크/클라이언트 대기 시간을 구분할 수 있다.
+ * GrpcChannelPool 이 모든 채널에 붙인다.
+ */
+@Component
+public class MetricsClientInterceptor implements ClientInterceptor {
+
+    private final CallMetricsRegistry metrics;
+
+    public MetricsClientInterceptor(MeterRegistry registry) {
+        this.metrics = GrpcMetricsSupport.registry(registry, "client");
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        return new MonitoredCall<>(next.newCall(method, callOptions), metrics.forMethod(method.getFullMethodName()));
+    }
+
+    private static final class MonitoredCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final CallMetrics metrics;
+        private long startNanos;
+        // 보낸 수는 요청을 쓰는 스레드만, 받은 수는 리스너 스레드만 증가시킨다.
+        private volatile long messagesOut;
+        private volatile long messagesIn;
+
+        MonitoredCall(ClientCall<ReqT, RespT> delegate, CallMetrics metrics) {
+            super(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            startNanos = metrics.start();
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onMessage(RespT message) {
+                    messagesIn++;
+                    metrics.bytesIn(GrpcMetricsSupport.serializedSize(message));
+                    super.onMessage(message);
+                }
+
+                // onClose 는 호출당 정확히 한 번 온다. (취소·타임아웃 포함)
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    metrics.finish(startNanos, status.getCode().value(), messagesIn, messagesOut);
+                    super.onClose(status, trailers);
+                }
+            }, headers);
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            messagesOut++;
+            metrics.bytesOut(GrpcMetricsSupport.serializedSize(message));
+            super.sendMessage(message);
+        }
+    }
+}
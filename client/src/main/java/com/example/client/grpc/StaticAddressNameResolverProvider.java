@@ -0,0 +1,86 @@
+package com.example.client.grpc;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * "static:///host1:9090,host2:9091" 형태의 타깃을 고정 주소 목록으로 해석하는 NameResolver.
+ * application.yml 의 grpc.client.addresses 목록을 로드밸런서에 그대로 넘겨주는 용도이다.
+ */
+public class StaticAddressNameResolverProvider extends NameResolverProvider {
+
+    public static final String SCHEME = "static";
+
+    public static String target(List<String> addresses) {
+        return SCHEME + ":///" + String.join(",", addresses);
+    }
+
+    @Override
+    protected boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    protected int priority() {
+        return 5;
+    }
+
+    @Override
+    public String getDefaultScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    protected String getScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    public Collection<Class<? extends SocketAddress>> getProducedSocketAddressTypes() {
+        return Collections.singleton(InetSocketAddress.class);
+    }
+
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (!SCHEME.equals(targetUri.getScheme())) {
+            return null;
+        }
+        String path = targetUri.getPath();
+        List<EquivalentAddressGroup> groups = new ArrayList<>();
+        for (String address : path.substring(path.startsWith("/") ? 1 : 0).split(",")) {
+            String trimmed = address.trim();
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Address must be host:port - " + trimmed);
+            }
+            String host = trimmed.substring(0, colon);
+            int port = Integer.parseInt(trimmed.substring(colon + 1));
+            groups.add(new EquivalentAddressGroup(new InetSocketAddress(host, port)));
+        }
+        String authority = path.substring(1).split(",")[0];
+        return new NameResolver() {
+            @Override
+            public String getServiceAuthority() {
+                return authority;
+            }
+
+            @Override
+            public void start(Listener2 listener) {
+                listener.onResult(ResolutionResult.newBuilder().setAddresses(groups).build());
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.client.load;
+
+import com.example.client.Client;
+import com.example.client.ClientFactory;
+import com.example.client.GrpcClientImpl;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 목표 요청률(open-loop)로 클라이언트를 호출하는 부하 발생기.
+ * 각 워커는 "원래 보냈어야 할 시각"을 기준으로 지연을 기록하므로, 서버가 느려져 호출이 밀려도
+ * 밀린 시간만큼이 지연에 포함된다 (coordinated omission 보정).
+ * load.rate 가 0 이하이면 보정 없이 최대 속도로 호출하는 closed-loop 로 동작한다.
+ */
+@Component
+public class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    // 최대 1시간까지 3자리 정밀도로 기록
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    public enum RpcType {
+        UNARY,
+        SERVER_STREAM,
+        CLIENT_STREAM,
+        CHAT
+    }
+
+    private final ClientFactory clientFactory;
+    private final boolean enabled;
+    private final ClientFactory.ClientType transport;
+    private final RpcType rpc;
+    private final double rate;
+    private final int workers;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final String payload;
+    private final int payloadSize;
+    private final int streamMessages;
+    private final String histogramFile;
+
+    public LoadDriver(
+            ClientFactory clientFactory,
+            @Value("${load.enabled:false}") boolean enabled,
+            @Value("${load.transport:GRPC}") ClientFactory.ClientType transport,
+            @Value("${load.rpc:UNARY}") RpcType rpc,
+            @Value("${load.rate:100}") double rate,
+            @Value("${load.workers:16}") int workers,
+            @Value("${load.warmup-seconds:5}") long warmupSeconds,
+            @Value("${load.duration-seconds:30}") long durationSeconds,
+            @Value("${load.payload-size:16}") int payloadSize,
+            @Value("${load.stream-messages:5}") int streamMessages,
+            @Value("${load.histogram-file:}") String histogramFile
+    ) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("load.workers must be positive: " + workers);
+        }
+        if (transport != ClientFactory.ClientType.GRPC && rpc != RpcType.UNARY) {
+            throw new IllegalArgumentException("Streaming RPC load requires GRPC transport: " + transport + "/" + rpc);
+        }
+        this.clientFactory = clientFactory;
+        this.enabled = enabled;
+        this.transport = transport;
+        this.rpc = rpc;
+        this.rate = rate;
+        this.workers = workers;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.payload = "x".repeat(payloadSize);
+        this.payloadSize = payloadSize;
+        this.streamMessages = streamMessages;
+        this.histogramFile = histogramFile;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 설정된 시간 동안 부하를 건 뒤, 요약을 출력하고 반환한다.
+     */
+    public String run() throws InterruptedException {
+        Runnable call = operation();
+        boolean openLoop = rate > 0;
+        // 워커 하나가 맡는 호출 간격. 워커 i 는 i * (1/rate) 만큼 어긋나게 시작해 전체적으로 균등한 간격이 된다.
+        long workerIntervalNanos = openLoop ? (long) (workers * (TimeUnit.SECONDS.toNanos(1) / rate)) : 0L;
+        long offsetNanos = openLoop ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0L;
+
+        Recorder corrected = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        Recorder uncorrected = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        AtomicLong errors = new AtomicLong();
+
+        log.info("[Load Driver] 시작: transport={}, rpc={}, rate={}/s, workers={}, warmup={}s, duration={}s",
+                transport, rpc, openLoop ? rate : "max", workers,
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        long end = measureStart + durationNanos;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long first = start + w * offsetNanos;
+            futures.add(pool.submit(() -> drive(call, first, workerIntervalNanos, measureStart, end,
+                    corrected, uncorrected, errors)));
+        }
+        pool.shutdown();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("[Load Driver] 워커 비정상 종료: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        String summary = summarize(corrected.getIntervalHistogram(), uncorrected.getIntervalHistogram(),
+                errors.get(), durationNanos, openLoop);
+        System.out.println(summary);
+        return summary;
+    }
+
+    private void drive(Runnable call, long first, long intervalNanos, long measureStart, long end,
+                       Recorder corrected, Recorder uncorrected, AtomicLong errors) {
+        long intended = first;
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (intended >= end) {
+                    return;
+                }
+                if (now < intended) {
+                    LockSupport.parkNanos(intended - now);
+                    now = System.nanoTime();
+                }
+            } else {
+                if (now >= end) {
+                    return;
+                }
+                intended = now;
+            }
+
+            boolean failed = false;
+            try {
+                call.run();
+            } catch (RuntimeException e) {
+                failed = true;
+            }
+            long done = System.nanoTime();
+
+            // 측정 구간 안에서 보내기로 예정된 호출은 끝나는 시각과 관계없이 모두 기록한다 (느린 꼬리를 잘라내지 않음)
+            if (intended >= measureStart) {
+                if (failed) {
+                    errors.incrementAndGet();
+                } else {
+                    corrected.recordValue(Math.min(done - intended, HIGHEST_TRACKABLE_NANOS));
+                    uncorrected.recordValue(Math.min(done - now, HIGHEST_TRACKABLE_NANOS));
+                }
+            }
+            intended += intervalNanos;
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private Runnable operation() {
+        Client client = clientFactory.getClient(transport);
+        if (rpc == RpcType.UNARY) {
+            // 💡 sendMessage 는 실패를 "통신 실패" 문자열로 돌려주므로, 실패가 예외로 드러나는 비동기 호출을 기다린다.
+            // 그래야 연결 거부 / UNAVAILABLE / 5xx 같은 빠른 실패가 짧은 지연의 성공으로 기록되지 않고 errors 로 집계된다.
+            return () -> client.sendMessageAsync(payload).join();
+        }
+        GrpcClientImpl grpcClient = (GrpcClientImpl) client;
+        switch (rpc) {
+            case SERVER_STREAM:
+                return () -> grpcClient.consumeServerStream("load-driver", streamMessages, payloadSize);
+            case CLIENT_STREAM:
+                return () -> grpcClient.uploadLogStream(streamMessages, payloadSize);
+            case CHAT:
+                return () -> {
+                    // 스트림 에러로 끝난 채팅도 latch 는 풀리므로, 에러가 전달되는 future 로 기다린다.
+                    try {
+                        grpcClient.chatWithServerAsync(payload, "").get(30, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("chat stream failed", e.getCause());
+                    } catch (TimeoutException e) {
+                        throw new IllegalStateException("chat stream timed out", e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("interrupted", e);
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown rpc type: " + rpc);
+        }
+    }
+
+    private String summarize(Histogram corrected, Histogram uncorrected, long errors, long measuredNanos, boolean openLoop) {
+        double seconds = measuredNanos / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append("== 부하 테스트 결과 ==\n");
+        sb.append(String.format("transport=%s, rpc=%s, workers=%d, target=%s%n",
+                transport, rpc, workers, openLoop ? rate + "/s" : "closed-loop"));
+        sb.append(String.format("completed=%d, errors=%d, achieved=%.1f/s (%.1fs)%n",
+                corrected.getTotalCount(), errors, corrected.getTotalCount() / seconds, seconds));
+        appendPercentiles(sb, openLoop ? "latency(corrected)" : "latency", corrected);
+        if (openLoop) {
+            appendPercentiles(sb, "service-time", uncorrected);
+        }
+        if (!histogramFile.isBlank()) {
+            writeHistogram(corrected);
+            sb.append("histogram=").append(histogramFile).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void appendPercentiles(StringBuilder sb, String label, Histogram h) {
+        sb.append(String.format("%-20s p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms%n", label,
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                millis(h.getMaxValue())));
+    }
+
+    private void writeHistogram(Histogram histogram) {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(Path.of(histogramFile)))) {
+            // HdrHistogram plotter 에서 읽을 수 있는 .hgrm 형식 (단위: ms)
+            histogram.outputPercentileDistribution(out, 1_000_000.0);
+        } catch (IOException e) {
+            log.error("[Load Driver] 히스토그램 파일 저장 실패: {}", histogramFile, e);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.client.rest;
+
+import com.example.codec.BufferOutput;
+import com.example.codec.BufferPool;
+import com.example.codec.MessageCodec;
+import com.example.dto.MessageRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.StreamChannel;
+import org.apache.hc.core5.http.nio.entity.AbstractBinAsyncEntityProducer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/**
+ * 메시지를 한 줄에 하나씩(NDJSON) 요청 본문으로 흘려보내는 producer.
+ * 연결이 쓸 수 있을 때만 다음 묶음(CHUNK_MESSAGES 개)을 직렬화하므로, 메시지가 아무리 많아도
+ * 메모리에는 현재 묶음 하나만 올라간다.
+ * 묶음은 BufferPool 에서 빌린 버퍼 하나에 다시 쓰므로 메시지마다 byte[] 를 만들지 않는다.
+ */
+public class NdjsonEntityProducer extends AbstractBinAsyncEntityProducer {
+
+    public static final ContentType APPLICATION_NDJSON = ContentType.create("application/x-ndjson");
+
+    private static final int CHUNK_MESSAGES = 256;
+
+    private final Iterator<String> contents;
+    private final MessageCodec<MessageRequest> requestCodec;
+    private final BufferOutput chunk = new BufferOutput(BufferPool.shared(), 16 * 1024);
+
+    private ByteBuffer pending;
+    private boolean ended;
+
+    // requestCodec 은 한 줄짜리 JSON 을 써야 한다. (MessageCodecs.REQUEST_JSON)
+    public NdjsonEntityProducer(Iterator<String> contents, MessageCodec<MessageRequest> requestCodec) {
+        super(0, APPLICATION_NDJSON);
+        this.contents = contents;
+        this.requestCodec = requestCodec;
+    }
+
+    @Override
+    protected int availableData() {
+        return ended ? 0 : Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected void produceData(StreamChannel<ByteBuffer> channel) throws IOException {
+        while (!ended) {
+            if (pending == null || !pending.hasRemaining()) {
+                if (!contents.hasNext()) {
+                    ended = true;
+                    channel.endStream();
+                    return;
+                }
+                pending = nextChunk();
+            }
+            channel.write(pending);
+            if (pending.hasRemaining()) {
+                return; // 송신 버퍼가 찼음. 다시 쓸 수 있게 되면 호출된다.
+            }
+        }
+    }
+
+    // 반환한 view 는 다음 nextChunk 전까지만 유효하다. (pending 을 다 보낸 뒤에만 부른다)
+    private ByteBuffer nextChunk() {
+        chunk.reset();
+        for (int i = 0; i < CHUNK_MESSAGES && contents.hasNext(); i++) {
+            requestCodec.encode(new MessageRequest(contents.next()), chunk);
+            chunk.write('\n');
+        }
+        return chunk.written();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        ended = true;
+    }
+
+    @Override
+    public void releaseResources() {
+        super.releaseResources();
+        ended = true;
+        pending = null;
+        chunk.release();
+    }
+}
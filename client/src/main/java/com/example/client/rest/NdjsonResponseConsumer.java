@@ -0,0 +1,87 @@
+package com.example.client.rest;
+
+import com.example.codec.BufferOutput;
+import com.example.codec.BufferPool;
+import com.example.codec.MessageCodec;
+import com.example.dto.MessageResponse;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.async.methods.AbstractBinResponseConsumer;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * NDJSON 응답 본문을 줄 단위로 잘라, 한 줄이 완성될 때마다 reply 를 replyConsumer 에 넘긴다.
+ * 본문 전체를 모으지 않으므로 응답이 길어도 메모리에는 마지막 미완성 줄만 남는다.
+ * 미완성 줄은 BufferPool 에서 빌린 버퍼에 모으고, 줄이 끝나면 그 자리에서 디코딩해 같은 버퍼를 다시 쓴다.
+ * 결과는 받은 응답 수이다.
+ */
+public class NdjsonResponseConsumer extends AbstractBinResponseConsumer<Long> {
+
+    private static final int CAPACITY_INCREMENT = 64 * 1024;
+
+    private final Consumer<String> replyConsumer;
+    private final MessageCodec<MessageResponse> responseCodec;
+    private BufferOutput line;
+
+    private long received;
+
+    public NdjsonResponseConsumer(Consumer<String> replyConsumer, MessageCodec<MessageResponse> responseCodec) {
+        this.replyConsumer = replyConsumer;
+        this.responseCodec = responseCodec;
+    }
+
+    @Override
+    protected void start(HttpResponse response, ContentType contentType) throws IOException {
+        if (response.getCode() < 200 || response.getCode() >= 300) {
+            throw new HttpResponseException(response.getCode(), response.getReasonPhrase());
+        }
+        line = new BufferOutput(BufferPool.shared(), 256);
+    }
+
+    @Override
+    protected int capacityIncrement() {
+        return CAPACITY_INCREMENT;
+    }
+
+    @Override
+    protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+        while (src.hasRemaining()) {
+            byte b = src.get();
+            if (b == '\n') {
+                emitLine();
+            } else {
+                line.write(b);
+            }
+        }
+        if (endOfStream) {
+            emitLine();
+        }
+    }
+
+    private void emitLine() throws IOException {
+        if (line.position() == 0) {
+            return;
+        }
+        MessageResponse response = responseCodec.decode(line.written());
+        line.reset();
+        received++;
+        replyConsumer.accept(response.getReply());
+    }
+
+    @Override
+    protected Long buildResult() {
+        return received;
+    }
+
+    @Override
+    public void releaseResources() {
+        if (line != null) {
+            line.release();
+            line = null;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.client.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketOption;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * unix 도메인 소켓 채널(JDK 16+)을 java.net.Socket 으로 감싼 어댑터. UnixDomainSocketFactory 가 만든다.
+ * JDK 는 UNIX 채널의 socket() 어댑터를 제공하지 않으므로, Apache HttpClient 클래식 연결이 쓰는 부분
+ * (스트림, SO_TIMEOUT, 주소, close)만 구현한다.
+ *
+ * 💡 채널을 non-blocking 으로 두고 Selector 로 기다려서 읽기에 SO_TIMEOUT(= 응답 타임아웃)을 적용한다.
+ * 다른 스레드에서 close 하면(요청 취소) 기다리던 읽기 / 쓰기가 바로 깨어나 SocketException 으로 끝난다.
+ * TCP 전용 옵션(TCP_NODELAY, SO_KEEPALIVE, SO_REUSEADDR, SO_LINGER)은 의미가 없으므로 무시한다.
+ */
+class UnixDomainSocket extends Socket {
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final InputStream in = new ChannelInputStream();
+    private final OutputStream out = new ChannelOutputStream();
+
+    private SelectionKey key;
+    private UnixDomainSocketAddress remoteAddress;
+    private volatile int soTimeout;
+
+    UnixDomainSocket() throws IOException {
+        this.channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        this.selector = Selector.open();
+    }
+
+    // unix 소켓 연결은 상대가 받고 있으면 바로 끝나므로 timeout 은 쓰지 않는다.
+    @Override
+    public void connect(SocketAddress endpoint, int timeout) throws IOException {
+        if (!(endpoint instanceof UnixDomainSocketAddress address)) {
+            throw new IllegalArgumentException("unix domain socket address expected: " + endpoint);
+        }
+        channel.connect(address);
+        channel.configureBlocking(false);
+        key = channel.register(selector, 0);
+        remoteAddress = address;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        ensureOpen();
+        return in;
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        ensureOpen();
+        return out;
+    }
+
+    @Override
+    public void setSoTimeout(int timeout) {
+        this.soTimeout = timeout;
+    }
+
+    @Override
+    public int getSoTimeout() {
+        return soTimeout;
+    }
+
+    @Override
+    public void setSendBufferSize(int size) throws SocketException {
+        setBufferSize(StandardSocketOptions.SO_SNDBUF, size);
+    }
+
+    @Override
+    public void setReceiveBufferSize(int size) throws SocketException {
+        setBufferSize(StandardSocketOptions.SO_RCVBUF, size);
+    }
+
+    private void setBufferSize(SocketOption<Integer> option, int size) throws SocketException {
+        try {
+            channel.setOption(option, size);
+        } catch (IOException e) {
+            throw new SocketException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void setTcpNoDelay(boolean on) {
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+    }
+
+    @Override
+    public void setReuseAddress(boolean on) {
+    }
+
+    @Override
+    public void setSoLinger(boolean on, int linger) {
+    }
+
+    @Override
+    public SocketAddress getRemoteSocketAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        try {
+            return channel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return channel.isConnected();
+    }
+
+    @Override
+    public boolean isBound() {
+        return channel.isConnected();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return !channel.isOpen();
+    }
+
+    @Override
+    public void shutdownInput() throws IOException {
+        channel.shutdownInput();
+    }
+
+    @Override
+    public void shutdownOutput() throws IOException {
+        channel.shutdownOutput();
+    }
+
+    // 채널을 먼저 닫고 selector 를 닫아서 select 중인 스레드를 깨운다.
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            selector.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UnixDomainSocket[" + remoteAddress + "]";
+    }
+
+    @Override
+    public <T> Socket setOption(SocketOption<T> option, T value) throws IOException {
+        channel.setOption(option, value);
+        return this;
+    }
+
+    private void ensureOpen() throws SocketException {
+        if (!channel.isOpen()) {
+            throw new SocketException("Socket is closed");
+        }
+        if (key == null) {
+            throw new SocketException("Socket is not connected");
+        }
+    }
+
+    // op 가 준비될 때까지 기다린다. timeoutMillis 가 0 이면 무한정 기다린다.
+    // 인터럽트되면 select 가 바로 돌아오기만 하므로 직접 확인해서 끝낸다. (클라이언트 종료 시 executor.shutdownNow)
+    private void await(int op, int timeoutMillis) throws IOException {
+        long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        try {
+            key.interestOps(op);
+            while (true) {
+                long waitMillis = 0;
+                if (deadline != 0) {
+                    waitMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (waitMillis <= 0) {
+                        throw new SocketTimeoutException("Read timed out");
+                    }
+                }
+                int ready = selector.select(waitMillis);
+                selector.selectedKeys().clear();
+                ensureOpen();
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("interrupted while waiting on unix socket");
+                }
+                if (ready > 0) {
+                    return;
+                }
+            }
+        } catch (ClosedSelectorException | CancelledKeyException e) {
+            throw new SocketException("Socket is closed");
+        }
+    }
+
+    private class ChannelInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (true) {
+                int n = channel.read(buffer);
+                if (n != 0) {
+                    return n;
+                }
+                await(SelectionKey.OP_READ, soTimeout);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixDomainSocket.this.close();
+        }
+    }
+
+    private class ChannelOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        // 송신 버퍼가 차면 비워질 때까지 기다린다. (java.net.Socket 처럼 쓰기에는 timeout 이 없다)
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    await(SelectionKey.OP_WRITE, 0);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixDomainSocket.this.close();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.client.rest;
+
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+
+/**
+ * 요청 URL 의 호스트 / 포트와 상관없이 항상 socketPath 의 unix 도메인 소켓으로 연결하는 소켓 팩토리.
+ * Apache HttpClient 클래식 연결 관리자의 http 스킴에 등록해서 쓴다. (UnixSocketHttpClient)
+ */
+public class UnixDomainSocketFactory implements ConnectionSocketFactory {
+
+    private final UnixDomainSocketAddress socketAddress;
+
+    public UnixDomainSocketFactory(Path socketPath) {
+        this.socketAddress = UnixDomainSocketAddress.of(socketPath);
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return new UnixDomainSocket();
+    }
+
+    @Override
+    public Socket connectSocket(TimeValue connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        Socket sock = socket != null ? socket : createSocket(context);
+        try {
+            sock.connect(socketAddress, TimeValue.isPositive(connectTimeout) ? connectTimeout.toMillisecondsIntBound() : 0);
+        } catch (IOException e) {
+            sock.close();
+            throw e;
+        }
+        return sock;
+    }
+}
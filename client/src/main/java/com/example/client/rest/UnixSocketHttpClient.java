@@ -0,0 +1,113 @@
+package com.example.client.rest;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * unix 도메인 소켓으로 REST 서비스를 호출하는 HTTP/1.1 클라이언트. (Rest.server.address: unix:///경로)
+ * Apache HttpClient 5.2 의 비동기 클라이언트는 TCP 연결만 만들 수 있으므로, 클래식(블로킹) 클라이언트의 http 스킴에
+ * UnixDomainSocketFactory 를 등록하고 요청을 maxConnections 개 스레드에서 실행해 CompletableFuture 로 돌려준다.
+ * 스레드 수와 연결 풀 크기가 같으므로 동시 요청 상한은 TCP 의 HTTP/1.1 연결 풀과 같고, 넘는 요청은 큐에서 기다린다.
+ */
+public class UnixSocketHttpClient implements Closeable {
+
+    // 요청 URL 의 호스트는 Host 헤더에만 쓰이므로 DNS 조회 없이 루프백 주소로 둔다. (실제 연결은 소켓 팩토리가 정한다)
+    private static final DnsResolver NO_LOOKUP = new DnsResolver() {
+        @Override
+        public InetAddress[] resolve(String host) {
+            return new InetAddress[] {InetAddress.getLoopbackAddress()};
+        }
+
+        @Override
+        public String resolveCanonicalHostname(String host) {
+            return host;
+        }
+    };
+
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService executor;
+
+    public UnixSocketHttpClient(Path socketPath, int maxConnections, long connectTimeoutMillis, long responseTimeoutMillis) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register(URIScheme.HTTP.id, new UnixDomainSocketFactory(socketPath))
+                        .build(),
+                PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, TimeValue.NEG_ONE_MILLISECOND, null, NO_LOOKUP, null);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                .build());
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMillis))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConnections, runnable -> {
+            Thread thread = new Thread(runnable, "rest-uds-client-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 응답 처리(responseHandler)까지 요청 스레드에서 끝낸 결과로 완료된다.
+    // 호출자가 future 를 취소하면 진행 중인 요청의 연결을 끊는다.
+    public <T> CompletableFuture<T> execute(HttpUriRequestBase request, HttpClientResponseHandler<T> responseHandler) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return; // 큐에서 기다리는 동안 취소됨
+                }
+                try {
+                    result.complete(httpClient.execute(request, responseHandler));
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                request.cancel();
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.client.websocket;
+
+import com.example.codec.BufferOutput;
+import com.example.codec.BufferPool;
+import com.example.codec.MessageCodec;
+import com.example.frames.CoalescingFrameWriter;
+import com.example.frames.DelimitedFrames;
+import com.example.frames.SlowConsumerPolicy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * JDK WebSocket(java.net.http) 연결 하나. 보낼 메시지는 CoalescingFrameWriter 로 묶어서 바이너리 프레임으로 쓰고,
+ * 받은 프레임은 DelimitedFrames 형식으로 풀어 메시지마다 onMessage 에 넘긴다. 직렬화는 양방향 각각의 MessageCodec 이 맡는다.
+ *
+ * onMessage 는 JDK WebSocket 의 수신 스레드에서 한 번에 하나씩 호출된다. 다음 프레임은 onMessage 가 끝난 뒤에 요청한다.
+ * 연결이 끝나면(정상 종료 포함) onClosed 를 한 번 호출한다.
+ */
+public final class WebSocketConnection<O, I> implements WebSocket.Listener {
+
+    private final MessageCodec<I> decoder;
+    private final Consumer<? super I> onMessage;
+    private final Consumer<Throwable> onClosed;
+    private final CoalescingFrameWriter<O> writer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile WebSocket webSocket;
+    // 여러 조각으로 나뉘어 온 프레임을 모으는 풀 버퍼 (수신 스레드만 사용)
+    private BufferOutput partial;
+
+    private WebSocketConnection(MessageCodec<O> encoder, MessageCodec<I> decoder, Consumer<? super I> onMessage,
+                                Consumer<Throwable> onClosed, int sendBufferMessages, int maxFrameBytes) {
+        this.decoder = decoder;
+        this.onMessage = onMessage;
+        this.onClosed = onClosed;
+        this.writer = new CoalescingFrameWriter<>(new CoalescingFrameWriter.FrameSink() {
+            @Override
+            public void write(ByteBuffer frame, Consumer<Throwable> done) {
+                webSocket.sendBinary(frame, true).whenComplete((ws, error) -> done.accept(error));
+            }
+
+            @Override
+            public void close(String reason) {
+                abort(new IOException(reason));
+            }
+        }, encoder, BufferPool.shared(), sendBufferMessages, maxFrameBytes, SlowConsumerPolicy.DISCONNECT, null);
+    }
+
+    /**
+     * 연결을 연다. 서버가 받지 않아 송신 버퍼(sendBufferMessages)가 가득 차면 연결을 끊는다.
+     */
+    public static <O, I> WebSocketConnection<O, I> open(
+            HttpClient httpClient, URI uri, Duration connectTimeout, MessageCodec<O> encoder, MessageCodec<I> decoder,
+            Consumer<? super I> onMessage, Consumer<Throwable> onClosed, int sendBufferMessages, int maxFrameBytes) {
+        WebSocketConnection<O, I> connection = new WebSocketConnection<>(encoder, decoder, onMessage, onClosed,
+                sendBufferMessages, maxFrameBytes);
+        connection.webSocket = httpClient.newWebSocketBuilder()
+                .connectTimeout(connectTimeout)
+                .buildAsync(uri, connection)
+                .join();
+        return connection;
+    }
+
+    // 송신 버퍼에 넣는다. 연결이 끝났거나 버퍼가 가득 차서 연결을 끊게 되었으면 false
+    public boolean send(O message) {
+        return writer.send(message);
+    }
+
+    public boolean isOpen() {
+        return !closed.get();
+    }
+
+    // 정상 종료. 아직 보내지 않은 메시지는 버리고 서버에 close 프레임을 보낸다.
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            writer.close();
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "");
+            onClosed.accept(new IOException("WebSocket closed by client"));
+        }
+    }
+
+    private void abort(Throwable cause) {
+        if (closed.compareAndSet(false, true)) {
+            writer.close();
+            webSocket.abort();
+            onClosed.accept(cause);
+        }
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        if (!last || partial != null) {
+            if (partial == null) {
+                partial = new BufferOutput(BufferPool.shared(), data.remaining() * 2);
+            }
+            partial.write(data);
+        }
+        if (last) {
+            ByteBuffer frame = partial != null ? partial.written() : data;
+            try {
+                DelimitedFrames.forEach(frame, decoder, onMessage);
+            } catch (IOException | RuntimeException e) {
+                abort(e);
+                return null;
+            } finally {
+                if (partial != null) {
+                    partial.release();
+                    partial = null;
+                }
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        abort(new IOException("unexpected text frame"));
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        abort(new IOException("WebSocket closed by server: " + statusCode + " " + reason));
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        abort(error);
+    }
+}
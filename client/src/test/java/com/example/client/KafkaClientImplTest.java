@@ -0,0 +1,178 @@
+package com.example.client;
+
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.logging.MessageLogSettings;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.requestreply.KafkaReplyTimeoutException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 내장 Kafka 브로커(spring-kafka-test, KRaft) 위에서 KafkaClientImpl 의 요청-응답 상관 관계와 응답 시간 초과를 확인한다.
+ *
+ * kafka-service 대신 테스트 안의 응답기가 요청 토픽을 읽는다. 응답기는 poll 한 요청들을 거꾸로 된 순서로 응답하고,
+ * 아무도 기다리지 않는 상관 ID 의 응답도 섞어 보내며, "drop-" 으로 시작하는 요청에는 응답하지 않는다.
+ */
+class KafkaClientImplTest {
+
+    private static final String REQUEST_TOPIC = "test.requests";
+    private static final String REPLY_TOPIC = "test.replies";
+    private static final long REPLY_TIMEOUT_MILLIS = 1000;
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private Thread responder;
+    private volatile KafkaConsumer<String, byte[]> responderConsumer;
+    private KafkaClientImpl client;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, REQUEST_TOPIC, REPLY_TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void start() {
+        responder = new Thread(this::respond, "kafka-test-responder");
+        responder.setDaemon(true);
+        responder.start();
+        client = new KafkaClientImpl(broker.getBrokersAsString(), REQUEST_TOPIC, REPLY_TOPIC, 16384, 0, "none", "all",
+                REPLY_TIMEOUT_MILLIS, 1024, MessageLogSettings.DEFAULT);
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        client.shutdown();
+        KafkaConsumer<String, byte[]> consumer = responderConsumer;
+        if (consumer != null) {
+            consumer.wakeup();
+        }
+        responder.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Test
+    void repliesAreMatchedByCorrelationId() {
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            contents.add("message-" + i);
+        }
+        List<CompletableFuture<String>> replies = new ArrayList<>();
+        for (String content : contents) {
+            replies.add(client.sendMessageAsync(content));
+        }
+        for (int i = 0; i < contents.size(); i++) {
+            assertEquals("[Kafka] 응답: echo " + contents.get(i), replies.get(i).join());
+        }
+        // sendMessages 는 응답 도착 순서와 상관없이 입력 순서대로 돌려준다.
+        List<String> expected = contents.stream().map(content -> "echo " + content).toList();
+        assertEquals(expected, client.sendMessages(contents).join());
+    }
+
+    @Test
+    void unansweredRequestTimesOut() {
+        long start = System.nanoTime();
+        CompletableFuture<String> dropped = client.sendMessageAsync("drop-1");
+        ExecutionException error = assertThrows(ExecutionException.class, () -> dropped.get(10, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertInstanceOf(KafkaReplyTimeoutException.class, error.getCause());
+        assertTrue(elapsedMillis >= REPLY_TIMEOUT_MILLIS - 100 && elapsedMillis < REPLY_TIMEOUT_MILLIS * 5,
+                "timed out after " + elapsedMillis + "ms with reply-timeout-ms " + REPLY_TIMEOUT_MILLIS);
+        // 동기 호출은 시간 초과를 예외 대신 응답 문자열로 알린다.
+        assertTrue(client.sendMessage("drop-2").startsWith("[Kafka] 응답 시간 초과"));
+        // 시간 초과 뒤에도 다른 요청은 정상으로 상관된다.
+        assertEquals("[Kafka] 응답: echo after-timeout", client.sendMessage("after-timeout"));
+    }
+
+    private void respond() {
+        Map<String, Object> consumerConfig = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "test-responder-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        Map<String, Object> producerConfig = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(consumerConfig);
+             KafkaProducer<String, byte[]> producer = new KafkaProducer<>(producerConfig)) {
+            responderConsumer = consumer;
+            consumer.subscribe(List.of(REQUEST_TOPIC));
+            while (true) {
+                ConsumerRecords<String, byte[]> requests = consumer.poll(Duration.ofMillis(100));
+                List<ConsumerRecord<String, byte[]>> batch = new ArrayList<>();
+                requests.forEach(batch::add);
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    reply(producer, batch.get(i));
+                }
+                if (!batch.isEmpty()) {
+                    // 다른 클라이언트에게 갈 응답. 공유 응답 토픽이므로 클라이언트는 무시해야 한다.
+                    producer.send(replyRecord(UUID.randomUUID().toString().getBytes(), "stray"));
+                }
+                producer.flush();
+            }
+        } catch (WakeupException e) {
+            // 테스트 종료
+        }
+    }
+
+    private static void reply(KafkaProducer<String, byte[]> producer, ConsumerRecord<String, byte[]> request) {
+        String content;
+        try {
+            content = MessageRequestGrpc.parseFrom(request.value()).getContent();
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        Header correlationId = request.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+        if (content.startsWith("drop-") || correlationId == null) {
+            return;
+        }
+        producer.send(replyRecord(correlationId.value(), "echo " + content));
+    }
+
+    private static ProducerRecord<String, byte[]> replyRecord(byte[] correlationId, String reply) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(REPLY_TOPIC,
+                MessageResponseGrpc.newBuilder().setReply(reply).build().toByteArray());
+        record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId);
+        return record;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.client;
+
+import com.example.client.amqp.EmbeddedAmqpBroker;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.logging.MessageLogSettings;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.Delivery;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpReplyTimeoutException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 내장 AMQP 브로커(Qpid Broker-J) 위에서 RabbitMqClientImpl 의 요청-응답과 작업 큐 발행을 확인한다.
+ *
+ * rabbitmq-service 대신 테스트 안의 응답기가 요청 큐를 읽는다. 응답기는 모아 둔 요청을 20ms 마다 거꾸로 된 순서로
+ * replyTo 에 correlationId 를 붙여 응답하고, "drop-" 으로 시작하는 요청과 replyTo 가 없는 메시지(작업 큐)에는 응답하지 않는다.
+ */
+class RabbitMqClientImplTest {
+
+    private static final String REQUEST_QUEUE = "test.requests";
+    private static final long REPLY_TIMEOUT_MILLIS = 1000;
+
+    private static EmbeddedAmqpBroker broker;
+
+    private final ScheduledExecutorService replyTimer = Executors.newSingleThreadScheduledExecutor();
+    private final List<Delivery> pendingRequests = new ArrayList<>();
+    private final AtomicInteger workItems = new AtomicInteger();
+    private Connection responderConnection;
+    private RabbitMqClientImpl client;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedAmqpBroker();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.close();
+    }
+
+    @BeforeEach
+    void startResponder() throws Exception {
+        ConnectionFactory connectionFactory = new ConnectionFactory();
+        connectionFactory.setHost(broker.host());
+        connectionFactory.setPort(broker.port());
+        responderConnection = connectionFactory.newConnection("test-responder");
+        Channel channel = responderConnection.createChannel();
+        channel.queueDeclare(REQUEST_QUEUE, false, false, false, null);
+        channel.queuePurge(REQUEST_QUEUE);
+        channel.basicConsume(REQUEST_QUEUE, true, (consumerTag, delivery) -> {
+            if (delivery.getProperties().getReplyTo() == null) {
+                workItems.incrementAndGet();
+                return;
+            }
+            synchronized (pendingRequests) {
+                pendingRequests.add(delivery);
+            }
+        }, consumerTag -> { });
+        replyTimer.scheduleWithFixedDelay(() -> replyReversed(channel), 20, 20, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        if (client != null) {
+            client.shutdown();
+        }
+        replyTimer.shutdownNow();
+        responderConnection.close();
+    }
+
+    @Test
+    void repliesAreMatchedByCorrelationId() {
+        client = newClient(false, 256);
+        List<String> contents = IntStream.range(0, 200).mapToObj(i -> "message-" + i).toList();
+        List<CompletableFuture<String>> replies = contents.stream().map(client::sendMessageAsync).toList();
+        for (int i = 0; i < contents.size(); i++) {
+            assertEquals("[RabbitMQ] 응답: echo " + contents.get(i), replies.get(i).join());
+        }
+        // sendMessages 는 응답 도착 순서와 상관없이 입력 순서대로 돌려준다.
+        List<String> expected = contents.stream().map(content -> "echo " + content).toList();
+        assertEquals(expected, client.sendMessages(contents).join());
+    }
+
+    @Test
+    void unansweredRequestTimesOut() {
+        client = newClient(false, 256);
+        long start = System.nanoTime();
+        CompletableFuture<String> dropped = client.sendMessageAsync("drop-1");
+        ExecutionException error = assertThrows(ExecutionException.class, () -> dropped.get(10, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertInstanceOf(AmqpReplyTimeoutException.class, error.getCause());
+        assertTrue(elapsedMillis >= REPLY_TIMEOUT_MILLIS - 100 && elapsedMillis < REPLY_TIMEOUT_MILLIS * 5,
+                "timed out after " + elapsedMillis + "ms with reply-timeout-ms " + REPLY_TIMEOUT_MILLIS);
+        // 시간 초과 뒤에도 다른 요청은 정상으로 상관된다.
+        assertEquals("[RabbitMQ] 응답: echo after-timeout", client.sendMessage("after-timeout"));
+    }
+
+    // Qpid 에는 amq.rabbitmq.reply-to 가 없으므로, direct reply-to 클라이언트는 첫 요청에서 멈추지 않고 생성할 때 바로 실패해야 한다.
+    @Test
+    void directReplyToIsRejectedWhenBrokerLacksIt() {
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> newClient(true, 256));
+        assertTrue(error.getMessage().contains("rabbit.client.direct-reply-to=false"), error.getMessage());
+    }
+
+    @Test
+    void publishMessagesCompletesWhenBrokerConfirmsEveryMessage() throws Exception {
+        client = newClient(false, 8);
+        List<String> contents = IntStream.range(0, 500).mapToObj(i -> "work-" + i).toList();
+
+        assertEquals(500L, client.publishMessages(contents).get(10, TimeUnit.SECONDS));
+        long giveUpAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (workItems.get() < 500 && System.nanoTime() < giveUpAt) {
+            Thread.sleep(10);
+        }
+        assertEquals(500, workItems.get());
+    }
+
+    private RabbitMqClientImpl newClient(boolean directReplyTo, int confirmWindow) {
+        return new RabbitMqClientImpl(broker.host(), broker.port(), "guest", "guest", REQUEST_QUEUE, directReplyTo,
+                REPLY_TIMEOUT_MILLIS, confirmWindow, 1024, MessageLogSettings.DEFAULT);
+    }
+
+    private void replyReversed(Channel channel) {
+        List<Delivery> requests;
+        synchronized (pendingRequests) {
+            requests = new ArrayList<>(pendingRequests);
+            pendingRequests.clear();
+        }
+        try {
+            for (int i = requests.size() - 1; i >= 0; i--) {
+                Delivery request = requests.get(i);
+                String content = MessageRequestGrpc.parseFrom(request.getBody()).getContent();
+                if (content.startsWith("drop-")) {
+                    continue;
+                }
+                AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                        .correlationId(request.getProperties().getCorrelationId())
+                        .build();
+                channel.basicPublish("", request.getProperties().getReplyTo(), properties,
+                        MessageResponseGrpc.newBuilder().setReply("echo " + content).build().toByteArray());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.client.adaptive;
+
+import com.example.client.ClientFactory.ClientType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TransportRouter 의 결정 순서를 실제 시간 대신 호출 결과만 넣어 확인한다.
+ *
+ * 호출이 드문 상황은 min-samples 를 창이 채울 수 없을 만큼 크게 두어 흉내 낸다. (창 안의 호출이 항상 min-samples 보다 적다)
+ */
+class TransportRouterTest {
+
+    private static final int CALLS = 200;
+    private static final int PROBE_EVERY = 10;
+    private static final int PAYLOAD = 100;
+
+    @Test
+    void deadTransportGetsOnlyProbesWhileWindowIsBelowMinSamples() {
+        TransportRouter router = new TransportRouter(settings(1000));
+
+        Map<ClientType, Integer> sent = route(router, ClientType.GRPC);
+
+        // 첫 실패 뒤에는 probe-every 마다 한 번만 죽은 gRPC 로 간다. (워밍업이 먼저라면 절반이 gRPC 로 간다)
+        int grpc = sent.getOrDefault(ClientType.GRPC, 0);
+        assertTrue(grpc <= CALLS / PROBE_EVERY + 1, "dead GRPC got " + grpc + " of " + CALLS + " calls");
+        assertEquals(CALLS - grpc, sent.get(ClientType.REST));
+        RoutingDecision last = router.lastDecisions().get(0);
+        assertTrue(last.reason() == RoutingDecision.Reason.FALLBACK || last.reason() == RoutingDecision.Reason.PROBE, last.toString());
+    }
+
+    @Test
+    void healthyTransportsWarmUpInTurn() {
+        TransportRouter router = new TransportRouter(settings(1000));
+
+        Map<ClientType, Integer> sent = route(router, null);
+
+        assertEquals(CALLS / 2, sent.get(ClientType.REST));
+        assertEquals(CALLS / 2, sent.get(ClientType.GRPC));
+        assertEquals(RoutingDecision.Reason.WARMUP, router.lastDecisions().get(0).reason());
+    }
+
+    @Test
+    void deadTransportIsDroppedBeforeWindowReachesMinSamples() {
+        TransportRouter router = new TransportRouter(settings(20));
+
+        Map<ClientType, Integer> sent = route(router, ClientType.REST);
+
+        int rest = sent.getOrDefault(ClientType.REST, 0);
+        assertTrue(rest <= CALLS / PROBE_EVERY + 1, "dead REST got " + rest + " of " + CALLS + " calls");
+    }
+
+    // dead 로 보낸 호출은 실패로, 나머지는 1ms 성공으로 기록한다. 전송 방식별로 보낸 호출 수를 돌려준다.
+    private static Map<ClientType, Integer> route(TransportRouter router, ClientType dead) {
+        Map<ClientType, Integer> sent = new EnumMap<>(ClientType.class);
+        for (int i = 0; i < CALLS; i++) {
+            ClientType transport = router.route(PAYLOAD).transport();
+            sent.merge(transport, 1, Integer::sum);
+            if (transport == dead) {
+                router.recordFailure(transport, PAYLOAD);
+            } else {
+                router.recordSuccess(transport, PAYLOAD, 1_000_000);
+            }
+        }
+        return sent;
+    }
+
+    private static AdaptiveRoutingSettings settings(int minSamples) {
+        return new AdaptiveRoutingSettings(Duration.ofSeconds(60), minSamples, 0.2, 0.1, PROBE_EVERY, List.of());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.client.amqp;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.ShutdownSignalException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 내장 AMQP 브로커(Qpid Broker-J) 위에서 ConfirmingPublisher 의 publisher confirm 처리를 확인한다.
+ *
+ * Qpid 는 확인을 메시지마다 하나씩(multiple=false) 보내고, 라우팅되는 메시지는 nack 하지 않는다.
+ * 그래서 multiple ack / nack 은 브로커의 확인 프레임을 발행기에 넘기지 않는 연결(confirm 을 가로채는 프록시)로 발행하고,
+ * 실제 채널이 매긴 delivery tag 로 테스트가 직접 확인 프레임을 넣는다.
+ */
+class ConfirmingPublisherTest {
+
+    private static final byte[] BODY = "confirm-me".getBytes();
+    private static final AMQP.BasicProperties PROPERTIES = new AMQP.BasicProperties.Builder().build();
+
+    private static EmbeddedAmqpBroker broker;
+
+    private final ConnectionFactory connectionFactory = new ConnectionFactory();
+    private Connection adminConnection;
+    private String queue;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedAmqpBroker();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.close();
+    }
+
+    @BeforeEach
+    void declareQueue() throws Exception {
+        connectionFactory.setHost(broker.host());
+        connectionFactory.setPort(broker.port());
+        adminConnection = connectionFactory.newConnection("confirm-test-admin");
+        queue = "confirm.test." + UUID.randomUUID();
+        try (Channel channel = adminConnection.createChannel()) {
+            channel.queueDeclare(queue, false, false, false, null);
+        }
+    }
+
+    @AfterEach
+    void closeAdmin() throws IOException {
+        adminConnection.close();
+    }
+
+    @Test
+    void brokerConfirmsCompleteEveryPublish() throws Exception {
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        try (ConfirmingPublisher publisher = new ConfirmingPublisher(connectionFactory.newConnection("confirm-test"), 16)) {
+            for (int i = 0; i < 1000; i++) {
+                confirms.add(publisher.publish("", queue, PROPERTIES, BODY));
+            }
+            CompletableFuture.allOf(confirms.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        }
+        try (Channel channel = adminConnection.createChannel()) {
+            assertEquals(1000, channel.queueDeclarePassive(queue).getMessageCount());
+        }
+    }
+
+    @Test
+    void multipleAckAndNackCompleteByDeliveryTag() throws Exception {
+        AtomicReference<ConfirmListener> confirmListener = new AtomicReference<>();
+        try (ConfirmingPublisher publisher = new ConfirmingPublisher(interceptConfirms(confirmListener), 5)) {
+            List<CompletableFuture<Void>> confirms = new ArrayList<>();
+            confirms.add(null); // delivery tag 는 1 부터
+            for (int i = 0; i < 5; i++) {
+                confirms.add(publisher.publish("", queue, PROPERTIES, BODY));
+            }
+
+            // multiple ack: 3 이하가 모두 확인된다.
+            confirmListener.get().handleAck(3, true);
+            for (int tag = 1; tag <= 3; tag++) {
+                assertTrue(confirms.get(tag).isDone() && !confirms.get(tag).isCompletedExceptionally(), "tag " + tag);
+            }
+            assertFalse(confirms.get(4).isDone());
+            assertFalse(confirms.get(5).isDone());
+
+            // 확인된 3개만큼 창이 비었으므로 3개는 기다리지 않고 발행된다. (tag 6 ~ 8)
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                for (int i = 0; i < 3; i++) {
+                    confirms.add(publisher.publish("", queue, PROPERTIES, BODY));
+                }
+            });
+
+            // 단일 nack: 그 메시지만 실패한다.
+            confirmListener.get().handleNack(5, false);
+            assertNacked(confirms.get(5));
+            assertFalse(confirms.get(4).isDone());
+
+            // multiple nack: 남은 8 이하가 모두 실패한다.
+            confirmListener.get().handleNack(8, true);
+            for (int tag : new int[] {4, 6, 7, 8}) {
+                assertNacked(confirms.get(tag));
+            }
+        }
+    }
+
+    @Test
+    void closedChannelFailsUnconfirmedPublishes() throws Exception {
+        ConfirmingPublisher publisher = new ConfirmingPublisher(interceptConfirms(new AtomicReference<>()), 8);
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            confirms.add(publisher.publish("", queue, PROPERTIES, BODY));
+        }
+        publisher.close();
+        for (CompletableFuture<Void> confirmed : confirms) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> confirmed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ShutdownSignalException.class, error.getCause());
+        }
+    }
+
+    private static void assertNacked(CompletableFuture<Void> confirmed) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> confirmed.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().startsWith("broker nack"), error.getCause().getMessage());
+    }
+
+    // 브로커에 연결하지만, 채널의 addConfirmListener 는 등록하지 않고 listener 에 넘겨준다.
+    // 발행 순번(getNextPublishSeqNo)과 종료 알림은 실제 채널의 것을 그대로 쓴다.
+    private Connection interceptConfirms(AtomicReference<ConfirmListener> listener) throws Exception {
+        Connection connection = connectionFactory.newConnection("confirm-test-intercepted");
+        return proxy(Connection.class, (connectionProxy, method, args) -> {
+            Object result = invoke(method, connection, args);
+            if (method.getName().equals("createChannel")) {
+                Channel channel = (Channel) result;
+                return proxy(Channel.class, (channelProxy, channelMethod, channelArgs) -> {
+                    if (channelMethod.getName().equals("addConfirmListener") && channelArgs[0] instanceof ConfirmListener captured) {
+                        listener.set(captured);
+                        return null;
+                    }
+                    return invoke(channelMethod, channel, channelArgs);
+                });
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
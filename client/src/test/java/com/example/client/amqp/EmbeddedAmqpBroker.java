@@ -0,0 +1,61 @@
+package com.example.client.amqp;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.SystemConfig;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 테스트용 AMQP 0-9-1 브로커. 같은 JVM 안에서 Qpid Broker-J 를 메모리 저장소로 띄운다. (사용자 guest / guest)
+ * RabbitMqTransportBenchmark 와 같은 설정(qpid-embedded.json)을 쓴다.
+ *
+ * Qpid 는 RabbitMQ 와 달리 direct reply-to(amq.rabbitmq.reply-to)가 없고, publisher confirm 을 메시지마다 하나씩(multiple=false) 보낸다.
+ */
+public final class EmbeddedAmqpBroker implements AutoCloseable {
+
+    private final SystemLauncher broker = new SystemLauncher();
+    private final Path workDir;
+    private final int port;
+
+    public EmbeddedAmqpBroker() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            this.port = socket.getLocalPort();
+        }
+        this.workDir = Files.createTempDirectory("qpid-test");
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ConfiguredObject.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION,
+                getClass().getClassLoader().getResource("qpid-embedded.json").toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(ConfiguredObject.CONTEXT, Map.of(
+                "qpid.amqp_port", String.valueOf(port),
+                SystemConfig.QPID_WORK_DIR, workDir.toString()));
+        broker.startup(attributes);
+    }
+
+    public String host() {
+        return "localhost";
+    }
+
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        broker.shutdown();
+        try {
+            FileSystemUtils.deleteRecursively(workDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.client.grpc;
+
+import com.example.client.GrpcClientImpl;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.grpc.MessageServiceGrpc;
+import io.grpc.ClientInterceptor;
+import io.grpc.ConnectivityState;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 같은 JVM 에 gRPC 서버 여러 개(그중 하나는 느림)를 띄우고, GrpcChannelPool + HedgingClientInterceptor 로 호출한다.
+ */
+class HedgingClientInterceptorTest {
+
+    private static final List<String> METHODS = List.of("MessageService/SendUnaryMessage");
+    private static final int CALLS = 60;
+    private static final long SLOW_MILLIS = 200;
+
+    private final ScheduledExecutorService serverTimer = Executors.newSingleThreadScheduledExecutor();
+    private final List<Server> servers = new ArrayList<>();
+    private final List<GrpcChannelPool> pools = new ArrayList<>();
+    private final List<HedgingClientInterceptor> interceptors = new ArrayList<>();
+    // 서버가 요청을 받을 때 본 deadline 까지 남은 시간 (도착 순서)
+    private final Queue<Long> remainingMillis = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        pools.forEach(GrpcChannelPool::shutdown);
+        interceptors.forEach(HedgingClientInterceptor::shutdown);
+        for (Server server : servers) {
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        serverTimer.shutdownNow();
+    }
+
+    @Test
+    void hedgingCutsTailLatencyWhenOneBackendIsSlow() throws IOException {
+        List<String> addresses = List.of(startServer(0), startServer(0), startServer(SLOW_MILLIS));
+        long plainP99 = p99Millis(new GrpcClientImpl(pool(addresses, 0, List.of())));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HedgingClientInterceptor hedging = hedging(20, registry);
+        long hedgedP99 = p99Millis(new GrpcClientImpl(pool(addresses, 0, List.of(hedging))));
+
+        assertTrue(plainP99 >= SLOW_MILLIS, "without hedging the slow backend sets p99: " + plainP99 + "ms");
+        assertTrue(hedgedP99 < plainP99 / 2, "hedged p99 " + hedgedP99 + "ms, plain p99 " + plainP99 + "ms");
+        assertTrue(registry.get("msa.grpc.attempts").tag("attempt", "hedge").tag("outcome", "won").timer().count() > 0);
+    }
+
+    @Test
+    void allAttemptsShareOneDeadline() throws IOException {
+        // 두 백엔드 모두 deadline 보다 느리므로 첫 시도 뒤 200ms 에 헤징 시도가 나가고, 둘 다 deadline 에 걸린다.
+        List<String> addresses = List.of(startServer(2000), startServer(2000));
+        GrpcChannelPool pool = pool(addresses, 1000, List.of(hedging(200, new SimpleMeterRegistry())));
+        GrpcClientImpl client = new GrpcClientImpl(pool);
+        // 연결 시간이 deadline 을 깎지 않도록 미리 연결해 둔다.
+        awaitReady(pool.next());
+
+        long start = System.nanoTime();
+        CompletionException error = assertThrows(CompletionException.class, () -> client.sendMessageAsync("deadline").join());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, Status.fromThrowable(error.getCause()).getCode());
+        assertTrue(elapsedMillis < 1300, "call took " + elapsedMillis + "ms with a 1000ms deadline");
+        // 헤징 시도는 첫 시도와 같은 절대 deadline 을 가지므로 서버가 보는 남은 시간도 그만큼 짧다.
+        Long[] remaining = remainingMillis.toArray(new Long[0]);
+        assertEquals(2, remaining.length, "attempts seen by servers: " + Arrays.toString(remaining));
+        assertTrue(Math.min(remaining[0], remaining[1]) <= 900, "hedged attempt got its own full deadline: " + Arrays.toString(remaining));
+    }
+
+    private HedgingClientInterceptor hedging(long delayMillis, SimpleMeterRegistry registry) {
+        // min-delay 를 initial-delay 와 같게 두어 테스트 동안 헤징 지연이 바뀌지 않게 한다.
+        HedgingClientInterceptor hedging = new HedgingClientInterceptor(true, METHODS, 2, 95, delayMillis, delayMillis, registry);
+        interceptors.add(hedging);
+        return hedging;
+    }
+
+    private GrpcChannelPool pool(List<String> addresses, long unaryDeadlineMillis, List<ClientInterceptor> interceptors) {
+        GrpcChannelPool pool = new GrpcChannelPool(addresses, 1, "round_robin", 60, 10, 300, unaryDeadlineMillis, interceptors);
+        pools.add(pool);
+        return pool;
+    }
+
+    private static void awaitReady(ManagedChannel channel) {
+        long giveUpAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (channel.getState(true) != ConnectivityState.READY && System.nanoTime() < giveUpAt) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private long p99Millis(GrpcClientImpl client) {
+        client.sendMessageAsync("warmup").join();
+        long[] latencies = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            long start = System.nanoTime();
+            client.sendMessageAsync("call-" + i).join();
+            latencies[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(CALLS * 0.99) - 1];
+    }
+
+    private String startServer(long delayMillis) throws IOException {
+        Server server = NettyServerBuilder.forPort(0)
+                .addService(new MessageServiceGrpc.MessageServiceImplBase() {
+                    @Override
+                    public void sendUnaryMessage(MessageRequestGrpc request, StreamObserver<MessageResponseGrpc> responseObserver) {
+                        Deadline deadline = Context.current().getDeadline();
+                        if (deadline != null) {
+                            remainingMillis.add(deadline.timeRemaining(TimeUnit.MILLISECONDS));
+                        }
+                        ServerCallStreamObserver<MessageResponseGrpc> call = (ServerCallStreamObserver<MessageResponseGrpc>) responseObserver;
+                        call.setOnCancelHandler(() -> { });
+                        Runnable reply = () -> {
+                            if (!call.isCancelled()) {
+                                call.onNext(MessageResponseGrpc.newBuilder().setReply(request.getContent()).build());
+                                call.onCompleted();
+                            }
+                        };
+                        if (delayMillis > 0) {
+                            serverTimer.schedule(reply, delayMillis, TimeUnit.MILLISECONDS);
+                        } else {
+                            reply.run();
+                        }
+                    }
+                })
+                .build()
+                .start();
+        servers.add(server);
+        return "localhost:" + server.getPort();
+    }
+}
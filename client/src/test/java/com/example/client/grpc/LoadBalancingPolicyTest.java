@@ -0,0 +1,117 @@
+package com.example.client.grpc;
+
+import com.example.client.GrpcClientImpl;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.grpc.MessageServiceGrpc;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 같은 JVM 에 gRPC 서버 3개(그중 하나는 느림)를 띄우고, GrpcChannelPool 의 정책별로 호출이 어떻게 나뉘는지 확인한다.
+ * GrpcLoadBalancingBenchmark 가 출력만 하던 백엔드별 처리 건수를 여기서 검증한다.
+ * 여러 스레드가 동시에 호출해야 진행 중인 호출 수가 쌓여 least_loaded 의 차이가 드러난다.
+ */
+class LoadBalancingPolicyTest {
+
+    private static final int CALLERS = 12;
+    private static final int CALLS_PER_CALLER = 40;
+    private static final long FAST_MILLIS = 2;
+    private static final long SLOW_MILLIS = 40;
+
+    private final ScheduledExecutorService serverTimer = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private final List<Server> servers = new ArrayList<>();
+    // servers 와 같은 순서의 백엔드별 처리 건수. 0번이 느린 백엔드다.
+    private final List<AtomicInteger> calls = new ArrayList<>();
+    private GrpcChannelPool pool;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        callers.shutdownNow();
+        if (pool != null) {
+            pool.shutdown();
+        }
+        for (Server server : servers) {
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        serverTimer.shutdownNow();
+    }
+
+    @Test
+    void roundRobinSendsCallsToEveryBackend() throws IOException {
+        int total = run("round_robin");
+
+        // round_robin 은 백엔드가 느려도 순서대로 돌리므로 모두 비슷한 몫을 받는다.
+        for (int i = 0; i < calls.size(); i++) {
+            int count = calls.get(i).get();
+            assertTrue(count >= total / 6, "backend-" + i + " got " + count + " of " + total + " calls: " + calls);
+        }
+    }
+
+    @Test
+    void leastLoadedSendsFewerCallsToSlowBackend() throws IOException {
+        int total = run("least_loaded");
+
+        int slow = calls.get(0).get();
+        int fastest = Math.min(calls.get(1).get(), calls.get(2).get());
+        assertTrue(fastest > 0, "fast backends got no calls: " + calls);
+        // 두 개 중 덜 바쁜 쪽을 고르므로(power of two choices) 느린 백엔드도 가끔 뽑히지만, 빠른 쪽보다 확실히 적다. (보통 절반 이하)
+        assertTrue(slow * 4 < fastest * 3, "slow backend got " + slow + " of " + total + " calls: " + calls);
+    }
+
+    // CALLERS 개의 스레드가 각자 순서대로 호출해, 끝날 때까지 동시에 CALLERS 개의 호출이 진행 중이게 한다.
+    private int run(String policy) throws IOException {
+        List<String> addresses = List.of(startServer(SLOW_MILLIS), startServer(FAST_MILLIS), startServer(FAST_MILLIS));
+        pool = new GrpcChannelPool(addresses, 1, policy, 60, 10, 300);
+        GrpcClientImpl client = new GrpcClientImpl(pool);
+        client.sendMessageAsync("warmup").join();
+        calls.forEach(count -> count.set(0));
+
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int caller = 0; caller < CALLERS; caller++) {
+            done.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < CALLS_PER_CALLER; i++) {
+                    client.sendMessageAsync("lb-" + i).join();
+                }
+            }, callers));
+        }
+        CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+        return CALLERS * CALLS_PER_CALLER;
+    }
+
+    private String startServer(long delayMillis) throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        Server server = NettyServerBuilder.forPort(0)
+                .addService(new MessageServiceGrpc.MessageServiceImplBase() {
+                    @Override
+                    public void sendUnaryMessage(MessageRequestGrpc request, StreamObserver<MessageResponseGrpc> responseObserver) {
+                        count.incrementAndGet();
+                        serverTimer.schedule(() -> {
+                            responseObserver.onNext(MessageResponseGrpc.newBuilder().setReply(request.getContent()).build());
+                            responseObserver.onCompleted();
+                        }, delayMillis, TimeUnit.MILLISECONDS);
+                    }
+                })
+                .build()
+                .start();
+        servers.add(server);
+        calls.add(count);
+        return "localhost:" + server.getPort();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.chat;
+
+import com.example.grpc.ChatMessage;
+
+/**
+ * ChatRooms 에 들어가는 Chat 연결 하나. 방에는 첫 메시지를 보낼 때 들어간다.
+ * grpc-service 는 Chat 스트림(ChatSubscriber), websocket-service 는 /ws/chat 세션(ChatMember)으로 구현한다.
+ */
+public abstract class ChatRoomMember {
+
+    private final String id;
+    private volatile String room;
+
+    protected ChatRoomMember(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    void setRoom(String room) {
+        this.room = room;
+    }
+
+    // 송신 큐에 넣는다. 큐가 가득 차 있으면 slow-consumer-policy 에 따라 처리하며, 호출자를 막지 않는다.
+    public abstract void send(ChatMessage message);
+
+    // 느린 수신자라서 버린 메시지 수
+    public abstract long dropped();
+}
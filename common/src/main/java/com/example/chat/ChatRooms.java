@@ -0,0 +1,85 @@
+package com.example.chat;
+
+import com.example.grpc.ChatMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 방(room) 단위 Chat 멤버 목록과 브로드캐스트. grpc-service(Chat RPC)와 websocket-service(/ws/chat)의 ChatHub 가 같이 쓴다.
+ * 방 멤버 목록은 copy-on-write 로 관리하므로 메시지 전달(fan-out)은 락 없이 스냅샷을 순회한다.
+ * 입장/퇴장만 해당 방 키 단위로 원자적으로 처리된다.
+ */
+public final class ChatRooms<M extends ChatRoomMember> {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatRooms.class);
+
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<M>> rooms = new ConcurrentHashMap<>();
+    private final String defaultRoom;
+    private final String logTag;
+
+    /**
+     * @param defaultRoom 방을 지정하지 않은 첫 메시지가 들어갈 방
+     * @param logTag      입장/퇴장 로그 앞에 붙일 태그. 예) "[Chat Hub]"
+     */
+    public ChatRooms(String defaultRoom, String logTag) {
+        this.defaultRoom = defaultRoom;
+        this.logTag = logTag;
+    }
+
+    /**
+     * from 이 아직 방에 없으면 메시지의 방에 입장시키고, 같은 방의 다른 멤버들에게 메시지를 전달한다.
+     */
+    public void publish(M from, ChatMessage message) {
+        String room = from.getRoom();
+        if (room == null) {
+            room = message.getRoom().isEmpty() ? defaultRoom : message.getRoom();
+            join(from, room);
+        }
+        CopyOnWriteArrayList<M> members = rooms.get(room);
+        if (members == null) {
+            return;
+        }
+        ChatMessage outbound = message.getRoom().equals(room) ? message : message.toBuilder().setRoom(room).build();
+        for (M member : members) {
+            if (member != from) {
+                member.send(outbound);
+            }
+        }
+    }
+
+    /**
+     * 방에서 나간다. 방에 들어간 적이 없거나 이미 나갔으면 아무것도 하지 않는다.
+     */
+    public void leave(M member) {
+        String room = member.getRoom();
+        if (room == null) {
+            return;
+        }
+        // 연결 종료 알림이 여러 번 올 수 있으므로 실제로 빠진 경우에만 로그를 남긴다.
+        boolean[] removed = new boolean[1];
+        rooms.computeIfPresent(room, (name, members) -> {
+            removed[0] = members.remove(member);
+            return members.isEmpty() ? null : members;
+        });
+        if (removed[0]) {
+            log.info("{} 퇴장: id={}, room={}, dropped={}", logTag, member.getId(), room, member.dropped());
+        }
+    }
+
+    public int roomCount() {
+        return rooms.size();
+    }
+
+    private void join(M member, String room) {
+        member.setRoom(room);
+        rooms.compute(room, (name, members) -> {
+            CopyOnWriteArrayList<M> list = members != null ? members : new CopyOnWriteArrayList<>();
+            list.add(member);
+            return list;
+        });
+        log.info("{} 입장: id={}, room={}", logTag, member.getId(), room);
+    }
+}
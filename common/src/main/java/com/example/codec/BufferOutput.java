@@ -0,0 +1,104 @@
+package com.example.codec;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * BufferPool 의 버퍼에 쓰는 OutputStream. 자리가 모자라면 두 배 크기 버퍼를 받아 옮기고 이전 버퍼는 풀에 돌려준다.
+ *
+ * 다 쓴 뒤에는 finish 로 읽기 모드 버퍼를 넘겨받거나(받은 쪽이 release), release 로 버퍼를 바로 돌려준다.
+ * reset 으로 같은 버퍼를 처음부터 다시 쓸 수 있다. 한 스레드에서만 사용한다.
+ */
+public final class BufferOutput extends OutputStream {
+
+    private final BufferPool pool;
+    private ByteBuffer buffer;
+
+    public BufferOutput(BufferPool pool, int initialCapacity) {
+        this.pool = pool;
+        this.buffer = pool.acquire(initialCapacity);
+    }
+
+    public BufferPool pool() {
+        return pool;
+    }
+
+    // 지금까지 쓴 바이트 수
+    public int position() {
+        return buffer.position();
+    }
+
+    // 쓴 위치를 되돌린다. (그 뒤에 쓴 내용은 버린다)
+    public void position(int position) {
+        buffer.position(position);
+    }
+
+    /**
+     * 남은 자리가 bytes 이상인 쓰기 모드 버퍼. 코덱이 바이트 배열에 직접 쓴 뒤 position 을 옮긴다.
+     */
+    public ByteBuffer ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) {
+            grow(buffer.position() + bytes);
+        }
+        return buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1).put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureRemaining(length).put(bytes, offset, length);
+    }
+
+    public void write(ByteBuffer source) {
+        ensureRemaining(source.remaining()).put(source);
+    }
+
+    // protobuf 와 같은 unsigned varint (1~5 바이트)
+    public void writeVarint32(int value) {
+        ByteBuffer target = ensureRemaining(5);
+        while ((value & ~0x7F) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    /**
+     * 지금까지 쓴 내용을 읽는 view. 버퍼는 계속 이 객체 소유이므로 다음 쓰기/reset/release 전까지만 유효하다.
+     */
+    public ByteBuffer written() {
+        return buffer.duplicate().flip();
+    }
+
+    public void reset() {
+        buffer.clear();
+    }
+
+    /**
+     * 쓴 내용을 읽기 모드 버퍼로 넘긴다. 받은 쪽이 다 쓴 뒤 pool().release 로 돌려준다. 이후 이 객체는 쓸 수 없다.
+     */
+    public ByteBuffer finish() {
+        ByteBuffer result = buffer.flip();
+        buffer = null;
+        return result;
+    }
+
+    // 버퍼를 풀에 돌려준다. finish 뒤에 불러도 된다.
+    public void release() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void grow(int minCapacity) {
+        ByteBuffer larger = pool.acquire(Math.max(minCapacity, buffer.capacity() * 2));
+        larger.put(buffer.flip());
+        pool.release(buffer);
+        buffer = larger;
+    }
+}
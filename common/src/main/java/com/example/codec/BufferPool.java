@@ -0,0 +1,83 @@
+package com.example.codec;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 인코딩용 heap ByteBuffer 풀. 크기는 minBufferBytes 부터 2배씩 늘어나는 크기 단위로 나눠 보관한다.
+ *
+ * 💡 acquire 로 받은 버퍼는 다 쓴 뒤(송신 완료 후) release 로 돌려준다. 돌려주지 않아도 새는 것은 아니고 GC 가 치울 뿐이다.
+ * 크기 단위마다 buffersPerSize 개까지만 보관하고, maxPooledBytes 보다 큰 요청은 풀을 거치지 않고 새로 만든다.
+ * 보관 큐는 ArrayBlockingQueue 라 넣고 뺄 때 노드를 새로 만들지 않는다.
+ */
+public final class BufferPool {
+
+    private static final BufferPool SHARED = new BufferPool(256, 1 << 20, 64);
+
+    private final int minBufferBytes;
+    private final int maxPooledBytes;
+    private final ArrayBlockingQueue<ByteBuffer>[] pools;
+    private final LongAdder allocations = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BufferPool(int minBufferBytes, int maxPooledBytes, int buffersPerSize) {
+        if (Integer.bitCount(minBufferBytes) != 1 || maxPooledBytes < minBufferBytes || buffersPerSize < 1) {
+            throw new IllegalArgumentException("minBufferBytes must be a power of two <= maxPooledBytes, buffersPerSize >= 1: "
+                    + minBufferBytes + ", " + maxPooledBytes + ", " + buffersPerSize);
+        }
+        this.minBufferBytes = minBufferBytes;
+        this.maxPooledBytes = Integer.highestOneBit(maxPooledBytes);
+        this.pools = new ArrayBlockingQueue[sizeIndex(this.maxPooledBytes) + 1];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new ArrayBlockingQueue<>(buffersPerSize);
+        }
+    }
+
+    // 프로세스 공용 풀 (최소 256B, 1MiB 까지 보관, 크기 단위마다 64개)
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * capacity 가 minCapacity 이상인 빈 버퍼(position 0, limit = capacity)를 돌려준다.
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        if (minCapacity > maxPooledBytes) {
+            allocations.increment();
+            return ByteBuffer.allocate(minCapacity);
+        }
+        int index = sizeIndex(minCapacity);
+        ByteBuffer buffer = pools[index].poll();
+        if (buffer == null) {
+            allocations.increment();
+            return ByteBuffer.allocate(minBufferBytes << index);
+        }
+        return buffer.clear();
+    }
+
+    /**
+     * acquire 로 받은 버퍼를 돌려준다. 돌려준 뒤에는 버퍼를 읽거나 쓰면 안 된다.
+     * 풀에서 나온 모양이 아닌 버퍼(slice, direct, 크기 단위가 아닌 것)와 보관 한도를 넘는 버퍼는 버린다.
+     */
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (capacity < minBufferBytes || capacity > maxPooledBytes || Integer.bitCount(capacity) != 1
+                || !buffer.hasArray() || buffer.arrayOffset() != 0) {
+            return;
+        }
+        pools[sizeIndex(capacity)].offer(buffer.clear());
+    }
+
+    // 풀에 없어서 새로 만든 버퍼 수
+    public long allocations() {
+        return allocations.sum();
+    }
+
+    private int sizeIndex(int capacity) {
+        if (capacity <= minBufferBytes) {
+            return 0;
+        }
+        return (32 - Integer.numberOfLeadingZeros(capacity - 1)) - Integer.numberOfTrailingZeros(minBufferBytes);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.codec;
+
+import java.io.IOException;
+
+// 받은 바이트를 메시지로 읽을 수 없을 때 (형식 오류, 잘린 메시지 등)
+public class CodecException extends IOException {
+
+    public CodecException(String message) {
+        super(message);
+    }
+
+    public CodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Jackson JSON 코덱. REST 의 application/json 본문과 같은 형식이다.
+ * 크기를 미리 알 수 없으므로 BufferOutput 이 모자라면 늘려가며 쓴다.
+ */
+public final class JsonCodec<T> implements MessageCodec<T> {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    // 💡 ObjectReader / ObjectWriter 는 thread-safe 하고, 타입별 (역)직렬화기를 미리 찾아두므로 호출마다 찾지 않는다.
+    public JsonCodec(ObjectMapper objectMapper, Class<T> type) {
+        this.reader = objectMapper.readerFor(type);
+        this.writer = objectMapper.writerFor(type);
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public void encode(T message, BufferOutput out) {
+        try {
+            // BufferOutput.close 는 아무것도 하지 않으므로 Jackson 이 스트림을 닫아도 된다.
+            writer.writeValue(out, message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T decode(ByteBuffer source) throws CodecException {
+        try {
+            T message = source.hasArray()
+                    ? reader.readValue(source.array(), source.arrayOffset() + source.position(), source.remaining())
+                    : reader.readValue(new ByteBufferBackedInputStream(source.duplicate()));
+            source.position(source.limit());
+            return message;
+        } catch (IOException e) {
+            throw new CodecException("invalid JSON message: " + e.getMessage(), e);
+        }
+    }
+}
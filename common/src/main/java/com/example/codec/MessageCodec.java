@@ -0,0 +1,59 @@
+package com.example.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 전송 방식과 상관없는 메시지 직렬화 SPI. 구현체: JsonCodec, ProtobufCodec, BinaryCodec (기본 인스턴스는 MessageCodecs)
+ *
+ * 💡 인코딩은 BufferPool 의 버퍼(BufferOutput)에 바로 쓰고, 디코딩은 ByteBuffer 에서 바로 읽는다.
+ * 그래서 메시지마다 byte[] 를 새로 만들지 않는다. 전송 API 가 byte[] 만 받을 때만 encodeToArray 를 쓴다.
+ * 구현체는 thread-safe 해야 한다.
+ */
+public interface MessageCodec<T> {
+
+    int UNKNOWN_SIZE = -1;
+
+    // HTTP Content-Type 등에 쓰는 MIME 타입
+    String contentType();
+
+    /**
+     * 인코딩 결과의 바이트 수. 미리 알 수 없으면 UNKNOWN_SIZE.
+     */
+    default int encodedSize(T message) {
+        return UNKNOWN_SIZE;
+    }
+
+    // out 의 현재 위치부터 메시지를 쓴다.
+    void encode(T message, BufferOutput out);
+
+    /**
+     * source 의 position 부터 limit 까지가 메시지 하나다. 다 읽은 뒤 position 은 limit 이 된다.
+     * heap 버퍼이면 배열에서 바로 읽고 복사하지 않는다.
+     */
+    T decode(ByteBuffer source) throws CodecException;
+
+    /**
+     * pool 의 버퍼에 인코딩해서 읽기 모드로 돌려준다. 다 쓴 뒤 pool.release 로 돌려준다.
+     */
+    default ByteBuffer encode(T message, BufferPool pool) {
+        int size = encodedSize(message);
+        BufferOutput out = new BufferOutput(pool, size >= 0 ? size : 256);
+        try {
+            encode(message, out);
+            return out.finish();
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    // byte[] 만 받는 전송 API(Kafka 프로듀서, AMQP 본문 등)용. 결과 크기에 딱 맞는 배열 하나만 만든다.
+    default byte[] encodeToArray(T message) {
+        BufferPool pool = BufferPool.shared();
+        ByteBuffer buffer = encode(message, pool);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        pool.release(buffer);
+        return bytes;
+    }
+}
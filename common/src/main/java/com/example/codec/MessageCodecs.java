@@ -0,0 +1,70 @@
+package com.example.codec;
+
+import com.example.dto.MessageRequest;
+import com.example.dto.MessageResponse;
+import com.example.grpc.ChatMessage;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+
+/**
+ * 모듈들이 함께 쓰는 메시지 타입의 코덱.
+ *
+ * - protobuf: gRPC 와 같은 생성 클래스. Kafka, RabbitMQ, NATS, WebSocket, REST(application/x-protobuf) 가 쓴다.
+ * - JSON / 바이너리: REST DTO(MessageRequest / MessageResponse). 바이너리에서 null 문자열은 빈 문자열로 보낸다.
+ */
+public final class MessageCodecs {
+
+    public static final MessageCodec<MessageRequestGrpc> REQUEST_PROTOBUF = new ProtobufCodec<>(MessageRequestGrpc.parser());
+    public static final MessageCodec<MessageResponseGrpc> RESPONSE_PROTOBUF = new ProtobufCodec<>(MessageResponseGrpc.parser());
+    public static final MessageCodec<ChatMessage> CHAT_PROTOBUF = new ProtobufCodec<>(ChatMessage.parser());
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    public static final MessageCodec<MessageRequest> REQUEST_JSON = new JsonCodec<>(OBJECT_MAPPER, MessageRequest.class);
+    public static final MessageCodec<MessageResponse> RESPONSE_JSON = new JsonCodec<>(OBJECT_MAPPER, MessageResponse.class);
+
+    public static final MessageCodec<MessageRequest> REQUEST_BINARY = new BinaryCodec<>(new BinaryCodec.Schema<>() {
+        @Override
+        public int size(MessageRequest message) {
+            return CodedOutputStream.computeStringSizeNoTag(orEmpty(message.getContent()));
+        }
+
+        @Override
+        public void write(MessageRequest message, CodedOutputStream out) throws IOException {
+            out.writeStringNoTag(orEmpty(message.getContent()));
+        }
+
+        @Override
+        public MessageRequest read(CodedInputStream in) throws IOException {
+            return new MessageRequest(in.readStringRequireUtf8());
+        }
+    });
+
+    public static final MessageCodec<MessageResponse> RESPONSE_BINARY = new BinaryCodec<>(new BinaryCodec.Schema<>() {
+        @Override
+        public int size(MessageResponse message) {
+            return CodedOutputStream.computeStringSizeNoTag(orEmpty(message.getReply()));
+        }
+
+        @Override
+        public void write(MessageResponse message, CodedOutputStream out) throws IOException {
+            out.writeStringNoTag(orEmpty(message.getReply()));
+        }
+
+        @Override
+        public MessageResponse read(CodedInputStream in) throws IOException {
+            return new MessageResponse(in.readStringRequireUtf8());
+        }
+    });
+
+    private MessageCodecs() {
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
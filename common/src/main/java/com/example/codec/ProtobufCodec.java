@@ -0,0 +1,66 @@
+package com.example.codec;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * protobuf 생성 클래스 코덱. 크기를 미리 알 수 있으므로 버퍼를 한 번에 맞춰 잡고 배열에 바로 쓴다.
+ */
+public final class ProtobufCodec<T extends MessageLite> implements MessageCodec<T> {
+
+    public static final String CONTENT_TYPE = "application/x-protobuf";
+
+    private final Parser<T> parser;
+
+    public ProtobufCodec(Parser<T> parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    // getSerializedSize 는 메시지 안에 캐시되므로 여러 번 불러도 된다.
+    @Override
+    public int encodedSize(T message) {
+        return message.getSerializedSize();
+    }
+
+    @Override
+    public void encode(T message, BufferOutput out) {
+        int size = message.getSerializedSize();
+        ByteBuffer target = out.ensureRemaining(size);
+        CodedOutputStream coded = CodedOutputStream.newInstance(target.array(), target.arrayOffset() + target.position(), size);
+        try {
+            message.writeTo(coded);
+            coded.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // 크기를 미리 맞춘 배열에 쓰므로 일어나지 않는다.
+            throw new UncheckedIOException(e);
+        }
+        target.position(target.position() + size);
+    }
+
+    @Override
+    public T decode(ByteBuffer source) throws CodecException {
+        try {
+            T message = parser.parseFrom(source);
+            source.position(source.limit());
+            return message;
+        } catch (InvalidProtocolBufferException e) {
+            throw new CodecException("invalid protobuf message: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] encodeToArray(T message) {
+        return message.toByteArray();
+    }
+}
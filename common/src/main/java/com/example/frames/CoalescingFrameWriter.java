@@ -0,0 +1,191 @@
+package com.example.frames;
+
+import com.example.codec.BufferOutput;
+import com.example.codec.BufferPool;
+import com.example.codec.MessageCodec;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 연결 하나의 송신 측. 보낼 메시지를 bounded 버퍼에 모았다가 프레임 단위로 묶어서 쓴다. (DelimitedFrames 형식)
+ *
+ * 💡 쓰기는 한 번에 프레임 하나만 진행한다. 프레임을 쓰는 동안 들어온 메시지는 버퍼에 쌓이고,
+ * 쓰기가 끝나면 쌓인 메시지를 maxFrameBytes 까지 한 프레임으로 묶어 보낸다.
+ * 그래서 한가할 때는 메시지마다 바로 나가고(추가 지연 없음), 바쁠수록 프레임 하나에 더 많이 담겨 프레임/시스템 호출 수가 줄어든다.
+ *
+ * 버퍼(SlowConsumerQueue)가 capacity 개를 넘으면 SlowConsumerPolicy 에 따라 처리하며, send 를 부른 스레드를 막지 않는다.
+ * 여러 스레드가 동시에 send 할 수 있으며, wip 카운터로 한 번에 한 스레드만 프레임을 만들고 쓰도록 직렬화한다.
+ * 프레임은 BufferPool 의 버퍼에 바로 인코딩하고, 쓰기가 끝나면 풀에 돌려준다.
+ */
+public final class CoalescingFrameWriter<T> {
+
+    /**
+     * 실제 연결. write 는 이전 write 의 done 이 호출된 뒤에만 다시 호출된다.
+     */
+    public interface FrameSink {
+        // 프레임 하나를 비동기로 쓰고, 끝나면(실패 포함) done 을 한 번 호출한다. 실패가 아니면 done 의 인자는 null 이다.
+        // frame 은 풀 버퍼이므로 done 을 호출한 뒤에는 참조하면 안 된다.
+        void write(ByteBuffer frame, Consumer<Throwable> done);
+
+        // 느린 수신자(SlowConsumerPolicy.DISCONNECT)이거나 쓰기에 실패해서 연결을 끊는다.
+        void close(String reason);
+    }
+
+    // 프레임 버퍼를 처음 잡을 때의 크기. 모자라면 maxFrameBytes 까지 늘린다.
+    private static final int INITIAL_FRAME_BYTES = 4096;
+
+    private final FrameSink sink;
+    private final MessageCodec<T> codec;
+    private final BufferPool pool;
+    private final int maxFrameBytes;
+    private final SlowConsumerQueue<T> queue;
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+
+    // 아래 필드는 wip 를 잡은 스레드만 사용한다.
+    private T carry;
+    // 쓰는 중인 프레임. written 에서 풀에 돌려준다.
+    private ByteBuffer inFlight;
+
+    private volatile boolean writing;
+    // null 이 아니면 쓰는 중인 프레임이 끝난 뒤 이 사유로 연결을 끊는다.
+    private volatile String disconnectReason;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity      버퍼에 쌓아둘 수 있는 최대 메시지 수
+     * @param maxFrameBytes 프레임 하나에 묶을 최대 바이트 수. 이보다 큰 메시지는 혼자 한 프레임으로 나간다.
+     * @param skippedNotice COALESCE 정책에서 "N건 생략" 알림 메시지를 만드는 함수. 다른 정책이면 null 이어도 된다.
+     */
+    public CoalescingFrameWriter(FrameSink sink, MessageCodec<T> codec, BufferPool pool, int capacity, int maxFrameBytes,
+                                 SlowConsumerPolicy policy, IntFunction<T> skippedNotice) {
+        if (capacity < 1 || maxFrameBytes < 1) {
+            throw new IllegalArgumentException("send buffer capacity and max frame bytes must be >= 1: "
+                    + capacity + ", " + maxFrameBytes);
+        }
+        this.sink = sink;
+        this.codec = codec;
+        this.pool = pool;
+        this.maxFrameBytes = maxFrameBytes;
+        this.queue = new SlowConsumerQueue<>(capacity, policy, skippedNotice);
+    }
+
+    /**
+     * 메시지를 버퍼에 넣고 쓰기 중이 아니면 바로 보낸다.
+     * 닫혔거나 DISCONNECT 정책으로 연결을 끊게 되어 메시지를 받지 않았으면 false 를 돌려준다.
+     */
+    public boolean send(T message) {
+        if (closed || disconnectReason != null) {
+            return false;
+        }
+        boolean accepted = queue.offer(message);
+        if (!accepted) {
+            disconnectReason = "send buffer full (slow consumer)";
+        }
+        drain();
+        return accepted;
+    }
+
+    /**
+     * 연결이 이미 끝났다. 더 이상 보내지 않고 버퍼를 비운다.
+     */
+    public void close() {
+        closed = true;
+        drain();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int buffered() {
+        return queue.size();
+    }
+
+    public long dropped() {
+        return queue.dropped();
+    }
+
+    public long frames() {
+        return frames.sum();
+    }
+
+    public long messages() {
+        return messages.sum();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (closed) {
+                clear();
+            } else if (disconnectReason != null) {
+                // 쓰는 중인 프레임이 끝난 뒤에 끊는다.
+                if (!writing) {
+                    closed = true;
+                    clear();
+                    sink.close(disconnectReason);
+                }
+            } else if (!writing && (carry != null || !queue.isEmpty())) {
+                ByteBuffer frame = nextFrame();
+                inFlight = frame;
+                writing = true;
+                try {
+                    // done 이 이 안에서 바로 호출되어도 wip 를 잡고 있으므로 재귀하지 않고 아래 루프에서 다음 프레임을 보낸다.
+                    sink.write(frame, this::written);
+                } catch (RuntimeException e) {
+                    written(e);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void written(Throwable error) {
+        ByteBuffer frame = inFlight;
+        inFlight = null;
+        pool.release(frame);
+        if (error != null && disconnectReason == null) {
+            disconnectReason = "write failed: " + error;
+        }
+        writing = false;
+        drain();
+    }
+
+    // 버퍼에서 maxFrameBytes 까지 꺼내 한 프레임으로 묶는다. 넘치는 메시지는 carry 로 남겨 다음 프레임 맨 앞에 둔다.
+    // 크기를 미리 알 수 없는 코덱도 있으므로 일단 붙여보고, 넘치면 붙이기 전 위치로 되돌린다.
+    private ByteBuffer nextFrame() {
+        BufferOutput frame = new BufferOutput(pool, Math.min(maxFrameBytes, INITIAL_FRAME_BYTES));
+        int count = 0;
+        T next = carry != null ? carry : queue.poll();
+        carry = null;
+        while (next != null) {
+            int mark = frame.position();
+            DelimitedFrames.append(frame, next, codec);
+            if (count > 0 && frame.position() > maxFrameBytes) {
+                frame.position(mark);
+                carry = next;
+                break;
+            }
+            count++;
+            next = queue.poll();
+        }
+        frames.increment();
+        messages.add(count);
+        return frame.finish();
+    }
+
+    private void clear() {
+        carry = null;
+        queue.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.frames;
+
+import com.example.codec.BufferOutput;
+import com.example.codec.CodecException;
+import com.example.codec.MessageCodec;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * 바이너리 프레임 하나에 메시지 여러 개를 담는 형식. 메시지마다 앞에 길이(varint)를 붙인다.
+ * (protobuf 코덱이면 protobuf 의 writeDelimitedTo / parseDelimitedFrom 과 같은 형식)
+ *
+ * 메시지가 하나뿐인 프레임도 같은 형식이므로, 받는 쪽은 프레임에 메시지가 몇 개 들었는지 몰라도 된다.
+ */
+public final class DelimitedFrames {
+
+    private static final int MAX_VARINT32_BYTES = 5;
+
+    private DelimitedFrames() {
+    }
+
+    /**
+     * 프레임 끝에 메시지 하나(길이 + 본문)를 붙인다.
+     * 크기를 미리 알 수 없는 코덱은 풀 버퍼에 따로 인코딩한 뒤 길이와 함께 옮겨 쓴다.
+     */
+    public static <T> void append(BufferOutput frame, T message, MessageCodec<T> codec) {
+        int size = codec.encodedSize(message);
+        if (size != MessageCodec.UNKNOWN_SIZE) {
+            frame.writeVarint32(size);
+            codec.encode(message, frame);
+            return;
+        }
+        ByteBuffer body = codec.encode(message, frame.pool());
+        try {
+            frame.writeVarint32(body.remaining());
+            frame.write(body);
+        } finally {
+            frame.pool().release(body);
+        }
+    }
+
+    // 프레임 안의 메시지를 순서대로 consumer 에 넘긴다. 읽을 수 없는 메시지가 있으면 그 앞까지만 넘기고 예외를 던진다.
+    public static <T> void forEach(ByteBuffer frame, MessageCodec<T> codec, Consumer<? super T> consumer) throws CodecException {
+        int frameLimit = frame.limit();
+        while (frame.position() < frameLimit) {
+            int length = readVarint32(frame, frameLimit);
+            if (length < 0 || length > frameLimit - frame.position()) {
+                throw new CodecException("truncated message in frame: length=" + length);
+            }
+            frame.limit(frame.position() + length);
+            try {
+                consumer.accept(codec.decode(frame));
+            } finally {
+                frame.limit(frameLimit);
+            }
+        }
+    }
+
+    private static int readVarint32(ByteBuffer frame, int frameLimit) throws CodecException {
+        int value = 0;
+        for (int i = 0; i < MAX_VARINT32_BYTES; i++) {
+            if (frame.position() >= frameLimit) {
+                throw new CodecException("truncated length prefix in frame");
+            }
+            byte b = frame.get();
+            value |= (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CodecException("malformed length prefix in frame");
+    }
+}
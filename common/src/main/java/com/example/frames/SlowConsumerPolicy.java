@@ -0,0 +1,13 @@
+package com.example.frames;
+
+/**
+ * 송신 버퍼가 가득 찼을 때(받는 쪽이 느릴 때)의 처리 방식. (SlowConsumerQueue)
+ */
+public enum SlowConsumerPolicy {
+    // 가장 오래된 메시지를 버리고 새 메시지를 넣는다.
+    DROP_OLDEST,
+    // 밀린 메시지를 모두 버리고 "N건 생략" 알림과 최신 메시지만 남긴다.
+    COALESCE,
+    // 연결을 끊는다. (gRPC 스트림은 RESOURCE_EXHAUSTED) 메시지를 하나도 잃으면 안 되는 요청-응답에 사용한다.
+    DISCONNECT
+}
@@ -0,0 +1,141 @@
+package com.example.frames;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * 연결 하나의 bounded 송신 큐. capacity 개를 넘으면 SlowConsumerPolicy 에 따라 처리하며, 넣는 스레드를 막지 않는다.
+ * CoalescingFrameWriter(WebSocket)와 grpc-service 의 ChatSubscriber(Chat RPC)가 같이 쓴다.
+ *
+ * offer 는 여러 스레드가 동시에 부를 수 있다. poll / isEmpty / clear 는 송신을 직렬화한 스레드(wip 를 잡은 스레드)만 부른다.
+ *
+ * 💡 COALESCE 는 넣는 쪽에서 큐를 비우지 않는다. 가득 찬 뒤 들어온 최신 메시지 하나만 latest 에 남겨두고,
+ * 큐를 비우고 "N건 생략" 알림을 만드는 일은 꺼내는 쪽(poll)이 한다. 꺼내는 쪽은 한 스레드뿐이므로
+ * 여러 스레드가 동시에 넘쳐도 큐는 capacity 를 넘지 않고, 알림도 한 번에 하나만 나간다.
+ */
+public final class SlowConsumerQueue<T> {
+
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+    private final IntFunction<T> skippedNotice;
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    // COALESCE: 큐가 가득 찬 뒤 들어온 최신 메시지와, 그것에 밀려 버려진 메시지 수. 다음 poll 이 알림과 함께 내보낸다.
+    private final AtomicReference<T> latest = new AtomicReference<>();
+    private final AtomicInteger replaced = new AtomicInteger();
+    // poll 이 알림을 먼저 돌려준 뒤 다음에 돌려줄 최신 메시지. 꺼내는 스레드만 사용한다.
+    private T coalesced;
+
+    /**
+     * @param capacity      큐에 쌓아둘 수 있는 최대 메시지 수
+     * @param skippedNotice COALESCE 정책에서 "N건 생략" 알림 메시지를 만드는 함수. 다른 정책이면 null 이어도 된다.
+     */
+    public SlowConsumerQueue(int capacity, SlowConsumerPolicy policy, IntFunction<T> skippedNotice) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("send queue capacity must be >= 1: " + capacity);
+        }
+        if (policy == SlowConsumerPolicy.COALESCE && skippedNotice == null) {
+            throw new IllegalArgumentException("COALESCE policy needs a skipped-messages notice");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.skippedNotice = skippedNotice;
+    }
+
+    /**
+     * 메시지를 넣는다. DISCONNECT 정책에서 큐가 가득 차 넣지 못했으면 false 를 돌려주며, 호출자가 연결을 끊어야 한다.
+     */
+    public boolean offer(T message) {
+        if (size.incrementAndGet() <= capacity) {
+            queue.offer(message);
+            return true;
+        }
+        size.decrementAndGet();
+        return overflow(message);
+    }
+
+    public T poll() {
+        if (coalesced != null) {
+            T message = coalesced;
+            coalesced = null;
+            return message;
+        }
+        T newest = latest.getAndSet(null);
+        if (newest != null) {
+            return coalesce(newest);
+        }
+        T message = queue.poll();
+        if (message != null) {
+            size.decrementAndGet();
+        }
+        return message;
+    }
+
+    public boolean isEmpty() {
+        return coalesced == null && latest.get() == null && queue.isEmpty();
+    }
+
+    // 남은 메시지를 버린다. 연결이 끝났을 때 부르며, 버린 메시지는 dropped 에 세지 않는다.
+    public void clear() {
+        coalesced = null;
+        latest.set(null);
+        replaced.set(0);
+        while (queue.poll() != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    public int size() {
+        return size.get() + (latest.get() != null ? 1 : 0);
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private boolean overflow(T message) {
+        switch (policy) {
+            case DROP_OLDEST:
+                if (queue.poll() != null) {
+                    dropped.increment();
+                } else {
+                    // 그 사이 drain 으로 비워졌다면 그냥 새 메시지로 추가
+                    size.incrementAndGet();
+                }
+                queue.offer(message);
+                return true;
+            case COALESCE:
+                if (latest.getAndSet(message) != null) {
+                    dropped.increment();
+                    replaced.incrementAndGet();
+                }
+                return true;
+            case DISCONNECT:
+                dropped.increment();
+                return false;
+            default:
+                throw new IllegalStateException("Unknown policy: " + policy);
+        }
+    }
+
+    // latest 를 가져간 시점에 큐에 있던 메시지는 모두 newest 보다 먼저 들어온 것이므로 버리고, 알림 다음에 newest 를 내보낸다.
+    // 그 뒤에 들어온 메시지는 newest 보다 새것이므로 큐에 그대로 둔다.
+    private T coalesce(T newest) {
+        int stale = size.get();
+        int skipped = 0;
+        while (skipped < stale && queue.poll() != null) {
+            size.decrementAndGet();
+            skipped++;
+        }
+        dropped.add(skipped);
+        coalesced = newest;
+        return skippedNotice.apply(skipped + replaced.getAndSet(0));
+    }
+}
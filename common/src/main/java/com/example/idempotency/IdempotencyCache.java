@@ -0,0 +1,147 @@
+package com.example.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * 멱등성 키(Idempotency-Key) 별 응답 캐시.
+ *
+ * - single-flight: 같은 키의 요청이 처리 중이면 새로 처리하지 않고 같은 future 를 기다린다.
+ * - 성공한 응답만 ttl 동안 보관한다. 실패하면 항목을 지워서 다음 재시도가 다시 처리하게 한다.
+ * - 크기 제한: maxEntries 를 넘으면 오래된 항목부터 지운다. 모든 항목의 ttl 이 같으므로
+ *   들어온 순서(FIFO)가 곧 만료 순서이고, 큐 앞쪽만 보면 만료와 크기 제한을 함께 처리할 수 있다.
+ *
+ * 키는 같은 캐시(= 같은 RPC/엔드포인트) 안에서만 의미가 있다. 같은 키로 다른 본문을 보내면 처음 응답이 그대로 반환된다.
+ *
+ * 지표: msa_idempotency_requests_total{cache, result=hit|in_flight|miss}, msa_idempotency_entries{cache}
+ */
+public final class IdempotencyCache<V> {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final Counter hits;
+    private final Counter inFlightHits;
+    private final Counter misses;
+
+    public IdempotencyCache(String name, Duration ttl, int maxEntries, MeterRegistry registry) {
+        if (ttl.isNegative() || ttl.isZero() || maxEntries < 1) {
+            throw new IllegalArgumentException("idempotency ttl must be > 0 and max-entries >= 1: " + ttl + ", " + maxEntries);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = requests(registry, name, "hit");
+        this.inFlightHits = requests(registry, name, "in_flight");
+        this.misses = requests(registry, name, "miss");
+        Gauge.builder("msa.idempotency.entries", entries, Map::size)
+                .description("보관 중인 멱등성 키 수 (처리 중 포함)")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String name, String result) {
+        return Counter.builder("msa.idempotency.requests")
+                .description("멱등성 키가 붙은 요청 수")
+                .tag("cache", name).tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * key 의 응답을 돌려준다. 보관된 응답이 없으면 loader 로 한 번만 처리한다.
+     * loader 는 호출한 스레드에서 실행되며, 반환한 future 가 완료될 때까지 같은 키의 다른 요청은 그 future 를 기다린다.
+     */
+    public CompletableFuture<V> get(String key, Supplier<CompletableFuture<V>> loader) {
+        long now = System.nanoTime();
+        evict(now);
+
+        Entry<V> entry = entries.get(key);
+        if (entry != null && !entry.isExpired(now)) {
+            (entry.future.isDone() ? hits : inFlightHits).increment();
+            return entry.future;
+        }
+
+        Entry<V> created = new Entry<>(key);
+        while (true) {
+            Entry<V> current = entries.putIfAbsent(key, created);
+            if (current == null) {
+                break;
+            }
+            if (!current.isExpired(now)) {
+                (current.future.isDone() ? hits : inFlightHits).increment();
+                return current.future;
+            }
+            // 만료된 항목은 우리 것으로 교체를 시도한다. 다른 스레드가 먼저 바꿨다면 다시 확인한다.
+            if (entries.replace(key, current, created)) {
+                break;
+            }
+        }
+        misses.increment();
+        insertionOrder.add(created);
+        evict(now);
+        load(created, loader);
+        return created.future;
+    }
+
+    private void load(Entry<V> entry, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((value, error) -> {
+            if (error != null) {
+                entries.remove(entry.key, entry);
+                entry.future.completeExceptionally(error);
+            } else {
+                entry.expiresAt = System.nanoTime() + ttlNanos;
+                entry.future.complete(value);
+            }
+        });
+    }
+
+    // 큐 앞쪽에서 만료되었거나 크기 제한을 넘긴 항목을 지운다. 이미 지워지거나 교체된 항목은 큐에서만 빠진다.
+    private void evict(long now) {
+        Entry<V> head;
+        while ((head = insertionOrder.peek()) != null) {
+            boolean stale = entries.get(head.key) != head;
+            if (!stale && !head.isExpired(now) && entries.size() <= maxEntries) {
+                return;
+            }
+            if (insertionOrder.remove(head) && !stale) {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+        final String key;
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        // 응답이 완료된 뒤에 정해진다. 처리 중에는 만료되지 않는다.
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        boolean isExpired(long now) {
+            long expiry = expiresAt;
+            return expiry != Long.MAX_VALUE && now - expiry >= 0;
+        }
+    }
+}
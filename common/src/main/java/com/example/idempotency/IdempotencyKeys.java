@@ -0,0 +1,17 @@
+package com.example.idempotency;
+
+import io.grpc.Metadata;
+
+// 클라이언트가 멱등성 키를 실어 보내는 위치. 같은 키로 재시도하면 서버는 처음 처리한 응답을 돌려준다.
+public final class IdempotencyKeys {
+
+    // REST: HTTP 헤더
+    public static final String HTTP_HEADER = "Idempotency-Key";
+
+    // gRPC: 요청 metadata (HTTP/2 헤더라서 소문자)
+    public static final Metadata.Key<String> GRPC_METADATA =
+            Metadata.Key.of("idempotency-key", Metadata.ASCII_STRING_MARSHALLER);
+
+    private IdempotencyKeys() {
+    }
+}
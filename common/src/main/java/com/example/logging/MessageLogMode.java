@@ -0,0 +1,8 @@
+package com.example.logging;
+
+// 메시지 단위 로그를 얼마나 남길지. (설정 키: message-log.mode)
+public enum MessageLogMode {
+    FULL,     // 메시지마다 본문을 남긴다. (이전 동작, 디버깅용)
+    SAMPLED,  // 로그 지점마다 초당 samples-per-second 건까지만 본문을 남기고, 나머지는 주기 요약 줄에 합산한다.
+    SUMMARY   // 메시지별 로그 없이 주기 요약 줄과 스트림 완료 요약만 남긴다.
+}
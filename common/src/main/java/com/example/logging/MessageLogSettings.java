@@ -0,0 +1,19 @@
+package com.example.logging;
+
+/**
+ * 메시지 로그 설정. 각 모듈이 message-log.* 설정으로 만들어 MessageLogger 에 넘긴다.
+ *
+ * @param samplesPerSecond       SAMPLED 모드에서 로그 지점 하나가 1초에 남길 최대 본문 로그 수
+ * @param summaryIntervalSeconds SAMPLED / SUMMARY 모드에서 요약 줄을 남기는 간격
+ */
+public record MessageLogSettings(MessageLogMode mode, int samplesPerSecond, long summaryIntervalSeconds) {
+
+    // Spring 없이 만드는 클라이언트(벤치마크 등)가 사용하는 기본값. yml 기본값과 같다.
+    public static final MessageLogSettings DEFAULT = new MessageLogSettings(MessageLogMode.SAMPLED, 10, 10);
+
+    public MessageLogSettings {
+        if (samplesPerSecond < 0 || summaryIntervalSeconds < 1) {
+            throw new IllegalArgumentException("message-log.samples-per-second must be >= 0 and summary-interval-seconds >= 1");
+        }
+    }
+}
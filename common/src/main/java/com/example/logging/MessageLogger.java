@@ -0,0 +1,92 @@
+package com.example.logging;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 핫패스(메시지마다 지나는 코드)의 로그 지점 하나를 감싼다. RPC / 엔드포인트마다 하나씩 만든다.
+ *
+ * 호출하는 쪽은 메시지마다 sample() 을 부르고, true 일 때만 본문 로그를 남긴다.
+ * 로그를 남기지 않는 경우에는 포맷팅, 문자열 생성, appender 호출이 모두 일어나지 않는다.
+ *
+ * <pre>
+ * if (receiveLog.sample()) {
+ *     log.info("[Unary RPC - Server] 메시지 수신: {}", request.getContent());
+ * }
+ * </pre>
+ *
+ * SAMPLED / SUMMARY 모드에서는 summaryIntervalSeconds 마다 "처리 건수 / 생략한 로그 수" 요약 줄을 하나 남긴다.
+ * 요약은 메시지가 지나갈 때 확인하므로, 트래픽이 멈추면 마지막 구간의 요약은 다음 메시지가 올 때 나온다.
+ */
+public final class MessageLogger {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger log;
+    private final String tag;
+    private final MessageLogMode mode;
+    private final int samplesPerSecond;
+    private final long summaryIntervalNanos;
+
+    // 초 단위 창마다 본문 로그 수를 센다.
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger sampledInSecond = new AtomicInteger();
+
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final AtomicLong nextSummaryAt;
+
+    public MessageLogger(Logger log, String tag, MessageLogSettings settings) {
+        this.log = log;
+        this.tag = tag;
+        this.mode = settings.mode();
+        this.samplesPerSecond = settings.samplesPerSecond();
+        this.summaryIntervalNanos = TimeUnit.SECONDS.toNanos(settings.summaryIntervalSeconds());
+        this.nextSummaryAt = new AtomicLong(System.nanoTime() + summaryIntervalNanos);
+    }
+
+    public MessageLogMode mode() {
+        return mode;
+    }
+
+    // 메시지 하나마다 호출한다. true 이면 호출한 쪽에서 본문 로그를 남긴다.
+    public boolean sample() {
+        if (mode == MessageLogMode.FULL) {
+            return log.isInfoEnabled();
+        }
+        long now = System.nanoTime();
+        messages.increment();
+        boolean sampled = mode == MessageLogMode.SAMPLED && acquire(now) && log.isInfoEnabled();
+        if (!sampled) {
+            suppressed.increment();
+        }
+        summarizeIfDue(now);
+        return sampled;
+    }
+
+    private boolean acquire(long now) {
+        long second = now / NANOS_PER_SECOND;
+        long current = currentSecond.get();
+        if (current != second && currentSecond.compareAndSet(current, second)) {
+            sampledInSecond.set(0);
+        }
+        // 이번 초의 몫을 다 쓴 뒤에는 읽기만 해서, 여러 스레드가 같은 카운터를 두고 경합하지 않게 한다.
+        return sampledInSecond.get() < samplesPerSecond && sampledInSecond.incrementAndGet() <= samplesPerSecond;
+    }
+
+    // 구간이 지났으면 CAS 에 성공한 스레드 하나만 요약 줄을 남긴다.
+    private void summarizeIfDue(long now) {
+        long due = nextSummaryAt.get();
+        if (now - due < 0 || !nextSummaryAt.compareAndSet(due, now + summaryIntervalNanos)) {
+            return;
+        }
+        long count = messages.sumThenReset();
+        long skipped = suppressed.sumThenReset();
+        log.info("{} 요약: mode={}, interval={}s, messages={}, suppressed={}",
+                tag, mode, summaryIntervalNanos / NANOS_PER_SECOND, count, skipped);
+    }
+}
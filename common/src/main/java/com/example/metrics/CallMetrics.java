@@ -0,0 +1,108 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메서드(RPC / 엔드포인트) 하나의 호출 지표 묶음.
+ * 상태별 카운터까지 모든 meter 를 생성 시점에 등록해두므로, 호출 경로에서는 배열 인덱스와 원자 연산만 일어나고
+ * 태그 객체 생성이나 레지스트리 조회가 없다.
+ */
+public final class CallMetrics {
+
+    private final Counter[] callsByStatus;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer duration;
+    private final DistributionSummary messagesReceived;
+    private final DistributionSummary messagesSent;
+    private final Counter bytesReceived;
+    private final Counter bytesSent;
+    private final Counter abandoned;
+
+    CallMetrics(MeterRegistry registry, Tags tags, List<String> statuses) {
+        this.callsByStatus = new Counter[statuses.size()];
+        for (int i = 0; i < callsByStatus.length; i++) {
+            callsByStatus[i] = Counter.builder("msa.calls")
+                    .description("완료된 호출 수")
+                    .tags(tags).tag("status", statuses.get(i))
+                    .register(registry);
+        }
+        Gauge.builder("msa.calls.active", active, AtomicInteger::get)
+                .description("진행 중인 호출 수")
+                .tags(tags)
+                .register(registry);
+        // 💡 Prometheus 에서 histogram_quantile 로 백분위를 계산할 수 있도록 버킷을 내보낸다.
+        this.duration = Timer.builder("msa.call.duration")
+                .description("호출 시작부터 종료까지 걸린 시간")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+        this.messagesReceived = messages(registry, tags, "in");
+        this.messagesSent = messages(registry, tags, "out");
+        this.bytesReceived = bytes(registry, tags, "in");
+        this.bytesSent = bytes(registry, tags, "out");
+        this.abandoned = Counter.builder("msa.calls.abandoned")
+                .description("호출자가 먼저 떠나서(취소, 연결 끊김, deadline 초과) 처리를 중단한 호출 수")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static DistributionSummary messages(MeterRegistry registry, Tags tags, String direction) {
+        return DistributionSummary.builder("msa.call.messages")
+                .description("호출(스트림) 하나에서 주고받은 메시지 수")
+                .tags(tags).tag("direction", direction)
+                .serviceLevelObjectives(1, 10, 100, 1_000, 10_000, 100_000, 1_000_000)
+                .register(registry);
+    }
+
+    private static Counter bytes(MeterRegistry registry, Tags tags, String direction) {
+        return Counter.builder("msa.call.bytes")
+                .description("메시지 본문 바이트 수")
+                .baseUnit("bytes")
+                .tags(tags).tag("direction", direction)
+                .register(registry);
+    }
+
+    // 호출 시작. 반환한 시각을 finish 에 그대로 넘긴다.
+    public long start() {
+        active.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    // statusIndex 는 CallMetricsRegistry 를 만들 때 넘긴 상태 목록의 인덱스.
+    public void finish(long startNanos, int statusIndex, long messagesIn, long messagesOut) {
+        duration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        active.decrementAndGet();
+        callsByStatus[statusIndex].increment();
+        messagesReceived.record(messagesIn);
+        messagesSent.record(messagesOut);
+    }
+
+    // 호출자가 떠나서 처리를 중단한 경우 finish 와 함께 호출한다.
+    public void abandoned() {
+        abandoned.increment();
+    }
+
+    public void bytesIn(long bytes) {
+        if (bytes > 0) {
+            bytesReceived.increment(bytes);
+        }
+    }
+
+    public void bytesOut(long bytes) {
+        if (bytes > 0) {
+            bytesSent.increment(bytes);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 전송 방식(transport) + 방향(side) 하나에 대한 메서드별 CallMetrics 모음.
+ * meter 는 메서드마다 처음 호출될 때 한 번만 만들어지고, 이후에는 조회만 한다.
+ *
+ * 공통 태그: transport(grpc, rest), side(server, client), method, status, direction(in, out)
+ */
+public final class CallMetricsRegistry {
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final List<String> statuses;
+    private final ConcurrentMap<String, CallMetrics> byMethod = new ConcurrentHashMap<>();
+
+    public CallMetricsRegistry(MeterRegistry registry, String transport, String side, List<String> statuses) {
+        this.registry = registry;
+        this.tags = Tags.of("transport", transport, "side", side);
+        this.statuses = List.copyOf(statuses);
+    }
+
+    public CallMetrics forMethod(String method) {
+        // 이미 있는 경우 computeIfAbsent 의 잠금 경로를 타지 않도록 먼저 get 으로 확인한다.
+        CallMetrics metrics = byMethod.get(method);
+        if (metrics != null) {
+            return metrics;
+        }
+        return byMethod.computeIfAbsent(method, name -> new CallMetrics(registry, tags.and("method", name), statuses));
+    }
+}
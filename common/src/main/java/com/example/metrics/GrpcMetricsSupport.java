@@ -0,0 +1,29 @@
+package com.example.metrics;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * gRPC 서버/클라이언트 인터셉터가 함께 쓰는 부분.
+ * status 태그는 Status.Code 이름이고, 인덱스는 Status.Code.value() 와 같다.
+ */
+public final class GrpcMetricsSupport {
+
+    public static final List<String> STATUSES = Arrays.stream(Status.Code.values()).map(Enum::name).toList();
+
+    private GrpcMetricsSupport() {
+    }
+
+    public static CallMetricsRegistry registry(MeterRegistry registry, String side) {
+        return new CallMetricsRegistry(registry, "grpc", side, STATUSES);
+    }
+
+    // 직렬화 크기. protobuf 메시지는 크기를 한 번 계산해 내부에 보관하므로, 이후 실제 직렬화 때 다시 계산하지 않는다.
+    public static long serializedSize(Object message) {
+        return message instanceof MessageLite protobuf ? protobuf.getSerializedSize() : 0;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+/**
+ * unix:///경로 형식의 주소 설정(grpc.server.address, grpc.client.address, rest.service.address, Rest.server.address)을 해석한다.
+ * 같은 호스트의 클라이언트와 서비스가 TCP 루프백 대신 unix 도메인 소켓으로 통신할 때 쓴다.
+ * unix:/경로, unix:///경로 모두 /경로 를 뜻한다. (grpc-spring-boot-starter 의 grpc.server.address 와 같은 규칙)
+ */
+public final class UnixSocketAddresses {
+
+    public static final String SCHEME = "unix:";
+
+    private UnixSocketAddresses() {
+    }
+
+    public static boolean isUnix(String address) {
+        return address != null && address.startsWith(SCHEME);
+    }
+
+    public static Path path(String address) {
+        if (!isUnix(address)) {
+            throw new IllegalArgumentException("not a unix: address: " + address);
+        }
+        String path = address.substring(SCHEME.length());
+        if (path.startsWith("//")) {
+            path = path.substring(2);
+        }
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("unix: address has no socket path: " + address);
+        }
+        return Path.of(path);
+    }
+
+    // 💡 이전 프로세스가 지우지 못하고 남긴 소켓 파일을 bind 전에 지운다. 남아 있으면 bind 가 "Address already in use" 로 실패한다.
+    // 아직 받고 있는 서버가 있으면 그 소켓을 가로채지 않도록 실패하고, 일반 파일이나 디렉터리는 경로 설정 실수일 수 있으므로 지우지 않는다.
+    public static void deleteStaleSocket(Path path) {
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) || Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IllegalStateException("unix socket path exists and is not a socket: " + path);
+        }
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(path));
+            throw new IllegalStateException("unix socket is already in use by another server: " + path);
+        } catch (IOException notListening) {
+            // 연결을 받는 쪽이 없음 = 남은 파일
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to delete stale unix socket: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.netty;
+
+/**
+ * gRPC 연결이 쓰는 Netty ByteBuf 할당기.
+ */
+public enum NettyAllocator {
+    GRPC_DEFAULT,   // gRPC 가 JVM 전체에서 공유하는 pooled 할당기 (heap / direct arena 를 CPU 코어 수 * 2 개씩)
+    POOLED_DIRECT   // 이 서버 / 채널 풀 전용 pooled direct 할당기. arena 를 event loop 수만큼 두고 모든 스레드에 캐시를 둔다.
+}
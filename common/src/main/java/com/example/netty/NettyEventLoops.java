@@ -0,0 +1,120 @@
+package com.example.netty;
+
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+import io.grpc.netty.shaded.io.netty.buffer.PooledByteBufAllocator;
+import io.grpc.netty.shaded.io.netty.channel.Channel;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.ServerChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.net.SocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * grpc-netty-shaded 의 event loop group / 채널 타입 / 할당기를 NettyTransport, NettyAllocator 설정에 맞게 만든다.
+ * 서버(NettyServerConfigurer)와 클라이언트(GrpcChannelPool)가 같은 규칙을 쓰도록 한곳에 둔다.
+ *
+ * 💡 직접 만든 event loop group 은 gRPC 가 닫지 않으므로, 서버 / 채널이 모두 종료된 뒤 shutdown() 으로 닫는다.
+ */
+public final class NettyEventLoops {
+
+    private NettyEventLoops() {
+    }
+
+    public static boolean epollAvailable() {
+        return Epoll.isAvailable();
+    }
+
+    // AUTO 를 실제 전송(EPOLL / NIO)으로 바꾼다. EPOLL 을 요청했는데 쓸 수 없으면 원인과 함께 실패한다.
+    public static NettyTransport resolve(NettyTransport transport) {
+        switch (transport) {
+            case AUTO:
+                return Epoll.isAvailable() ? NettyTransport.EPOLL : NettyTransport.NIO;
+            case EPOLL:
+                if (!Epoll.isAvailable()) {
+                    throw new IllegalStateException("netty.transport=EPOLL but the native epoll transport is unavailable",
+                            Epoll.unavailabilityCause());
+                }
+                return NettyTransport.EPOLL;
+            default:
+                return NettyTransport.NIO;
+        }
+    }
+
+    // unix 도메인 소켓(unix: 주소)은 epoll 전송에서만 쓸 수 있다. NIO 를 지정했거나 epoll 을 쓸 수 없으면 실패한다.
+    public static NettyTransport resolveForDomainSocket(NettyTransport transport) {
+        if (transport == NettyTransport.NIO) {
+            throw new IllegalArgumentException("netty.transport=NIO cannot be used with a unix: address");
+        }
+        if (!Epoll.isAvailable()) {
+            throw new IllegalStateException("unix: addresses need the native epoll transport, which is unavailable",
+                    Epoll.unavailabilityCause());
+        }
+        return NettyTransport.EPOLL;
+    }
+
+    // threads 가 0 이면 Netty 기본값(CPU 코어 수 * 2). 스레드는 데몬이다.
+    public static EventLoopGroup newGroup(NettyTransport resolved, int threads, String threadPrefix) {
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory(threadPrefix, true);
+        return resolved == NettyTransport.EPOLL
+                ? new EpollEventLoopGroup(threads, threadFactory)
+                : new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    public static Class<? extends ServerChannel> serverChannelType(NettyTransport resolved) {
+        return resolved == NettyTransport.EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public static Class<? extends Channel> channelType(NettyTransport resolved) {
+        return resolved == NettyTransport.EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public static Class<? extends ServerChannel> domainServerChannelType() {
+        return EpollServerDomainSocketChannel.class;
+    }
+
+    public static Class<? extends Channel> domainChannelType() {
+        return EpollDomainSocketChannel.class;
+    }
+
+    public static SocketAddress domainSocketAddress(Path path) {
+        return new DomainSocketAddress(path.toString());
+    }
+
+    // GRPC_DEFAULT 이면 null (gRPC 의 공유 할당기를 그대로 쓴다)
+    // POOLED_DIRECT 는 heap arena 없이 direct arena 를 arenas 개 두고, event loop 밖(gRPC executor)의 스레드에도 캐시를 둔다.
+    // 응답 직렬화는 executor 스레드에서 버퍼를 할당하므로 그 스레드들도 arena 를 두고 경쟁하지 않게 한다.
+    public static ByteBufAllocator allocator(NettyAllocator allocator, int arenas) {
+        if (allocator == NettyAllocator.GRPC_DEFAULT) {
+            return null;
+        }
+        int directArenas = arenas > 0 ? arenas : Runtime.getRuntime().availableProcessors() * 2;
+        return new PooledByteBufAllocator(true, 0, directArenas,
+                PooledByteBufAllocator.defaultPageSize(), PooledByteBufAllocator.defaultMaxOrder(),
+                PooledByteBufAllocator.defaultSmallCacheSize(), PooledByteBufAllocator.defaultNormalCacheSize(), true);
+    }
+
+    public static void shutdown(EventLoopGroup... groups) {
+        for (EventLoopGroup group : groups) {
+            if (group != null) {
+                group.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+            }
+        }
+        for (EventLoopGroup group : groups) {
+            if (group != null) {
+                group.terminationFuture().awaitUninterruptibly(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.netty;
+
+/**
+ * gRPC 서버 / 클라이언트가 쓰는 Netty 전송(I/O 방식).
+ */
+public enum NettyTransport {
+    AUTO,   // Linux 에서 epoll 네이티브 라이브러리를 읽을 수 있으면 EPOLL, 아니면 NIO (gRPC 기본 동작과 같음)
+    EPOLL,  // epoll 네이티브 전송. 쓸 수 없으면 기동 시 실패한다.
+    NIO     // JDK NIO selector
+}
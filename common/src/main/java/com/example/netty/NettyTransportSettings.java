@@ -0,0 +1,41 @@
+package com.example.netty;
+
+/**
+ * gRPC 서버(grpc.service.netty.*)와 클라이언트(grpc.client.netty.*)의 Netty 전송 설정. 0 인 값은 gRPC 기본값을 쓴다.
+ *
+ * @param transport                        I/O 방식. AUTO 이고 스레드 수가 모두 0 이면 gRPC 가 공유하는 기본 event loop 를 그대로 쓴다.
+ * @param bossThreads                      (서버) 연결을 받는 event loop 스레드 수. gRPC 기본 1
+ * @param workerThreads                    연결 I/O event loop 스레드 수. gRPC 기본 CPU 코어 수 * 2
+ * @param sharedEventLoop                  (클라이언트) 채널 풀의 채널들이 event loop group 하나를 함께 쓸지 여부.
+ *                                         false 이면 채널마다 workerThreads(0 이면 1) 개짜리 group 을 따로 둔다.
+ * @param allocator                        ByteBuf 할당기
+ * @param flowControlWindow                HTTP/2 흐름 제어 창(바이트). 지정하면 BDP 기반 자동 조정을 끄고 이 크기로 고정한다.
+ * @param maxInboundMessageSize            받을 수 있는 최대 메시지 크기(바이트). gRPC 기본 4MB
+ * @param maxConcurrentCallsPerConnection  (서버) 연결 하나에서 동시에 열 수 있는 스트림 수. gRPC 기본 제한 없음
+ */
+public record NettyTransportSettings(NettyTransport transport, int bossThreads, int workerThreads, boolean sharedEventLoop,
+                                     NettyAllocator allocator, int flowControlWindow, int maxInboundMessageSize,
+                                     int maxConcurrentCallsPerConnection) {
+
+    // Spring 없이 만드는 서버 / 클라이언트(벤치마크 등)가 사용하는 기본값. yml 기본값과 같다.
+    public static final NettyTransportSettings DEFAULT =
+            new NettyTransportSettings(NettyTransport.AUTO, 0, 0, true, NettyAllocator.GRPC_DEFAULT, 0, 0, 0);
+
+    public NettyTransportSettings {
+        if (transport == null || allocator == null) {
+            throw new IllegalArgumentException("netty.transport and netty.allocator must be set");
+        }
+        if (bossThreads < 0 || workerThreads < 0) {
+            throw new IllegalArgumentException("netty.boss-threads and worker-threads must be >= 0");
+        }
+        if (flowControlWindow < 0 || maxInboundMessageSize < 0 || maxConcurrentCallsPerConnection < 0) {
+            throw new IllegalArgumentException(
+                    "netty.flow-control-window, max-inbound-message-size and max-concurrent-calls-per-connection must be >= 0");
+        }
+    }
+
+    // gRPC 기본 event loop 대신 직접 만든 event loop group 을 써야 하는지 여부
+    public boolean customEventLoops() {
+        return transport != NettyTransport.AUTO || bossThreads > 0 || workerThreads > 0 || !sharedEventLoop;
+    }
+}
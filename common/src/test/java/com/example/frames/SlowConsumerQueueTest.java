@@ -0,0 +1,137 @@
+package com.example.frames;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SlowConsumerQueue 의 정책별 처리. 알림 메시지는 "skipped:N" 문자열로 만든다.
+ */
+class SlowConsumerQueueTest {
+
+    private static final String NOTICE = "skipped:";
+
+    @Test
+    void coalesceKeepsOneNoticeAndTheNewestMessage() {
+        SlowConsumerQueue<String> queue = new SlowConsumerQueue<>(4, SlowConsumerPolicy.COALESCE, skipped -> NOTICE + skipped);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer("m" + i));
+        }
+
+        assertEquals(NOTICE + 9, queue.poll());
+        assertEquals("m9", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertEquals(9, queue.dropped());
+    }
+
+    @Test
+    void coalesceKeepsMessagesOfferedAfterTheNotice() {
+        SlowConsumerQueue<String> queue = new SlowConsumerQueue<>(2, SlowConsumerPolicy.COALESCE, skipped -> NOTICE + skipped);
+        for (int i = 0; i < 3; i++) {
+            queue.offer("m" + i);
+        }
+
+        assertEquals(NOTICE + 2, queue.poll());
+        queue.offer("m3");
+        assertEquals("m2", queue.poll());
+        assertEquals("m3", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    // 여러 스레드가 동시에 넘쳐도 큐는 capacity(+ 알림과 최신 메시지)를 넘지 않고, 알림이 연달아 나가지 않으며, 메시지 수가 맞아야 한다.
+    @Test
+    void concurrentCoalesceStaysWithinCapacity() throws Exception {
+        int capacity = 16;
+        int producers = 8;
+        int perProducer = 20_000;
+        SlowConsumerQueue<String> queue = new SlowConsumerQueue<>(capacity, SlowConsumerPolicy.COALESCE, skipped -> NOTICE + skipped);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            done.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    queue.offer(producer + "-" + i);
+                }
+            }, executor));
+        }
+
+        long delivered = 0;
+        String previous = null;
+        start.countDown();
+        try {
+            // 느린 수신자: 가끔씩만 꺼낸다.
+            while (!CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).isDone()) {
+                for (int i = 0; i < 4; i++) {
+                    String message = queue.poll();
+                    if (message == null) {
+                        break;
+                    }
+                    assertFalse(isNotice(previous) && isNotice(message), "two notices in a row");
+                    delivered += isNotice(message) ? 0 : 1;
+                    previous = message;
+                }
+                TimeUnit.MICROSECONDS.sleep(50);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int left = 0;
+        String message;
+        while ((message = queue.poll()) != null) {
+            assertFalse(isNotice(previous) && isNotice(message), "two notices in a row");
+            delivered += isNotice(message) ? 0 : 1;
+            previous = message;
+            left++;
+        }
+        assertTrue(left <= capacity + 2, left + " messages left in a queue of capacity " + capacity);
+        assertEquals((long) producers * perProducer, delivered + queue.dropped());
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestCapacityMessages() {
+        SlowConsumerQueue<String> queue = new SlowConsumerQueue<>(3, SlowConsumerPolicy.DROP_OLDEST, null);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queue.offer("m" + i));
+        }
+
+        assertEquals(List.of("m2", "m3", "m4"), List.of(queue.poll(), queue.poll(), queue.poll()));
+        assertEquals(2, queue.dropped());
+    }
+
+    @Test
+    void disconnectRejectsWhenFull() {
+        SlowConsumerQueue<String> queue = new SlowConsumerQueue<>(1, SlowConsumerPolicy.DISCONNECT, null);
+
+        assertTrue(queue.offer("m0"));
+        assertFalse(queue.offer("m1"));
+        assertEquals(1, queue.dropped());
+    }
+
+    private static boolean isNotice(String message) {
+        return message != null && message.startsWith(NOTICE);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
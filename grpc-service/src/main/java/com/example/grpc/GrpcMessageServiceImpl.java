@@ -1,9 +1,27 @@
 package com.example.grpc;
 
+import com.example.grpc.chat.ChatHub;
+import com.example.grpc.chat.ChatSubscriber;
+import com.example.grpc.idempotency.IdempotencyKeyInterceptor;
+import com.example.grpc.ingest.LogIngestionPipeline;
+import com.example.grpc.ingest.UploadSession;
+import com.example.grpc.stream.FlowControlledStreamer;
+import com.example.grpc.stream.MessageStreamHandler;
+import com.example.idempotency.IdempotencyCache;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 @GrpcService // gRPC 서비스임을 선언 (Spring Boot gRPC Starter 사용 시)
 public class GrpcMessageServiceImpl extends MessageServiceGrpc.MessageServiceImplBase {
@@ -11,141 +29,230 @@ public class GrpcMessageServiceImpl extends MessageServiceGrpc.MessageServiceImp
     private static final Logger log = LoggerFactory.getLogger(GrpcMessageServiceImpl.class);
 
 
-    // 1. Unary RPC (단항 RPC), 동기, 블로킹 통신
+    private final ScheduledExecutorService workSimulationScheduler;
+    private final long unaryDelayMillis;
+    private final int defaultStreamMessages;
+    private final int maxStreamMessages;
+    private final int maxStreamPayloadSize;
+    private final LogIngestionPipeline ingestionPipeline;
+    private final ChatHub chatHub;
+    private final boolean chatEchoToSender;
+    private final IdempotencyCache<MessageResponseGrpc> unaryResponseCache;
+    private final MessageLogger unaryLog;
+    private final MessageLogger chatMessageLog;
+
+    public GrpcMessageServiceImpl(
+            ScheduledExecutorService workSimulationScheduler,
+            LogIngestionPipeline ingestionPipeline,
+            ChatHub chatHub,
+            MessageLogSettings messageLogSettings,
+            IdempotencyCache<MessageResponseGrpc> unaryResponseCache,
+            @Value("${grpc.service.unary.delay-ms:2000}") long unaryDelayMillis,
+            @Value("${grpc.service.stream.default-messages:5}") int defaultStreamMessages,
+            @Value("${grpc.service.stream.max-messages:10000000}") int maxStreamMessages,
+            @Value("${grpc.service.stream.max-payload-size:1048576}") int maxStreamPayloadSize,
+            @Value("${grpc.service.chat.echo-to-sender:true}") boolean chatEchoToSender
+    ) {
+        if (maxStreamMessages <= 0) {
+            throw new IllegalArgumentException("grpc.service.stream.max-messages must be positive: " + maxStreamMessages);
+        }
+        if (maxStreamPayloadSize <= 0) {
+            throw new IllegalArgumentException("grpc.service.stream.max-payload-size must be positive: " + maxStreamPayloadSize);
+        }
+        this.workSimulationScheduler = workSimulationScheduler;
+        this.ingestionPipeline = ingestionPipeline;
+        this.chatHub = chatHub;
+        this.chatEchoToSender = chatEchoToSender;
+        this.unaryDelayMillis = unaryDelayMillis;
+        this.defaultStreamMessages = defaultStreamMessages;
+        this.maxStreamMessages = maxStreamMessages;
+        this.maxStreamPayloadSize = maxStreamPayloadSize;
+        this.unaryResponseCache = unaryResponseCache;
+        this.unaryLog = new MessageLogger(log, "[Unary RPC - Server]", messageLogSettings);
+        this.chatMessageLog = new MessageLogger(log, "[Bidirectional Streaming - Server]", messageLogSettings);
+    }
+
+
+    // 1. Unary RPC (단항 RPC), 클라이언트 입장에서는 동기, 블로킹 통신
     @Override
     public void sendUnaryMessage(MessageRequestGrpc request, StreamObserver<MessageResponseGrpc> responseObserver) {
-        log.info("[Unary RPC - Server] 메시지 수신: {}", request.getContent());
-
-        try {
-            // 💡 의도적인 지연 추가: 클라이언트가 블로킹되는 것을 체감
-            log.info("[Unary RPC - Server] 2초 지연 시작...");
-            Thread.sleep(2000); // 2초 지연
-            log.info("[Unary RPC - Server] 2초 지연 종료.");
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("[Unary RPC - Server] 지연 중 인터럽트 발생: {}", e.getMessage());
+        // 수신 로그를 남긴 호출만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = unaryLog.sample();
+        if (logged) {
+            log.info("[Unary RPC - Server] 메시지 수신: {} ({}ms 지연 후 응답 예약)", request.getContent(), unaryDelayMillis);
         }
 
+        // 💡 idempotency-key 가 있으면 같은 키의 처리 결과를 재사용한다. 처리 중이면 그 결과를 함께 기다린다.
+        String idempotencyKey = IdempotencyKeyInterceptor.IDEMPOTENCY_KEY.get();
+        CompletableFuture<MessageResponseGrpc> reply = idempotencyKey == null
+                ? processUnary(request)
+                : unaryResponseCache.get(idempotencyKey, () -> processUnary(request));
+
+        // 💡 클라이언트가 취소하거나 deadline 이 지나면 예약된 작업도 취소한다.
+        // 멱등성 키가 있는 요청은 같은 키의 재시도가 결과를 이어받을 수 있으므로 작업을 그대로 둔다.
+        ServerCallStreamObserver<MessageResponseGrpc> serverObserver =
+                (ServerCallStreamObserver<MessageResponseGrpc>) responseObserver;
+        serverObserver.setOnCancelHandler(() -> {
+            if (idempotencyKey == null) {
+                reply.cancel(false);
+            }
+            if (logged) {
+                log.info("[Unary RPC - Server] 클라이언트 취소로 응답 생략: {}", request.getContent());
+            }
+        });
+
+        reply.whenComplete((response, error) -> {
+            if (serverObserver.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                responseObserver.onError(Status.fromThrowable(error).asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+            if (logged) {
+                log.info("[Unary RPC - Server] 응답 전송: {}", response.getReply());
+            }
+        });
+    }
+
+    // 💡 의도적인 지연: 클라이언트는 여전히 지연만큼 블로킹되지만,
+    // 서버는 Thread.sleep 으로 executor 스레드를 붙잡지 않고 타이머가 나중에 응답을 완료한다.
+    private CompletableFuture<MessageResponseGrpc> processUnary(MessageRequestGrpc request) {
         String replyContent = "Unary Response: " + request.getContent().toUpperCase();
-        MessageResponseGrpc response = MessageResponseGrpc.newBuilder()
+        CompletableFuture<MessageResponseGrpc> response = new CompletableFuture<>();
+        ScheduledFuture<?> work = workSimulationScheduler.schedule(() -> response.complete(MessageResponseGrpc.newBuilder()
                 .setReply(replyContent)
-                .build();
-
-        responseObserver.onNext(response);
-        responseObserver.onCompleted();
-        log.info("[Unary RPC - Server] 응답 전송: {}", replyContent);
+                .build()), unaryDelayMillis, TimeUnit.MILLISECONDS);
+        response.whenComplete((reply, error) -> {
+            if (response.isCancelled()) {
+                work.cancel(false);
+            }
+        });
+        return response;
     }
 
 
 
 
-    // 2. Server Streaming RPC, 동기, 블로킹 통신
+    // 2. Server Streaming RPC, 흐름 제어(onReady) 기반 논블로킹 전송
     @Override
     public void getServerStreamMessages(UserRequest request, StreamObserver<MessageResponseGrpc> responseObserver) {
-        log.info("[Server Streaming - Server] 메시지 수신: userId={}", request.getUserId());
-
-        try {
-            for (int i = 0; i < 5; i++) {
-                String message = String.format("Server Stream Message %d for User %s", i + 1, request.getUserId());
-
-                MessageResponseGrpc response = MessageResponseGrpc.newBuilder()
-                        .setReply(message)
-                        .build();
-                responseObserver.onNext(response);
-                log.info("[Server Streaming - Server] 메시지 전송: {}", message);
-                Thread.sleep(500);
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("[Server Streaming - Server] 스트리밍 중 인터럽트 발생: {}", e.getMessage());
-            responseObserver.onError(io.grpc.Status.CANCELLED.withDescription("Server stream interrupted").asRuntimeException());
-        } finally {
-            responseObserver.onCompleted();
-            log.info("[Server Streaming - Server] 스트림 전송 완료.");
+        // 💡 본문은 payloadSize 크기의 문자열 하나를 공유하고 messageCount 만큼 보낸다. 상한이 없으면 요청 하나로
+        // 거대한 문자열을 만들게 하거나 끝없는 스트림을 열 수 있으므로, 만들기 전에 거절한다.
+        if (request.getMessageCount() < 0 || request.getMessageCount() > maxStreamMessages) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("messageCount must be between 0 and " + maxStreamMessages + ": " + request.getMessageCount())
+                    .asRuntimeException());
+            return;
+        }
+        if (request.getPayloadSize() < 0 || request.getPayloadSize() > maxStreamPayloadSize) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("payloadSize must be between 0 and " + maxStreamPayloadSize + ": " + request.getPayloadSize())
+                    .asRuntimeException());
+            return;
         }
+        int messageCount = request.getMessageCount() > 0 ? request.getMessageCount() : defaultStreamMessages;
+        log.info("[Server Streaming - Server] 메시지 수신: userId={}, count={}, payloadSize={}",
+                request.getUserId(), messageCount, request.getPayloadSize());
+
+        // 💡 클라이언트가 받을 수 있을 때만 보낸다. 전송 버퍼가 비면 gRPC가 onReady 핸들러를 다시 호출해준다.
+        // 클라이언트가 떠나면 onCancel 핸들러가 생산을 멈춘다.
+        ServerCallStreamObserver<MessageResponseGrpc> serverObserver =
+                (ServerCallStreamObserver<MessageResponseGrpc>) responseObserver;
+        FlowControlledStreamer streamer = new FlowControlledStreamer(
+                serverObserver, request.getUserId(), messageCount, request.getPayloadSize());
+        serverObserver.setOnReadyHandler(streamer);
+        serverObserver.setOnCancelHandler(streamer::cancel);
     }
 
 
     // 💡 3. Client Streaming RPC (클라이언트 스트리밍) 구현, 비동기, 논블로킹
+    // 받은 로그는 공유 수집 파이프라인(bounded 큐 -> 배치 기록)으로 넘기고, 큐가 가득 차면 수신을 멈춘다.
     @Override
     public StreamObserver<LogEntry> sendClientStreamLogs(StreamObserver<UploadStatusResponse> responseObserver) {
         log.info("[Client Streaming - Server] 클라이언트 스트림 수신 준비.");
 
-        return new StreamObserver<LogEntry>() {
-            private int receivedLogCount = 0;
-            private StringBuilder receivedLogContent = new StringBuilder();
+        UploadSession session = ingestionPipeline.openSession(
+                (ServerCallStreamObserver<UploadStatusResponse>) responseObserver);
 
+        return new StreamObserver<LogEntry>() {
             @Override
             public void onNext(LogEntry logEntry) {
                 // 클라이언트로부터 로그 메시지를 받을 때마다 호출됨.
-                receivedLogCount++;
-                receivedLogContent.append(String.format("Level: %s, Msg: %s\n", logEntry.getLevel(), logEntry.getMessage()));
-                log.info("[Client Streaming - Server] 로그 수신: Level={}, Msg={}", logEntry.getLevel(), logEntry.getMessage());
+                session.onEntry(logEntry);
             }
 
             @Override
             public void onError(Throwable t) {
                 // 스트림 처리 중 에러 발생 시 호출됨.
                 log.error("[Client Streaming - Server] 클라이언트 스트림 에러 발생: {}", t.getMessage());
-                responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Server encountered an error processing stream").asRuntimeException());
+                session.abort();
             }
 
             @Override
             public void onCompleted() {
                 // 클라이언트가 모든 메시지 전송을 완료하고 스트림을 닫을 때 호출됨.
-                log.info("[Client Streaming - Server] 클라이언트 스트림 완료. 총 {}개의 로그 수신.", receivedLogCount);
-                log.info("[Client Streaming - Server] 수신된 전체 로그 내용:\n{}", receivedLogContent.toString());
-
-                // 최종 응답 메시지 생성 및 전송
-                UploadStatusResponse response = UploadStatusResponse.newBuilder()
-                        .setStatus("SUCCESS")
-                        .setReceivedCount(receivedLogCount)
-                        .build();
-                responseObserver.onNext(response); // 최종 응답 전송
-                responseObserver.onCompleted();    // 서버 스트림 종료
-                log.info("[Client Streaming - Server] 최종 응답 전송: status={}, count={}", response.getStatus(), response.getReceivedCount());
+                // 최종 응답은 받은 로그가 모두 파일에 기록된 뒤 세션이 보낸다.
+                log.info("[Client Streaming - Server] 클라이언트 스트림 완료. 기록 완료 후 최종 응답 전송.");
+                session.onClientCompleted();
             }
         };
     }
 
     // 💡 4. Bidirectional Streaming RPC (양방향 스트리밍) 구현, 비동기, 논블로킹
+    // 같은 방(room)에 참여한 다른 스트림들에게 메시지를 브로드캐스트한다.
     @Override
     public StreamObserver<ChatMessage> chat(StreamObserver<ChatMessage> responseObserver) {
         log.info("[Bidirectional Streaming - Server] 양방향 스트림 수신 준비.");
 
+        ChatSubscriber subscriber = chatHub.register((ServerCallStreamObserver<ChatMessage>) responseObserver);
+
         return new StreamObserver<ChatMessage>() {
             @Override
             public void onNext(ChatMessage clientMessage) {
                 // 클라이언트로부터 메시지를 받을 때마다 호출됨 .
-                log.info("[Bidirectional Streaming - Server] 클라이언트 메시지 수신 (From: {}, Msg: {})",
-                        clientMessage.getSender(), clientMessage.getMessage());
-
-                // 받은 메시지에 대한 응답을 즉시 클라이언트로 전송
-                String reply = String.format("Server received '%s' from %s. Sending back a reply.",
-                        clientMessage.getMessage(), clientMessage.getSender());
-                ChatMessage serverMessage = ChatMessage.newBuilder()
-                        .setSender("Server")
-                        .setMessage(reply)
-                        .build();
-                responseObserver.onNext(serverMessage); // 서버 -> 클라이언트로 메시지 전송
-                log.info("[Bidirectional Streaming - Server] 서버 메시지 전송: {}", reply);
+                if (chatMessageLog.sample()) {
+                    log.info("[Bidirectional Streaming - Server] 클라이언트 메시지 수신 (From: {}, Msg: {})",
+                            clientMessage.getSender(), clientMessage.getMessage());
+                }
+
+                chatHub.publish(subscriber, clientMessage);
+
+                if (chatEchoToSender) {
+                    // 받은 메시지에 대한 확인 응답을 보낸 클라이언트에게도 전송
+                    String reply = String.format("Server received '%s' from %s. Sending back a reply.",
+                            clientMessage.getMessage(), clientMessage.getSender());
+                    subscriber.send(ChatMessage.newBuilder()
+                            .setSender("Server")
+                            .setMessage(reply)
+                            .setRoom(subscriber.getRoom())
+                            .build());
+                }
             }
 
             @Override
             public void onError(Throwable t) {
-                // 스트림 처리 중 에러 발생 시 호출됨.
+                // 스트림 처리 중 에러(취소 포함) 발생 시 호출됨. 방에서 나가고 남은 송신 큐를 정리한다.
                 log.error("[Bidirectional Streaming - Server] 양방향 스트림 에러 발생: {}", t.getMessage());
-                responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Server encountered an error in chat stream").asRuntimeException());
+                chatHub.abort(subscriber);
             }
 
             @Override
             public void onCompleted() {
                 // 클라이언트가 스트림을 닫을 때 호출됨.
-                log.info("[Bidirectional Streaming - Server] 클라이언트 스트림 완료. 서버 스트림 종료.");
-                responseObserver.onCompleted(); // 서버 스트림 종료
+                log.info("[Bidirectional Streaming - Server] 클라이언트 스트림 완료. 남은 메시지 전송 후 서버 스트림 종료.");
+                chatHub.complete(subscriber);
             }
         };
     }
 
 
-}
\ No newline at end of file
+    // 5. 대량 전송용 양방향 스트림. 요청마다 응답을 같은 순서로 돌려주며, 응답 전송이 밀리면 요청 수신도 멈춘다.
+    @Override
+    public StreamObserver<MessageRequestGrpc> sendMessageStream(StreamObserver<MessageResponseGrpc> responseObserver) {
+        log.info("[Message Stream - Server] 대량 전송 스트림 수신 준비.");
+        return new MessageStreamHandler((ServerCallStreamObserver<MessageResponseGrpc>) responseObserver);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.grpc.chat;
+
+import com.example.chat.ChatRooms;
+import com.example.frames.SlowConsumerPolicy;
+import com.example.grpc.ChatMessage;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 방(room) 단위 Chat 브로드캐스트 허브. 방 목록과 전달은 common 의 ChatRooms 가 맡는다. (websocket-service 의 /ws/chat 과 같은 구현)
+ */
+@Component
+public class ChatHub {
+
+    private final ChatRooms<ChatSubscriber> rooms;
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final int queueCapacity;
+    private final SlowConsumerPolicy policy;
+
+    public ChatHub(
+            @Value("${grpc.service.chat.subscriber-queue-capacity:1024}") int queueCapacity,
+            @Value("${grpc.service.chat.slow-consumer-policy:DROP_OLDEST}") SlowConsumerPolicy policy,
+            @Value("${grpc.service.chat.default-room:lobby}") String defaultRoom
+    ) {
+        this.queueCapacity = queueCapacity;
+        this.policy = policy;
+        this.rooms = new ChatRooms<>(defaultRoom, "[Chat Hub]");
+    }
+
+    /**
+     * 새 Chat 스트림의 송신 측을 만든다. 방에는 첫 메시지를 받을 때 들어간다.
+     */
+    public ChatSubscriber register(ServerCallStreamObserver<ChatMessage> responseObserver) {
+        ChatSubscriber subscriber = new ChatSubscriber("chat-" + subscriberIds.incrementAndGet(), responseObserver, queueCapacity, policy);
+        // 클라이언트가 스트림을 닫은 뒤(half-close) 취소되면 onError 가 오지 않으므로 취소 핸들러에서도 정리한다.
+        responseObserver.setOnCancelHandler(() -> abort(subscriber));
+        return subscriber;
+    }
+
+    /**
+     * subscriber 가 아직 방에 없으면 메시지의 방에 입장시키고, 같은 방의 다른 구독자들에게 메시지를 전달한다.
+     */
+    public void publish(ChatSubscriber from, ChatMessage message) {
+        rooms.publish(from, message);
+    }
+
+    /**
+     * 클라이언트가 스트림을 정상 종료. 방에서 나가고 남은 메시지를 보낸 뒤 서버 스트림도 종료한다.
+     */
+    public void complete(ChatSubscriber subscriber) {
+        rooms.leave(subscriber);
+        subscriber.complete();
+    }
+
+    /**
+     * 스트림이 에러/취소로 끝남. 방에서 나가고 송신 큐를 비운다.
+     */
+    public void abort(ChatSubscriber subscriber) {
+        rooms.leave(subscriber);
+        subscriber.close();
+    }
+
+    public int roomCount() {
+        return rooms.roomCount();
+    }
+}
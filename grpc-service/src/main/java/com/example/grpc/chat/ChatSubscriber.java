@@ -0,0 +1,105 @@
+package com.example.grpc.chat;
+
+import com.example.chat.ChatRoomMember;
+import com.example.frames.SlowConsumerPolicy;
+import com.example.frames.SlowConsumerQueue;
+import com.example.grpc.ChatMessage;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chat 스트림 하나의 송신 측. 구독자마다 bounded 큐(SlowConsumerQueue)를 두고, 전송 가능할 때(isReady)만 꺼내 보낸다.
+ * 여러 스레드(다른 스트림의 발신자, onReady 콜백)가 동시에 넣을 수 있으므로
+ * wip 카운터로 한 번에 한 스레드만 onNext 를 호출하도록 직렬화한다.
+ */
+public class ChatSubscriber extends ChatRoomMember {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatSubscriber.class);
+
+    private final ServerCallStreamObserver<ChatMessage> responseObserver;
+    private final SlowConsumerQueue<ChatMessage> queue;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean completeRequested;
+    private volatile boolean disconnectRequested;
+    private volatile boolean closed;
+
+    ChatSubscriber(String id, ServerCallStreamObserver<ChatMessage> responseObserver, int capacity, SlowConsumerPolicy policy) {
+        super(id);
+        this.responseObserver = responseObserver;
+        this.queue = new SlowConsumerQueue<>(capacity, policy, skipped -> ChatMessage.newBuilder()
+                .setSender("Server")
+                .setRoom(getRoom())
+                .setMessage(skipped + " messages skipped (slow consumer)")
+                .build());
+        responseObserver.setOnReadyHandler(this::drain);
+    }
+
+    @Override
+    public long dropped() {
+        return queue.dropped();
+    }
+
+    /**
+     * 메시지를 송신 큐에 넣고 가능하면 바로 보낸다. 큐가 가득 차 있으면 정책에 따라 처리하며, 호출자를 막지 않는다.
+     */
+    @Override
+    public void send(ChatMessage message) {
+        if (closed || completeRequested || disconnectRequested) {
+            return;
+        }
+        if (!queue.offer(message)) {
+            disconnectRequested = true;
+        }
+        drain();
+    }
+
+    /**
+     * 남은 메시지를 모두 보낸 뒤 스트림을 정상 종료한다.
+     */
+    void complete() {
+        completeRequested = true;
+        drain();
+    }
+
+    /**
+     * 클라이언트 쪽에서 이미 끝난 스트림. 더 이상 보내지 않고 큐를 비운다.
+     */
+    void close() {
+        closed = true;
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (closed) {
+                queue.clear();
+            } else if (disconnectRequested) {
+                closed = true;
+                queue.clear();
+                log.warn("[Chat Hub] 느린 구독자 연결 종료: id={}, room={}, dropped={}", getId(), getRoom(), queue.dropped());
+                responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                        .withDescription("Chat subscriber too slow, outbound queue full")
+                        .asRuntimeException());
+            } else {
+                ChatMessage next;
+                while (responseObserver.isReady() && (next = queue.poll()) != null) {
+                    responseObserver.onNext(next);
+                }
+                if (completeRequested && queue.isEmpty()) {
+                    closed = true;
+                    responseObserver.onCompleted();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
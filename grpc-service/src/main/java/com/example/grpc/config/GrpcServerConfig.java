@@ -0,0 +1,107 @@
+package com.example.grpc.config;
+
+import com.example.grpc.GrpcMessageServiceImpl;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.grpc.idempotency.IdempotencyKeyInterceptor;
+import com.example.grpc.ingest.LogIngestionPipeline;
+import com.example.grpc.metrics.MetricsServerInterceptor;
+import com.example.idempotency.IdempotencyCache;
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import com.example.netty.NettyAllocator;
+import com.example.netty.NettyTransport;
+import com.example.netty.NettyTransportSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+@Configuration
+public class GrpcServerConfig {
+
+    // 💡 빠른 시작 모드(fast-startup 프로필, spring.main.lazy-initialization=true)에서도 gRPC 서비스와 그 의존 빈은 기동 시 만든다.
+    // 로그 수집 파이프라인은 기록 디렉터리를 열고 writer 스레드를 띄우므로, 설정 오류가 첫 업로드가 아니라 기동 시 드러나야 한다.
+    // 지연 여부를 정하는 BeanFactoryPostProcessor 단계에서 찾으므로 static 으로 둔다.
+    @Bean
+    public static LazyInitializationExcludeFilter grpcServiceEagerInitFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                GrpcMessageServiceImpl.class, LogIngestionPipeline.class, IdempotencyCache.class);
+    }
+
+    @Bean
+    public ServerExecutorConfigurer serverExecutorConfigurer(
+            @Value("${grpc.service.executor.type:CACHED}") ServerExecutorType type,
+            @Value("${grpc.service.executor.pool-size:0}") int poolSize
+    ) {
+        return new ServerExecutorConfigurer(type, poolSize);
+    }
+
+    // 💡 Netty 전송 조정. 값을 모두 기본값으로 두면 gRPC 기본 동작(Linux 에서 epoll, 공유 event loop / 할당기)과 같다.
+    // grpc.server.address 가 unix:///경로 이면 unix 도메인 소켓용 채널 / event loop 로 바꾼다.
+    @Bean
+    public NettyServerConfigurer nettyServerConfigurer(
+            @Value("${grpc.service.netty.transport:AUTO}") NettyTransport transport,
+            @Value("${grpc.service.netty.boss-threads:0}") int bossThreads,
+            @Value("${grpc.service.netty.worker-threads:0}") int workerThreads,
+            @Value("${grpc.service.netty.allocator:GRPC_DEFAULT}") NettyAllocator allocator,
+            @Value("${grpc.service.netty.flow-control-window:0}") int flowControlWindow,
+            @Value("${grpc.service.netty.max-inbound-message-size:0}") int maxInboundMessageSize,
+            @Value("${grpc.service.netty.max-concurrent-calls-per-connection:0}") int maxConcurrentCallsPerConnection,
+            @Value("${grpc.server.address:*}") String address
+    ) {
+        return new NettyServerConfigurer(new NettyTransportSettings(transport, bossThreads, workerThreads, true, allocator,
+                flowControlWindow, maxInboundMessageSize, maxConcurrentCallsPerConnection), address);
+    }
+
+    // 💡 의도적인 지연을 스레드를 붙잡지 않고 타이머로 처리하기 위한 스케줄러
+    // 클라이언트가 떠나 취소된 작업은 실행 시각까지 큐에 남기지 않고 바로 뺀다. (removeOnCancelPolicy)
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService workSimulationScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "grpc-work-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    // 모든 gRPC 서비스에 적용되는 호출 지표 인터셉터. /actuator/prometheus 의 msa_* 지표로 노출된다.
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public MetricsServerInterceptor metricsServerInterceptor(MeterRegistry meterRegistry) {
+        return new MetricsServerInterceptor(meterRegistry);
+    }
+
+    // 메시지 단위 로그 설정 (FULL | SAMPLED | SUMMARY)
+    @Bean
+    public MessageLogSettings messageLogSettings(
+            @Value("${message-log.mode:SAMPLED}") MessageLogMode mode,
+            @Value("${message-log.samples-per-second:10}") int samplesPerSecond,
+            @Value("${message-log.summary-interval-seconds:10}") long summaryIntervalSeconds
+    ) {
+        return new MessageLogSettings(mode, samplesPerSecond, summaryIntervalSeconds);
+    }
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public IdempotencyKeyInterceptor idempotencyKeyInterceptor() {
+        return new IdempotencyKeyInterceptor();
+    }
+
+    // 💡 idempotency-key 가 붙은 Unary 요청의 응답 캐시. 재시도가 지연 작업을 다시 실행하지 않게 한다.
+    @Bean
+    public IdempotencyCache<MessageResponseGrpc> unaryResponseCache(
+            @Value("${grpc.service.idempotency.ttl-seconds:300}") long ttlSeconds,
+            @Value("${grpc.service.idempotency.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        return new IdempotencyCache<>("grpc-unary", Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.grpc.config;
+
+import com.example.net.UnixSocketAddresses;
+import com.example.netty.NettyEventLoops;
+import com.example.netty.NettyTransport;
+import com.example.netty.NettyTransportSettings;
+import io.grpc.ServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+import io.grpc.netty.shaded.io.netty.channel.ChannelOption;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.nio.file.Path;
+
+/**
+ * grpc.service.netty.* 설정을 gRPC NettyServerBuilder 에 적용한다. (전송 방식, boss / worker event loop, 할당기, 흐름 제어 창 등)
+ * 스타터가 자기 설정(grpc.server.*)을 적용한 뒤에 호출되므로 여기서 지정한 값이 우선한다.
+ * 직접 만든 event loop group 은 서버가 내려간 뒤 빈 소멸 시점에 정리한다.
+ *
+ * grpc.server.address 가 unix:///경로 이면 스타터가 그 경로의 unix 도메인 소켓에 epoll 로 bind 한다. (grpc.server.port 는 무시)
+ * 이때는 설정과 상관없이 epoll 도메인 소켓 채널과 직접 만든 event loop group 을 쓴다.
+ */
+public class NettyServerConfigurer implements GrpcServerConfigurer, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(NettyServerConfigurer.class);
+
+    private final NettyTransportSettings settings;
+    // unix 도메인 소켓 경로. TCP 이면 null
+    private final Path socketPath;
+    private final NettyTransport transport;
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final ByteBufAllocator allocator;
+
+    public NettyServerConfigurer(NettyTransportSettings settings, String address) {
+        this.settings = settings;
+        this.socketPath = UnixSocketAddresses.isUnix(address) ? UnixSocketAddresses.path(address) : null;
+        this.transport = socketPath != null
+                ? NettyEventLoops.resolveForDomainSocket(settings.transport())
+                : NettyEventLoops.resolve(settings.transport());
+        // 💡 unix 주소에서 스타터는 기본 epoll group 을 새로 만들어 넘기지만 종료 때 닫지 않는다(비데몬 스레드).
+        // 항상 여기서 만든 group 으로 바꿔서, 스타터의 group 은 스레드를 띄우지 않은 채 버려지고 종료는 destroy() 가 맡는다.
+        if (socketPath != null || settings.customEventLoops()) {
+            this.bossGroup = NettyEventLoops.newGroup(transport, Math.max(settings.bossThreads(), 1), "grpc-server-boss");
+            this.workerGroup = NettyEventLoops.newGroup(transport, settings.workerThreads(), "grpc-server-worker");
+        } else {
+            this.bossGroup = null;
+            this.workerGroup = null;
+        }
+        this.allocator = NettyEventLoops.allocator(settings.allocator(), settings.workerThreads());
+    }
+
+    @Override
+    public void accept(ServerBuilder<?> serverBuilder) {
+        if (!(serverBuilder instanceof NettyServerBuilder netty)) {
+            log.warn("[gRPC Server] Netty 서버가 아니므로 grpc.service.netty 설정을 적용하지 않습니다: {}",
+                    serverBuilder.getClass().getName());
+            return;
+        }
+        if (bossGroup != null) {
+            // boss / worker group 과 채널 타입은 함께 지정해야 한다. (NettyServerBuilder 제약)
+            netty.channelType(socketPath != null
+                            ? NettyEventLoops.domainServerChannelType()
+                            : NettyEventLoops.serverChannelType(transport))
+                    .bossEventLoopGroup(bossGroup)
+                    .workerEventLoopGroup(workerGroup);
+        }
+        if (allocator != null) {
+            netty.withOption(ChannelOption.ALLOCATOR, allocator)
+                    .withChildOption(ChannelOption.ALLOCATOR, allocator);
+        }
+        if (settings.flowControlWindow() > 0) {
+            netty.flowControlWindow(settings.flowControlWindow());
+        }
+        if (settings.maxInboundMessageSize() > 0) {
+            netty.maxInboundMessageSize(settings.maxInboundMessageSize());
+        }
+        if (settings.maxConcurrentCallsPerConnection() > 0) {
+            netty.maxConcurrentCallsPerConnection(settings.maxConcurrentCallsPerConnection());
+        }
+        if (socketPath != null) {
+            // 소켓 파일은 서버 채널이 닫힐 때 Netty 가 지운다. 비정상 종료로 남은 파일만 여기서 지운다.
+            UnixSocketAddresses.deleteStaleSocket(socketPath);
+        }
+        log.info("[gRPC Server] Netty 설정: {} (event loop: {}, 전송: {}{})", settings,
+                bossGroup != null ? "전용" : "gRPC 기본", transport, socketPath != null ? ", unix 소켓 " + socketPath : "");
+    }
+
+    @Override
+    public void destroy() {
+        NettyEventLoops.shutdown(bossGroup, workerGroup);
+    }
+}
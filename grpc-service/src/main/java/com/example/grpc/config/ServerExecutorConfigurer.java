@@ -0,0 +1,94 @@
+package com.example.grpc.config;
+
+import io.grpc.ServerBuilder;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 선택된 {@link ServerExecutorType}에 맞게 gRPC ServerBuilder의 executor를 설정한다.
+ * 직접 만든 Executor는 서버가 내려간 뒤 빈 소멸 시점에 정리한다.
+ */
+public class ServerExecutorConfigurer implements GrpcServerConfigurer, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerExecutorConfigurer.class);
+
+    private final ServerExecutorType type;
+    private final ExecutorService executor;
+
+    public ServerExecutorConfigurer(ServerExecutorType type, int poolSize) {
+        this.type = type;
+        this.executor = createExecutor(type, poolSize);
+    }
+
+    @Override
+    public void accept(ServerBuilder<?> serverBuilder) {
+        log.info("[gRPC Server] executor 설정: {}", type);
+        switch (type) {
+            case CACHED:
+                // grpc-java 기본 executor를 그대로 사용
+                break;
+            case DIRECT:
+                serverBuilder.directExecutor();
+                break;
+            case BOUNDED:
+            case VIRTUAL:
+                serverBuilder.executor(executor);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor type: " + type);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService createExecutor(ServerExecutorType type, int poolSize) {
+        switch (type) {
+            case BOUNDED:
+                int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors() * 2;
+                return Executors.newFixedThreadPool(threads, namedThreadFactory("grpc-bounded-"));
+            case VIRTUAL:
+                return newVirtualThreadPerTaskExecutor();
+            default:
+                return null;
+        }
+    }
+
+    // 빌드 타깃은 Java 17 이므로, Java 21 API는 런타임에 찾아서 호출한다.
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("VIRTUAL executor requires Java 21+, current runtime is "
+                    + Runtime.version(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
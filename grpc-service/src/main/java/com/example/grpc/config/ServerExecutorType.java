@@ -0,0 +1,15 @@
+package com.example.grpc.config;
+
+/**
+ * gRPC 서버가 요청 콜백(핸들러)을 실행할 Executor 종류. grpc.service.executor.type 으로 선택한다.
+ */
+public enum ServerExecutorType {
+    // grpc-java 기본값. 무제한 cached thread pool
+    CACHED,
+    // 고정 크기 스레드 풀 (grpc.service.executor.pool-size)
+    BOUNDED,
+    // 호출마다 virtual thread 생성. Java 21 이상 런타임 필요
+    VIRTUAL,
+    // Netty 이벤트 루프 스레드에서 바로 실행. 핸들러가 절대 블로킹하지 않을 때만 사용
+    DIRECT
+}
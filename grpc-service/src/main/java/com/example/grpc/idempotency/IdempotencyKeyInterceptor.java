@@ -0,0 +1,28 @@
+package com.example.grpc.idempotency;
+
+import com.example.idempotency.IdempotencyKeys;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * 요청 metadata 의 idempotency-key 를 gRPC Context 로 옮긴다.
+ * 서비스 구현은 IDEMPOTENCY_KEY.get() 으로 읽고, 키가 없는 호출에는 아무것도 하지 않는다.
+ */
+public class IdempotencyKeyInterceptor implements ServerInterceptor {
+
+    public static final Context.Key<String> IDEMPOTENCY_KEY = Context.key("idempotency-key");
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String key = headers.get(IdempotencyKeys.GRPC_METADATA);
+        if (key == null || key.isEmpty()) {
+            return next.startCall(call, headers);
+        }
+        return Contexts.interceptCall(Context.current().withValue(IDEMPOTENCY_KEY, key), call, headers, next);
+    }
+}
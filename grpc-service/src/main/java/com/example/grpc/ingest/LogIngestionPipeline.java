@@ -0,0 +1,192 @@
+package com.example.grpc.ingest;
+
+import com.example.grpc.LogEntry;
+import com.example.grpc.UploadStatusResponse;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client Streaming 로그 업로드용 수집 파이프라인.
+ * 모든 업로드 스트림이 하나의 bounded 큐를 공유하고, 단일 consumer 스레드가 배치 단위로 꺼내
+ * {@link SegmentedLogWriter}로 기록한다. 큐가 가득 차면 각 스트림은 request 를 멈춰 클라이언트 전송을 늦춘다.
+ */
+@Component
+public class LogIngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(LogIngestionPipeline.class);
+
+    // 스트림마다 미리 요청해두는 메시지 수. 큐가 가득 찼을 때 스트림당 보관되는 엔트리도 최대 이만큼이다.
+    static final int STREAM_PREFETCH = 32;
+
+    private final BlockingQueue<Item> queue;
+    private final ConcurrentLinkedQueue<UploadSession> waiters = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<UploadSession> finishing = new ConcurrentLinkedQueue<>();
+    private final int batchSize;
+    private final Path directory;
+    private final long segmentBytes;
+    private final int writeBufferBytes;
+    private final boolean fsync;
+
+    private SegmentedLogWriter writer;
+    private Thread consumer;
+    private volatile boolean running;
+
+    public LogIngestionPipeline(
+            @Value("${grpc.service.ingest.queue-capacity:65536}") int queueCapacity,
+            @Value("${grpc.service.ingest.batch-size:4096}") int batchSize,
+            @Value("${grpc.service.ingest.directory:ingest-logs}") String directory,
+            @Value("${grpc.service.ingest.segment-bytes:67108864}") long segmentBytes,
+            @Value("${grpc.service.ingest.write-buffer-bytes:1048576}") int writeBufferBytes,
+            @Value("${grpc.service.ingest.fsync:false}") boolean fsync
+    ) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.writeBufferBytes = writeBufferBytes;
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        writer = new SegmentedLogWriter(directory, segmentBytes, writeBufferBytes, fsync);
+        running = true;
+        consumer = new Thread(this::consume, "log-ingest-writer");
+        consumer.start();
+        log.info("[Log Ingestion] 파이프라인 시작: directory={}, queueCapacity={}, batchSize={}",
+                directory.toAbsolutePath(), queue.remainingCapacity(), batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        writer.close();
+    }
+
+    /**
+     * 새 업로드 스트림을 연다. 자동 request 를 끄고 STREAM_PREFETCH 개만 먼저 요청한다.
+     */
+    public UploadSession openSession(ServerCallStreamObserver<UploadStatusResponse> responseObserver) {
+        responseObserver.disableAutoRequest();
+        UploadSession session = new UploadSession(this, responseObserver);
+        responseObserver.request(STREAM_PREFETCH);
+        return session;
+    }
+
+    boolean offer(UploadSession session, LogEntry entry) {
+        return queue.offer(new Item(session, entry));
+    }
+
+    void awaitCapacity(UploadSession session) {
+        waiters.add(session);
+    }
+
+    void finishLater(UploadSession session) {
+        finishing.add(session);
+    }
+
+    private void consume() {
+        List<Item> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Item first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    persist(batch);
+                    batch.clear();
+                }
+                // 큐에 자리가 생겼으니 대기 중인 스트림을 깨운다. 타임아웃으로 빠져나온 경우에도 확인해서 놓친 신호를 보완한다.
+                resumeWaiters();
+                finishPending();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("[Log Ingestion] 배치 처리 중 예기치 않은 오류: {}", e.getMessage(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    // 💡 기록에 실패한 배치의 엔트리도 세션마다 결과를 알려야 한다. 그러지 않으면 세션의 inFlight 가 0 이 되지 않아
+    // 최종 응답도 에러도 보내지 못하고 업로드 RPC 가 끝나지 않는다.
+    private void persist(List<Item> batch) {
+        int[] sizes;
+        try {
+            sizes = write(batch);
+        } catch (IOException | RuntimeException e) {
+            log.error("[Log Ingestion] 배치 기록 실패: entries={}, {}", batch.size(), e.getMessage(), e);
+            for (Item item : batch) {
+                notify(item, () -> item.session.onWriteFailed(e));
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            int size = sizes[i];
+            Item item = batch.get(i);
+            notify(item, () -> item.session.onPersisted(size));
+        }
+    }
+
+    private int[] write(List<Item> batch) throws IOException {
+        int[] sizes = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            sizes[i] = writer.append(batch.get(i).entry);
+        }
+        writer.flush();
+        return sizes;
+    }
+
+    // 응답 전송 중 한 세션에서 난 오류가 같은 배치의 다른 세션 알림을 막지 않도록 항목마다 따로 처리한다.
+    private static void notify(Item item, Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            log.warn("[Log Ingestion] 업로드 세션 알림 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private void resumeWaiters() {
+        int count = waiters.size();
+        for (int i = 0; i < count; i++) {
+            UploadSession session = waiters.poll();
+            if (session == null || !session.resume()) {
+                // 다시 가득 찼으면 나머지는 다음 배치 이후에 깨운다.
+                return;
+            }
+        }
+    }
+
+    private void finishPending() {
+        UploadSession session;
+        while ((session = finishing.poll()) != null) {
+            session.maybeFinish();
+        }
+    }
+
+    private static final class Item {
+        private final UploadSession session;
+        private final LogEntry entry;
+
+        private Item(UploadSession session, LogEntry entry) {
+            this.session = session;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.grpc.ingest;
+
+import com.example.grpc.LogEntry;
+import com.google.protobuf.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * 로그 엔트리를 append-only 세그먼트 파일에 기록한다.
+ * 레코드는 재사용하는 direct ByteBuffer에 모아서 FileChannel로 한 번에 쓰고,
+ * 세그먼트가 segmentBytes를 넘으면 다음 번호의 파일로 넘어간다.
+ * 한 스레드(파이프라인 consumer)에서만 사용한다.
+ */
+public class SegmentedLogWriter implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentedLogWriter.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte SPACE = ' ';
+    private static final byte NEWLINE = '\n';
+    // -Long.MIN_VALUE 는 long 범위를 넘어 다시 음수가 되므로 자릿수 계산 없이 그대로 쓴다.
+    private static final byte[] MIN_VALUE_ASCII = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final ByteBuffer buffer;
+
+    private FileChannel channel;
+    private long segmentIndex;
+    private long segmentPosition;
+
+    public SegmentedLogWriter(Path directory, long segmentBytes, int bufferBytes, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        Files.createDirectories(directory);
+        // 기존 세그먼트는 건드리지 않고 다음 번호부터 새로 쓴다.
+        this.segmentIndex = lastSegmentIndex() + 1;
+        openSegment();
+    }
+
+    /**
+     * 엔트리 하나를 버퍼에 인코딩하고, 기록될 바이트 수를 반환한다. 실제 파일 쓰기는 버퍼가 차거나 flush() 시점에 일어난다.
+     */
+    public int append(LogEntry entry) throws IOException {
+        ByteString level = entry.getLevelBytes();
+        ByteString message = entry.getMessageBytes();
+        int size = digits(entry.getTimestamp()) + 1 + level.size() + 1 + message.size() + 1;
+
+        if (segmentPosition + buffer.position() + size > segmentBytes && segmentPosition + buffer.position() > 0) {
+            flushBuffer();
+            rollSegment();
+        }
+        ByteBuffer target = buffer;
+        if (size > buffer.remaining()) {
+            flushBuffer();
+            if (size > buffer.capacity()) {
+                // 버퍼보다 큰 레코드는 그 레코드만 별도 버퍼로 쓴다.
+                target = ByteBuffer.allocate(size);
+            }
+        }
+        putLong(target, entry.getTimestamp());
+        target.put(SPACE);
+        level.copyTo(target);
+        target.put(SPACE);
+        message.copyTo(target);
+        target.put(NEWLINE);
+        if (target != buffer) {
+            target.flip();
+            writeFully(target);
+        }
+        return size;
+    }
+
+    /**
+     * 버퍼에 남은 레코드를 파일에 쓰고, 설정에 따라 디스크 동기화까지 수행한다.
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            segmentPosition += channel.write(source);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+        channel.close();
+        segmentIndex++;
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentPosition = channel.size();
+        log.info("[Log Ingestion] 새 세그먼트 파일: {}", path);
+    }
+
+    private long lastSegmentIndex() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .mapToLong(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .max()
+                    .orElse(-1L);
+        }
+    }
+
+    // Long.toString 없이 10진수 ASCII로 바로 쓴다.
+    private static void putLong(ByteBuffer target, long value) {
+        if (value == Long.MIN_VALUE) {
+            target.put(MIN_VALUE_ASCII);
+            return;
+        }
+        if (value < 0) {
+            target.put((byte) '-');
+            value = -value;
+        }
+        int length = digits(value);
+        int end = target.position() + length;
+        for (int i = end - 1; i >= end - length; i--) {
+            target.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        target.position(end);
+    }
+
+    private static int digits(long value) {
+        if (value == Long.MIN_VALUE) {
+            return MIN_VALUE_ASCII.length;
+        }
+        int sign = 0;
+        if (value < 0) {
+            sign = 1;
+            value = -value;
+        }
+        int length = 1;
+        while (value >= 10) {
+            value /= 10;
+            length++;
+        }
+        return length + sign;
+    }
+}
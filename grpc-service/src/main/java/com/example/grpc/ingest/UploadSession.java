@@ -0,0 +1,183 @@
+package com.example.grpc.ingest;
+
+import com.example.grpc.LogEntry;
+import com.example.grpc.UploadStatusResponse;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드 스트림 하나의 수신 상태.
+ * 공유 큐가 가득 차면 받은 엔트리를 잠시 보관(parked)하고 더 이상 request 하지 않아 클라이언트 전송을 멈춘다.
+ * 큐에 자리가 생기면 파이프라인 consumer가 resume() 으로 이어서 넣어준다.
+ * 클라이언트가 스트림을 닫고 넣은 엔트리가 모두 파일에 기록되면 최종 응답을 보낸다.
+ * 클라이언트가 떠나면(취소, deadline 초과) 보관 중인 엔트리를 버리고 최종 응답을 보내지 않는다.
+ * 엔트리 기록에 실패하면 INTERNAL 에러로 업로드를 끝낸다.
+ */
+public class UploadSession {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSession.class);
+
+    private final LogIngestionPipeline pipeline;
+    private final ServerCallStreamObserver<UploadStatusResponse> responseObserver;
+    private final long startNanos = System.nanoTime();
+
+    // gRPC 콜백 스레드와 consumer 스레드가 함께 접근하므로 세션 단위로 동기화 (this 로 보호)
+    private final ArrayDeque<LogEntry> parked = new ArrayDeque<>();
+    private boolean waiting;
+    private boolean halfClosed;
+    private boolean aborted;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong persistedBytes = new AtomicLong();
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    UploadSession(LogIngestionPipeline pipeline, ServerCallStreamObserver<UploadStatusResponse> responseObserver) {
+        this.pipeline = pipeline;
+        this.responseObserver = responseObserver;
+        // 스트림을 닫은(half-close) 뒤 기록을 기다리는 중에 취소되면 onError 가 오지 않으므로 취소 핸들러로 받는다.
+        responseObserver.setOnCancelHandler(this::onCancelled);
+    }
+
+    private void onCancelled() {
+        int discarded;
+        synchronized (this) {
+            discarded = parked.size();
+            abort();
+        }
+        log.info("[Client Streaming - Server] 클라이언트 취소로 업로드 중단: accepted={}, discarded={}, elapsed={}ms",
+                accepted.get(), discarded, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * 클라이언트에서 엔트리가 도착했을 때 (gRPC 콜백 스레드).
+     */
+    public synchronized void onEntry(LogEntry entry) {
+        if (aborted) {
+            return;
+        }
+        // 이미 보관 중인 엔트리가 있으면 순서를 지키기 위해 뒤에 붙인다.
+        if (!parked.isEmpty() || !offer(entry)) {
+            parked.addLast(entry);
+            awaitCapacity();
+        }
+    }
+
+    /**
+     * 클라이언트가 스트림을 닫았을 때 (gRPC 콜백 스레드).
+     */
+    public void onClientCompleted() {
+        synchronized (this) {
+            halfClosed = true;
+        }
+        maybeFinish();
+    }
+
+    /**
+     * 스트림이 에러로 끝났을 때. 보관 중인 엔트리는 버리고, 이미 큐에 들어간 엔트리는 그대로 기록된다.
+     */
+    public synchronized void abort() {
+        aborted = true;
+        parked.clear();
+    }
+
+    /**
+     * 큐에 자리가 생겼을 때 consumer 스레드가 호출. 보관 중인 엔트리를 모두 넣었으면 true.
+     */
+    synchronized boolean resume() {
+        waiting = false;
+        if (aborted) {
+            return true;
+        }
+        while (!parked.isEmpty()) {
+            if (!offer(parked.peekFirst())) {
+                awaitCapacity();
+                return false;
+            }
+            parked.pollFirst();
+        }
+        if (halfClosed) {
+            // 스트림은 이미 닫혔고 보관분까지 모두 넘겼으므로, 기록이 끝났는지 확인
+            pipeline.finishLater(this);
+        }
+        return true;
+    }
+
+    /**
+     * consumer가 이 세션의 엔트리를 파일에 기록한 뒤 호출.
+     */
+    void onPersisted(int bytes) {
+        persistedBytes.addAndGet(bytes);
+        if (inFlight.decrementAndGet() == 0) {
+            maybeFinish();
+        }
+    }
+
+    /**
+     * consumer가 이 세션의 엔트리를 기록하지 못했을 때 호출. 엔트리마다 불리며, 처음 한 번만 INTERNAL 로 업로드를 끝낸다.
+     * 이후 도착하는 엔트리와 보관 중인 엔트리는 버린다. (이미 취소 / 에러로 끝난 세션이면 응답을 보내지 않는다)
+     */
+    void onWriteFailed(Exception cause) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            // onEntry 의 request 와 겹치지 않도록 세션 잠금 안에서 끝낸다.
+            if (aborted || !finished.compareAndSet(false, true)) {
+                return;
+            }
+            abort();
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("failed to persist log entries: " + cause)
+                    .withCause(cause)
+                    .asRuntimeException());
+        }
+        log.warn("[Client Streaming - Server] 기록 실패로 업로드 중단: accepted={}, bytesPersisted={}, elapsed={}ms",
+                accepted.get(), persistedBytes.get(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    void maybeFinish() {
+        synchronized (this) {
+            if (aborted || !halfClosed || !parked.isEmpty() || inFlight.get() != 0) {
+                return;
+            }
+        }
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        UploadStatusResponse response = UploadStatusResponse.newBuilder()
+                .setStatus("SUCCESS")
+                .setReceivedCount(accepted.get())
+                .setBytesPersisted(persistedBytes.get())
+                .build();
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+        log.info("[Client Streaming - Server] 업로드 완료: accepted={}, bytesPersisted={}, elapsed={}ms",
+                accepted.get(), persistedBytes.get(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private boolean offer(LogEntry entry) {
+        inFlight.incrementAndGet();
+        if (!pipeline.offer(this, entry)) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        accepted.incrementAndGet();
+        // 하나를 넘길 때마다 하나를 더 요청한다. 큐가 가득 차면 요청이 멈춰 클라이언트 쪽 전송이 막힌다.
+        if (!halfClosed) {
+            responseObserver.request(1);
+        }
+        return true;
+    }
+
+    private void awaitCapacity() {
+        if (!waiting) {
+            waiting = true;
+            pipeline.awaitCapacity(this);
+        }
+    }
+}
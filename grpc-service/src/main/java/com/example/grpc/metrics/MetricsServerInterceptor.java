@@ -0,0 +1,112 @@
+package com.example.grpc.metrics;
+
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import com.example.metrics.GrpcMetricsSupport;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 모든 RPC 의 호출 수, 진행 중 호출 수, 지연 분포, 스트림당 메시지 수, 송수신 바이트를 기록한다.
+ * meter 는 메서드별로 미리 만들어 두고, 호출마다 생기는 것은 gRPC 인터셉터 구조상 필요한 감싸기 객체뿐이다.
+ */
+public class MetricsServerInterceptor implements ServerInterceptor {
+
+    private final CallMetricsRegistry metrics;
+
+    public MetricsServerInterceptor(MeterRegistry registry) {
+        this.metrics = GrpcMetricsSupport.registry(registry, "server");
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MonitoredCall<ReqT, RespT> monitored = new MonitoredCall<>(call, metrics.forMethod(call.getMethodDescriptor().getFullMethodName()));
+        return new MonitoredListener<>(next.startCall(monitored, headers), monitored);
+    }
+
+    private static final class MonitoredCall<ReqT, RespT> extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        // 제네릭 클래스는 MonitoredCall.class 로만 만들 수 있으므로 와일드카드 타입으로 바꿔 둔다.
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static final AtomicIntegerFieldUpdater<MonitoredCall<?, ?>> FINISHED =
+                (AtomicIntegerFieldUpdater) AtomicIntegerFieldUpdater.newUpdater(MonitoredCall.class, "finished");
+
+        private final CallMetrics metrics;
+        private final long startNanos;
+        // 받은 수는 리스너 스레드만, 보낸 수는 응답을 쓰는 스레드만 증가시킨다. (각각 gRPC 가 직렬화해서 호출)
+        private volatile long messagesIn;
+        private volatile long messagesOut;
+        private volatile int finished;
+
+        MonitoredCall(ServerCall<ReqT, RespT> delegate, CallMetrics metrics) {
+            super(delegate);
+            this.metrics = metrics;
+            this.startNanos = metrics.start();
+        }
+
+        void received(Object message) {
+            messagesIn++;
+            metrics.bytesIn(GrpcMetricsSupport.serializedSize(message));
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            messagesOut++;
+            metrics.bytesOut(GrpcMetricsSupport.serializedSize(message));
+            super.sendMessage(message);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            finish(status.getCode());
+            super.close(status, trailers);
+        }
+
+        // close 와 onCancel 중 먼저 온 쪽만 기록한다.
+        boolean finish(Status.Code code) {
+            if (FINISHED.compareAndSet(this, 0, 1)) {
+                metrics.finish(startNanos, code.value(), messagesIn, messagesOut);
+                return true;
+            }
+            return false;
+        }
+
+        void abandoned() {
+            metrics.abandoned();
+        }
+    }
+
+    private static final class MonitoredListener<ReqT> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final MonitoredCall<ReqT, ?> call;
+
+        MonitoredListener(ServerCall.Listener<ReqT> delegate, MonitoredCall<ReqT, ?> call) {
+            super(delegate);
+            this.call = call;
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            call.received(message);
+            super.onMessage(message);
+        }
+
+        // 응답을 닫기 전에 취소되었다면 클라이언트가 떠난 것(취소, 연결 끊김, deadline 초과)이므로 abandoned 로도 센다.
+        @Override
+        public void onCancel() {
+            if (call.finish(Status.Code.CANCELLED)) {
+                call.abandoned();
+            }
+            super.onCancel();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.grpc.stream;
+
+import com.example.grpc.MessageResponseGrpc;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server Streaming 응답을 전송 가능할 때만(isReady) 만들어 보내는 생산자.
+ * onReady 핸들러로 등록되어, 버퍼가 차면 멈추고 다시 ready 가 되면 이어서 보낸다.
+ * 따라서 느린 클라이언트를 만나도 Netty 쪽 버퍼가 무한히 쌓이지 않는다.
+ * 클라이언트가 취소하면(cancel) 남은 메시지를 만들지 않고 멈춘다.
+ * onReady / onCancel 콜백은 호출 단위로 직렬화되어 실행되므로 별도의 동기화는 필요 없다.
+ */
+public class FlowControlledStreamer implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(FlowControlledStreamer.class);
+
+    private final ServerCallStreamObserver<MessageResponseGrpc> responseObserver;
+    private final String userId;
+    private final int messageCount;
+    // payloadSize 가 지정되면 모든 메시지가 같은 본문 인스턴스를 공유한다 (메시지마다 문자열을 만들지 않음)
+    private final String payload;
+    private final long startNanos = System.nanoTime();
+
+    private int sent;
+    private boolean completed;
+
+    public FlowControlledStreamer(ServerCallStreamObserver<MessageResponseGrpc> responseObserver,
+                                  String userId, int messageCount, int payloadSize) {
+        this.responseObserver = responseObserver;
+        this.userId = userId;
+        this.messageCount = messageCount;
+        this.payload = payloadSize > 0 ? "x".repeat(payloadSize) : null;
+    }
+
+    // onCancel 핸들러. 이후의 onReady 는 무시한다.
+    public void cancel() {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        log.info("[Server Streaming - Server] 클라이언트 취소로 전송 중단: userId={}, sent={}/{}, elapsed={}ms",
+                userId, sent, messageCount, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Override
+    public void run() {
+        if (completed) {
+            return;
+        }
+        while (sent < messageCount && responseObserver.isReady()) {
+            responseObserver.onNext(nextMessage());
+            sent++;
+        }
+        if (sent == messageCount) {
+            completed = true;
+            responseObserver.onCompleted();
+            log.info("[Server Streaming - Server] 스트림 전송 완료: userId={}, count={}, elapsed={}ms",
+                    userId, sent, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    private MessageResponseGrpc nextMessage() {
+        String reply = payload != null
+                ? payload
+                : "Server Stream Message " + (sent + 1) + " for User " + userId;
+        return MessageResponseGrpc.newBuilder()
+                .setReply(reply)
+                .build();
+    }
+}
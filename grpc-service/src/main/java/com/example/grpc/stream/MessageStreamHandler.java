@@ -0,0 +1,76 @@
+package com.example.grpc.stream;
+
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SendMessageStream 요청 처리기. 요청 하나를 받을 때마다 응답 하나를 바로 돌려준다.
+ * 자동 요청(auto request)을 끄고, 응답을 보낼 수 있을 때만 다음 요청을 받는다.
+ * 클라이언트가 응답을 읽지 않으면 요청 수신도 멈추므로 양쪽 버퍼가 PREFETCH 개 안팎으로 유지된다.
+ * 콜백은 호출 단위로 직렬화되어 실행되므로 별도의 동기화는 필요 없다.
+ */
+public class MessageStreamHandler implements StreamObserver<MessageRequestGrpc> {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageStreamHandler.class);
+
+    private static final int PREFETCH = 32;
+
+    private final ServerCallStreamObserver<MessageResponseGrpc> responseObserver;
+    private final long startNanos = System.nanoTime();
+
+    private long received;
+    // 전송 버퍼가 차서 아직 다시 요청하지 못한 수
+    private int deferredRequests;
+
+    public MessageStreamHandler(ServerCallStreamObserver<MessageResponseGrpc> responseObserver) {
+        this.responseObserver = responseObserver;
+        responseObserver.disableAutoRequest();
+        responseObserver.setOnReadyHandler(this::onReady);
+        responseObserver.setOnCancelHandler(this::onCancel);
+        responseObserver.request(PREFETCH);
+    }
+
+    @Override
+    public void onNext(MessageRequestGrpc request) {
+        received++;
+        responseObserver.onNext(MessageResponseGrpc.newBuilder()
+                .setReply("Stream Response: " + request.getContent().toUpperCase())
+                .build());
+        if (responseObserver.isReady()) {
+            responseObserver.request(1);
+        } else {
+            deferredRequests++;
+        }
+    }
+
+    private void onReady() {
+        if (deferredRequests > 0) {
+            int toRequest = deferredRequests;
+            deferredRequests = 0;
+            responseObserver.request(toRequest);
+        }
+    }
+
+    // 클라이언트가 떠남. 응답은 더 보내지 않는다. (half-close 전이면 onError 도 이어서 호출된다)
+    private void onCancel() {
+        deferredRequests = 0;
+        log.info("[Message Stream - Server] 클라이언트 취소: received={}, elapsed={}ms",
+                received, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        log.warn("[Message Stream - Server] 클라이언트 스트림 에러: received={}, {}", received, t.getMessage());
+    }
+
+    @Override
+    public void onCompleted() {
+        responseObserver.onCompleted();
+        log.info("[Message Stream - Server] 스트림 완료: count={}, elapsed={}ms",
+                received, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
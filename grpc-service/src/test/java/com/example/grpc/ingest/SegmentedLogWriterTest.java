@@ -0,0 +1,63 @@
+package com.example.grpc.ingest;
+
+import com.example.grpc.LogEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SegmentedLogWriter 가 쓴 세그먼트 파일을 다시 읽어 레코드가 "타임스탬프 레벨 메시지" 한 줄씩 그대로 남는지 확인한다.
+ */
+class SegmentedLogWriterTest {
+
+    private static final long[] TIMESTAMPS = {
+            0, 9, 10, -1, -10, 1_700_000_000_000L, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void timestampsAreWrittenAsDecimal() throws IOException {
+        assertRecords(1024);
+    }
+
+    // 버퍼보다 큰 레코드는 별도 버퍼로 쓰이므로 그 경로에서도 같은지 본다.
+    @Test
+    void recordsLargerThanBufferAreWrittenAsDecimal() throws IOException {
+        assertRecords(8);
+    }
+
+    private void assertRecords(int bufferBytes) throws IOException {
+        List<String> expected = new ArrayList<>();
+        long appended = 0;
+        try (SegmentedLogWriter writer = new SegmentedLogWriter(directory, 1 << 20, bufferBytes, false)) {
+            for (long timestamp : TIMESTAMPS) {
+                LogEntry entry = LogEntry.newBuilder().setTimestamp(timestamp).setLevel("INFO").setMessage("ts " + timestamp).build();
+                appended += writer.append(entry);
+                expected.add(timestamp + " INFO ts " + timestamp);
+            }
+        }
+
+        Path segment = onlySegment();
+        assertEquals(expected, Files.readAllLines(segment));
+        // append 가 돌려준 크기와 실제로 기록된 바이트 수가 같아야 세그먼트 경계 계산이 맞는다.
+        assertEquals(appended, Files.size(segment));
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size(), "segments: " + segments);
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.kafka;
+
+import com.example.codec.CodecException;
+import com.example.codec.MessageCodecs;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Kafka 요청-응답 처리. 클라이언트(ReplyingKafkaTemplate)가 요청 토픽에 보낸 MessageRequestGrpc 를 배치로 받아
+ * 레코드마다 MessageResponseGrpc 응답을 응답 토픽으로 보낸다.
+ *
+ * 응답에는 요청의 kafka_correlationId 헤더를 그대로 붙이고, 요청에 kafka_replyTopic / kafka_replyPartition 헤더가 있으면
+ * 그 토픽/파티션으로 보낸다. (없으면 kafka.service.reply-topic)
+ */
+@Component
+public class KafkaMessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaMessageListener.class);
+
+    // 지표 method 태그. 호출 하나 = 리스너가 받은 배치 하나
+    private static final String METHOD = "MessageRequests";
+    // OK: 모든 레코드에 응답, PARTIAL: 읽을 수 없는 레코드를 건너뜀
+    private static final List<String> STATUSES = List.of("OK", "PARTIAL");
+    private static final int STATUS_OK = 0;
+    private static final int STATUS_PARTIAL = 1;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final IdempotencyCache<MessageResponseGrpc> responseCache;
+    private final String defaultReplyTopic;
+    private final CallMetrics metrics;
+    private final MessageLogger messageLog;
+
+    public KafkaMessageListener(
+            KafkaTemplate<String, byte[]> kafkaTemplate,
+            IdempotencyCache<MessageResponseGrpc> requestResponseCache,
+            MessageLogSettings messageLogSettings,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.service.reply-topic:msa.message.replies}") String defaultReplyTopic
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.responseCache = requestResponseCache;
+        this.defaultReplyTopic = defaultReplyTopic;
+        this.metrics = new CallMetricsRegistry(meterRegistry, "kafka", "server", STATUSES).forMethod(METHOD);
+        this.messageLog = new MessageLogger(log, "[Kafka Service]", messageLogSettings);
+    }
+
+    // 💡 응답은 send 만 하고 기다리지 않는다. 프로듀서가 linger-ms 동안 모아 배치로 보내므로
+    // 레코드마다 flush 하거나 전송 완료를 기다리면 배치가 깨지고 컨슈머 스레드도 묶인다.
+    @KafkaListener(id = "message-requests", idIsGroup = false,
+            topics = "${kafka.service.request-topic:msa.message.requests}",
+            concurrency = "${kafka.service.consumer.concurrency:3}")
+    public void onRequests(List<ConsumerRecord<String, ByteBuffer>> records) {
+        long startTime = metrics.start();
+        long bytesIn = 0;
+        long bytesOut = 0;
+        int replies = 0;
+        for (ConsumerRecord<String, ByteBuffer> record : records) {
+            bytesIn += record.serializedValueSize();
+            MessageResponseGrpc response = respond(record);
+            if (response == null) {
+                continue;
+            }
+            byte[] value = MessageCodecs.RESPONSE_PROTOBUF.encodeToArray(response);
+            bytesOut += value.length;
+            replies++;
+            kafkaTemplate.send(replyRecord(record, value)).whenComplete((result, error) -> {
+                if (error != null) {
+                    log.warn("[Kafka Service] 응답 전송 실패: {}", error.getMessage());
+                }
+            });
+        }
+        metrics.bytesIn(bytesIn);
+        metrics.bytesOut(bytesOut);
+        metrics.finish(startTime, replies == records.size() ? STATUS_OK : STATUS_PARTIAL, records.size(), replies);
+    }
+
+    // 레코드 하나의 응답. 읽을 수 없는 레코드는 null (응답하지 않으면 클라이언트는 응답 대기 시간 초과로 실패한다)
+    private MessageResponseGrpc respond(ConsumerRecord<String, ByteBuffer> record) {
+        MessageRequestGrpc request;
+        try {
+            request = MessageCodecs.REQUEST_PROTOBUF.decode(record.value() != null ? record.value() : EMPTY);
+        } catch (CodecException e) {
+            log.warn("[Kafka Service] 읽을 수 없는 요청 건너뜀: partition={}, offset={}, {}",
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+        // 수신 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[Kafka Service] 메시지 수신: {} (partition={}, offset={})", request.getContent(), record.partition(), record.offset());
+        }
+        String idempotencyKey = headerString(record.headers(), IdempotencyKeys.HTTP_HEADER);
+        MessageResponseGrpc response = idempotencyKey == null
+                ? process(request)
+                : responseCache.get(idempotencyKey, () -> CompletableFuture.completedFuture(process(request))).join();
+        if (logged) {
+            log.info("[Kafka Service] 응답 전송: {}", response.getReply());
+        }
+        return response;
+    }
+
+    private MessageResponseGrpc process(MessageRequestGrpc request) {
+        if (request.getContent().isEmpty()) {
+            log.warn("[Kafka Service] 유효하지 않은 요청: content가 비어있음.");
+            return MessageResponseGrpc.newBuilder().setReply("Error: Content cannot be empty.").build();
+        }
+        return MessageResponseGrpc.newBuilder()
+                .setReply("Kafka Response: " + request.getContent().toUpperCase())
+                .build();
+    }
+
+    private ProducerRecord<String, byte[]> replyRecord(ConsumerRecord<String, ByteBuffer> request, byte[] value) {
+        String replyTopic = headerString(request.headers(), KafkaHeaders.REPLY_TOPIC);
+        Header replyPartition = request.headers().lastHeader(KafkaHeaders.REPLY_PARTITION);
+        Integer partition = replyPartition != null ? ByteBuffer.wrap(replyPartition.value()).getInt() : null;
+        ProducerRecord<String, byte[]> reply = new ProducerRecord<>(
+                replyTopic != null ? replyTopic : defaultReplyTopic, partition, request.key(), value);
+        Header correlationId = request.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+        if (correlationId != null) {
+            reply.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.value());
+        }
+        return reply;
+    }
+
+    private static String headerString(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.kafka;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class KafkaServiceApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(KafkaServiceApplication.class, args);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.kafka.config;
+
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.ByteBufferDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka 요청/응답 설정. Spring Boot 의 spring.kafka.* 자동 설정 대신 kafka.service.* 값으로 직접 만든다.
+ * (같은 이름의 빈이 있으면 자동 설정은 물러난다)
+ */
+@Configuration
+public class KafkaServerConfig {
+
+    private final String bootstrapServers;
+
+    public KafkaServerConfig(@Value("${kafka.service.bootstrap-servers:localhost:9092}") String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    @Bean
+    public KafkaAdmin kafkaAdmin() {
+        return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+    }
+
+    // 💡 요청 토픽의 파티션 수가 곧 리스너 동시성의 상한이다. (파티션보다 많은 컨슈머는 할당을 받지 못하고 논다)
+    @Bean
+    public NewTopic requestTopic(
+            @Value("${kafka.service.request-topic:msa.message.requests}") String name,
+            @Value("${kafka.service.partitions:6}") int partitions,
+            @Value("${kafka.service.replication-factor:1}") short replicationFactor
+    ) {
+        return TopicBuilder.name(name).partitions(partitions).replicas(replicationFactor).build();
+    }
+
+    @Bean
+    public NewTopic replyTopic(
+            @Value("${kafka.service.reply-topic:msa.message.replies}") String name,
+            @Value("${kafka.service.partitions:6}") int partitions,
+            @Value("${kafka.service.replication-factor:1}") short replicationFactor
+    ) {
+        return TopicBuilder.name(name).partitions(partitions).replicas(replicationFactor).build();
+    }
+
+    // 💡 응답 전송용 프로듀서. 응답을 하나씩 바로 보내지 않고 linger-ms 동안 파티션별로 모아 batch-size 단위로 압축해서 보낸다.
+    // 배치 리스너가 poll 한 번에 받은 요청의 응답이 한꺼번에 나가므로, 대부분 몇 개의 요청 배치로 묶인다.
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactory(
+            @Value("${kafka.service.producer.batch-size:65536}") int batchSize,
+            @Value("${kafka.service.producer.linger-ms:5}") int lingerMillis,
+            @Value("${kafka.service.producer.compression:lz4}") String compression,
+            @Value("${kafka.service.producer.acks:all}") String acks
+    ) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMillis);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        config.put(ProducerConfig.ACKS_CONFIG, acks);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    // 지나간 요청에 대한 응답은 클라이언트가 이미 포기했으므로, 처음 붙는 그룹은 최신 위치부터 읽는다.
+    @Bean
+    public ConsumerFactory<String, ByteBuffer> consumerFactory(
+            @Value("${kafka.service.consumer.group-id:msa-message-service}") String groupId,
+            @Value("${kafka.service.consumer.max-poll-records:500}") int maxPollRecords
+    ) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // 요청 값은 복사하지 않고 레코드 버퍼를 그대로 받아 코덱이 바로 읽는다.
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteBufferDeserializer.class);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    // 💡 배치 리스너: poll 한 번에 받은 레코드(최대 max-poll-records)를 List 로 한꺼번에 넘긴다.
+    // concurrency 만큼 컨슈머 스레드를 띄우고, 요청 토픽의 파티션을 나눠 가진다. 오프셋은 배치 처리가 끝난 뒤 커밋된다.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ByteBuffer> kafkaListenerContainerFactory(
+            ConsumerFactory<String, ByteBuffer> consumerFactory,
+            @Value("${kafka.service.consumer.concurrency:3}") int concurrency
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, ByteBuffer> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    // 메시지 단위 로그 설정 (FULL | SAMPLED | SUMMARY)
+    @Bean
+    public MessageLogSettings messageLogSettings(
+            @Value("${message-log.mode:SAMPLED}") MessageLogMode mode,
+            @Value("${message-log.samples-per-second:10}") int samplesPerSecond,
+            @Value("${message-log.summary-interval-seconds:10}") long summaryIntervalSeconds
+    ) {
+        return new MessageLogSettings(mode, samplesPerSecond, summaryIntervalSeconds);
+    }
+
+    // 💡 Idempotency-Key 레코드 헤더가 붙은 요청의 응답 캐시. 재전송된 요청에 같은 응답을 돌려준다.
+    @Bean
+    public IdempotencyCache<MessageResponseGrpc> requestResponseCache(
+            @Value("${kafka.service.idempotency.ttl-seconds:300}") long ttlSeconds,
+            @Value("${kafka.service.idempotency.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        return new IdempotencyCache<>("kafka-requests", Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry);
+    }
+}
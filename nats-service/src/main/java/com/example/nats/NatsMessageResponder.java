@@ -0,0 +1,123 @@
+package com.example.nats;
+
+import com.example.codec.MessageCodecs;
+import com.example.codec.CodecException;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import com.example.nats.engine.NatsMessage;
+import com.example.nats.engine.SubjectBus;
+import com.example.nats.engine.Subscription;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 요청 subject(msa.message.requests)의 MessageRequestGrpc 를 처리한다.
+ *
+ * 같은 큐 그룹으로 concurrency 개를 구독한다. 요청마다 그룹 안의 구독 하나만 받으므로 구독 수만큼 나눠서 병렬로 처리된다.
+ * - replyTo 가 있는 메시지(요청-응답): MessageResponseGrpc 를 replyTo 로 발행한다.
+ * - replyTo 가 없는 메시지(발행만): 처리만 하고 응답하지 않는다.
+ */
+@Component
+public class NatsMessageResponder {
+
+    private static final Logger log = LoggerFactory.getLogger(NatsMessageResponder.class);
+
+    private static final List<String> STATUSES = List.of("OK", "INVALID");
+    private static final int STATUS_OK = 0;
+    private static final int STATUS_INVALID = 1;
+
+    private final SubjectBus bus;
+    private final IdempotencyCache<MessageResponseGrpc> responseCache;
+    private final CallMetrics requestMetrics;
+    private final CallMetrics publishMetrics;
+    private final MessageLogger messageLog;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    public NatsMessageResponder(
+            SubjectBus bus,
+            IdempotencyCache<MessageResponseGrpc> natsResponseCache,
+            MessageLogSettings messageLogSettings,
+            MeterRegistry meterRegistry,
+            @Value("${nats.service.request-subject:msa.message.requests}") String requestSubject,
+            @Value("${nats.service.queue-group:message-service}") String queueGroup,
+            @Value("${nats.service.concurrency:4}") int concurrency
+    ) {
+        this.bus = bus;
+        this.responseCache = natsResponseCache;
+        CallMetricsRegistry metrics = new CallMetricsRegistry(meterRegistry, "nats", "server", STATUSES);
+        this.requestMetrics = metrics.forMethod("Request");
+        this.publishMetrics = metrics.forMethod("Publish");
+        this.messageLog = new MessageLogger(log, "[NATS Service]", messageLogSettings);
+        for (int i = 0; i < concurrency; i++) {
+            subscriptions.add(bus.subscribe(requestSubject, queueGroup, this::onMessage));
+        }
+        log.info("[NATS Service] 구독 시작: {} (queue={}, concurrency={})", requestSubject, queueGroup, concurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::close);
+    }
+
+    private void onMessage(NatsMessage message) {
+        boolean expectsReply = message.replyTo() != null;
+        CallMetrics metrics = expectsReply ? requestMetrics : publishMetrics;
+        long startTime = metrics.start();
+        metrics.bytesIn(message.data().length);
+
+        MessageRequestGrpc request;
+        try {
+            request = MessageCodecs.REQUEST_PROTOBUF.decode(ByteBuffer.wrap(message.data()));
+        } catch (CodecException e) {
+            log.warn("[NATS Service] 읽을 수 없는 메시지 버림: {}", e.getMessage());
+            metrics.finish(startTime, STATUS_INVALID, 1, 0);
+            return;
+        }
+        // 수신 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[NATS Service] 메시지 수신: {} (replyTo={})", request.getContent(), message.replyTo());
+        }
+        String idempotencyKey = message.header(IdempotencyKeys.HTTP_HEADER);
+        MessageResponseGrpc response = idempotencyKey == null
+                ? process(request)
+                : responseCache.get(idempotencyKey, () -> CompletableFuture.completedFuture(process(request))).join();
+
+        if (!expectsReply) {
+            metrics.finish(startTime, STATUS_OK, 1, 0);
+            return;
+        }
+        byte[] body = MessageCodecs.RESPONSE_PROTOBUF.encodeToArray(response);
+        metrics.bytesOut(body.length);
+        bus.publish(new NatsMessage(message.replyTo(), body));
+        metrics.finish(startTime, STATUS_OK, 1, 1);
+        if (logged) {
+            log.info("[NATS Service] 응답 전송: {}", response.getReply());
+        }
+    }
+
+    private MessageResponseGrpc process(MessageRequestGrpc request) {
+        if (request.getContent().isEmpty()) {
+            log.warn("[NATS Service] 유효하지 않은 요청: content가 비어있음.");
+            return MessageResponseGrpc.newBuilder().setReply("Error: Content cannot be empty.").build();
+        }
+        return MessageResponseGrpc.newBuilder()
+                .setReply("NATS Response: " + request.getContent().toUpperCase())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.nats.config;
+
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.nats.engine.SubjectBus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 프로세스 내 NATS 엔진 설정. nats-service 는 단독 서버가 아니라 client 애플리케이션 안에서 함께 뜬다.
+ * (client 의 컴포넌트 스캔이 com.example 전체를 보므로 이 설정과 NatsMessageResponder 가 함께 등록된다)
+ * MessageLogSettings, MeterRegistry 는 올리는 애플리케이션의 빈을 쓴다.
+ */
+@Configuration
+public class NatsEngineConfig {
+
+    // 💡 dispatch-threads: 구독 handler 를 실행하는 스레드 수 (0 이면 CPU 코어 수)
+    // pending-limit: 구독 하나가 쌓아둘 수 있는 최대 메시지 수. 넘으면 버리고 msa_nats_dropped_messages_total 이 오른다.
+    // match-cache-size: subject 별 match 결과 캐시 크기. 발행 subject 종류가 이보다 많으면 캐시가 계속 갈린다.
+    @Bean(destroyMethod = "close")
+    public SubjectBus subjectBus(
+            @Value("${nats.engine.dispatch-threads:0}") int dispatchThreads,
+            @Value("${nats.engine.pending-limit:65536}") int pendingLimit,
+            @Value("${nats.engine.match-cache-size:4096}") int matchCacheSize,
+            MeterRegistry meterRegistry
+    ) {
+        int threads = dispatchThreads > 0 ? dispatchThreads : Runtime.getRuntime().availableProcessors();
+        SubjectBus bus = new SubjectBus(threads, pendingLimit, matchCacheSize);
+        Gauge.builder("msa.nats.subscriptions", bus, SubjectBus::subscriptions)
+                .description("버스에 등록된 구독 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("msa.nats.dropped.messages", bus, SubjectBus::droppedMessages)
+                .description("대기열이 가득 차서 버린 메시지 수 (slow consumer)")
+                .register(meterRegistry);
+        return bus;
+    }
+
+    // 💡 Idempotency-Key 헤더가 붙은 요청의 응답 캐시. 재전송된 요청에 같은 응답을 돌려준다.
+    @Bean
+    public IdempotencyCache<MessageResponseGrpc> natsResponseCache(
+            @Value("${nats.service.idempotency.ttl-seconds:300}") long ttlSeconds,
+            @Value("${nats.service.idempotency.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        return new IdempotencyCache<>("nats-requests", Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry);
+    }
+}
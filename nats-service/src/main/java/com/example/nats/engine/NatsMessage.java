@@ -0,0 +1,22 @@
+package com.example.nats.engine;
+
+import java.util.Map;
+
+/**
+ * 버스를 지나는 메시지 하나. replyTo 가 있으면 요청이고, 응답은 replyTo subject 로 발행한다.
+ * headers 는 NATS 2.2 의 메시지 헤더에 해당한다. (Idempotency-Key 등)
+ */
+public record NatsMessage(String subject, String replyTo, Map<String, String> headers, byte[] data) {
+
+    public NatsMessage {
+        headers = headers == null ? Map.of() : headers;
+    }
+
+    public NatsMessage(String subject, byte[] data) {
+        this(subject, null, Map.of(), data);
+    }
+
+    public String header(String name) {
+        return headers.get(name);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.nats.engine;
+
+/**
+ * 요청 subject 를 구독하는 곳이 없어서 응답을 받을 수 없는 경우. (NATS 의 no responders)
+ * 타임아웃까지 기다리지 않고 바로 실패시킨다.
+ */
+public class NoRespondersException extends RuntimeException {
+
+    public NoRespondersException(String subject) {
+        super("no responders: " + subject);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.nats.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * NATS 방식의 프로세스 내 메시지 버스. 외부 서버 없이 같은 JVM 안에서 subject 로 메시지를 라우팅한다.
+ *
+ * - publish / subscribe: 발행 subject 에 일치하는 구독(와일드카드 포함)이 모두 받는다.
+ * - 큐 그룹: 같은 큐 그룹의 구독 중 하나만 받는다. (무작위 선택으로 부하 분산)
+ * - request: 응답용 inbox subject 를 replyTo 로 붙여 보내고 첫 응답으로 future 를 완료한다.
+ *
+ * 💡 응답 inbox(_INBOX.<버스 ID>.<번호>)는 요청마다 새로 만들어지므로 trie 와 match 캐시를 거치지 않고
+ * 기다리는 future 로 바로 전달한다. 요청마다 구독을 추가/삭제하면 match 캐시가 계속 무효화된다.
+ */
+public final class SubjectBus implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SubjectBus.class);
+
+    public static final String INBOX_PREFIX = "_INBOX.";
+
+    private final SubjectTrie trie;
+    private final ForkJoinPool dispatcher;
+    private final int pendingLimit;
+
+    private final String inboxPrefix = INBOX_PREFIX + UUID.randomUUID().toString().replace("-", "") + ".";
+    private final AtomicLong nextInbox = new AtomicLong();
+    private final Map<String, CompletableFuture<NatsMessage>> responses = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param dispatchThreads 구독 handler 를 실행하는 스레드 수
+     * @param pendingLimit    구독 하나가 쌓아둘 수 있는 최대 메시지 수. 넘으면 버린다.
+     * @param matchCacheSize  subject 별 match 결과 캐시 크기. 0 이면 캐시하지 않는다.
+     */
+    public SubjectBus(int dispatchThreads, int pendingLimit, int matchCacheSize) {
+        if (dispatchThreads < 1 || pendingLimit < 1) {
+            throw new IllegalArgumentException("dispatch-threads and pending-limit must be >= 1: "
+                    + dispatchThreads + ", " + pendingLimit);
+        }
+        this.trie = new SubjectTrie(matchCacheSize);
+        this.pendingLimit = pendingLimit;
+        // asyncMode=true: 작업을 FIFO 로 꺼낸다. 구독 대기열을 비우는 짧은 작업이 많을 때 알맞다.
+        this.dispatcher = new ForkJoinPool(dispatchThreads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("nats-dispatch-" + thread.getPoolIndex());
+            return thread;
+        }, null, true);
+    }
+
+    public Subscription subscribe(String subject, Consumer<NatsMessage> handler) {
+        return subscribe(subject, null, handler);
+    }
+
+    // queueGroup 이 null 이면 일반 구독
+    public Subscription subscribe(String subject, String queueGroup, Consumer<NatsMessage> handler) {
+        if (subject.startsWith(inboxPrefix)) {
+            throw new IllegalArgumentException("inbox subjects are reserved for request replies: " + subject);
+        }
+        if (queueGroup != null && queueGroup.isEmpty()) {
+            throw new IllegalArgumentException("queue group must not be empty");
+        }
+        Subscription subscription = new Subscription(this, subject, queueGroup, handler, dispatcher, pendingLimit);
+        trie.insert(subscription);
+        return subscription;
+    }
+
+    void unsubscribe(Subscription subscription) {
+        trie.remove(subscription);
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    public int publish(String subject, byte[] data) {
+        return publish(new NatsMessage(subject, data));
+    }
+
+    /**
+     * 메시지를 일치하는 구독에 넘기고, 메시지를 받은 구독 수를 돌려준다.
+     * 큐 그룹은 그룹마다 하나로 센다. 대기열이 가득 찬 구독이 버린 메시지는 세지 않는다.
+     */
+    public int publish(NatsMessage message) {
+        String subject = message.subject();
+        if (subject.startsWith(inboxPrefix)) {
+            CompletableFuture<NatsMessage> response = responses.remove(subject);
+            return response != null && response.complete(message) ? 1 : 0;
+        }
+        SubjectMatch match = trie.match(subject);
+        int delivered = 0;
+        for (Subscription subscription : match.subscribers()) {
+            if (subscription.deliver(message)) {
+                delivered++;
+            }
+        }
+        for (Subscription[] group : match.queueGroups()) {
+            Subscription member = group.length == 1 ? group[0] : group[ThreadLocalRandom.current().nextInt(group.length)];
+            if (member.deliver(message)) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * 요청을 보내고 첫 응답으로 완료되는 future 를 돌려준다.
+     * 받는 구독이 없으면 NoRespondersException, timeout 안에 응답이 없으면 TimeoutException 으로 실패한다.
+     */
+    public CompletableFuture<NatsMessage> request(String subject, Map<String, String> headers, byte[] data, Duration timeout) {
+        String inbox = inboxPrefix + Long.toString(nextInbox.incrementAndGet(), Character.MAX_RADIX);
+        CompletableFuture<NatsMessage> response = new CompletableFuture<>();
+        responses.put(inbox, response);
+        int delivered;
+        try {
+            delivered = publish(new NatsMessage(subject, inbox, headers, data));
+        } catch (RuntimeException e) {
+            responses.remove(inbox);
+            return CompletableFuture.failedFuture(e);
+        }
+        if (delivered == 0) {
+            responses.remove(inbox);
+            return CompletableFuture.failedFuture(new NoRespondersException(subject));
+        }
+        // 타임아웃이나 취소로 끝나면 더 이상 응답을 기다리지 않는다.
+        return response.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((reply, error) -> {
+                    if (error != null) {
+                        responses.remove(inbox, response);
+                    }
+                });
+    }
+
+    // 발행하지 않고 subject 에 일치하는 구독만 찾는다.
+    public SubjectMatch match(String subject) {
+        return trie.match(subject);
+    }
+
+    public int subscriptions() {
+        return trie.count();
+    }
+
+    // 대기열이 가득 차서 구독들이 버린 메시지 수 (누적)
+    public long droppedMessages() {
+        return dropped.sum();
+    }
+
+    public int pendingRequests() {
+        return responses.size();
+    }
+
+    @Override
+    public void close() {
+        dispatcher.shutdownNow();
+        IllegalStateException closed = new IllegalStateException("bus closed");
+        responses.values().forEach(response -> response.completeExceptionally(closed));
+        responses.clear();
+        log.info("[NATS Engine] 버스 종료. (구독 {}개)", trie.count());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.nats.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * subject 하나에 일치하는 구독들. 발행할 때마다 다시 나누지 않도록 큐 그룹별로 미리 나눠 둔다.
+ *
+ * - subscribers: 큐 그룹이 없는 구독. 모두 메시지를 받는다.
+ * - queueGroups: 큐 그룹별 구독 배열. 그룹마다 하나만 메시지를 받는다.
+ */
+public final class SubjectMatch {
+
+    static final SubjectMatch EMPTY = new SubjectMatch(new Subscription[0], new Subscription[0][]);
+
+    private final Subscription[] subscribers;
+    private final Subscription[][] queueGroups;
+
+    private SubjectMatch(Subscription[] subscribers, Subscription[][] queueGroups) {
+        this.subscribers = subscribers;
+        this.queueGroups = queueGroups;
+    }
+
+    static SubjectMatch of(List<Subscription> matched) {
+        if (matched.isEmpty()) {
+            return EMPTY;
+        }
+        List<Subscription> subscribers = new ArrayList<>(matched.size());
+        Map<String, List<Subscription>> groups = new LinkedHashMap<>();
+        for (Subscription subscription : matched) {
+            if (subscription.queueGroup() == null) {
+                subscribers.add(subscription);
+            } else {
+                groups.computeIfAbsent(subscription.queueGroup(), group -> new ArrayList<>()).add(subscription);
+            }
+        }
+        Subscription[][] queueGroups = new Subscription[groups.size()][];
+        int i = 0;
+        for (List<Subscription> members : groups.values()) {
+            queueGroups[i++] = members.toArray(new Subscription[0]);
+        }
+        return new SubjectMatch(subscribers.toArray(new Subscription[0]), queueGroups);
+    }
+
+    public Subscription[] subscribers() {
+        return subscribers;
+    }
+
+    public Subscription[][] queueGroups() {
+        return queueGroups;
+    }
+
+    public boolean isEmpty() {
+        return subscribers.length == 0 && queueGroups.length == 0;
+    }
+
+    // 이 subject 로 발행하면 메시지를 받는 구독 수 (큐 그룹은 그룹마다 하나)
+    public int fanOut() {
+        return subscribers.length + queueGroups.length;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.nats.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 구독 subject 를 토큰 단위로 저장하는 trie. 발행 subject 에 일치하는 구독을 찾는다.
+ *
+ * 💡 읽기(match)는 잠금 없이 동작한다.
+ * - 자식 노드는 ConcurrentHashMap, 구독 목록은 volatile 배열(copy-on-write)이라 읽는 쪽은 잠그지 않고 따라간다.
+ * - 구독 추가/삭제는 writeLock 으로 직렬화한다. 구독 변경은 발행보다 훨씬 드물다.
+ *
+ * 💡 match 결과는 subject 별로 캐시한다. (NATS 서버의 sublist 캐시)
+ * 구독이 바뀔 때마다 generation 을 올리고, 캐시 항목은 만들 때의 generation 과 같을 때만 쓴다.
+ * match 는 trie 를 읽기 "전에" generation 을 읽으므로, 읽는 도중 구독이 바뀌었다면 그 결과는 이미 낡은 generation 으로 저장된다.
+ * 캐시가 cacheSize 를 넘으면 일부를 지운다. cacheSize=0 이면 캐시하지 않는다.
+ */
+public final class SubjectTrie {
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private final Node root = new Node();
+    private final Object writeLock = new Object();
+    private volatile long generation;
+    private volatile int count;
+
+    private final int cacheSize;
+    private final Map<String, CachedMatch> cache = new ConcurrentHashMap<>();
+
+    public SubjectTrie(int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("match cache size must be >= 0: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    public void insert(Subscription subscription) {
+        String[] tokens = Subjects.subscriptionTokens(subscription.subject());
+        synchronized (writeLock) {
+            Node node = root;
+            for (String token : tokens) {
+                node = node.childForInsert(token);
+            }
+            Subscription[] current = node.subscriptions;
+            Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscription;
+            node.subscriptions = updated;
+            count++;
+            generation++;
+        }
+    }
+
+    public boolean remove(Subscription subscription) {
+        String[] tokens = Subjects.subscriptionTokens(subscription.subject());
+        synchronized (writeLock) {
+            Node[] path = new Node[tokens.length + 1];
+            path[0] = root;
+            for (int i = 0; i < tokens.length; i++) {
+                path[i + 1] = path[i].child(tokens[i]);
+                if (path[i + 1] == null) {
+                    return false;
+                }
+            }
+            Node node = path[tokens.length];
+            Subscription[] current = node.subscriptions;
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscription) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return false;
+            }
+            Subscription[] updated = current.length == 1 ? NO_SUBSCRIPTIONS : new Subscription[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            node.subscriptions = updated;
+            // 비어 버린 노드를 아래에서부터 떼어낸다.
+            for (int i = tokens.length; i > 0 && path[i].isEmpty(); i--) {
+                path[i - 1].removeChild(tokens[i - 1]);
+            }
+            count--;
+            generation++;
+            return true;
+        }
+    }
+
+    public SubjectMatch match(String subject) {
+        long currentGeneration = generation;
+        if (cacheSize > 0) {
+            CachedMatch cached = cache.get(subject);
+            if (cached != null && cached.generation == currentGeneration) {
+                return cached.match;
+            }
+        }
+        String[] tokens = Subjects.publishTokens(subject);
+        List<Subscription> matched = new ArrayList<>();
+        collect(root, tokens, 0, matched);
+        SubjectMatch match = SubjectMatch.of(matched);
+        if (cacheSize > 0) {
+            if (cache.size() >= cacheSize) {
+                sweepCache();
+            }
+            cache.put(subject, new CachedMatch(currentGeneration, match));
+        }
+        return match;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int cachedSubjects() {
+        return cache.size();
+    }
+
+    // 구독이 모두 빠지면 비어 버린 노드도 모두 떼어내므로 root 에 남는 자식이 없다.
+    boolean isEmpty() {
+        return root.isEmpty();
+    }
+
+    private static void collect(Node node, String[] tokens, int level, List<Subscription> matched) {
+        if (level == tokens.length) {
+            Collections.addAll(matched, node.subscriptions);
+            return;
+        }
+        // '>' 는 남은 토큰이 하나 이상이면 일치한다.
+        Node tail = node.tail;
+        if (tail != null) {
+            Collections.addAll(matched, tail.subscriptions);
+        }
+        Node star = node.star;
+        if (star != null) {
+            collect(star, tokens, level + 1, matched);
+        }
+        Node literal = node.children.get(tokens[level]);
+        if (literal != null) {
+            collect(literal, tokens, level + 1, matched);
+        }
+    }
+
+    // 캐시를 cacheSize 의 3/4 까지 줄인다. 순서 없이 앞에서부터 지우므로 사실상 무작위로 지워진다.
+    private void sweepCache() {
+        int target = cacheSize * 3 / 4;
+        Iterator<String> subjects = cache.keySet().iterator();
+        while (cache.size() > target && subjects.hasNext()) {
+            subjects.next();
+            subjects.remove();
+        }
+    }
+
+    private record CachedMatch(long generation, SubjectMatch match) {
+    }
+
+    // 토큰 하나에 해당하는 노드. '*', '>' 자식은 리터럴 토큰과 따로 둔다.
+    private static final class Node {
+        final Map<String, Node> children = new ConcurrentHashMap<>();
+        volatile Node star;
+        volatile Node tail;
+        volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+
+        Node child(String token) {
+            if (token.equals(Subjects.SINGLE_WILDCARD)) {
+                return star;
+            }
+            if (token.equals(Subjects.TAIL_WILDCARD)) {
+                return tail;
+            }
+            return children.get(token);
+        }
+
+        Node childForInsert(String token) {
+            Node child = child(token);
+            if (child != null) {
+                return child;
+            }
+            child = new Node();
+            if (token.equals(Subjects.SINGLE_WILDCARD)) {
+                star = child;
+            } else if (token.equals(Subjects.TAIL_WILDCARD)) {
+                tail = child;
+            } else {
+                children.put(token, child);
+            }
+            return child;
+        }
+
+        void removeChild(String token) {
+            if (token.equals(Subjects.SINGLE_WILDCARD)) {
+                star = null;
+            } else if (token.equals(Subjects.TAIL_WILDCARD)) {
+                tail = null;
+            } else {
+                children.remove(token);
+            }
+        }
+
+        boolean isEmpty() {
+            return subscriptions.length == 0 && children.isEmpty() && star == null && tail == null;
+        }
+    }
+}
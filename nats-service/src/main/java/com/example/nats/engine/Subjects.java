@@ -0,0 +1,65 @@
+package com.example.nats.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * subject 문법. 토큰을 '.' 으로 구분하고, 구독 subject 에만 와일드카드를 쓸 수 있다.
+ *
+ * - '*': 토큰 하나와 일치한다. (orders.*.created -> orders.kr.created)
+ * - '>': 남은 토큰 하나 이상과 일치하며 마지막 토큰에만 올 수 있다. (orders.> -> orders.kr, orders.kr.created)
+ */
+final class Subjects {
+
+    static final String SINGLE_WILDCARD = "*";
+    static final String TAIL_WILDCARD = ">";
+
+    private Subjects() {
+    }
+
+    // 구독 subject. 와일드카드 허용
+    static String[] subscriptionTokens(String subject) {
+        return tokenize(subject, true);
+    }
+
+    // 발행 subject. 와일드카드를 쓸 수 없다.
+    static String[] publishTokens(String subject) {
+        return tokenize(subject, false);
+    }
+
+    private static String[] tokenize(String subject, boolean wildcards) {
+        if (subject == null || subject.isEmpty()) {
+            throw new IllegalArgumentException("subject must not be empty");
+        }
+        List<String> tokens = new ArrayList<>(8);
+        int start = 0;
+        for (int i = 0; i <= subject.length(); i++) {
+            if (i < subject.length()) {
+                char c = subject.charAt(i);
+                if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                    throw new IllegalArgumentException("subject must not contain whitespace: " + subject);
+                }
+                if (c != '.') {
+                    continue;
+                }
+            }
+            if (i == start) {
+                throw new IllegalArgumentException("subject has an empty token: " + subject);
+            }
+            String token = subject.substring(start, i);
+            boolean wildcard = token.equals(SINGLE_WILDCARD) || token.equals(TAIL_WILDCARD);
+            if (!wildcard && (token.indexOf('*') >= 0 || token.indexOf('>') >= 0)) {
+                throw new IllegalArgumentException("wildcards must be whole tokens: " + subject);
+            }
+            if (wildcard && !wildcards) {
+                throw new IllegalArgumentException("wildcards are not allowed when publishing: " + subject);
+            }
+            if (token.equals(TAIL_WILDCARD) && i != subject.length()) {
+                throw new IllegalArgumentException("'>' must be the last token: " + subject);
+            }
+            tokens.add(token);
+            start = i + 1;
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
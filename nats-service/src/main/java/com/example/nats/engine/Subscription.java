@@ -0,0 +1,130 @@
+package com.example.nats.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 구독 하나. 메시지는 구독마다 순서대로, 한 번에 하나씩 handler 에 전달된다.
+ *
+ * 발행하는 스레드는 메시지를 구독의 대기열에 넣기만 하고, 대기열은 디스패치 스레드가 비운다.
+ * 대기열이 pendingLimit 개를 넘으면 새 메시지를 버린다. (NATS 의 slow consumer)
+ * 느린 구독 하나 때문에 발행하는 쪽이나 다른 구독이 밀리지 않게 하기 위해서다.
+ */
+public final class Subscription implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Subscription.class);
+
+    // 디스패치 스레드 하나가 구독 하나를 연속으로 처리하는 최대 메시지 수. 다른 구독도 차례가 오도록 나눈다.
+    private static final int DRAIN_BATCH = 256;
+
+    private final SubjectBus bus;
+    private final String subject;
+    private final String queueGroup;
+    private final Consumer<NatsMessage> handler;
+    private final Executor dispatcher;
+    private final int pendingLimit;
+
+    private final Queue<NatsMessage> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean slowConsumerReported = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    Subscription(SubjectBus bus, String subject, String queueGroup, Consumer<NatsMessage> handler, Executor dispatcher,
+                 int pendingLimit) {
+        this.bus = bus;
+        this.subject = subject;
+        this.queueGroup = queueGroup;
+        this.handler = handler;
+        this.dispatcher = dispatcher;
+        this.pendingLimit = pendingLimit;
+    }
+
+    public String subject() {
+        return subject;
+    }
+
+    // null 이면 큐 그룹 없음
+    public String queueGroup() {
+        return queueGroup;
+    }
+
+    public int pending() {
+        return pendingCount.get();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // 대기열에 넣었으면 true. 닫혔거나 대기열이 가득 차서 버렸으면 false
+    boolean deliver(NatsMessage message) {
+        if (closed) {
+            return false;
+        }
+        if (pendingCount.incrementAndGet() > pendingLimit) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            bus.recordDropped();
+            if (slowConsumerReported.compareAndSet(false, true)) {
+                log.warn("[NATS Engine] slow consumer: {} (queue={}) 대기 메시지가 {}개를 넘어 버리기 시작함.",
+                        subject, queueGroup, pendingLimit);
+            }
+            return false;
+        }
+        pending.add(message);
+        schedule();
+        return true;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 버스가 닫히는 중
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        NatsMessage message;
+        int drained = 0;
+        while (drained < DRAIN_BATCH && !closed && (message = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            drained++;
+            try {
+                handler.accept(message);
+            } catch (RuntimeException e) {
+                log.error("[NATS Engine] 구독 처리 중 오류: {}", subject, e);
+            }
+        }
+        scheduled.set(false);
+        // 실행을 마치는 사이에 들어온 메시지가 있으면 다시 예약한다.
+        if (!closed && !pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    // 구독을 해제한다. 아직 전달되지 않은 메시지는 버린다.
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            bus.unsubscribe(this);
+            pending.clear();
+            pendingCount.set(0);
+        }
+    }
+}
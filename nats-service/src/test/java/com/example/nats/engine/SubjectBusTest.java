@@ -0,0 +1,189 @@
+package com.example.nats.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SubjectBus 의 발행/구독, 큐 그룹, request 응답. handler 는 디스패치 스레드에서 돌므로 latch / 큐로 기다린다.
+ */
+class SubjectBusTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    private final SubjectBus bus = new SubjectBus(4, 10_000, 64);
+
+    @AfterEach
+    void closeBus() {
+        bus.close();
+    }
+
+    @Test
+    void publishReachesEveryMatchingSubscription() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        bus.subscribe("orders.kr.created", message -> received.add("literal"));
+        bus.subscribe("orders.*.created", message -> received.add("star"));
+        bus.subscribe("orders.>", message -> received.add("tail"));
+        bus.subscribe("payments.>", message -> received.add("other"));
+
+        assertEquals(3, bus.publish("orders.kr.created", bytes("m")));
+
+        List<String> names = List.of(poll(received), poll(received), poll(received));
+        assertTrue(names.containsAll(List.of("literal", "star", "tail")), names.toString());
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void messagesReachEachSubscriptionInOrder() throws Exception {
+        int count = 1_000;
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        bus.subscribe("orders.kr", message -> received.add(text(message)));
+
+        for (int i = 0; i < count; i++) {
+            bus.publish("orders.kr", bytes(Integer.toString(i)));
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.toString(i), poll(received));
+        }
+    }
+
+    @Test
+    void closedSubscriptionNoLongerMatches() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        Subscription subscription = bus.subscribe("orders.*", message -> received.add(text(message)));
+        // match 결과를 캐시해 둔 뒤 구독을 해제한다.
+        assertEquals(1, bus.publish("orders.kr", bytes("before")));
+        assertEquals("before", poll(received));
+
+        subscription.close();
+
+        assertEquals(0, bus.publish("orders.kr", bytes("after")));
+        assertTrue(bus.match("orders.kr").isEmpty());
+        assertEquals(0, bus.subscriptions());
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void queueGroupDeliversEachMessageToOneMember() throws Exception {
+        int count = 3_000;
+        Map<String, AtomicInteger> perMember = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> perMessage = new ConcurrentHashMap<>();
+        CountDownLatch groupDone = new CountDownLatch(count);
+        CountDownLatch plainDone = new CountDownLatch(count);
+        for (int m = 0; m < 3; m++) {
+            String member = "member-" + m;
+            bus.subscribe("jobs.*", "workers", message -> {
+                perMember.computeIfAbsent(member, key -> new AtomicInteger()).incrementAndGet();
+                perMessage.computeIfAbsent(text(message), key -> new AtomicInteger()).incrementAndGet();
+                groupDone.countDown();
+            });
+        }
+        bus.subscribe("jobs.>", message -> plainDone.countDown());
+
+        for (int i = 0; i < count; i++) {
+            // 큐 그룹은 그룹마다 하나로 센다. (그룹 1 + 일반 구독 1)
+            assertEquals(2, bus.publish("jobs.run", bytes(Integer.toString(i))));
+        }
+
+        assertTrue(groupDone.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(plainDone.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(count, perMessage.size());
+        assertTrue(perMessage.values().stream().allMatch(times -> times.get() == 1), "a message reached two members");
+        // 무작위 선택이므로 모든 멤버가 한 번 이상은 받는다.
+        assertEquals(3, perMember.size(), perMember.toString());
+    }
+
+    @Test
+    void requestCompletesWithTheFirstReply() throws Exception {
+        bus.subscribe("echo", message -> bus.publish(message.replyTo(), message.data()));
+
+        NatsMessage reply = bus.request("echo", Map.of(), bytes("hello"), Duration.ofSeconds(WAIT_SECONDS))
+                .get(WAIT_SECONDS, TimeUnit.SECONDS);
+
+        assertArrayEquals(bytes("hello"), reply.data());
+        assertEquals(0, bus.pendingRequests());
+    }
+
+    @Test
+    void requestCarriesHeaders() throws Exception {
+        bus.subscribe("echo", message -> bus.publish(message.replyTo(), bytes(message.header("Idempotency-Key"))));
+
+        NatsMessage reply = bus.request("echo", Map.of("Idempotency-Key", "k-1"), bytes("hello"), Duration.ofSeconds(WAIT_SECONDS))
+                .get(WAIT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals("k-1", text(reply));
+    }
+
+    @Test
+    void requestWithoutSubscribersFailsWithNoResponders() {
+        CompletableFuture<NatsMessage> response = bus.request("nobody.home", Map.of(), bytes("hello"), Duration.ofSeconds(WAIT_SECONDS));
+
+        // 타임아웃까지 기다리지 않고 바로 실패한다.
+        assertTrue(response.isCompletedExceptionally());
+        ExecutionException error = assertThrows(ExecutionException.class, response::get);
+        assertInstanceOf(NoRespondersException.class, error.getCause());
+        assertEquals(0, bus.pendingRequests());
+    }
+
+    @Test
+    void requestWithoutReplyTimesOut() {
+        bus.subscribe("silent", message -> {
+        });
+
+        CompletableFuture<NatsMessage> response = bus.request("silent", Map.of(), bytes("hello"), Duration.ofMillis(50));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> response.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(0, bus.pendingRequests());
+    }
+
+    @Test
+    void inboxSubjectsCannotBeSubscribed() throws Exception {
+        BlockingQueue<String> replyTo = new LinkedBlockingQueue<>();
+        bus.subscribe("silent", message -> replyTo.add(message.replyTo()));
+
+        bus.request("silent", Map.of(), bytes("hello"), Duration.ofSeconds(WAIT_SECONDS));
+        String inbox = poll(replyTo);
+
+        assertTrue(inbox.startsWith(SubjectBus.INBOX_PREFIX), inbox);
+        assertThrows(IllegalArgumentException.class, () -> bus.subscribe(inbox, message -> {
+        }));
+    }
+
+    private static String poll(BlockingQueue<String> queue) throws InterruptedException {
+        String value = queue.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+        if (value == null) {
+            throw new AssertionError("no message within " + WAIT_SECONDS + "s");
+        }
+        return value;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(NatsMessage message) {
+        return new String(message.data(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.nats.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SubjectTrie 의 와일드카드 일치, match 캐시 무효화, 빈 노드 정리.
+ * 구독은 trie 에 넣기만 하므로 버스와 디스패처 없이 만든다.
+ */
+class SubjectTrieTest {
+
+    @Test
+    void singleWildcardMatchesExactlyOneToken() {
+        SubjectTrie trie = new SubjectTrie(0);
+        Subscription star = insert(trie, "orders.*.created", null);
+
+        assertEquals(List.of(star), subscribers(trie.match("orders.kr.created")));
+        assertTrue(trie.match("orders.created").isEmpty());
+        assertTrue(trie.match("orders.kr.us.created").isEmpty());
+        assertTrue(trie.match("orders.kr.deleted").isEmpty());
+    }
+
+    @Test
+    void tailWildcardMatchesOneOrMoreTokens() {
+        SubjectTrie trie = new SubjectTrie(0);
+        Subscription tail = insert(trie, "orders.>", null);
+
+        assertEquals(List.of(tail), subscribers(trie.match("orders.kr")));
+        assertEquals(List.of(tail), subscribers(trie.match("orders.kr.created")));
+        assertTrue(trie.match("orders").isEmpty());
+        assertTrue(trie.match("payments.kr").isEmpty());
+    }
+
+    @Test
+    void literalAndWildcardSubscriptionsAllMatch() {
+        SubjectTrie trie = new SubjectTrie(0);
+        Subscription literal = insert(trie, "orders.kr.created", null);
+        Subscription star = insert(trie, "orders.*.created", null);
+        Subscription tail = insert(trie, "orders.>", null);
+        Subscription grouped = insert(trie, "orders.kr.*", "workers");
+        insert(trie, "orders.us.created", null);
+
+        SubjectMatch match = trie.match("orders.kr.created");
+
+        assertEquals(3, match.subscribers().length);
+        assertTrue(subscribers(match).containsAll(List.of(literal, star, tail)));
+        assertEquals(1, match.queueGroups().length);
+        assertSame(grouped, match.queueGroups()[0][0]);
+        assertEquals(4, match.fanOut());
+    }
+
+    @Test
+    void wildcardsAreRejectedWhenPublishing() {
+        SubjectTrie trie = new SubjectTrie(0);
+
+        assertThrows(IllegalArgumentException.class, () -> trie.match("orders.*"));
+        assertThrows(IllegalArgumentException.class, () -> trie.match("orders.>"));
+        assertThrows(IllegalArgumentException.class, () -> insert(trie, "orders.>.created", null));
+        assertThrows(IllegalArgumentException.class, () -> insert(trie, "orders.kr*", null));
+    }
+
+    @Test
+    void cachedMatchIsReusedUntilSubscriptionsChange() {
+        SubjectTrie trie = new SubjectTrie(16);
+        Subscription first = insert(trie, "orders.kr", null);
+
+        SubjectMatch cached = trie.match("orders.kr");
+        assertSame(cached, trie.match("orders.kr"));
+        assertEquals(1, trie.cachedSubjects());
+
+        // 구독이 추가되면 캐시된 결과를 쓰지 않는다.
+        Subscription second = insert(trie, "orders.*", null);
+        SubjectMatch afterSubscribe = trie.match("orders.kr");
+        assertEquals(2, afterSubscribe.subscribers().length);
+        assertTrue(subscribers(afterSubscribe).containsAll(List.of(first, second)));
+
+        // 구독이 빠져도 마찬가지
+        assertTrue(trie.remove(first));
+        assertEquals(List.of(second), subscribers(trie.match("orders.kr")));
+        assertTrue(trie.remove(second));
+        assertTrue(trie.match("orders.kr").isEmpty());
+    }
+
+    @Test
+    void cacheIsSweptWhenFull() {
+        SubjectTrie trie = new SubjectTrie(4);
+        insert(trie, "orders.>", null);
+
+        for (int i = 0; i < 20; i++) {
+            trie.match("orders." + i);
+            assertTrue(trie.cachedSubjects() <= 4, "cached subjects: " + trie.cachedSubjects());
+        }
+    }
+
+    @Test
+    void removingTheLastSubscriptionPrunesEmptyNodes() {
+        SubjectTrie trie = new SubjectTrie(0);
+        Subscription literal = insert(trie, "orders.kr.created", null);
+        Subscription star = insert(trie, "orders.*.created", null);
+        Subscription tail = insert(trie, "orders.>", null);
+        Subscription shorter = insert(trie, "orders", null);
+
+        assertTrue(trie.remove(literal));
+        assertTrue(trie.remove(star));
+        assertTrue(trie.remove(tail));
+        // "orders" 노드에는 아직 구독이 있으므로 남아 있어야 한다.
+        assertFalse(trie.isEmpty());
+        assertEquals(List.of(shorter), subscribers(trie.match("orders")));
+
+        assertTrue(trie.remove(shorter));
+        assertTrue(trie.isEmpty());
+        assertEquals(0, trie.count());
+    }
+
+    @Test
+    void removingAnUnknownSubscriptionChangesNothing() {
+        SubjectTrie trie = new SubjectTrie(0);
+        Subscription subscription = insert(trie, "orders.kr", null);
+
+        assertFalse(trie.remove(subscription("orders.kr", null)));
+        assertFalse(trie.remove(subscription("orders.kr.created", null)));
+        assertEquals(1, trie.count());
+        assertEquals(List.of(subscription), subscribers(trie.match("orders.kr")));
+    }
+
+    private static Subscription insert(SubjectTrie trie, String subject, String queueGroup) {
+        Subscription subscription = subscription(subject, queueGroup);
+        trie.insert(subscription);
+        return subscription;
+    }
+
+    private static Subscription subscription(String subject, String queueGroup) {
+        return new Subscription(null, subject, queueGroup, message -> {
+        }, Runnable::run, 1);
+    }
+
+    private static List<Subscription> subscribers(SubjectMatch match) {
+        return Arrays.asList(match.subscribers());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.rabbitmq;
+
+import com.example.codec.MessageCodecs;
+import com.example.codec.CodecException;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 요청 큐(msa.message.requests)의 MessageRequestGrpc 를 처리한다.
+ *
+ * - replyTo 가 있는 메시지(요청-응답): MessageResponseGrpc 를 반환하면 Spring 이 replyTo 로 보내고 correlationId 를 붙인다.
+ *   direct reply-to(amq.rabbitmq.reply-to) 와 클라이언트 임시 큐 모두 같은 경로로 응답한다.
+ * - replyTo 가 없는 메시지(작업 큐): 처리만 하고 응답하지 않는다.
+ */
+@Component
+public class RabbitMessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RabbitMessageListener.class);
+
+    private static final List<String> STATUSES = List.of("OK", "INVALID");
+    private static final int STATUS_OK = 0;
+    private static final int STATUS_INVALID = 1;
+
+    private final IdempotencyCache<MessageResponseGrpc> responseCache;
+    private final CallMetrics requestMetrics;
+    private final CallMetrics workItemMetrics;
+    private final MessageLogger messageLog;
+
+    public RabbitMessageListener(IdempotencyCache<MessageResponseGrpc> requestResponseCache,
+                                 MessageLogSettings messageLogSettings, MeterRegistry meterRegistry) {
+        this.responseCache = requestResponseCache;
+        CallMetricsRegistry metrics = new CallMetricsRegistry(meterRegistry, "amqp", "server", STATUSES);
+        this.requestMetrics = metrics.forMethod("Request");
+        this.workItemMetrics = metrics.forMethod("WorkItem");
+        this.messageLog = new MessageLogger(log, "[RabbitMQ Service]", messageLogSettings);
+    }
+
+    // null 을 반환하면 응답을 보내지 않는다.
+    @RabbitListener(id = "message-requests", queues = "${rabbit.service.request-queue:msa.message.requests}")
+    public Message onMessage(Message message) {
+        boolean expectsReply = message.getMessageProperties().getReplyTo() != null;
+        CallMetrics metrics = expectsReply ? requestMetrics : workItemMetrics;
+        long startTime = metrics.start();
+        metrics.bytesIn(message.getBody().length);
+
+        MessageRequestGrpc request;
+        try {
+            request = MessageCodecs.REQUEST_PROTOBUF.decode(ByteBuffer.wrap(message.getBody()));
+        } catch (CodecException e) {
+            log.warn("[RabbitMQ Service] 읽을 수 없는 메시지 버림: {}", e.getMessage());
+            metrics.finish(startTime, STATUS_INVALID, 1, 0);
+            return null;
+        }
+        // 수신 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[RabbitMQ Service] 메시지 수신: {} (replyTo={})", request.getContent(), message.getMessageProperties().getReplyTo());
+        }
+        String idempotencyKey = message.getMessageProperties().getHeader(IdempotencyKeys.HTTP_HEADER);
+        MessageResponseGrpc response = idempotencyKey == null
+                ? process(request)
+                : responseCache.get(idempotencyKey, () -> CompletableFuture.completedFuture(process(request))).join();
+
+        if (!expectsReply) {
+            metrics.finish(startTime, STATUS_OK, 1, 0);
+            return null;
+        }
+        byte[] body = MessageCodecs.RESPONSE_PROTOBUF.encodeToArray(response);
+        metrics.bytesOut(body.length);
+        metrics.finish(startTime, STATUS_OK, 1, 1);
+        if (logged) {
+            log.info("[RabbitMQ Service] 응답 전송: {}", response.getReply());
+        }
+        return MessageBuilder.withBody(body)
+                .setContentType(MessageCodecs.RESPONSE_PROTOBUF.contentType())
+                .setDeliveryMode(MessageDeliveryMode.NON_PERSISTENT)
+                .build();
+    }
+
+    private MessageResponseGrpc process(MessageRequestGrpc request) {
+        if (request.getContent().isEmpty()) {
+            log.warn("[RabbitMQ Service] 유효하지 않은 요청: content가 비어있음.");
+            return MessageResponseGrpc.newBuilder().setReply("Error: Content cannot be empty.").build();
+        }
+        return MessageResponseGrpc.newBuilder()
+                .setReply("RabbitMQ Response: " + request.getContent().toUpperCase())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.rabbitmq;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class RabbitMqServiceApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(RabbitMqServiceApplication.class, args);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.rabbitmq.config;
+
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * RabbitMQ 작업 큐 설정. Spring Boot 의 spring.rabbitmq.* 자동 설정 대신 rabbit.service.* 값으로 직접 만든다.
+ * (ConnectionFactory / rabbitListenerContainerFactory 빈이 있으면 자동 설정은 물러나고, RabbitAdmin 은 이 연결로 큐를 선언한다)
+ */
+@Configuration
+public class RabbitServerConfig {
+
+    @Bean
+    public ConnectionFactory connectionFactory(
+            @Value("${rabbit.service.host:localhost}") String host,
+            @Value("${rabbit.service.port:5672}") int port,
+            @Value("${rabbit.service.username:guest}") String username,
+            @Value("${rabbit.service.password:guest}") String password
+    ) {
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory(host, port);
+        connectionFactory.setUsername(username);
+        connectionFactory.setPassword(password);
+        return connectionFactory;
+    }
+
+    @Bean
+    public Queue requestQueue(@Value("${rabbit.service.request-queue:msa.message.requests}") String name) {
+        return QueueBuilder.durable(name).build();
+    }
+
+    // 💡 prefetch: 컨슈머 하나가 ack 하지 않고 미리 받아둘 수 있는 메시지 수.
+    // 1 이면 메시지마다 ack 왕복을 기다려야 해서 브로커와 컨슈머가 번갈아 논다. 크게 잡으면 처리량이 오르지만,
+    // 느린 컨슈머에 메시지가 쌓여 다른 컨슈머가 놀 수 있다.
+    // concurrency 만큼 컨슈머(채널)를 띄우고 큐의 메시지를 번갈아 나눠 받는다. ack 는 리스너가 정상 반환한 뒤에 보낸다.
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${rabbit.service.consumer.prefetch:250}") int prefetch,
+            @Value("${rabbit.service.consumer.concurrency:4}") int concurrency
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(concurrency);
+        // 처리할 수 없는 메시지를 다시 큐에 넣으면 같은 메시지가 무한히 돌아오므로 버린다.
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    // 메시지 단위 로그 설정 (FULL | SAMPLED | SUMMARY)
+    @Bean
+    public MessageLogSettings messageLogSettings(
+            @Value("${message-log.mode:SAMPLED}") MessageLogMode mode,
+            @Value("${message-log.samples-per-second:10}") int samplesPerSecond,
+            @Value("${message-log.summary-interval-seconds:10}") long summaryIntervalSeconds
+    ) {
+        return new MessageLogSettings(mode, samplesPerSecond, summaryIntervalSeconds);
+    }
+
+    // 💡 Idempotency-Key 메시지 헤더가 붙은 요청의 응답 캐시. 재전송된 요청에 같은 응답을 돌려준다.
+    @Bean
+    public IdempotencyCache<MessageResponseGrpc> requestResponseCache(
+            @Value("${rabbit.service.idempotency.ttl-seconds:300}") long ttlSeconds,
+            @Value("${rabbit.service.idempotency.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        return new IdempotencyCache<>("amqp-requests", Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.rest.codec;
+
+import com.example.codec.BufferOutput;
+import com.example.codec.BufferPool;
+import com.example.codec.CodecException;
+import com.example.codec.MessageCodec;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * common 의 MessageCodec 으로 type 하나를 읽고 쓰는 HttpMessageConverter. Content-Type 은 codec.contentType() 이다.
+ *
+ * 💡 요청 본문은 BufferPool 버퍼에 읽어 그 자리에서 디코딩하고, 응답도 풀 버퍼에 인코딩해서 그대로 쓴다.
+ * 요청마다 본문 크기의 byte[] 를 새로 만들지 않는다.
+ */
+public class CodecHttpMessageConverter<T> extends AbstractHttpMessageConverter<T> {
+
+    // Content-Length 가 커도 처음에는 이만큼만 빌리고, 실제로 읽은 만큼만 늘린다.
+    private static final int MAX_INITIAL_CAPACITY = 64 * 1024;
+    private static final int READ_CHUNK = 4096;
+
+    private final Class<T> type;
+    private final MessageCodec<T> codec;
+    private final BufferPool pool;
+
+    public CodecHttpMessageConverter(Class<T> type, MessageCodec<T> codec, BufferPool pool) {
+        super(MediaType.parseMediaType(codec.contentType()));
+        this.type = type;
+        this.codec = codec;
+        this.pool = pool;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return type == clazz;
+    }
+
+    @Override
+    protected T readInternal(Class<? extends T> clazz, HttpInputMessage inputMessage) throws IOException {
+        long contentLength = inputMessage.getHeaders().getContentLength();
+        BufferOutput body = new BufferOutput(pool,
+                contentLength > 0 ? (int) Math.min(contentLength, MAX_INITIAL_CAPACITY) : READ_CHUNK);
+        try {
+            InputStream in = inputMessage.getBody();
+            while (true) {
+                ByteBuffer target = body.ensureRemaining(READ_CHUNK);
+                int read = in.read(target.array(), target.arrayOffset() + target.position(), target.remaining());
+                if (read < 0) {
+                    break;
+                }
+                target.position(target.position() + read);
+            }
+            return codec.decode(body.written());
+        } catch (CodecException e) {
+            throw new HttpMessageNotReadableException("Could not read " + codec.contentType() + ": " + e.getMessage(), e, inputMessage);
+        } finally {
+            body.release();
+        }
+    }
+
+    @Override
+    protected void writeInternal(T message, HttpOutputMessage outputMessage) throws IOException {
+        ByteBuffer encoded = codec.encode(message, pool);
+        try {
+            outputMessage.getBody().write(encoded.array(), encoded.arrayOffset() + encoded.position(), encoded.remaining());
+        } finally {
+            pool.release(encoded);
+        }
+    }
+
+    // 미리 알 수 있으면 Content-Length 를 붙여 chunked 인코딩을 피한다.
+    @Override
+    protected Long getContentLength(T message, MediaType contentType) {
+        int size = codec.encodedSize(message);
+        return size >= 0 ? (long) size : null;
+    }
+}
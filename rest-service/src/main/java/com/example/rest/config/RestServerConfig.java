@@ -0,0 +1,152 @@
+package com.example.rest.config;
+
+import com.example.codec.BufferPool;
+import com.example.codec.MessageCodecs;
+import com.example.dto.MessageRequest;
+import com.example.dto.MessageResponse;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import com.example.net.UnixSocketAddresses;
+import com.example.rest.codec.CodecHttpMessageConverter;
+import com.example.rest.controller.RestMessageController;
+import com.example.rest.metrics.MetricsHandlerInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class RestServerConfig {
+
+    // 💡 빠른 시작 모드(fast-startup 프로필, spring.main.lazy-initialization=true)에서도 /api/** 요청 경로의 빈은 기동 시 만든다.
+    // 첫 요청이 컨트롤러 / 응답 캐시 생성을 기다리지 않게 하고, 캐시 지표(msa_idempotency_*)도 처음부터 노출한다.
+    // 지연 여부를 정하는 BeanFactoryPostProcessor 단계에서 찾으므로 static 으로 둔다.
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathEagerInitFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                RestMessageController.class, MetricsHandlerInterceptor.class, IdempotencyCache.class);
+    }
+
+    // 💡 application/x-protobuf, application/x-msa-binary 요청/응답 변환기. Spring Boot 가 기본 JSON 변환기 목록 앞에 함께 등록한다.
+    // common 의 MessageCodec 을 그대로 쓰므로 다른 전송 방식과 같은 바이트를 주고받고, 본문은 공유 BufferPool 버퍼에서 읽고 쓴다.
+    // (JSON 은 Spring 의 Jackson 변환기가 요청 스트림에서 바로 읽으므로 그대로 둔다)
+    @Bean
+    public CodecHttpMessageConverter<MessageRequestGrpc> protobufRequestConverter() {
+        return new CodecHttpMessageConverter<>(MessageRequestGrpc.class, MessageCodecs.REQUEST_PROTOBUF, BufferPool.shared());
+    }
+
+    @Bean
+    public CodecHttpMessageConverter<MessageResponseGrpc> protobufResponseConverter() {
+        return new CodecHttpMessageConverter<>(MessageResponseGrpc.class, MessageCodecs.RESPONSE_PROTOBUF, BufferPool.shared());
+    }
+
+    @Bean
+    public CodecHttpMessageConverter<MessageRequest> binaryRequestConverter() {
+        return new CodecHttpMessageConverter<>(MessageRequest.class, MessageCodecs.REQUEST_BINARY, BufferPool.shared());
+    }
+
+    @Bean
+    public CodecHttpMessageConverter<MessageResponse> binaryResponseConverter() {
+        return new CodecHttpMessageConverter<>(MessageResponse.class, MessageCodecs.RESPONSE_BINARY, BufferPool.shared());
+    }
+
+    // 💡 server.http2.enabled 로 추가된 h2c 프로토콜 조정.
+    // Tomcat 은 1024 바이트보다 작은 DATA 프레임을 "오버헤드"로 세어 일정 수를 넘으면 연결을 끊는데(ENHANCE_YOUR_CALM),
+    // 작은 JSON 요청을 한 연결에 다중화하는 클라이언트는 정상 트래픽인데도 이 보호에 걸리므로 임계값을 설정으로 뺀다.
+    @Bean
+    public TomcatConnectorCustomizer http2ProtocolCustomizer(
+            @Value("${rest.service.http2.max-concurrent-streams:200}") long maxConcurrentStreams,
+            @Value("${rest.service.http2.overhead-data-threshold:0}") int overheadDataThreshold
+    ) {
+        return connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution((int) maxConcurrentStreams);
+                    http2.setOverheadDataThreshold(overheadDataThreshold);
+                    http2.setOverheadWindowUpdateThreshold(overheadDataThreshold);
+                }
+            }
+        };
+    }
+
+    // 💡 rest.service.address 가 unix:///경로 이면 HTTP 커넥터가 TCP 포트 대신 그 unix 도메인 소켓에서 받는다. (Tomcat NIO, JDK 16+)
+    // 같은 호스트의 클라이언트(Rest.server.address 를 같은 경로로 둔 RestClientImpl)만 접근할 수 있다.
+    // actuator 도 같은 커넥터를 쓰므로 TCP 로 지표를 수집하려면 management.server.port 를 따로 준다.
+    // 소켓 파일은 커넥터가 닫힐 때 Tomcat 이 지운다. 비정상 종료로 남은 파일만 여기서 지운다.
+    @Bean
+    public TomcatConnectorCustomizer unixSocketConnectorCustomizer(@Value("${rest.service.address:}") String address) {
+        return connector -> {
+            if (UnixSocketAddresses.isUnix(address)) {
+                Path path = UnixSocketAddresses.path(address);
+                UnixSocketAddresses.deleteStaleSocket(path);
+                connector.setProperty("unixDomainSocketPath", path.toString());
+            }
+        };
+    }
+
+    @Bean
+    public MetricsHandlerInterceptor metricsHandlerInterceptor(MeterRegistry meterRegistry) {
+        return new MetricsHandlerInterceptor(meterRegistry);
+    }
+
+    // /api/** 핸들러에만 호출 지표를 붙인다. (actuator 요청은 제외)
+    // 비동기 핸들러(/api/messages 배치)의 호출 상태를 작업 스레드로 넘기고 시간 초과를 세기 위해 callable 인터셉터로도 등록한다.
+    @Bean
+    public WebMvcConfigurer metricsInterceptorConfigurer(MetricsHandlerInterceptor metricsHandlerInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(metricsHandlerInterceptor).addPathPatterns("/api/**");
+            }
+
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(metricsHandlerInterceptor);
+            }
+        };
+    }
+
+    // 메시지 단위 로그 설정 (FULL | SAMPLED | SUMMARY)
+    @Bean
+    public MessageLogSettings messageLogSettings(
+            @Value("${message-log.mode:SAMPLED}") MessageLogMode mode,
+            @Value("${message-log.samples-per-second:10}") int samplesPerSecond,
+            @Value("${message-log.summary-interval-seconds:10}") long summaryIntervalSeconds
+    ) {
+        return new MessageLogSettings(mode, samplesPerSecond, summaryIntervalSeconds);
+    }
+
+    // 💡 Idempotency-Key 헤더가 붙은 /api/message 응답 캐시 (JSON, protobuf 각각)
+    @Bean
+    public IdempotencyCache<ResponseEntity<MessageResponse>> messageResponseCache(
+            @Value("${rest.service.idempotency.ttl-seconds:300}") long ttlSeconds,
+            @Value("${rest.service.idempotency.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        return new IdempotencyCache<>("rest-message", Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry);
+    }
+
+    @Bean
+    public IdempotencyCache<ResponseEntity<MessageResponseGrpc>> protobufResponseCache(
+            @Value("${rest.service.idempotency.ttl-seconds:300}") long ttlSeconds,
+            @Value("${rest.service.idempotency.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        return new IdempotencyCache<>("rest-message-protobuf", Duration.ofSeconds(ttlSeconds), maxEntries, meterRegistry);
+    }
+}
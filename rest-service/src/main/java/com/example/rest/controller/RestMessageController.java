@@ -2,31 +2,246 @@ package com.example.rest.controller;
 
 import com.example.dto.MessageRequest;
 import com.example.dto.MessageResponse;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.idempotency.IdempotencyCache;
+import com.example.idempotency.IdempotencyKeys;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.rest.metrics.MetricsHandlerInterceptor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DisconnectedClientHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api")
 public class RestMessageController {
 
     private static final Logger log = LoggerFactory.getLogger(RestMessageController.class);
 
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    public static final String APPLICATION_PROTOBUF = "application/x-protobuf";
+
+    // NDJSON 스트림에서 이 개수만큼 응답을 쓸 때마다, 또는 더 읽을 입력이 없을 때 flush 한다.
+    private static final int STREAM_FLUSH_EVERY = 256;
+    // 배치의 시간 초과를 알려주는 CallableProcessingInterceptor 의 등록 키
+    private static final String BATCH_TIMEOUT = RestMessageController.class.getName() + ".batchTimeout";
+
+    private final ObjectReader requestReader;
+    private final ObjectWriter responseWriter;
+    private final MessageLogger messageLog;
+    private final MessageLogger protobufMessageLog;
+    private final IdempotencyCache<ResponseEntity<MessageResponse>> messageResponseCache;
+    private final IdempotencyCache<ResponseEntity<MessageResponseGrpc>> protobufResponseCache;
+
+    public RestMessageController(ObjectMapper objectMapper, MessageLogSettings messageLogSettings,
+                                 IdempotencyCache<ResponseEntity<MessageResponse>> messageResponseCache,
+                                 IdempotencyCache<ResponseEntity<MessageResponseGrpc>> protobufResponseCache) {
+        this.requestReader = objectMapper.readerFor(MessageRequest.class);
+        // 값마다 flush 하지 않고 STREAM_FLUSH_EVERY 단위로 모아서 내보낸다.
+        this.responseWriter = objectMapper.writerFor(MessageResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.messageLog = new MessageLogger(log, "[REST Service] /api/message", messageLogSettings);
+        this.protobufMessageLog = new MessageLogger(log, "[REST Service] /api/message (protobuf)", messageLogSettings);
+        this.messageResponseCache = messageResponseCache;
+        this.protobufResponseCache = protobufResponseCache;
+    }
+
+    // Content-Type/Accept 가 application/x-msa-binary 이면 같은 DTO 를 BinaryCodec 형식으로 주고받는다. (RestServerConfig 변환기)
     @PostMapping("/message")
-    public ResponseEntity<MessageResponse> handleMessage(@RequestBody MessageRequest request) {
-        log.info("[REST Service] 메시지 수신: {}", request.getContent());
+    public ResponseEntity<MessageResponse> handleMessage(
+            @RequestBody MessageRequest request,
+            @RequestHeader(value = IdempotencyKeys.HTTP_HEADER, required = false) String idempotencyKey) {
+        // 수신 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[REST Service] 메시지 수신: {}", request.getContent());
+        }
+        return idempotent(messageResponseCache, idempotencyKey, () -> processMessage(request, logged));
+    }
+
+    private ResponseEntity<MessageResponse> processMessage(MessageRequest request, boolean logged) {
         if (request == null || request.getContent() == null || request.getContent().isEmpty()) {
             log.warn("[REST Service] 유효하지 않은 요청: content가 비어있음.");
             // Bad Request 응답 (직접 에러 응답 구성)
             return ResponseEntity.badRequest().body(new MessageResponse("Error: Content cannot be empty."));
         }
-        String replyContent = "REST Response: " + request.getContent().toUpperCase();
-        MessageResponse response = new MessageResponse(replyContent);
-        log.info("[REST Service] 응답 전송: {}", replyContent);
+        MessageResponse response = reply(request);
+        if (logged) {
+            log.info("[REST Service] 응답 전송: {}", response.getReply());
+        }
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // 💡 같은 /api/message 를 protobuf 바이너리로 주고받는 경우. gRPC 와 같은 생성 클래스를 사용하므로
+    // REST 와 gRPC 의 차이 중 직렬화 형식 몫을 빼고 프로토콜 차이만 비교할 수 있다.
+    @PostMapping(value = "/message", consumes = APPLICATION_PROTOBUF, produces = APPLICATION_PROTOBUF)
+    public ResponseEntity<MessageResponseGrpc> handleProtobufMessage(
+            @RequestBody(required = false) MessageRequestGrpc request,
+            @RequestHeader(value = IdempotencyKeys.HTTP_HEADER, required = false) String idempotencyKey) {
+        // protobuf 에서는 content 가 빈 메시지가 0 바이트 본문으로 직렬화되므로, 본문이 없으면 빈 메시지로 본다.
+        MessageRequestGrpc message = request != null ? request : MessageRequestGrpc.getDefaultInstance();
+        boolean logged = protobufMessageLog.sample();
+        if (logged) {
+            log.info("[REST Service] 메시지 수신 (protobuf): {}", message.getContent());
+        }
+        return idempotent(protobufResponseCache, idempotencyKey, () -> processProtobufMessage(message, logged));
+    }
+
+    private ResponseEntity<MessageResponseGrpc> processProtobufMessage(MessageRequestGrpc request, boolean logged) {
+        MessageResponse response = reply(new MessageRequest(request.getContent()));
+        MessageResponseGrpc body = MessageResponseGrpc.newBuilder()
+                .setReply(response.getReply())
+                .build();
+        if (request.getContent().isEmpty()) {
+            log.warn("[REST Service] 유효하지 않은 요청: content가 비어있음.");
+            return ResponseEntity.badRequest().body(body);
+        }
+        if (logged) {
+            log.info("[REST Service] 응답 전송 (protobuf): {}", body.getReply());
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    // 배치 처리: JSON 배열로 받은 요청마다 같은 순서로 응답 배열을 돌려준다.
+    // 비어 있는 요청은 전체를 실패시키지 않고 해당 항목에만 에러 메시지를 담는다.
+    // 💡 응답 배열은 비동기(StreamingResponseBody)로 처리하면서 바로 써 내려간다. 요청마다 spring.mvc.async.request-timeout 까지만 일하고,
+    // 시간이 다 되었거나 클라이언트가 연결을 끊어 쓰기가 실패하면 남은 항목은 처리하지 않는다. (둘 다 msa_calls_abandoned_total)
+    // 응답을 보내기 시작하기 전에 시간이 다 되었으면 503 이고, 보내던 중이면 응답이 중간에 끊긴다.
+    @PostMapping("/messages")
+    public ResponseEntity<StreamingResponseBody> handleMessages(@RequestBody List<MessageRequest> requests,
+                                                                HttpServletRequest servletRequest) {
+        long startTime = System.nanoTime();
+        MetricsHandlerInterceptor.AsyncCall call = MetricsHandlerInterceptor.startAsync(servletRequest);
+        BatchTimeout timeout = new BatchTimeout();
+        WebAsyncUtils.getAsyncManager(servletRequest).registerCallableInterceptor(BATCH_TIMEOUT, timeout);
+        StreamingResponseBody body = out -> {
+            int count = 0;
+            try {
+                JsonGenerator generator = responseWriter.createGenerator(out);
+                // 출력 스트림은 Spring 이 마무리하므로 닫지 않는다.
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                for (MessageRequest request : requests) {
+                    if (timeout.expired) {
+                        log.info("[REST Service] 배치 처리 중단 (시간 초과): count={}/{}, elapsed={}ms",
+                                count, requests.size(), (System.nanoTime() - startTime) / 1_000_000);
+                        return;
+                    }
+                    responseWriter.writeValue(generator, reply(request));
+                    count++;
+                }
+                generator.writeEndArray();
+                generator.close();
+            } catch (IOException e) {
+                // 시간 초과 뒤에는 응답에 쓸 수 없으므로 쓰기가 실패한다. 이미 센 호출이다.
+                // AsyncRequestNotUsableException: 컨테이너가 먼저 연결 오류를 알려 응답을 닫았다.
+                if (!timeout.expired) {
+                    if (!(e instanceof AsyncRequestNotUsableException) && !DisconnectedClientHelper.isClientDisconnectedException(e)) {
+                        throw e;
+                    }
+                    call.recordAbandoned();
+                }
+                log.info("[REST Service] 배치 처리 중단 ({}): count={}/{}, elapsed={}ms", timeout.expired ? "시간 초과" : "클라이언트 연결 끊김",
+                        count, requests.size(), (System.nanoTime() - startTime) / 1_000_000);
+                throw e;
+            } finally {
+                call.recordMessages(count);
+            }
+            log.info("[REST Service] 배치 처리 완료: count={}, elapsed={}ms", count, (System.nanoTime() - startTime) / 1_000_000);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 💡 NDJSON 스트리밍: 한 줄에 요청 하나씩 읽는 대로 처리해 응답 한 줄을 바로 쓴다.
+    // 본문 전체를 메모리에 올리지 않으므로 요청 수에 상관없이 메모리 사용량이 일정하다.
+    // 클라이언트가 연결을 끊으면 다음 읽기/flush 에서 IOException 이 나므로, 그 자리에서 처리를 멈춘다.
+    @PostMapping(value = "/messages/stream", consumes = APPLICATION_NDJSON, produces = APPLICATION_NDJSON)
+    public void handleMessageStream(InputStream body, HttpServletResponse servletResponse) throws IOException {
+        long startTime = System.nanoTime();
+        long count = 0;
+        servletResponse.setContentType(APPLICATION_NDJSON);
+        OutputStream out = servletResponse.getOutputStream();
+
+        try (MappingIterator<MessageRequest> requests = requestReader.readValues(body);
+             JsonGenerator generator = responseWriter.createGenerator(out)) {
+            // 루트 값 사이 기본 구분자(공백) 대신 줄바꿈을 직접 써서 응답도 NDJSON 형식으로 맞춘다.
+            generator.setRootValueSeparator(null);
+            while (requests.hasNextValue()) {
+                responseWriter.writeValue(generator, reply(requests.nextValue()));
+                generator.writeRaw('\n');
+                if (++count % STREAM_FLUSH_EVERY == 0 || body.available() == 0) {
+                    generator.flush();
+                }
+            }
+        } catch (IOException e) {
+            // 본문 형식 오류 등 연결 끊김이 아닌 예외는 그대로 던진다.
+            if (!DisconnectedClientHelper.isClientDisconnectedException(e)) {
+                throw e;
+            }
+            MetricsHandlerInterceptor.recordMessages(count);
+            MetricsHandlerInterceptor.recordAbandoned();
+            log.info("[REST Service] 클라이언트 연결 끊김으로 스트림 처리 중단: count={}, elapsed={}ms",
+                    count, (System.nanoTime() - startTime) / 1_000_000);
+            return;
+        }
+        MetricsHandlerInterceptor.recordMessages(count);
+        log.info("[REST Service] 스트림 처리 완료: count={}, elapsed={}ms", count, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    // 💡 Idempotency-Key 헤더가 있으면 같은 키의 응답을 재사용하고, 같은 키로 동시에 들어온 요청은 먼저 온 요청의 처리를 기다린다.
+    // 400 응답도 같은 요청에 대한 결과이므로 함께 보관한다.
+    private static <T> ResponseEntity<T> idempotent(IdempotencyCache<ResponseEntity<T>> cache, String idempotencyKey,
+                                                    Supplier<ResponseEntity<T>> handler) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return handler.get();
+        }
+        return cache.get(idempotencyKey, () -> CompletableFuture.completedFuture(handler.get())).join();
+    }
+
+    private MessageResponse reply(MessageRequest request) {
+        if (request == null || request.getContent() == null || request.getContent().isEmpty()) {
+            return new MessageResponse("Error: Content cannot be empty.");
+        }
+        return new MessageResponse("REST Response: " + request.getContent().toUpperCase());
+    }
+
+    // 비동기 배치의 시간 초과를 작업 스레드에 알린다. (지표는 MetricsHandlerInterceptor 가 센다)
+    private static final class BatchTimeout implements CallableProcessingInterceptor {
+        volatile boolean expired;
+
+        @Override
+        public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+            expired = true;
+            return RESULT_NONE;
+        }
+    }
+}
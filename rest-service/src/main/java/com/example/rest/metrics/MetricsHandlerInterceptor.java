@@ -0,0 +1,212 @@
+package com.example.rest.metrics;
+
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.DisconnectedClientHelper;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * RestMessageController 핸들러별 호출 지표. gRPC 인터셉터와 같은 msa_* 이름에 transport=rest 로 기록한다.
+ *
+ * 진행 중인 호출 상태는 요청 속성 대신 스레드별로 재사용하는 CallState 에 둔다. (요청마다 객체를 만들지 않음)
+ * 동기 핸들러는 preHandle 과 afterCompletion 이 같은 스레드에서 호출된다.
+ * 비동기 핸들러(StreamingResponseBody 로 응답하는 배치)는 처리 스레드가 바뀌므로, 작업을 넘기기 직전(beforeConcurrentHandling)에
+ * 상태를 요청 속성으로 옮기고 결과를 쓰러 다시 들어온 ASYNC 디스패치에서 되살린다. 작업 스레드에서 기록하려면 핸들러가 startAsync() 로 받은 AsyncCall 을 쓴다.
+ * 비동기 처리를 쓰려면 AsyncSupportConfigurer 에도 callable 인터셉터로 등록해야 한다.
+ *
+ * 바이트 수는 Content-Length 를 알 수 있는 본문만 기록된다. chunked 로 오가는 JSON/NDJSON 본문까지 포함한
+ * 전체 송수신량은 Tomcat 커넥터 지표(tomcat_global_received_bytes / sent_bytes)로 본다.
+ *
+ * 클라이언트가 응답 전에 연결을 끊었거나 요청 시간 제한(spring.mvc.async.request-timeout)을 넘긴 요청은 msa_calls_abandoned_total 로도 센다.
+ * 핸들러가 직접 끊김을 처리했으면 recordAbandoned() 로 알려주고, 예외로 나왔거나 비동기 처리의 시간 초과 / 오류면 여기서 판별한다.
+ */
+public class MetricsHandlerInterceptor implements HandlerInterceptor, CallableProcessingInterceptor {
+
+    // 상태 태그는 응답 코드의 앞자리. 인덱스 = status / 100 - 1
+    private static final List<String> STATUSES = List.of("1xx", "2xx", "3xx", "4xx", "5xx");
+    private static final int SERVER_ERROR = 4;
+
+    private static final ThreadLocal<CallState> CURRENT = ThreadLocal.withInitial(CallState::new);
+    // 비동기 처리 중인 요청의 CallState 를 담는 요청 속성
+    private static final String ASYNC_STATE = MetricsHandlerInterceptor.class.getName() + ".asyncState";
+
+    private final CallMetricsRegistry registry;
+    private final ConcurrentMap<Method, CallMetrics> byHandler = new ConcurrentHashMap<>();
+
+    public MetricsHandlerInterceptor(MeterRegistry meterRegistry) {
+        this.registry = new CallMetricsRegistry(meterRegistry, "rest", "server", STATUSES);
+    }
+
+    // 배치/스트림 핸들러가 처리한 메시지 수를 알려준다. 호출하지 않으면 요청 하나 = 메시지 하나로 기록된다.
+    public static void recordMessages(long count) {
+        CURRENT.get().messages = count;
+    }
+
+    // 핸들러가 클라이언트 연결 끊김을 감지하고 처리를 중단했을 때 호출한다.
+    public static void recordAbandoned() {
+        CURRENT.get().abandoned = true;
+    }
+
+    // 비동기 핸들러용. 핸들러 안(요청 스레드)에서 불러 진행 중인 호출을 넘겨받고, 작업 스레드에서는 돌려받은 AsyncCall 에 기록한다.
+    // 요청이 끝나면 컨테이너가 요청 객체를 재사용하므로 작업 스레드가 요청 속성을 직접 보면 안 된다.
+    public static AsyncCall startAsync(HttpServletRequest request) {
+        if (request.getAttribute(ASYNC_STATE) instanceof CallState saved) {
+            return saved;
+        }
+        CallState state = CURRENT.get();
+        CallState saved = new CallState();
+        if (state.metrics != null) {
+            saved.copyFrom(state);
+            request.setAttribute(ASYNC_STATE, saved);
+            state.metrics = null;
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // 비동기 결과를 쓰러 다시 들어왔다. 처음 디스패치에서 시작한 호출을 이어서 afterCompletion 에서 마무리한다.
+            if (request.getAttribute(ASYNC_STATE) instanceof CallState saved) {
+                request.removeAttribute(ASYNC_STATE);
+                CURRENT.get().copyFrom(saved);
+            }
+            return true;
+        }
+        if (handler instanceof HandlerMethod handlerMethod) {
+            CallState state = CURRENT.get();
+            state.metrics = metricsFor(handlerMethod);
+            state.messages = 1;
+            state.abandoned = false;
+            state.startNanos = state.metrics.start();
+            state.metrics.bytesIn(request.getContentLengthLong());
+        }
+        return true;
+    }
+
+    // 비동기 작업을 넘기기 직전, 아직 요청 스레드다. 이 스레드의 상태는 다음 요청이 재사용하므로 요청 속성으로 옮긴다.
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        if (servletRequest != null && CURRENT.get().metrics != null) {
+            startAsync(servletRequest);
+        }
+    }
+
+    // 시간 초과 / 컨테이너가 알린 오류(대개 연결 끊김)는 ASYNC 디스패치보다 먼저 불리므로 여기서 표시해두면 afterCompletion 이 센다.
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        markAbandoned(request);
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        markAbandoned(request);
+        return RESULT_NONE;
+    }
+
+    // 비동기 요청이 끝났다. 클라이언트가 끊긴 HTTP/1.1 연결은 컨테이너가 ASYNC 디스패치 없이 끝내버리므로,
+    // 디스패치가 가져가지 않은 상태가 남아 있으면 여기서 끊긴 호출로 마무리한다.
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(ASYNC_STATE, RequestAttributes.SCOPE_REQUEST) instanceof CallState saved
+                && request.getNativeResponse() instanceof HttpServletResponse response) {
+            request.removeAttribute(ASYNC_STATE, RequestAttributes.SCOPE_REQUEST);
+            saved.abandoned = true;
+            finish(saved, response, null);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        CallState state = CURRENT.get();
+        if (state.metrics == null || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        finish(state, response, ex);
+    }
+
+    private static void finish(CallState state, HttpServletResponse response, Exception ex) {
+        CallMetrics metrics = state.metrics;
+        state.metrics = null;
+        String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength != null) {
+            metrics.bytesOut(Long.parseLong(contentLength));
+        }
+        boolean abandoned = state.abandoned || (ex != null && DisconnectedClientHelper.isClientDisconnectedException(ex));
+        // 예외가 컨트롤러 밖으로 나간 경우 응답 코드는 아직 200 일 수 있으므로 5xx 로 센다. (연결이 끊긴 경우는 제외)
+        int statusIndex = ex != null && !abandoned ? SERVER_ERROR : Math.min(Math.max(response.getStatus() / 100 - 1, 0), SERVER_ERROR);
+        metrics.finish(state.startNanos, statusIndex, state.messages, state.messages);
+        if (abandoned) {
+            metrics.abandoned();
+        }
+    }
+
+    private static void markAbandoned(NativeWebRequest request) {
+        if (request.getAttribute(ASYNC_STATE, RequestAttributes.SCOPE_REQUEST) instanceof CallState state) {
+            state.abandoned = true;
+        }
+    }
+
+    private CallMetrics metricsFor(HandlerMethod handlerMethod) {
+        Method method = handlerMethod.getMethod();
+        CallMetrics metrics = byHandler.get(method);
+        if (metrics != null) {
+            return metrics;
+        }
+        return byHandler.computeIfAbsent(method,
+                m -> registry.forMethod(m.getDeclaringClass().getSimpleName() + "/" + m.getName()));
+    }
+
+    /**
+     * 비동기 처리 중인 호출. 작업 스레드에서 기록한다.
+     */
+    public interface AsyncCall {
+
+        void recordMessages(long count);
+
+        // 핸들러가 클라이언트 연결 끊김을 감지하고 처리를 중단했을 때 호출한다.
+        void recordAbandoned();
+    }
+
+    private static final class CallState implements AsyncCall {
+        CallMetrics metrics;
+        long startNanos;
+        // 비동기 요청에서는 다른 스레드가 기록하므로 volatile
+        volatile long messages;
+        volatile boolean abandoned;
+
+        @Override
+        public void recordMessages(long count) {
+            messages = count;
+        }
+
+        @Override
+        public void recordAbandoned() {
+            abandoned = true;
+        }
+
+        void copyFrom(CallState other) {
+            metrics = other.metrics;
+            startNanos = other.startNanos;
+            messages = other.messages;
+            abandoned = other.abandoned;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.websocket;
+
+import com.example.codec.CodecException;
+import com.example.codec.MessageCodecs;
+import com.example.frames.DelimitedFrames;
+import com.example.grpc.ChatMessage;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import com.example.websocket.chat.ChatHub;
+import com.example.websocket.chat.ChatMember;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * /ws/chat: 바이너리 프레임으로 ChatMessage 를 주고받는다. (grpc-service 의 Chat RPC 와 같은 동작)
+ * 같은 방(room)에 참여한 다른 세션들에게 메시지를 브로드캐스트하고, echo-to-sender 이면 보낸 사람에게 확인 응답을 보낸다.
+ */
+@Component
+public class ChatWebSocketHandler extends BinaryWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatWebSocketHandler.class);
+
+    private static final List<String> STATUSES = List.of("OK");
+    private static final int STATUS_OK = 0;
+
+    private final ChatHub chatHub;
+    private final boolean echoToSender;
+    private final CallMetrics metrics;
+    private final MessageLogger chatMessageLog;
+
+    public ChatWebSocketHandler(
+            ChatHub chatHub,
+            MessageLogSettings messageLogSettings,
+            MeterRegistry meterRegistry,
+            @Value("${websocket.service.chat.echo-to-sender:true}") boolean echoToSender
+    ) {
+        this.chatHub = chatHub;
+        this.echoToSender = echoToSender;
+        this.metrics = new CallMetricsRegistry(meterRegistry, "websocket", "server", STATUSES).forMethod("Chat");
+        this.chatMessageLog = new MessageLogger(log, "[WebSocket Chat - Server]", messageLogSettings);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        chatHub.register(session);
+        log.info("[WebSocket Chat - Server] 세션 연결: id={}, remote={}", session.getId(), session.getRemoteAddress());
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        ChatMember member = chatHub.get(session.getId());
+        if (member == null) {
+            return;
+        }
+        try {
+            DelimitedFrames.forEach(message.getPayload(), MessageCodecs.CHAT_PROTOBUF, chatMessage -> onChatMessage(member, chatMessage));
+        } catch (CodecException e) {
+            log.warn("[WebSocket Chat - Server] 읽을 수 없는 프레임, 세션 종료: id={}, {}", session.getId(), e.getMessage());
+            session.close(CloseStatus.BAD_DATA);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        log.info("[WebSocket Chat - Server] 세션 종료: id={}, status={}", session.getId(), status);
+        chatHub.remove(session.getId());
+    }
+
+    private void onChatMessage(ChatMember member, ChatMessage clientMessage) {
+        long startTime = metrics.start();
+        metrics.bytesIn(clientMessage.getSerializedSize());
+        if (chatMessageLog.sample()) {
+            log.info("[WebSocket Chat - Server] 클라이언트 메시지 수신 (From: {}, Msg: {})",
+                    clientMessage.getSender(), clientMessage.getMessage());
+        }
+
+        chatHub.publish(member, clientMessage);
+
+        int replies = 0;
+        if (echoToSender) {
+            // 받은 메시지에 대한 확인 응답을 보낸 클라이언트에게도 전송
+            String reply = String.format("Server received '%s' from %s. Sending back a reply.",
+                    clientMessage.getMessage(), clientMessage.getSender());
+            ChatMessage echo = ChatMessage.newBuilder()
+                    .setSender("Server")
+                    .setMessage(reply)
+                    .setRoom(member.getRoom())
+                    .build();
+            member.send(echo);
+            metrics.bytesOut(echo.getSerializedSize());
+            replies = 1;
+        }
+        metrics.finish(startTime, STATUS_OK, 1, replies);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.websocket;
+
+import com.example.frames.CoalescingFrameWriter;
+import com.example.codec.BufferPool;
+import com.example.codec.CodecException;
+import com.example.codec.MessageCodecs;
+import com.example.frames.DelimitedFrames;
+import com.example.frames.SlowConsumerPolicy;
+import com.example.grpc.MessageRequestGrpc;
+import com.example.grpc.MessageResponseGrpc;
+import com.example.logging.MessageLogSettings;
+import com.example.logging.MessageLogger;
+import com.example.metrics.CallMetrics;
+import com.example.metrics.CallMetricsRegistry;
+import com.example.websocket.session.NativeSessionSink;
+import com.example.websocket.session.SessionWriters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * /ws/message: 바이너리 프레임으로 MessageRequestGrpc 를 받고 MessageResponseGrpc 로 응답한다. (DelimitedFrames 형식)
+ *
+ * 프레임 하나에 요청이 여러 개 들어 있을 수 있으며, 응답은 요청 순서대로 보낸다.
+ * 컨테이너는 세션 하나의 프레임을 차례로 넘겨주므로, 클라이언트는 응답을 보낸 순서대로 요청과 짝지으면 된다. (상관 ID 없음)
+ * 응답을 하나라도 버리면 짝이 어긋나므로 송신 버퍼가 가득 차면 연결을 끊는다. (SlowConsumerPolicy.DISCONNECT)
+ */
+@Component
+public class MessageWebSocketHandler extends BinaryWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageWebSocketHandler.class);
+
+    private static final List<String> STATUSES = List.of("OK");
+    private static final int STATUS_OK = 0;
+
+    private final int sendBufferMessages;
+    private final int maxFrameBytes;
+    private final SessionWriters<MessageResponseGrpc> writers;
+    private final CallMetrics metrics;
+    private final MessageLogger messageLog;
+
+    public MessageWebSocketHandler(
+            @Value("${websocket.service.message.send-buffer-messages:65536}") int sendBufferMessages,
+            @Value("${websocket.service.max-frame-bytes:32768}") int maxFrameBytes,
+            MessageLogSettings messageLogSettings,
+            MeterRegistry meterRegistry
+    ) {
+        this.sendBufferMessages = sendBufferMessages;
+        this.maxFrameBytes = maxFrameBytes;
+        this.writers = new SessionWriters<>("message", meterRegistry);
+        this.metrics = new CallMetricsRegistry(meterRegistry, "websocket", "server", STATUSES).forMethod("SendMessage");
+        this.messageLog = new MessageLogger(log, "[WebSocket Service]", messageLogSettings);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        writers.add(session.getId(), new CoalescingFrameWriter<>(new NativeSessionSink(session),
+                MessageCodecs.RESPONSE_PROTOBUF, BufferPool.shared(), sendBufferMessages, maxFrameBytes, SlowConsumerPolicy.DISCONNECT, null));
+        log.info("[WebSocket Service] 메시지 세션 연결: id={}, remote={}", session.getId(), session.getRemoteAddress());
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        CoalescingFrameWriter<MessageResponseGrpc> writer = writers.get(session.getId());
+        if (writer == null) {
+            return;
+        }
+        try {
+            DelimitedFrames.forEach(message.getPayload(), MessageCodecs.REQUEST_PROTOBUF, request -> respond(writer, request));
+        } catch (CodecException e) {
+            // 프레임 경계를 잃었으므로 이후 요청과 응답의 짝도 맞출 수 없다.
+            log.warn("[WebSocket Service] 읽을 수 없는 프레임, 세션 종료: id={}, {}", session.getId(), e.getMessage());
+            session.close(CloseStatus.BAD_DATA);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        CoalescingFrameWriter<MessageResponseGrpc> writer = writers.remove(session.getId());
+        if (writer != null) {
+            log.info("[WebSocket Service] 메시지 세션 종료: id={}, status={}, frames={}, messages={}",
+                    session.getId(), status, writer.frames(), writer.messages());
+        }
+    }
+
+    private void respond(CoalescingFrameWriter<MessageResponseGrpc> writer, MessageRequestGrpc request) {
+        long startTime = metrics.start();
+        metrics.bytesIn(request.getSerializedSize());
+        // 수신 로그를 남긴 요청만 응답 로그도 남긴다. (message-log.mode)
+        boolean logged = messageLog.sample();
+        if (logged) {
+            log.info("[WebSocket Service] 메시지 수신: {}", request.getContent());
+        }
+        MessageResponseGrpc response = process(request);
+        writer.send(response);
+        metrics.bytesOut(response.getSerializedSize());
+        metrics.finish(startTime, STATUS_OK, 1, 1);
+        if (logged) {
+            log.info("[WebSocket Service] 응답 전송: {}", response.getReply());
+        }
+    }
+
+    private MessageResponseGrpc process(MessageRequestGrpc request) {
+        if (request.getContent().isEmpty()) {
+            log.warn("[WebSocket Service] 유효하지 않은 요청: content가 비어있음.");
+            return MessageResponseGrpc.newBuilder().setReply("Error: Content cannot be empty.").build();
+        }
+        return MessageResponseGrpc.newBuilder()
+                .setReply("WebSocket Response: " + request.getContent().toUpperCase())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.websocket;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class WebSocketServiceApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(WebSocketServiceApplication.class, args);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.websocket.chat;
+
+import com.example.chat.ChatRooms;
+import com.example.codec.BufferPool;
+import com.example.codec.MessageCodecs;
+import com.example.frames.CoalescingFrameWriter;
+import com.example.frames.SlowConsumerPolicy;
+import com.example.grpc.ChatMessage;
+import com.example.websocket.session.NativeSessionSink;
+import com.example.websocket.session.SessionWriters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 방(room) 단위 WebSocket Chat 브로드캐스트 허브. 방 목록과 전달은 common 의 ChatRooms 가 맡는다. (grpc-service 의 Chat RPC 와 같은 구현)
+ */
+@Component
+public class ChatHub {
+
+    private final ChatRooms<ChatMember> rooms;
+    private final Map<String, ChatMember> members = new ConcurrentHashMap<>();
+    private final SessionWriters<ChatMessage> writers;
+    private final int sendBufferMessages;
+    private final int maxFrameBytes;
+    private final SlowConsumerPolicy policy;
+
+    public ChatHub(
+            @Value("${websocket.service.chat.send-buffer-messages:1024}") int sendBufferMessages,
+            @Value("${websocket.service.max-frame-bytes:32768}") int maxFrameBytes,
+            @Value("${websocket.service.chat.slow-consumer-policy:DROP_OLDEST}") SlowConsumerPolicy policy,
+            @Value("${websocket.service.chat.default-room:lobby}") String defaultRoom,
+            MeterRegistry meterRegistry
+    ) {
+        this.sendBufferMessages = sendBufferMessages;
+        this.maxFrameBytes = maxFrameBytes;
+        this.policy = policy;
+        this.rooms = new ChatRooms<>(defaultRoom, "[WebSocket Chat Hub]");
+        this.writers = new SessionWriters<>("chat", meterRegistry);
+    }
+
+    /**
+     * 새 Chat 세션의 송신 측을 만든다. 방에는 첫 메시지를 받을 때 들어간다.
+     */
+    public ChatMember register(WebSocketSession session) {
+        CoalescingFrameWriter<ChatMessage> writer = new CoalescingFrameWriter<>(new NativeSessionSink(session),
+                MessageCodecs.CHAT_PROTOBUF, BufferPool.shared(), sendBufferMessages, maxFrameBytes, policy, skipped -> ChatMessage.newBuilder()
+                .setSender("Server")
+                .setMessage(skipped + " messages skipped (slow consumer)")
+                .build());
+        ChatMember member = new ChatMember(session.getId(), writer);
+        writers.add(session.getId(), writer);
+        members.put(session.getId(), member);
+        return member;
+    }
+
+    public ChatMember get(String sessionId) {
+        return members.get(sessionId);
+    }
+
+    /**
+     * member 가 아직 방에 없으면 메시지의 방에 입장시키고, 같은 방의 다른 멤버들에게 메시지를 전달한다.
+     */
+    public void publish(ChatMember from, ChatMessage message) {
+        rooms.publish(from, message);
+    }
+
+    /**
+     * 세션이 끝났다. 방에서 나가고 송신 버퍼를 비운다.
+     */
+    public void remove(String sessionId) {
+        ChatMember member = members.remove(sessionId);
+        if (member == null) {
+            return;
+        }
+        rooms.leave(member);
+        writers.remove(sessionId);
+    }
+
+    public int roomCount() {
+        return rooms.roomCount();
+    }
+}
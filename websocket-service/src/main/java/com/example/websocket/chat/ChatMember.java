@@ -0,0 +1,33 @@
+package com.example.websocket.chat;
+
+import com.example.chat.ChatRoomMember;
+import com.example.frames.CoalescingFrameWriter;
+import com.example.grpc.ChatMessage;
+
+/**
+ * /ws/chat 세션 하나. 방에는 첫 메시지를 받을 때 들어간다.
+ */
+public final class ChatMember extends ChatRoomMember {
+
+    private final CoalescingFrameWriter<ChatMessage> writer;
+
+    ChatMember(String id, CoalescingFrameWriter<ChatMessage> writer) {
+        super(id);
+        this.writer = writer;
+    }
+
+    public CoalescingFrameWriter<ChatMessage> getWriter() {
+        return writer;
+    }
+
+    // 송신 버퍼에 넣는다. 버퍼가 가득 차 있으면 slow-consumer-policy 에 따라 처리하며, 호출자를 막지 않는다.
+    @Override
+    public void send(ChatMessage message) {
+        writer.send(message);
+    }
+
+    @Override
+    public long dropped() {
+        return writer.dropped();
+    }
+}
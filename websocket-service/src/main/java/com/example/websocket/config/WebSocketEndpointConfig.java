@@ -0,0 +1,35 @@
+package com.example.websocket.config;
+
+import com.example.websocket.ChatWebSocketHandler;
+import com.example.websocket.MessageWebSocketHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+// 핸들러가 WebSocketServerConfig 의 빈(MessageLogSettings 등)을 주입받으므로, 핸들러를 등록하는 설정은 따로 둔다.
+@Configuration
+@EnableWebSocket
+public class WebSocketEndpointConfig implements WebSocketConfigurer {
+
+    private final MessageWebSocketHandler messageHandler;
+    private final ChatWebSocketHandler chatHandler;
+    private final String[] allowedOrigins;
+
+    public WebSocketEndpointConfig(
+            MessageWebSocketHandler messageHandler,
+            ChatWebSocketHandler chatHandler,
+            @Value("${websocket.service.allowed-origins:*}") String[] allowedOrigins
+    ) {
+        this.messageHandler = messageHandler;
+        this.chatHandler = chatHandler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(messageHandler, "/ws/message").setAllowedOrigins(allowedOrigins);
+        registry.addHandler(chatHandler, "/ws/chat").setAllowedOrigins(allowedOrigins);
+    }
+}
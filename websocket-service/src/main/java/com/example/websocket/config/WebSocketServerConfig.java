@@ -0,0 +1,38 @@
+package com.example.websocket.config;
+
+import com.example.logging.MessageLogMode;
+import com.example.logging.MessageLogSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+public class WebSocketServerConfig {
+
+    // 💡 Tomcat 은 세션마다 max-binary-message-bytes 크기의 바이너리 수신 버퍼와 max-text-message-bytes 크기의 텍스트 버퍼를 잡는다.
+    // 연결 수가 많은 채팅에서는 이 두 값이 연결당 메모리의 큰 부분이므로, 쓰지 않는 텍스트 버퍼는 작게 둔다.
+    // send-timeout-ms: 비동기 송신 하나가 이 시간 안에 끝나지 않으면 실패로 보고 연결을 끊는다.
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(
+            @Value("${websocket.service.max-binary-message-bytes:65536}") int maxBinaryMessageBytes,
+            @Value("${websocket.service.max-text-message-bytes:1024}") int maxTextMessageBytes,
+            @Value("${websocket.service.send-timeout-ms:10000}") long sendTimeoutMillis
+    ) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(maxBinaryMessageBytes);
+        container.setMaxTextMessageBufferSize(maxTextMessageBytes);
+        container.setAsyncSendTimeout(sendTimeoutMillis);
+        return container;
+    }
+
+    // 메시지 단위 로그 설정 (FULL | SAMPLED | SUMMARY)
+    @Bean
+    public MessageLogSettings messageLogSettings(
+            @Value("${message-log.mode:SAMPLED}") MessageLogMode mode,
+            @Value("${message-log.samples-per-second:10}") int samplesPerSecond,
+            @Value("${message-log.summary-interval-seconds:10}") long summaryIntervalSeconds
+    ) {
+        return new MessageLogSettings(mode, samplesPerSecond, summaryIntervalSeconds);
+    }
+}
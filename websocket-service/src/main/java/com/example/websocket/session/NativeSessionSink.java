@@ -0,0 +1,53 @@
+package com.example.websocket.session;
+
+import com.example.frames.CoalescingFrameWriter;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * WebSocket 세션에 바이너리 프레임을 비동기로 쓴다.
+ *
+ * WebSocketSession.sendMessage 는 다 쓸 때까지 호출 스레드를 막으므로, 컨테이너(Tomcat)의 JSR-356 비동기 송신
+ * (RemoteEndpoint.Async)을 직접 쓴다. 비동기 송신은 한 번에 하나만 진행할 수 있으며, CoalescingFrameWriter 가 이를 지킨다.
+ * 프레임 버퍼는 송신 완료 콜백(done) 뒤에 풀로 돌아가므로, 컨테이너가 다 쓸 때까지 그대로 유지된다.
+ */
+public final class NativeSessionSink implements CoalescingFrameWriter.FrameSink {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeSessionSink.class);
+
+    private final WebSocketSession session;
+    private final RemoteEndpoint.Async remote;
+
+    public NativeSessionSink(WebSocketSession session) {
+        this.session = session;
+        Session nativeSession = ((NativeWebSocketSession) session).getNativeSession(Session.class);
+        if (nativeSession == null) {
+            throw new IllegalStateException("JSR-356 session is not available: " + session.getClass().getName());
+        }
+        this.remote = nativeSession.getAsyncRemote();
+    }
+
+    @Override
+    public void write(ByteBuffer frame, Consumer<Throwable> done) {
+        remote.sendBinary(frame, result -> done.accept(result.isOK() ? null : result.getException()));
+    }
+
+    @Override
+    public void close(String reason) {
+        log.warn("[WebSocket Service] 세션 종료: id={}, reason={}", session.getId(), reason);
+        try {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(reason));
+        } catch (IOException e) {
+            log.warn("[WebSocket Service] 세션 종료 실패: id={}, {}", session.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.websocket.session;
+
+import com.example.frames.CoalescingFrameWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 엔드포인트 하나의 세션별 송신기 목록과 송신 지표.
+ *
+ * 지표(endpoint 태그): msa_websocket_sessions, msa_websocket_frames_sent_total, msa_websocket_messages_sent_total,
+ * msa_websocket_dropped_messages_total. messages / frames 가 프레임 하나에 묶인 평균 메시지 수다.
+ * 열린 세션은 조회할 때 합산하고, 닫힌 세션의 값은 닫을 때 누적해 둔다.
+ */
+public final class SessionWriters<T> {
+
+    private final Map<String, CoalescingFrameWriter<T>> writers = new ConcurrentHashMap<>();
+    private final LongAdder closedFrames = new LongAdder();
+    private final LongAdder closedMessages = new LongAdder();
+    private final LongAdder closedDropped = new LongAdder();
+
+    public SessionWriters(String endpoint, MeterRegistry registry) {
+        Gauge.builder("msa.websocket.sessions", writers, Map::size)
+                .description("열린 WebSocket 세션 수")
+                .tag("endpoint", endpoint)
+                .register(registry);
+        counter(registry, endpoint, "msa.websocket.frames.sent", "보낸 바이너리 프레임 수", closedFrames, CoalescingFrameWriter::frames);
+        counter(registry, endpoint, "msa.websocket.messages.sent", "보낸 메시지 수 (프레임 하나에 여러 개)", closedMessages,
+                CoalescingFrameWriter::messages);
+        counter(registry, endpoint, "msa.websocket.dropped.messages", "송신 버퍼가 가득 차서 버린 메시지 수", closedDropped,
+                CoalescingFrameWriter::dropped);
+    }
+
+    public void add(String sessionId, CoalescingFrameWriter<T> writer) {
+        writers.put(sessionId, writer);
+    }
+
+    public CoalescingFrameWriter<T> get(String sessionId) {
+        return writers.get(sessionId);
+    }
+
+    // 세션이 끝났다. 송신기를 닫고 지표를 누적한다.
+    public CoalescingFrameWriter<T> remove(String sessionId) {
+        CoalescingFrameWriter<T> writer = writers.remove(sessionId);
+        if (writer != null) {
+            writer.close();
+            closedFrames.add(writer.frames());
+            closedMessages.add(writer.messages());
+            closedDropped.add(writer.dropped());
+        }
+        return writer;
+    }
+
+    private void counter(MeterRegistry registry, String endpoint, String name, String description, LongAdder closed,
+                         ToLongFunction<CoalescingFrameWriter<T>> live) {
+        FunctionCounter.builder(name, this, sessions -> {
+                    long total = closed.sum();
+                    for (CoalescingFrameWriter<T> writer : sessions.writers.values()) {
+                        total += live.applyAsLong(writer);
+                    }
+                    return total;
+                })
+                .description(description)
+                .tag("endpoint", endpoint)
+                .register(registry);
+    }
+}